@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * A view of a {@link Region} whose operations return a {@link CompletableFuture} instead of
+ * waiting for the operation to be done. An async region is obtained with {@link Region#async()}.
+ * <p>
+ * On a client region that does not store data ({@link DataPolicy#EMPTY}) and has no cache listener,
+ * writer or loader, gets, puts and removes are sent to the server without a thread waiting for the
+ * response: the future is completed by the thread that reads the responses of the connection. The
+ * other operations are done by a shared pool of threads with the blocking methods of the region. If
+ * too many operations are already waiting for those threads, set with the
+ * gemfire.AsyncRegion.MAX_QUEUED system property, the future of a new one fails with a
+ * {@link java.util.concurrent.RejectedExecutionException}. An operation invoked by a thread that is
+ * in a transaction is done by that thread before the future is returned, so that it is part of the
+ * transaction.
+ * <p>
+ * The arguments are checked before the operation is started so an illegal argument is thrown by the
+ * method rather than failing the future. Any other exception the blocking method would throw fails
+ * the future.
+ * <p>
+ * Dependent stages added with the non-async methods of the future may run in a thread that reads
+ * responses from a server. Work that blocks should be added with the async methods of the future.
+ *
+ * @since Geode 1.8
+ */
+public interface AsyncRegion<K, V> {
+
+  /**
+   * Returns the region this is a view of.
+   */
+  Region<K, V> getRegion();
+
+  /**
+   * Gets the value of the given key as {@link Region#get(Object)} does.
+   *
+   * @param key the key of the value to get
+   * @return a future completed with the value, or with null if there is none
+   * @throws NullPointerException if key is null
+   */
+  CompletableFuture<V> getAsync(Object key);
+
+  /**
+   * Puts the given value as {@link Region#put(Object, Object)} does.
+   *
+   * @param key the key of the value
+   * @param value the value to put
+   * @return a future completed with the previous value, or with null if there was none or if the
+   *         region is a client proxy
+   * @throws NullPointerException if key or value is null
+   */
+  CompletableFuture<V> putAsync(K key, V value);
+
+  /**
+   * Gets the values of the given keys as {@link Region#getAll(Collection)} does.
+   *
+   * @param keys the keys of the values to get
+   * @return a future completed with a map of the keys to their values
+   * @throws NullPointerException if keys is null
+   */
+  CompletableFuture<Map<K, V>> getAllAsync(Collection<?> keys);
+
+  /**
+   * Gets the values of the given keys with a {@link Region#getAll(Collection)} of each chunk of at
+   * most chunkSize keys, several chunks at a time, and passes the values of each chunk to the
+   * consumer as soon as they are received. On a client region whose server region is partitioned
+   * and whose pool has single hop enabled, the keys of a chunk all have the primary of their bucket
+   * on the same server and the chunks of every server are requested at once. This lets a very
+   * large number of keys be read without holding all of their values at once.
+   *
+   * @param keys the keys of the values to get
+   * @param chunkSize the most keys of one getAll
+   * @param consumer receives a map of the keys of each chunk to their values; it may be called by
+   *        several threads at once
+   * @return a future completed once the values of every chunk were passed to the consumer, or
+   *         failed with the exception of the first chunk that fails, after which no other chunk is
+   *         started
+   * @throws NullPointerException if keys or consumer is null
+   * @throws IllegalArgumentException if chunkSize is not positive
+   */
+  CompletableFuture<Void> getAllAsync(Collection<?> keys, int chunkSize,
+      Consumer<Map<K, V>> consumer);
+
+  /**
+   * Puts the entries of the given map with a {@link Region#putAll(Map)} of each chunk of at most
+   * chunkSize entries, several chunks at a time, and passes each chunk to the consumer once it is
+   * put. On a client region whose server region is partitioned and whose pool has single hop
+   * enabled, the keys of a chunk all have the primary of their bucket on the same server and the
+   * chunks of every server are sent at once.
+   *
+   * @param map the entries to put
+   * @param chunkSize the most entries of one putAll
+   * @param consumer receives each chunk once it is put; it may be called by several threads at once
+   * @return a future completed once every chunk was put and passed to the consumer, or failed with
+   *         the exception of the first chunk that fails, after which no other chunk is started
+   * @throws NullPointerException if map or consumer is null
+   * @throws IllegalArgumentException if chunkSize is not positive
+   */
+  CompletableFuture<Void> putAllAsync(Map<? extends K, ? extends V> map, int chunkSize,
+      Consumer<Map<K, V>> consumer);
+
+  /**
+   * Removes the entry of the given key as {@link Region#remove(Object)} does.
+   *
+   * @param key the key of the entry to remove
+   * @return a future completed with the removed value, or with null if there was none or if the
+   *         region is a client proxy
+   * @throws NullPointerException if key is null
+   */
+  CompletableFuture<V> removeAsync(Object key);
+}
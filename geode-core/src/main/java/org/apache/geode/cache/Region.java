@@ -2670,6 +2670,19 @@ public interface Region<K, V> extends ConcurrentMap<K, V> {
    */
   V replace(K key, V value);
 
+  /**
+   * Returns a view of this region whose get, put, getAll and remove operations return a
+   * {@link java.util.concurrent.CompletableFuture} instead of waiting for the operation to be done.
+   *
+   * @return the async view of this region
+   * @throws UnsupportedOperationException if this region does not have an async view
+   * @see AsyncRegion
+   * @since Geode 1.8
+   */
+  default AsyncRegion<K, V> async() {
+    throw new UnsupportedOperationException();
+  }
+
   /**
    * A key-value pair containing the cached data in a region. This object's operations (except
    * for{Entry#setValue()}), are not distributed, do not acquire any locks, and do not affect
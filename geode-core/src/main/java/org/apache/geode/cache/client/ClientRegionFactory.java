@@ -276,6 +276,26 @@ public interface ClientRegionFactory<K, V> {
    */
   ClientRegionFactory<K, V> setCompressor(Compressor compressor);
 
+  /**
+   * Sets whether the region is a near cache of the server's region. A near cache keeps the entries
+   * it reads and writes coherent with the server without receiving every update of the server's
+   * region: before the client first reads or writes a key on the server it subscribes to
+   * invalidates of that key, and it unsubscribes once the cached entry is destroyed, for example by
+   * eviction or expiration. Reads of cached entries need no request to the server.
+   * <p>
+   * The pool of a near cache must have subscriptions enabled and the region must store data, like a
+   * {@link ClientRegionShortcut#CACHING_PROXY} region does. If no eviction attributes are set the
+   * region evicts the least recently used entries once they take more than the default memory
+   * maximum of {@link EvictionAttributes#createLRUMemoryAttributes()}. Entries can be given a time
+   * to live with {@link #setEntryTimeToLive}. Statistics are enabled so the hit and miss counts of
+   * the near cache are those of {@link Region#getStatistics()}.
+   *
+   * @param nearCache whether the region is a near cache
+   * @return a reference to this ClientRegionFactory object
+   * @since Geode 1.8
+   */
+  ClientRegionFactory<K, V> setNearCache(boolean nearCache);
+
   /**
    * Creates a region in the {@link ClientCache} using the configuration contained in this
    * ClientRegionFactory. Validation of the provided attributes may cause exceptions to be thrown if
@@ -363,6 +363,10 @@ public abstract class AbstractOp implements Op {
    * Set to true if this attempt timed out
    */
   protected boolean timedOut;
+  /**
+   * The start of a pipelined attempt whose response has not been read yet
+   */
+  private long pipelinedStart;
 
   /*
    * (non-Javadoc)
@@ -396,6 +400,70 @@ public abstract class AbstractOp implements Op {
     }
   }
 
+  /**
+   * Attempts to execute this operation on a connection that other threads send requests on at the
+   * same time. Unlike {@link #attempt} the response is processed after the connection has moved on
+   * to the next response.
+   *
+   * @see #supportsPipelining()
+   */
+  Object attemptPipelined(PipelinedConnection cnx) throws Exception {
+    return completePipelined(cnx, sendPipelined(cnx));
+  }
+
+  /**
+   * Starts an attempt to execute this operation on a pipelined connection by sending its request.
+   * If the request was sent the attempt has to be finished with {@link #completePipelined}, which
+   * may be called by another thread.
+   *
+   * @return the position of the request, used to read its response
+   */
+  long sendPipelined(PipelinedConnection cnx) throws Exception {
+    this.failed = true;
+    this.timedOut = false;
+    long start = startAttempt(cnx.getStats());
+    boolean sent = false;
+    try {
+      long position;
+      try {
+        position = cnx.send(this);
+        this.failed = false;
+      } finally {
+        endSendAttempt(cnx.getStats(), start);
+      }
+      this.pipelinedStart = start;
+      sent = true;
+      return position;
+    } finally {
+      if (!sent) {
+        endAttempt(cnx.getStats(), start);
+      }
+    }
+  }
+
+  /**
+   * Finishes an attempt started with {@link #sendPipelined} by reading and processing the response
+   * to the request at the given position.
+   */
+  Object completePipelined(PipelinedConnection cnx, long position) throws Exception {
+    try {
+      this.failed = true;
+      Message msg = createResponseMessage();
+      try {
+        cnx.receive(position, msg);
+      } catch (SocketTimeoutException ste) {
+        this.failed = false;
+        this.timedOut = true;
+        throw ste;
+      }
+      Object result = processResponse(msg, cnx);
+      this.failed = false;
+      return result;
+    } finally {
+      endAttempt(cnx.getStats(), this.pipelinedStart);
+    }
+  }
+
   protected boolean hasFailed() {
     return this.failed;
   }
@@ -420,6 +488,30 @@ public abstract class AbstractOp implements Op {
     return true;
   }
 
+  /**
+   * Subclasses should override this method to return true if this op can be sent on a connection
+   * that is waiting for the responses to other requests. Such an op reads a single, not chunked,
+   * response message with the default {@link #attemptReadResponse} and does not send any other
+   * message on the connection while processing it.
+   *
+   * @return true if the op can be sent on a pipelined connection
+   */
+  protected boolean supportsPipelining() {
+    return false;
+  }
+
+  /**
+   * Subclasses should override this method to return false if the time this op takes depends on
+   * the work it asks the server to do, such as a query or a function execution, rather than on how
+   * quickly the server answers. Such an op does not count towards the latency of the server.
+   *
+   * @return true if the time this op takes is a sample of the latency of the server
+   * @see EndpointManager#getSlowServers()
+   */
+  protected boolean measuresLatency() {
+    return true;
+  }
+
   @Override
   public boolean useThreadLocalConnection() {
     return true;
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.TXManagerImpl;
+
+/**
+ * Does a bulk operation, such as a getAll or putAll, on chunks of its keys in parallel. The keys of
+ * a client region whose server region is partitioned are first split by the server that hosts the
+ * primary of their bucket, so that the keys of a chunk all go to the same server, and then each
+ * server's keys are split into chunks of at most the requested size. The chunks of each server are
+ * done by the {@link SingleHopClientExecutor} threads, a few of them at a time, so every server
+ * works on its chunks at once while none of them gets more requests than it has connections for.
+ * The operation of a chunk is done as soon as the chunk can be, which lets the caller consume the
+ * results of each chunk as its server answers instead of once all of them have.
+ *
+ * @since Geode 1.8
+ */
+public class ChunkedBulkOp {
+
+  /**
+   * The most chunks of one server that are done at the same time.
+   */
+  static final int CHUNKS_IN_FLIGHT_PER_SERVER = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "ChunkedBulkOp.CHUNKS_IN_FLIGHT_PER_SERVER", 2);
+
+  private ChunkedBulkOp() {
+    // no instances allowed
+  }
+
+  /**
+   * Does the given operation on chunks of the given keys.
+   *
+   * @param region the region the keys belong to
+   * @param keys the keys to split
+   * @param chunkSize the most keys of a chunk
+   * @param operation the operation to do on each chunk; it may be called by several threads at
+   *        once
+   * @return a future completed once the operation of every chunk is done, or failed with the
+   *         exception of the first chunk that fails, after which no other chunk is started
+   */
+  public static <T> CompletableFuture<Void> execute(LocalRegion region, Collection<T> keys,
+      int chunkSize, Consumer<List<T>> operation) {
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("The chunk size must be positive but was " + chunkSize);
+    }
+    List<Queue<List<T>>> serverChunks = split(region, keys, chunkSize);
+    CompletableFuture<Void> result = new CompletableFuture<>();
+    if (TXManagerImpl.getCurrentTXState() != null) {
+      // the transaction belongs to the calling thread so its chunks are done by it
+      Runnable worker = newWorker(new AtomicInteger(1), result, operation,
+          new ConcurrentLinkedQueue<>(flatten(serverChunks)));
+      worker.run();
+      return result;
+    }
+    List<Runnable> workers = new ArrayList<>();
+    AtomicInteger remainingWorkers = new AtomicInteger();
+    for (Queue<List<T>> chunks : serverChunks) {
+      int workerCount = Math.min(chunks.size(), Math.max(1, CHUNKS_IN_FLIGHT_PER_SERVER));
+      remainingWorkers.addAndGet(workerCount);
+      for (int i = 0; i < workerCount; i++) {
+        workers.add(newWorker(remainingWorkers, result, operation, chunks));
+      }
+    }
+    if (workers.isEmpty()) {
+      result.complete(null);
+    }
+    for (Runnable worker : workers) {
+      try {
+        SingleHopClientExecutor.submitTask(worker);
+      } catch (RejectedExecutionException e) {
+        result.completeExceptionally(e);
+        break;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Splits the given keys into chunks of at most the given size, grouped by the server that hosts
+   * the primary of their bucket if the region's pool sends operations to it.
+   *
+   * @return the chunks of each server, or of all the keys if they are not split by server
+   */
+  static <T> List<Queue<List<T>>> split(LocalRegion region, Collection<T> keys, int chunkSize) {
+    Collection<? extends Collection<T>> serverKeys = null;
+    ServerRegionProxy proxy = region.getServerProxy();
+    if (proxy != null && proxy.getPool().getPRSingleHopEnabled()) {
+      ClientMetadataService cms = region.getCache().getClientMetadataService();
+      Map<ServerLocation, HashSet> serverToKeys = cms.getServerToFilterMap(keys, region, true);
+      if (serverToKeys != null && !serverToKeys.isEmpty()) {
+        @SuppressWarnings("unchecked")
+        Collection<HashSet<T>> values = (Collection) serverToKeys.values();
+        serverKeys = values;
+      }
+    }
+    if (serverKeys == null) {
+      serverKeys = Collections.singletonList(keys);
+    }
+    List<Queue<List<T>>> serverChunks = new ArrayList<>(serverKeys.size());
+    for (Collection<T> someKeys : serverKeys) {
+      Queue<List<T>> chunks = new ConcurrentLinkedQueue<>();
+      List<T> chunk = null;
+      for (T key : someKeys) {
+        if (chunk == null || chunk.size() == chunkSize) {
+          chunk = new ArrayList<>(Math.min(chunkSize, someKeys.size()));
+          chunks.add(chunk);
+        }
+        chunk.add(key);
+      }
+      if (!chunks.isEmpty()) {
+        serverChunks.add(chunks);
+      }
+    }
+    return serverChunks;
+  }
+
+  private static <T> List<List<T>> flatten(List<Queue<List<T>>> serverChunks) {
+    List<List<T>> chunks = new ArrayList<>();
+    for (Queue<List<T>> someChunks : serverChunks) {
+      chunks.addAll(someChunks);
+    }
+    return chunks;
+  }
+
+  /**
+   * Returns a task that does the operation of the given chunks until there are none left or one
+   * fails, and completes the result if it is the last task to finish.
+   */
+  private static <T> Runnable newWorker(AtomicInteger remainingWorkers,
+      CompletableFuture<Void> result, Consumer<List<T>> operation, Queue<List<T>> chunks) {
+    return () -> {
+      try {
+        List<T> chunk;
+        while (!result.isDone() && (chunk = chunks.poll()) != null) {
+          operation.accept(chunk);
+        }
+      } catch (RuntimeException | Error e) {
+        result.completeExceptionally(e);
+      } finally {
+        if (remainingWorkers.decrementAndGet() == 0) {
+          result.complete(null);
+        }
+      }
+    };
+  }
+}
@@ -124,6 +124,61 @@ public class ClientMetadataService {
     if (prAdvisor == null) {
       return null;
     }
+    int bucketId = getBucketId(region, prAdvisor, operation, key, value, callbackArg);
+    if (bucketId == -1) {
+      return null;
+    }
+
+    ServerLocation bucketServerLocation = getServerLocation(region, operation, bucketId);
+    ServerLocation location = null;
+    if (bucketServerLocation != null) {
+      location =
+          new ServerLocation(bucketServerLocation.getHostName(), bucketServerLocation.getPort());
+    }
+    return location;
+  }
+
+  /**
+   * Returns the locations of all the servers that host a copy of the bucket of the given key, the
+   * primary as well as the redundant ones, any of which can serve a get of the key.
+   *
+   * @return the locations, or null if the metadata of the region or bucket is not known
+   */
+  public List<ServerLocation> getBucketServerLocations(Region region, Object key,
+      Object callbackArg) {
+    ClientPartitionAdvisor prAdvisor = this.getClientPartitionAdvisor(region.getFullPath());
+    if (prAdvisor == null) {
+      return null;
+    }
+    int bucketId = getBucketId(region, prAdvisor, Operation.GET, key, null, callbackArg);
+    if (bucketId == -1) {
+      return null;
+    }
+    List<BucketServerLocation66> bucketServerLocations = prAdvisor.adviseServerLocations(bucketId);
+    if (bucketServerLocations == null) {
+      return null;
+    }
+    List<ServerLocation> locations = new ArrayList<>(bucketServerLocations.size());
+    for (BucketServerLocation66 bucketServerLocation : bucketServerLocations) {
+      locations.add(
+          new ServerLocation(bucketServerLocation.getHostName(), bucketServerLocation.getPort()));
+    }
+    return locations;
+  }
+
+  /**
+   * Returns true if the servers told this client that the given region is not partitioned. This is
+   * only known once the metadata of the region has been asked for.
+   */
+  public boolean isNonPartitionedRegion(String regionFullPath) {
+    return this.nonPRs.contains(regionFullPath);
+  }
+
+  /**
+   * Returns the bucket of the given key, or -1 if the bucket of its fixed partition is not known.
+   */
+  private int getBucketId(Region region, ClientPartitionAdvisor prAdvisor, Operation operation,
+      Object key, Object value, Object callbackArg) {
     int totalNumberOfBuckets = prAdvisor.getTotalNumBuckets();
 
     final PartitionResolver resolver = getResolver(region, key, callbackArg);
@@ -142,7 +197,6 @@ public class ClientMetadataService {
                 .toLocalizedString());
       }
     }
-    int bucketId;
     if (resolver instanceof FixedPartitionResolver) {
       if (entryOp == null) {
         entryOp = new EntryOperationImpl(region, Operation.FUNCTION_EXECUTION, key, null, null);
@@ -154,24 +208,10 @@ public class ClientMetadataService {
         throw new IllegalStateException(
             LocalizedStrings.PartitionedRegionHelper_FOR_REGION_0_PARTITIONRESOLVER_1_RETURNED_PARTITION_NAME_NULL
                 .toLocalizedString(prms));
-      } else {
-        bucketId = prAdvisor.assignFixedBucketId(region, partition, resolveKey);
-        if (bucketId == -1) {
-          return null;
-        }
-
       }
-    } else {
-      bucketId = PartitionedRegionHelper.getHashKey(resolveKey, totalNumberOfBuckets);
-    }
-
-    ServerLocation bucketServerLocation = getServerLocation(region, operation, bucketId);
-    ServerLocation location = null;
-    if (bucketServerLocation != null) {
-      location =
-          new ServerLocation(bucketServerLocation.getHostName(), bucketServerLocation.getPort());
+      return prAdvisor.assignFixedBucketId(region, partition, resolveKey);
     }
-    return location;
+    return PartitionedRegionHelper.getHashKey(resolveKey, totalNumberOfBuckets);
   }
 
   private ServerLocation getServerLocation(Region region, Operation operation, int bucketId) {
@@ -16,8 +16,10 @@ package org.apache.geode.cache.client.internal;
 
 import static org.apache.commons.lang.StringUtils.isEmpty;
 
+import java.io.IOException;
 import java.util.Objects;
 
+import org.apache.geode.InternalGemFireError;
 import org.apache.geode.cache.AttributesFactory;
 import org.apache.geode.cache.CacheListener;
 import org.apache.geode.cache.CustomExpiry;
@@ -32,9 +34,12 @@ import org.apache.geode.cache.SubscriptionAttributes;
 import org.apache.geode.cache.client.ClientRegionFactory;
 import org.apache.geode.cache.client.ClientRegionShortcut;
 import org.apache.geode.cache.client.Pool;
+import org.apache.geode.cache.client.PoolManager;
+import org.apache.geode.cache.client.SubscriptionNotEnabledException;
 import org.apache.geode.compression.Compressor;
 import org.apache.geode.internal.cache.GemFireCacheImpl;
 import org.apache.geode.internal.cache.InternalRegion;
+import org.apache.geode.internal.cache.InternalRegionArguments;
 import org.apache.geode.internal.cache.UserSpecifiedRegionAttributes;
 
 /**
@@ -46,6 +51,7 @@ import org.apache.geode.internal.cache.UserSpecifiedRegionAttributes;
 public class ClientRegionFactoryImpl<K, V> implements ClientRegionFactory<K, V> {
   private final AttributesFactory<K, V> attrsFactory;
   private final InternalClientCache cache;
+  private boolean nearCache;
 
   /**
    * Constructs a ClientRegionFactory by creating a DistributedSystem and a Cache. If no
@@ -206,17 +212,34 @@ public class ClientRegionFactoryImpl<K, V> implements ClientRegionFactory<K, V>
     return this;
   }
 
+  @Override
+  public ClientRegionFactory<K, V> setNearCache(boolean nearCache) {
+    this.nearCache = nearCache;
+    return this;
+  }
+
   @SuppressWarnings("unchecked")
   @Override
   public Region<K, V> create(String name) throws RegionExistsException {
-    return getCache().basicCreateRegion(name, createRegionAttributes());
+    return getCache().basicCreateRegion(name, createRegionAttributes(),
+        new InternalRegionArguments().setNearCache(this.nearCache));
   }
 
   @SuppressWarnings("unchecked")
   @Override
   public Region<K, V> createSubregion(Region<?, ?> parent, String name)
       throws RegionExistsException {
-    return ((InternalRegion) parent).createSubregion(name, createRegionAttributes());
+    if (!this.nearCache) {
+      return ((InternalRegion) parent).createSubregion(name, createRegionAttributes());
+    }
+    try {
+      return ((InternalRegion) parent).createSubregion(name, createRegionAttributes(),
+          new InternalRegionArguments().setDestroyLockFlag(true).setRecreateFlag(false)
+              .setNearCache(true));
+    } catch (IOException | ClassNotFoundException e) {
+      // only happens when loading a snapshot, not here
+      throw new InternalGemFireError(e);
+    }
   }
 
   @SuppressWarnings("deprecation")
@@ -235,6 +258,28 @@ public class ClientRegionFactoryImpl<K, V> implements ClientRegionFactory<K, V>
         }
       }
     }
+    if (this.nearCache) {
+      ra = createNearCacheAttributes(ra);
+    }
     return ra;
   }
+
+  private RegionAttributes<K, V> createNearCacheAttributes(RegionAttributes<K, V> ra) {
+    if (!ra.getDataPolicy().withStorage()) {
+      throw new IllegalStateException(
+          "A near cache region must store data but its data policy is " + ra.getDataPolicy());
+    }
+    Pool pool = PoolManager.find(ra.getPoolName());
+    if (pool != null && !pool.getSubscriptionEnabled()) {
+      throw new SubscriptionNotEnabledException(
+          "A near cache region requires a pool whose subscription is enabled.");
+    }
+    // a copy, so that regions created later with this factory are not changed
+    AttributesFactory<K, V> nearCacheAttrsFactory = new AttributesFactory<>(ra);
+    if (ra.getEvictionAttributes().getAlgorithm().isNone()) {
+      nearCacheAttrsFactory.setEvictionAttributes(EvictionAttributes.createLRUMemoryAttributes());
+    }
+    nearCacheAttrsFactory.setStatisticsEnabled(true);
+    return nearCacheAttrsFactory.create();
+  }
 }
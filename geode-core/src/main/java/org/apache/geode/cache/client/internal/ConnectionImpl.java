@@ -272,6 +272,13 @@ public class ConnectionImpl implements Connection {
         } finally {
           this.getSocket().setSoTimeout(earliertimeout);
         }
+      } else if (EndpointManagerImpl.LATENCY_AWARE_SELECTION && measuresLatency(op)) {
+        long start = endpoint.opStarted();
+        try {
+          result = op.attempt(this);
+        } finally {
+          endpoint.opEnded(start);
+        }
       } else {
         result = op.attempt(this);
       }
@@ -282,6 +289,10 @@ public class ConnectionImpl implements Connection {
   }
 
 
+  private static boolean measuresLatency(Op op) {
+    return !(op instanceof AbstractOp) || ((AbstractOp) op).measuresLatency();
+  }
+
   public static void loadEmergencyClasses() {
     // do nothing
   }
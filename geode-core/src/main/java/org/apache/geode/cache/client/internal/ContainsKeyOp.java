@@ -86,6 +86,11 @@ public class ContainsKeyOp {
       stats.endContainsKey(start, hasTimedOut(), hasFailed());
     }
 
+    @Override
+    protected boolean supportsPipelining() {
+      return true;
+    }
+
     @Override
     public String toString() {
       return "ContainsKeyOp(region=" + region + ";key=" + key + ";mode=" + mode;
@@ -14,6 +14,9 @@
  */
 package org.apache.geode.cache.client.internal;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.cache.CacheClosedException;
@@ -87,6 +90,35 @@ public class DestroyOp {
     return pool.execute(op);
   }
 
+  /**
+   * Does a region entry destroy on a server without waiting for the response, if the pool can send
+   * it on a connection that is waiting for other responses. Otherwise, or if that fails, the
+   * destroy is done with {@link #execute} by a thread of the given executor.
+   *
+   * @return a future completed with the result of the destroy
+   */
+  public static CompletableFuture<Object> executeAsync(PoolImpl pool, LocalRegion region,
+      Object key, Operation operation, EntryEventImpl event, Object callbackArg,
+      boolean prSingleHopEnabled, Executor executor) {
+    DestroyOpImpl op = new DestroyOpImpl(region, key, null, operation, event, callbackArg,
+        prSingleHopEnabled);
+    ServerLocation server = null;
+    boolean onlyUseExistingCnx = false;
+    if (prSingleHopEnabled) {
+      ClientMetadataService cms = region.getCache().getClientMetadataService();
+      ServerLocation bucketServer =
+          cms.getBucketServerLocation(region, Operation.DESTROY, key, null, callbackArg);
+      if (bucketServer != null) {
+        server = bucketServer;
+        onlyUseExistingCnx = pool.getMaxConnections() != -1
+            && pool.getConnectionCount() >= pool.getMaxConnections();
+        op.setAllowDuplicateMetadataRefresh(!onlyUseExistingCnx);
+      }
+    }
+    return pool.executeAsync(server, op, onlyUseExistingCnx, () -> execute(pool, region, key, null,
+        operation, event, callbackArg, prSingleHopEnabled), executor);
+  }
+
   /**
    * Does a region entry destroy on a server using the given connection to communicate with the
    * server.
@@ -256,6 +288,11 @@ public class DestroyOp {
       stats.endDestroy(start, hasTimedOut(), hasFailed());
     }
 
+    @Override
+    protected boolean supportsPipelining() {
+      return true;
+    }
+
     @Override
     public String toString() {
       return "DestroyOp:" + key;
@@ -14,8 +14,10 @@
  */
 package org.apache.geode.cache.client.internal;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
 import org.apache.geode.distributed.DistributedMember;
 import org.apache.geode.distributed.DistributedSystem;
@@ -29,17 +31,39 @@ import org.apache.geode.distributed.internal.ServerLocation;
  */
 public class Endpoint {
 
+  /**
+   * The time over which the latency samples of a server are averaged. A server that answered no op
+   * for this long has no known latency.
+   */
+  static final long LATENCY_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
   private AtomicLong lastExecute = new AtomicLong();
   private AtomicInteger references = new AtomicInteger();
+
+  /** the ops sent to the server whose response has not been read yet */
+  private final AtomicInteger pendingOps = new AtomicInteger();
+  /** the average latency of the ops, weighted by how recently they were answered */
+  private volatile long averageLatency = -1;
+  private volatile long lastLatencySample;
+  /** the last time an op was answered, or that one was sent while none was pending */
+  private volatile long lastProgress;
   private final ServerLocation location;
   private final ConnectionStats stats;
   private final EndpointManagerImpl manager;
   private final DistributedMember memberId;
   private volatile boolean closed;
+  /** the {@link System#nanoTime()} the latency of the ops is measured with */
+  private final LongSupplier nanoClock;
 
   Endpoint(EndpointManagerImpl endpointManager, DistributedSystem ds, ServerLocation location,
       ConnectionStats stats, DistributedMember memberId) {
+    this(endpointManager, ds, location, stats, memberId, System::nanoTime);
+  }
+
+  Endpoint(EndpointManagerImpl endpointManager, DistributedSystem ds, ServerLocation location,
+      ConnectionStats stats, DistributedMember memberId, LongSupplier nanoClock) {
     this.manager = endpointManager;
+    this.nanoClock = nanoClock;
     this.location = location;
     this.stats = stats;
     this.memberId = memberId;
@@ -59,6 +83,58 @@ public class Endpoint {
     return getLastExecute() <= (now - pingIntervalNanos);
   }
 
+  /**
+   * Records that an op was sent to the server.
+   *
+   * @return the time the op was sent, to be passed to {@link #opEnded(long)}
+   */
+  long opStarted() {
+    long now = this.nanoClock.getAsLong();
+    if (this.pendingOps.getAndIncrement() == 0) {
+      this.lastProgress = now;
+    }
+    return now;
+  }
+
+  /**
+   * Records that the response of an op sent at the given time was read, or that the op failed.
+   */
+  void opEnded(long startTime) {
+    long now = this.nanoClock.getAsLong();
+    this.pendingOps.decrementAndGet();
+    this.lastProgress = now;
+    synchronized (this.pendingOps) {
+      long latency = now - startTime;
+      long average = this.averageLatency;
+      if (average >= 0) {
+        // the older the average, the less it weighs against the new sample
+        double weight = Math.exp(-(double) (now - this.lastLatencySample) / LATENCY_WINDOW_NANOS);
+        latency = (long) (weight * average + (1 - weight) * latency);
+      }
+      this.averageLatency = latency;
+      this.lastLatencySample = now;
+    }
+  }
+
+  /**
+   * Returns the latency of the server as seen by this client: the average latency of its recent
+   * ops, or how long it has had ops pending without answering any if that is longer.
+   *
+   * @param now the current time of the clock the ops are measured with
+   * @return the latency in nanoseconds, or -1 if it is not known because the server answered no op
+   *         recently
+   */
+  long getLatency(long now) {
+    long latency = this.averageLatency;
+    if (latency >= 0 && now - this.lastLatencySample > LATENCY_WINDOW_NANOS) {
+      latency = -1;
+    }
+    if (this.pendingOps.get() > 0) {
+      latency = Math.max(latency, now - this.lastProgress);
+    }
+    return latency;
+  }
+
   public void close() {
     if (!closed) {
       closed = true;
@@ -15,6 +15,7 @@
 package org.apache.geode.cache.client.internal;
 
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.geode.distributed.DistributedMember;
 import org.apache.geode.distributed.internal.ServerLocation;
@@ -72,6 +73,13 @@ public interface EndpointManager {
    */
   int getConnectedServerCount();
 
+  /**
+   * Returns the servers whose recent latency is much higher than that of the fastest server, for
+   * example because they are in a long garbage collection pause. A server whose latency is not
+   * known is never slow.
+   */
+  Set<ServerLocation> getSlowServers();
+
   interface EndpointListener {
 
     void endpointNoLongerInUse(Endpoint endpoint);
@@ -21,6 +21,8 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
 import org.apache.logging.log4j.Logger;
 
@@ -29,6 +31,7 @@ import org.apache.geode.cache.CacheClosedException;
 import org.apache.geode.cache.client.PoolManager;
 import org.apache.geode.distributed.DistributedMember;
 import org.apache.geode.distributed.DistributedSystem;
+import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.distributed.internal.ServerLocation;
 import org.apache.geode.internal.cache.PoolStats;
 import org.apache.geode.internal.cache.tier.InternalClientMembership;
@@ -38,6 +41,27 @@ import org.apache.geode.internal.statistics.DummyStatisticsFactory;
 public class EndpointManagerImpl implements EndpointManager {
   private static final Logger logger = LogService.getLogger();
 
+  /**
+   * Whether pools track the latency of their servers and avoid the slow ones when they pick a
+   * connection for an op that may go to any server.
+   */
+  public static final boolean LATENCY_AWARE_SELECTION =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "PoolImpl.LATENCY_AWARE_SELECTION");
+
+  /**
+   * How many times the latency of the fastest server the latency of a server has to be for it to be
+   * slow.
+   */
+  static final int SLOW_SERVER_LATENCY_FACTOR = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "PoolImpl.SLOW_SERVER_LATENCY_FACTOR", 3);
+
+  /**
+   * How many milliseconds the latency of a server has to exceed that of the fastest server for it
+   * to be slow, so that servers that all answer quickly are not told apart by noise.
+   */
+  static final long SLOW_SERVER_LATENCY_MARGIN_NANOS = TimeUnit.MILLISECONDS.toNanos(Long
+      .getLong(DistributionConfig.GEMFIRE_PREFIX + "PoolImpl.SLOW_SERVER_LATENCY_MARGIN", 2));
+
   private volatile Map<ServerLocation, Endpoint> endpointMap = Collections.emptyMap();
   private final Map/* <ServerLocation, ConnectionStats> */<ServerLocation, ConnectionStats> statMap =
       new HashMap<ServerLocation, ConnectionStats>();
@@ -46,9 +70,17 @@ public class EndpointManagerImpl implements EndpointManager {
   private final EndpointListenerBroadcaster listener = new EndpointListenerBroadcaster();
   protected final CancelCriterion cancelCriterion;
   private final PoolStats poolStats;
+  /** the {@link System#nanoTime()} the latency of the servers is measured with */
+  private final LongSupplier nanoClock;
 
   public EndpointManagerImpl(String poolName, DistributedSystem ds, CancelCriterion cancelCriterion,
       PoolStats poolStats) {
+    this(poolName, ds, cancelCriterion, poolStats, System::nanoTime);
+  }
+
+  EndpointManagerImpl(String poolName, DistributedSystem ds, CancelCriterion cancelCriterion,
+      PoolStats poolStats, LongSupplier nanoClock) {
+    this.nanoClock = nanoClock;
     this.ds = ds;
     this.poolName = poolName;
     this.cancelCriterion = cancelCriterion;
@@ -72,7 +104,7 @@ public class EndpointManagerImpl implements EndpointManager {
           ConnectionStats stats = getStats(server);
           Map<ServerLocation, Endpoint> endpointMapTemp =
               new HashMap<ServerLocation, Endpoint>(endpointMap);
-          endpoint = new Endpoint(this, ds, server, stats, memberId);
+          endpoint = new Endpoint(this, ds, server, stats, memberId, nanoClock);
           listener.clearPdxRegistry(endpoint);
           endpointMapTemp.put(server, endpoint);
           endpointMap = Collections.unmodifiableMap(endpointMapTemp);
@@ -242,6 +274,35 @@ public class EndpointManagerImpl implements EndpointManager {
     return getEndpointMap().size();
   }
 
+  public Set<ServerLocation> getSlowServers() {
+    Map<ServerLocation, Endpoint> endpoints = this.endpointMap;
+    if (endpoints.size() < 2) {
+      return Collections.emptySet();
+    }
+    long now = this.nanoClock.getAsLong();
+    long fastest = Long.MAX_VALUE;
+    Map<ServerLocation, Long> latencies = new HashMap<>(endpoints.size());
+    for (Endpoint endpoint : endpoints.values()) {
+      long latency = endpoint.getLatency(now);
+      if (latency >= 0) {
+        latencies.put(endpoint.getLocation(), latency);
+        fastest = Math.min(fastest, latency);
+      }
+    }
+    Set<ServerLocation> slowServers = null;
+    for (Map.Entry<ServerLocation, Long> entry : latencies.entrySet()) {
+      long latency = entry.getValue();
+      if (latency - fastest > SLOW_SERVER_LATENCY_MARGIN_NANOS
+          && latency / SLOW_SERVER_LATENCY_FACTOR > fastest) {
+        if (slowServers == null) {
+          slowServers = new HashSet<>();
+        }
+        slowServers.add(entry.getKey());
+      }
+    }
+    return slowServers == null ? Collections.emptySet() : slowServers;
+  }
+
   public static void loadEmergencyClasses() {
     // do nothing
   }
@@ -629,6 +629,11 @@ public class ExecuteFunctionOp {
       return msgType == MessageType.EXECUTE_FUNCTION_ERROR;
     }
 
+    @Override
+    protected boolean measuresLatency() {
+      return false;
+    }
+
     @Override
     protected long startAttempt(ConnectionStats stats) {
       return stats.startExecuteFunction();
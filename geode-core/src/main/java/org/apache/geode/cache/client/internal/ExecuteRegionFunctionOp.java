@@ -652,6 +652,11 @@ public class ExecuteRegionFunctionOp {
       return msgType == MessageType.EXECUTE_REGION_FUNCTION_ERROR;
     }
 
+    @Override
+    protected boolean measuresLatency() {
+      return false;
+    }
+
     @Override
     protected long startAttempt(ConnectionStats stats) {
       return stats.startExecuteFunction();
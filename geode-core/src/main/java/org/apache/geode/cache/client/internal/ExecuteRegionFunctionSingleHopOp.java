@@ -467,6 +467,11 @@ public class ExecuteRegionFunctionSingleHopOp {
       return msgType == MessageType.EXECUTE_REGION_FUNCTION_ERROR;
     }
 
+    @Override
+    protected boolean measuresLatency() {
+      return false;
+    }
+
     @Override
     protected long startAttempt(ConnectionStats stats) {
       return stats.startExecuteFunction();
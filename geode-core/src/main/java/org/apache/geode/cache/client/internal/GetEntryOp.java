@@ -75,5 +75,10 @@ public class GetEntryOp {
     protected void endAttempt(ConnectionStats stats, long start) {
       stats.endGetEntry(start, hasTimedOut(), hasFailed());
     }
+
+    @Override
+    protected boolean supportsPipelining() {
+      return true;
+    }
   }
 }
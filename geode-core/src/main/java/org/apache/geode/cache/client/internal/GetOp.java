@@ -14,18 +14,33 @@
  */
 package org.apache.geode.cache.client.internal;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.apache.logging.log4j.Logger;
 
+import org.apache.geode.InternalGemFireException;
 import org.apache.geode.cache.CacheClosedException;
 import org.apache.geode.cache.CacheLoaderException;
 import org.apache.geode.cache.Operation;
 import org.apache.geode.cache.client.AllConnectionsInUseException;
 import org.apache.geode.cache.client.ServerConnectivityException;
 import org.apache.geode.cache.client.ServerOperationException;
+import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.distributed.internal.ServerLocation;
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.internal.cache.EntryEventImpl;
 import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.TXManagerImpl;
 import org.apache.geode.internal.cache.Token;
 import org.apache.geode.internal.cache.tier.MessageType;
 import org.apache.geode.internal.cache.tier.sockets.Message;
@@ -46,6 +61,20 @@ public class GetOp {
   public static final int KEY_NOT_PRESENT = 0x04;
   public static final int VALUE_IS_INVALID = 0x08; // Token.INVALID
 
+  /**
+   * Whether a get that its server has not answered within {@link #HEDGED_READ_PERCENTILE} of the
+   * latencies of the pool's gets is sent to a second server that hosts the entry, the first answer
+   * being the result.
+   */
+  public static final boolean HEDGED_READS =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "PoolImpl.HEDGED_READS");
+
+  /**
+   * The percentile of the latencies of a pool's gets after which a get is sent to a second server.
+   */
+  static final int HEDGED_READ_PERCENTILE =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "PoolImpl.HEDGED_READ_PERCENTILE", 95);
+
   /**
    * Does a region get on a server using connections from the given pool to communicate with the
    * server.
@@ -59,6 +88,15 @@ public class GetOp {
    */
   public static Object execute(ExecutablePool pool, LocalRegion region, Object key,
       Object callbackArg, boolean prSingleHopEnabled, EntryEventImpl clientEvent) {
+    if (HEDGED_READS && pool instanceof PoolImpl) {
+      return executeHedged((PoolImpl) pool, region, key, callbackArg, prSingleHopEnabled,
+          clientEvent);
+    }
+    return executeOnce(pool, region, key, callbackArg, prSingleHopEnabled, clientEvent);
+  }
+
+  private static Object executeOnce(ExecutablePool pool, LocalRegion region, Object key,
+      Object callbackArg, boolean prSingleHopEnabled, EntryEventImpl clientEvent) {
     ClientMetadataService cms = region.getCache().getClientMetadataService();
     GetOpImpl op = new GetOpImpl(region, key, callbackArg, prSingleHopEnabled, clientEvent);
 
@@ -92,6 +130,164 @@ public class GetOp {
   }
 
 
+  /**
+   * Does a region get on a server that hosts the entry and, if the server has not answered once
+   * the pool's {@link #HEDGED_READ_PERCENTILE} get latency has passed, on a second one. The first
+   * answer is the result and the other one is ignored. Gets are not hedged until enough latencies
+   * are known, in a transaction, which belongs to one server, with multiuser authentication, or if
+   * there is no second server known to hold a copy of the entry.
+   */
+  static Object executeHedged(PoolImpl pool, LocalRegion region, Object key,
+      Object callbackArg, boolean prSingleHopEnabled, EntryEventImpl clientEvent) {
+    LatencyHistogram latencies = pool.getGetLatencies();
+    long delay = latencies.getValue();
+    List<ServerLocation> servers = null;
+    if (delay >= 0 && !pool.getMultiuserAuthentication()
+        && TXManagerImpl.getCurrentTXUniqueId() == TXManagerImpl.NOTX) {
+      servers = getHedgedReadServers(pool, region, key, callbackArg, prSingleHopEnabled);
+    }
+    if (servers == null) {
+      long start = System.nanoTime();
+      Object result = executeOnce(pool, region, key, callbackArg, prSingleHopEnabled, clientEvent);
+      latencies.record(System.nanoTime() - start);
+      return result;
+    }
+
+    long start = System.nanoTime();
+    boolean onlyUseExistingCnx = pool.getMaxConnections() != -1
+        && pool.getConnectionCount() >= pool.getMaxConnections();
+    List<GetOpImpl> ops = new ArrayList<>(2);
+    List<CompletableFuture<Object>> attempts = new ArrayList<>(2);
+    CompletableFuture<Integer> winner = new CompletableFuture<>();
+    AtomicInteger pendingAttempts = new AtomicInteger();
+    try {
+      sendHedgedRead(pool, region, key, callbackArg, prSingleHopEnabled, servers.get(0),
+          onlyUseExistingCnx, ops, attempts, winner, pendingAttempts);
+      int index;
+      try {
+        index = winner.get(delay, TimeUnit.NANOSECONDS);
+      } catch (TimeoutException e) {
+        sendHedgedRead(pool, region, key, callbackArg, prSingleHopEnabled, servers.get(1),
+            onlyUseExistingCnx, ops, attempts, winner, pendingAttempts);
+        index = winner.get();
+        // the response of the other server is read and dropped
+        attempts.get(1 - index).cancel(false);
+      }
+      VersionTag tag = ops.get(index).versionTag;
+      if (clientEvent != null && tag != null) {
+        clientEvent.setVersionTag(tag);
+      }
+      Object result = attempts.get(index).join();
+      // the latency the caller sees, so that the delay settles at the percentile of the latency of
+      // the first attempts rather than that of the attempts that lost
+      latencies.record(System.nanoTime() - start);
+      return result;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      pool.getCancelCriterion().checkCancelInProgress(e);
+      throw new InternalGemFireException(e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      while (cause instanceof CompletionException && cause.getCause() != null) {
+        cause = cause.getCause();
+      }
+      if (cause instanceof ServerConnectivityException
+          && !(cause instanceof ServerOperationException)) {
+        // every attempt failed; retry the way a get that is not hedged does
+        return executeOnce(pool, region, key, callbackArg, prSingleHopEnabled, clientEvent);
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new ServerOperationException(cause);
+    }
+  }
+
+  /**
+   * Returns two servers to send a hedged get to, or null if the get cannot be hedged. Any server
+   * the pool is connected to can serve a get of a region that the servers said is not partitioned.
+   * A get of a partitioned region is only hedged if the bucket metadata shows that the bucket of
+   * the key has a redundant copy, so that each server serves it from its own copy. Without single
+   * hop the client does not ask for the metadata, so it does not know whether the region is
+   * partitioned and does not hedge.
+   */
+  private static List<ServerLocation> getHedgedReadServers(PoolImpl pool, LocalRegion region,
+      Object key, Object callbackArg, boolean prSingleHopEnabled) {
+    ClientMetadataService cms = region.getCache().getClientMetadataService();
+    List<ServerLocation> servers;
+    if (cms.isNonPartitionedRegion(region.getFullPath())) {
+      servers = pool.getCurrentServers();
+    } else if (prSingleHopEnabled) {
+      servers = cms.getBucketServerLocations(region, key, callbackArg);
+    } else {
+      servers = null;
+    }
+    if (servers == null || servers.size() < 2) {
+      return null;
+    }
+    Collections.shuffle(servers, ThreadLocalRandom.current());
+    return servers;
+  }
+
+  /**
+   * Sends the get to the given server without waiting for the response. The winner is completed
+   * with the index of the first attempt that succeeds, or with the failure of the last one if all
+   * of them fail.
+   */
+  private static void sendHedgedRead(PoolImpl pool, LocalRegion region, Object key,
+      Object callbackArg, boolean prSingleHopEnabled, ServerLocation server,
+      boolean onlyUseExistingCnx, List<GetOpImpl> ops, List<CompletableFuture<Object>> attempts,
+      CompletableFuture<Integer> winner, AtomicInteger pendingAttempts) {
+    GetOpImpl op = new GetOpImpl(region, key, callbackArg, prSingleHopEnabled, null);
+    op.setAllowDuplicateMetadataRefresh(!onlyUseExistingCnx);
+    int index = attempts.size();
+    pendingAttempts.incrementAndGet();
+    // a connection with no other request in flight, so that the response is not read after those
+    // of requests that the server is slow to answer
+    CompletableFuture<Object> attempt = pool.executeAsync(server, op, onlyUseExistingCnx, 1,
+        () -> pool.executeOn(server, op, true, onlyUseExistingCnx),
+        SingleHopClientExecutor.execService);
+    ops.add(op);
+    attempts.add(attempt);
+    attempt.whenComplete((result, exception) -> {
+      if (exception == null) {
+        winner.complete(index);
+      } else if (pendingAttempts.decrementAndGet() == 0) {
+        winner.completeExceptionally(exception);
+      }
+    });
+  }
+
+  /**
+   * Does a region get on a server without waiting for the response, if the pool can send it on a
+   * connection that is waiting for other responses. Otherwise, or if that fails, the get is done
+   * with {@link #execute} by a thread of the given executor.
+   *
+   * @return a future completed with the entry value found by the get if any
+   */
+  public static CompletableFuture<Object> executeAsync(PoolImpl pool, LocalRegion region,
+      Object key, Object callbackArg, boolean prSingleHopEnabled, Executor executor) {
+    GetOpImpl op = new GetOpImpl(region, key, callbackArg, prSingleHopEnabled, null);
+    ServerLocation server = null;
+    boolean onlyUseExistingCnx = false;
+    if (prSingleHopEnabled) {
+      ClientMetadataService cms = region.getCache().getClientMetadataService();
+      ServerLocation bucketServer =
+          cms.getBucketServerLocation(region, Operation.GET, key, null, callbackArg);
+      if (bucketServer != null) {
+        server = new ServerLocation(bucketServer.getHostName(), bucketServer.getPort());
+        onlyUseExistingCnx = pool.getMaxConnections() != -1
+            && pool.getConnectionCount() >= pool.getMaxConnections();
+        op.setAllowDuplicateMetadataRefresh(!onlyUseExistingCnx);
+      }
+    }
+    return pool.executeAsync(server, op, onlyUseExistingCnx,
+        () -> execute(pool, region, key, callbackArg, prSingleHopEnabled, null), executor);
+  }
+
   private GetOp() {
     // no instances allowed
   }
@@ -108,6 +304,9 @@ public class GetOp {
 
     private EntryEventImpl clientEvent;
 
+    /** the version tag of the entry, read from the response */
+    private volatile VersionTag versionTag;
+
     public String toString() {
       return "GetOpImpl(key=" + key + ")";
     }
@@ -157,6 +356,7 @@ public class GetOp {
           assert con.getEndpoint() != null; // for debugging
           assert tag != null; // for debugging
           tag.replaceNullIDs((InternalDistributedMember) con.getEndpoint().getMemberId());
+          this.versionTag = tag;
           if (this.clientEvent != null) {
             this.clientEvent.setVersionTag(tag);
           }
@@ -230,5 +430,10 @@ public class GetOp {
     protected void endAttempt(ConnectionStats stats, long start) {
       stats.endGet(start, hasTimedOut(), hasFailed());
     }
+
+    @Override
+    protected boolean supportsPipelining() {
+      return true;
+    }
   }
 }
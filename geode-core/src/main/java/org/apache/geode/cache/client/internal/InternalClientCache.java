@@ -23,6 +23,7 @@ import org.apache.geode.cache.client.Pool;
 import org.apache.geode.cache.client.PoolFactory;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
 import org.apache.geode.internal.cache.CachePerfStats;
+import org.apache.geode.internal.cache.InternalRegionArguments;
 
 public interface InternalClientCache extends ClientCache {
 
@@ -35,6 +36,9 @@ public interface InternalClientCache extends ClientCache {
   <K, V> Region<K, V> basicCreateRegion(String name, RegionAttributes<K, V> attrs)
       throws RegionExistsException, TimeoutException;
 
+  <K, V> Region<K, V> basicCreateRegion(String name, RegionAttributes<K, V> attrs,
+      InternalRegionArguments internalRegionArgs) throws RegionExistsException, TimeoutException;
+
   Pool getDefaultPool();
 
   InternalDistributedSystem getInternalDistributedSystem();
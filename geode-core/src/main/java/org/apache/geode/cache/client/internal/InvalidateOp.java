@@ -118,5 +118,10 @@ public class InvalidateOp {
     protected void endAttempt(ConnectionStats stats, long start) {
       stats.endInvalidate(start, hasTimedOut(), hasFailed());
     }
+
+    @Override
+    protected boolean supportsPipelining() {
+      return true;
+    }
   }
 }
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Estimates a percentile of recent op latencies. Latencies are counted in buckets whose width is an
+ * eighth of a power of two, so the estimate is at most 12.5% above the actual latency. The
+ * percentile is computed again after every {@link #RECOMPUTE_INTERVAL} latencies, and the counts
+ * are halved once there are more than {@link #DECAY_THRESHOLD} of them so that older latencies
+ * weigh less than recent ones.
+ *
+ * @since Geode 1.8
+ */
+public class LatencyHistogram {
+
+  static final int MIN_SAMPLES = 100;
+
+  static final int RECOMPUTE_INTERVAL = 256;
+
+  static final long DECAY_THRESHOLD = 10000;
+
+  private static final int SUB_BUCKET_BITS = 3;
+
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  private final double percentile;
+
+  private final AtomicLongArray counts = new AtomicLongArray(64 * SUB_BUCKETS);
+
+  private final AtomicLong total = new AtomicLong();
+
+  private volatile long value = -1;
+
+  /**
+   * @param percentile the percentile to estimate, between 0 and 100
+   */
+  public LatencyHistogram(double percentile) {
+    if (percentile <= 0 || percentile > 100) {
+      throw new IllegalArgumentException(
+          "The percentile must be in (0, 100] but was " + percentile);
+    }
+    this.percentile = percentile;
+  }
+
+  /**
+   * Records the latency of an op.
+   *
+   * @param latency the latency in nanoseconds
+   */
+  public void record(long latency) {
+    this.counts.incrementAndGet(getBucket(Math.max(0, latency)));
+    if (this.total.incrementAndGet() % RECOMPUTE_INTERVAL == 0) {
+      recompute();
+    }
+  }
+
+  /**
+   * Returns the estimated percentile of the recorded latencies in nanoseconds, or -1 if too few
+   * latencies were recorded yet.
+   */
+  public long getValue() {
+    return this.value;
+  }
+
+  private synchronized void recompute() {
+    long count = 0;
+    for (int i = 0; i < this.counts.length(); i++) {
+      count += this.counts.get(i);
+    }
+    if (count < MIN_SAMPLES) {
+      return;
+    }
+    long rank = (long) Math.ceil(count * this.percentile / 100);
+    long seen = 0;
+    for (int i = 0; i < this.counts.length(); i++) {
+      seen += this.counts.get(i);
+      if (seen >= rank) {
+        this.value = getUpperBound(i);
+        break;
+      }
+    }
+    if (count > DECAY_THRESHOLD) {
+      for (int i = 0; i < this.counts.length(); i++) {
+        long bucketCount = this.counts.get(i);
+        this.counts.addAndGet(i, -(bucketCount - bucketCount / 2));
+      }
+    }
+  }
+
+  static int getBucket(long latency) {
+    if (latency < SUB_BUCKETS) {
+      return (int) latency;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(latency);
+    int subBucket = (int) (latency >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  static long getUpperBound(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int shift = bucket / SUB_BUCKETS - 1;
+    long lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    return lowerBound + (1L << shift) - 1;
+  }
+}
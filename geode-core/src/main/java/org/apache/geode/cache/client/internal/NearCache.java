@@ -0,0 +1,328 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.cache.InterestResultPolicy;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.tier.InterestType;
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * Keeps a client region that caches entries coherent with its server by registering interest, with
+ * updates received as invalidates, in the keys the client caches. A key is registered before the
+ * client first reads or writes it on the server, so no update the server makes after the read can
+ * be missed. Once the cached entry is destroyed, for example by eviction or expiration, its
+ * interest is unregistered in a batch with those of other destroyed entries, so that the server
+ * only sends invalidates for entries the client still caches. The interest of a key that is read or
+ * written without being cached, because the server has no value for it or the operation fails, is
+ * unregistered the same way. A partial batch is unregistered every
+ * gemfire.NearCache.UNREGISTER_INTERVAL milliseconds, 10 seconds by default, and when the region
+ * closes.
+ *
+ * @since Geode 1.8
+ */
+public class NearCache {
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * The number of destroyed entries whose interest is unregistered with one request.
+   */
+  static final int UNREGISTER_BATCH_SIZE = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "NearCache.UNREGISTER_BATCH_SIZE", 100);
+
+  /**
+   * The milliseconds after which the interest of fewer than a batch of destroyed entries is
+   * unregistered.
+   */
+  static final long UNREGISTER_INTERVAL =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "NearCache.UNREGISTER_INTERVAL", 10000);
+
+  private static final CompletableFuture<Void> REGISTERED = CompletableFuture.completedFuture(null);
+
+  private final ServerRegionProxy proxy;
+
+  private final byte regionDataPolicy;
+
+  private final ScheduledExecutorService executor;
+
+  /** whether the region caches an entry for a key */
+  private final Predicate<Object> isCached;
+
+  /** the registration of each key with interest; a registration in progress is not done */
+  private final Map<Object, CompletableFuture<Void>> registrations = new ConcurrentHashMap<>();
+
+  /**
+   * Held for read while registering and for write while unregistering, so that the interest of a
+   * key that is registered again is not unregistered.
+   */
+  private final ReadWriteLock registrationLock = new ReentrantReadWriteLock();
+
+  private final Queue<Object> removedKeys = new ConcurrentLinkedQueue<>();
+
+  private final AtomicInteger removedKeyCount = new AtomicInteger();
+
+  /**
+   * The number of operations between the registration and the release of each key, whose interest
+   * is not unregistered while they may still cache it.
+   */
+  private final Map<Object, Integer> keysInUse = new ConcurrentHashMap<>();
+
+  private final ScheduledFuture<?> unregisterTask;
+
+  /**
+   * @param proxy the server proxy of the region
+   * @param regionDataPolicy the ordinal of the region's data policy
+   * @param executor runs the unregistrations
+   * @param isCached whether the region caches an entry for a key
+   */
+  public NearCache(ServerRegionProxy proxy, byte regionDataPolicy,
+      ScheduledExecutorService executor, Predicate<Object> isCached) {
+    this.proxy = proxy;
+    this.regionDataPolicy = regionDataPolicy;
+    this.executor = executor;
+    this.isCached = isCached;
+    this.unregisterTask = executor.scheduleWithFixedDelay(this::flush, UNREGISTER_INTERVAL,
+        UNREGISTER_INTERVAL, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Registers interest in the given key unless it already is registered. Returns once the server
+   * sends invalidates for the key. Unless it throws, the key stays in use until
+   * {@link #release(Object, boolean)} is called for it.
+   */
+  public void register(Object key) {
+    // in use before the registration is looked up, so a concurrent unregistration keeps it
+    use(key);
+    try {
+      doRegister(key);
+    } catch (RuntimeException | Error e) {
+      unuse(key);
+      throw e;
+    }
+  }
+
+  private void doRegister(Object key) {
+    CompletableFuture<Void> registration = this.registrations.get(key);
+    if (registration == null) {
+      CompletableFuture<Void> newRegistration = new CompletableFuture<>();
+      this.registrationLock.readLock().lock();
+      try {
+        registration = this.registrations.putIfAbsent(key, newRegistration);
+        if (registration == null) {
+          try {
+            complete(newRegistration, () -> this.proxy.registerInterest(key, InterestType.KEY,
+                InterestResultPolicy.NONE, false, true, this.regionDataPolicy));
+          } catch (RuntimeException | Error e) {
+            this.registrations.remove(key, newRegistration);
+            throw e;
+          }
+          return;
+        }
+      } finally {
+        this.registrationLock.readLock().unlock();
+      }
+    }
+    waitFor(registration);
+  }
+
+  /**
+   * Registers interest in those of the given keys that are not registered yet, with one request.
+   * Returns once the server sends invalidates for all of them. Unless it throws, the keys stay in
+   * use until {@link #releaseAll(Collection, Predicate)} is called for them.
+   */
+  public void registerAll(Collection<?> keys) {
+    for (Object key : keys) {
+      use(key);
+    }
+    try {
+      doRegisterAll(keys);
+    } catch (RuntimeException | Error e) {
+      for (Object key : keys) {
+        unuse(key);
+      }
+      throw e;
+    }
+  }
+
+  private void doRegisterAll(Collection<?> keys) {
+    List<Object> newKeys = new ArrayList<>();
+    List<CompletableFuture<Void>> pending = new ArrayList<>();
+    CompletableFuture<Void> newRegistration = new CompletableFuture<>();
+    this.registrationLock.readLock().lock();
+    try {
+      for (Object key : keys) {
+        CompletableFuture<Void> registration = this.registrations.putIfAbsent(key, newRegistration);
+        if (registration == null) {
+          newKeys.add(key);
+        } else if (!registration.isDone()) {
+          pending.add(registration);
+        }
+      }
+      if (!newKeys.isEmpty()) {
+        complete(newRegistration,
+            () -> this.proxy.registerInterestList(newKeys, InterestResultPolicy.NONE, false, true,
+                this.regionDataPolicy));
+      }
+    } catch (RuntimeException | Error e) {
+      for (Object key : newKeys) {
+        this.registrations.remove(key, newRegistration);
+      }
+      throw e;
+    } finally {
+      this.registrationLock.readLock().unlock();
+    }
+    for (CompletableFuture<Void> registration : pending) {
+      waitFor(registration);
+    }
+  }
+
+  /**
+   * Ends an operation on the given registered key. The interest of a key the operation did not
+   * cache, because the server had no value for it or the operation failed, is unregistered in a
+   * later batch.
+   */
+  public void release(Object key, boolean cached) {
+    unuse(key);
+    if (!cached) {
+      removed(key);
+    }
+  }
+
+  /**
+   * Ends an operation on the given registered keys, unregistering those it did not cache.
+   */
+  public void releaseAll(Collection<?> keys, Predicate<Object> cached) {
+    for (Object key : keys) {
+      release(key, cached.test(key));
+    }
+  }
+
+  /**
+   * Unregisters the interest of the given key, whose entry is no longer cached, in a later batch.
+   */
+  public void removed(Object key) {
+    CompletableFuture<Void> registration = this.registrations.get(key);
+    if (registration == null || !registration.isDone()
+        || !this.registrations.remove(key, registration)) {
+      return;
+    }
+    this.removedKeys.add(key);
+    if (this.removedKeyCount.incrementAndGet() % UNREGISTER_BATCH_SIZE == 0) {
+      try {
+        this.executor.execute(this::unregisterRemovedKeys);
+      } catch (RejectedExecutionException ignore) {
+        // the pool is closing and its interests go with it
+      }
+    }
+  }
+
+  /**
+   * Returns the number of keys registered with interest.
+   */
+  public int getRegisteredKeyCount() {
+    return this.registrations.size();
+  }
+
+  /**
+   * Unregisters the interest of the keys removed since the last batch and stops unregistering
+   * periodically.
+   */
+  public void close() {
+    this.unregisterTask.cancel(false);
+    flush();
+  }
+
+  void flush() {
+    if (!this.removedKeys.isEmpty()) {
+      unregisterRemovedKeys();
+    }
+  }
+
+  void unregisterRemovedKeys() {
+    this.registrationLock.writeLock().lock();
+    try {
+      List<Object> keys = new ArrayList<>();
+      for (Object key = this.removedKeys.poll(); key != null; key = this.removedKeys.poll()) {
+        if (this.registrations.containsKey(key)) {
+          continue;
+        }
+        if (this.keysInUse.containsKey(key) || this.isCached.test(key)) {
+          // cached again, or about to be, since it was removed; its interest is still registered
+          this.registrations.putIfAbsent(key, REGISTERED);
+        } else {
+          keys.add(key);
+        }
+      }
+      if (!keys.isEmpty()) {
+        this.proxy.unregisterInterestList(keys, false, false);
+      }
+    } catch (RuntimeException e) {
+      // the keys stay registered; the server keeps sending their invalidates
+      logger.info("Could not unregister the interest of destroyed near cache entries of {}: {}",
+          this.proxy.getRegionName(), e.toString());
+    } finally {
+      this.registrationLock.writeLock().unlock();
+    }
+  }
+
+  private void use(Object key) {
+    this.keysInUse.merge(key, 1, Integer::sum);
+  }
+
+  private void unuse(Object key) {
+    this.keysInUse.computeIfPresent(key, (k, count) -> count == 1 ? null : count - 1);
+  }
+
+  private static void complete(CompletableFuture<Void> registration, Runnable register) {
+    try {
+      register.run();
+    } catch (RuntimeException | Error e) {
+      registration.completeExceptionally(e);
+      throw e;
+    }
+    registration.complete(null);
+  }
+
+  private void waitFor(CompletableFuture<Void> registration) {
+    try {
+      registration.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+}
@@ -21,11 +21,18 @@ import java.net.ConnectException;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
 import java.nio.BufferUnderflowException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 import org.apache.logging.log4j.Logger;
 
@@ -55,6 +62,7 @@ import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.distributed.internal.ServerLocation;
 import org.apache.geode.internal.cache.PoolManagerImpl;
 import org.apache.geode.internal.cache.PutAllPartialResultException;
+import org.apache.geode.internal.cache.TXManagerImpl;
 import org.apache.geode.internal.cache.execute.InternalFunctionInvocationTargetException;
 import org.apache.geode.internal.cache.tier.BatchException;
 import org.apache.geode.internal.cache.tier.sockets.MessageTooLargeException;
@@ -78,6 +86,27 @@ public class OpExecutorImpl implements ExecutablePool {
   private static final int TX_RETRY_ATTEMPT =
       Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "txRetryAttempt", 500);
 
+  /**
+   * The most requests that may be in flight on one connection. If greater than one then ops that
+   * support it are sent on a connection that other threads are waiting for responses on instead
+   * of each op borrowing a connection of its own. Not used with thread local connections.
+   */
+  static final int MAX_PIPELINED_REQUESTS =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "PoolImpl.MAX_PIPELINED_REQUESTS", 1);
+
+  /**
+   * The most requests sent without waiting for their response that may be in flight on one
+   * connection.
+   */
+  static final int MAX_ASYNC_REQUESTS =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "PoolImpl.MAX_ASYNC_REQUESTS", 64);
+
+  /** Returned instead of a result if an op has to be executed on a connection of its own */
+  private static final Object NOT_PIPELINED = new Object();
+
+  /** Returned instead of a result if a pipelined op failed and has to be retried */
+  private static final Object PIPELINE_FAILED = new Object();
+
   private final ConnectionManager connectionManager;
   private final int retryAttempts;
   private final long serverTimeout;
@@ -107,6 +136,15 @@ public class OpExecutorImpl implements ExecutablePool {
       return 0;
     };
   };
+  /**
+   * The connections that take pipelined ops, by server. Null with thread local connections.
+   */
+  private final ConcurrentMap<ServerLocation, PipelinedConnection> pipelinedConnections;
+  /**
+   * Set once a server requires credentials; the secure part of a response has to be read before
+   * the next request is sent so ops are no longer pipelined.
+   */
+  private volatile boolean pipeliningDisabled;
 
   public OpExecutorImpl(ConnectionManager manager, QueueManager queueManager,
       EndpointManager endpointManager, RegisterInterestTracker riTracker, int retryAttempts,
@@ -121,6 +159,11 @@ public class OpExecutorImpl implements ExecutablePool {
     this.threadLocalConnections = threadLocalConnections;
     this.cancelCriterion = cancelCriterion;
     this.pool = pool;
+    if (!threadLocalConnections) {
+      this.pipelinedConnections = new ConcurrentHashMap<>();
+    } else {
+      this.pipelinedConnections = null;
+    }
   }
 
   public Object execute(Op op) {
@@ -139,6 +182,17 @@ public class OpExecutorImpl implements ExecutablePool {
       }
       return executeWithServerAffinity(loc, op);
     }
+    if (isPipelined(op)) {
+      Object result = executePipelined(null, op, true, false, retries == 0);
+      if (result == PIPELINE_FAILED) {
+        ((AbstractOp) op).getMessage().setIsRetry();
+        if (retries > 0) {
+          retries--;
+        }
+      } else if (result != NOT_PIPELINED) {
+        return result;
+      }
+    }
     boolean success = false;
 
     Set attemptedServers = new HashSet();
@@ -363,6 +417,12 @@ public class OpExecutorImpl implements ExecutablePool {
         }
       }
     }
+    if (conn == null && isPipelined(op)) {
+      Object result = executePipelined(server, op, accessed, onlyUseExistingCnx, true);
+      if (result != NOT_PIPELINED) {
+        return result;
+      }
+    }
     if (conn == null) {
       if (useThreadLocalConnection(op, pingOp)) {
         // no need to set threadLocal to null while the op is in progress since
@@ -406,6 +466,206 @@ public class OpExecutorImpl implements ExecutablePool {
     return threadLocalConnections && !pingOp && op.useThreadLocalConnection();
   }
 
+  private boolean isPipelined(Op op) {
+    return MAX_PIPELINED_REQUESTS > 1 && canPipeline(op);
+  }
+
+  private boolean canPipeline(Op op) {
+    return this.pipelinedConnections != null && !this.pipeliningDisabled
+        && op instanceof AbstractOp && ((AbstractOp) op).supportsPipelining()
+        && !this.serverAffinity.get() && TXManagerImpl.getCurrentTXUniqueId() == TXManagerImpl.NOTX;
+  }
+
+  /**
+   * Executes the op on a connection that other threads may send ops on at the same time.
+   *
+   * @param server the server to execute the op on or null for any server
+   * @param finalAttempt if true a failure is thrown instead of returning {@link #PIPELINE_FAILED}
+   * @return the result of the op, {@link #PIPELINE_FAILED} if it failed and can be retried or
+   *         {@link #NOT_PIPELINED} if it has to be executed on a connection of its own
+   */
+  private Object executePipelined(ServerLocation server, Op op, boolean accessed,
+      boolean onlyUseExistingCnx, boolean finalAttempt) {
+    PipelinedConnection conn =
+        acquirePipelinedConnection(server, onlyUseExistingCnx, MAX_PIPELINED_REQUESTS);
+    if (conn == null) {
+      return NOT_PIPELINED;
+    }
+    try {
+      return conn.execute(op);
+    } catch (Exception e) {
+      // This method will throw an exception if we need to stop.
+      // It destroys the connection if there are failures.
+      handleException(e, conn, 0, finalAttempt);
+      if (finalAttempt) {
+        // this shouldn't actually be reached, handle exception will throw something
+        throw new ServerConnectivityException("Received error connecting to server", e);
+      }
+      return PIPELINE_FAILED;
+    } finally {
+      releasePipelinedConnection(conn, accessed);
+    }
+  }
+
+  /**
+   * Sends the op on a pipelined connection without waiting for its response. The returned future
+   * is completed by the thread of the given reader executor that reads the responses of that
+   * connection, so no thread waits for the op. An op that cannot be sent this way, or that fails
+   * after it was sent, completes the future with the given fallback instead, which executes the op
+   * the usual way, with retries, in a thread of the given fallback executor.
+   *
+   * @param server the server to execute the op on or null for any server
+   * @param maxInFlight the most requests the connection may have in flight, including this one
+   * @param fallback executes the op and returns its result
+   */
+  public CompletableFuture<Object> executeAsync(ServerLocation server, Op op,
+      boolean onlyUseExistingCnx, int maxInFlight, Supplier<Object> fallback, Executor readers,
+      Executor fallbackExecutor) {
+    final CompletableFuture<Object> future = new CompletableFuture<>();
+    PipelinedConnection conn = null;
+    if (canPipeline(op)) {
+      try {
+        conn = acquirePipelinedConnection(server, onlyUseExistingCnx, maxInFlight);
+      } catch (RuntimeException e) {
+        // no connection right now; the fallback waits for one
+        cancelCriterion.checkCancelInProgress(e);
+      }
+    }
+    if (conn == null) {
+      completeAsync(future, fallback, fallbackExecutor);
+      return future;
+    }
+    final PipelinedConnection cnx = conn;
+    final AbstractOp aop = (AbstractOp) op;
+    final long position;
+    try {
+      position = aop.sendPipelined(cnx);
+    } catch (Exception e) {
+      try {
+        retryAsync(e, cnx, future, fallback, fallbackExecutor);
+      } finally {
+        releasePipelinedConnection(cnx, true);
+      }
+      return future;
+    }
+    cnx.readAsync(() -> {
+      try {
+        future.complete(aop.completePipelined(cnx, position));
+      } catch (Exception e) {
+        retryAsync(e, cnx, future, fallback, fallbackExecutor);
+      } finally {
+        releasePipelinedConnection(cnx, true);
+      }
+    }, readers);
+    return future;
+  }
+
+  private void retryAsync(Exception e, Connection conn, CompletableFuture<Object> future,
+      Supplier<Object> fallback, Executor fallbackExecutor) {
+    try {
+      // throws if the op must not be retried, for example if it failed on the server
+      handleException(e, conn, 0, false);
+    } catch (RuntimeException ex) {
+      future.completeExceptionally(ex);
+      return;
+    }
+    completeAsync(future, fallback, fallbackExecutor);
+  }
+
+  private void completeAsync(CompletableFuture<Object> future, Supplier<Object> fallback,
+      Executor fallbackExecutor) {
+    try {
+      fallbackExecutor.execute(() -> {
+        try {
+          future.complete(fallback.get());
+        } catch (RuntimeException e) {
+          future.completeExceptionally(e);
+        } catch (Error e) {
+          future.completeExceptionally(e);
+          throw e;
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      future.completeExceptionally(e);
+    }
+  }
+
+  /**
+   * Returns a pipelined connection with room for one more request, borrowing a connection from the
+   * pool if there is none.
+   *
+   * @param server the server to connect to or null for any server
+   * @param maxInFlight the most requests the connection may have in flight
+   * @return the connection or null if ops have to be executed on connections of their own
+   */
+  private PipelinedConnection acquirePipelinedConnection(ServerLocation server,
+      boolean onlyUseExistingCnx, int maxInFlight) {
+    PipelinedConnection conn = joinPipelinedConnection(server, maxInFlight);
+    if (conn == null) {
+      Connection pooledConn;
+      if (server == null) {
+        pooledConn = this.connectionManager.borrowConnection(this.serverTimeout);
+      } else {
+        pooledConn =
+            this.connectionManager.borrowConnection(server, this.serverTimeout, onlyUseExistingCnx);
+      }
+      try {
+        if (pooledConn.getServer().getRequiresCredentials()) {
+          this.pipeliningDisabled = true;
+          this.connectionManager.returnConnection(pooledConn, false);
+          return null;
+        }
+        conn = new PipelinedConnection(pooledConn, maxInFlight,
+            this.pool == null ? 0 : this.pool.getReadTimeout());
+      } catch (SocketException | RuntimeException e) {
+        this.connectionManager.returnConnection(pooledConn, false);
+        return null;
+      }
+      // a connection other threads still join stays shared; this one serves only its own users
+      final PipelinedConnection newConn = conn;
+      this.pipelinedConnections.compute(conn.getServer(),
+          (location, existing) -> existing != null && existing.isOpen() ? existing : newConn);
+    }
+    return conn;
+  }
+
+  private void releasePipelinedConnection(PipelinedConnection conn, boolean accessed) {
+    if (conn.leave()) {
+      this.pipelinedConnections.remove(conn.getServer(), conn);
+      this.connectionManager.returnConnection(conn.getPooledConnection(), accessed);
+    }
+  }
+
+  /**
+   * Returns a pipelined connection to the given server, or to the server with the fewest requests
+   * in flight if server is null, that has room for one more request. If server is null connections
+   * to slow servers are skipped, as they are when a pooled connection is borrowed.
+   */
+  private PipelinedConnection joinPipelinedConnection(ServerLocation server, int maxInFlight) {
+    PipelinedConnection conn = null;
+    if (server != null) {
+      conn = this.pipelinedConnections.get(server);
+    } else {
+      Set<ServerLocation> slowServers = EndpointManagerImpl.LATENCY_AWARE_SELECTION
+          ? this.endpointManager.getSlowServers() : Collections.emptySet();
+      int leastInFlight = Integer.MAX_VALUE;
+      for (PipelinedConnection c : this.pipelinedConnections.values()) {
+        if (slowServers.contains(c.getServer())) {
+          continue;
+        }
+        int inFlight = c.getInFlight();
+        if (inFlight < leastInFlight) {
+          conn = c;
+          leastInFlight = inFlight;
+        }
+      }
+    }
+    if (conn != null && conn.join(maxInFlight)) {
+      return conn;
+    }
+    return null;
+  }
+
   /**
    * gets a connection to the given serverLocation either by looking up the threadLocal
    * {@link #localConnectionMap}. If a connection does not exist (or has been destroyed) we borrow
@@ -0,0 +1,409 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.geode.cache.client.internal.pooling.ConnectionDestroyedException;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+import org.apache.geode.internal.cache.tier.sockets.ServerConnection;
+import org.apache.geode.internal.cache.tier.sockets.ServerQueueStatus;
+
+/**
+ * A connection borrowed from the pool that several threads send requests on at the same time. A
+ * server reads the requests of a connection one at a time and answers them in the order it read
+ * them, so a thread reads its response once the responses to all the requests sent before its own
+ * have been read. Requests are written with the connection's comm buffer and responses are read
+ * with a second one so that one thread can send while another one reads.
+ * <p>
+ * If a send or a read fails the responses can no longer be matched with their requests, so the
+ * connection is destroyed and the requests still waiting for their response fail with a
+ * {@link ConnectionDestroyedException}. So is a thread that is interrupted, or that waits longer
+ * than the read timeout of the pool for the next response to be read, while waiting for its turn.
+ * <p>
+ * A request may also be sent without waiting for its response, in which case the response is read
+ * by a thread that reads the responses of all such requests of the connection in turn.
+ *
+ * @since Geode 1.8
+ */
+class PipelinedConnection implements Connection {
+
+  /**
+   * The number of requests a pipelined connection takes before it stops taking new ones so that
+   * the connection goes back to the pool now and then even if it is never idle.
+   */
+  static final int MAX_REQUESTS = 1000;
+
+  private final Connection connection;
+
+  private final int maxInFlight;
+
+  /** the milliseconds to wait for the next response to be read, or 0 to wait forever */
+  private final int readTimeout;
+
+  private final Object sendLock = new Object();
+
+  private ByteBuffer readBuffer;
+
+  /** the number of requests sent; guarded by sendLock */
+  private long sent;
+
+  /** the number of responses read; guarded by this */
+  private long received;
+
+  /** the number of threads using this connection; guarded by this */
+  private int inFlight = 1;
+
+  /** the number of threads that used this connection; guarded by this */
+  private int requests = 1;
+
+  /** true once this connection takes no new requests; guarded by this */
+  private boolean retired;
+
+  private volatile boolean broken;
+
+  /** the reads of responses to requests sent without waiting for them; guarded by itself */
+  private final ArrayDeque<Runnable> asyncReads = new ArrayDeque<>();
+
+  /** true while a thread runs the queued asyncReads; guarded by asyncReads */
+  private boolean asyncReaderRunning;
+
+  /**
+   * Creates a pipelined connection that is used by the calling thread.
+   *
+   * @param connection the connection borrowed from the pool
+   * @param maxInFlight the most threads that may use the connection at a time
+   * @param readTimeout the milliseconds to wait for the next response to be read, or 0 to wait
+   *        forever
+   */
+  PipelinedConnection(Connection connection, int maxInFlight, int readTimeout)
+      throws SocketException {
+    this.connection = connection;
+    this.maxInFlight = maxInFlight;
+    this.readTimeout = readTimeout;
+    ByteBuffer commBuffer = connection.getCommBuffer();
+    this.readBuffer =
+        ServerConnection.allocateCommBuffer(commBuffer.capacity(), connection.getSocket());
+  }
+
+  /**
+   * Returns the connection borrowed from the pool.
+   */
+  Connection getPooledConnection() {
+    return this.connection;
+  }
+
+  /**
+   * Adds the calling thread to the users of this connection.
+   *
+   * @return false if this connection does not take new requests
+   */
+  boolean join() {
+    return join(this.maxInFlight);
+  }
+
+  /**
+   * Adds the calling thread to the users of this connection if fewer than the given number of
+   * threads use it.
+   *
+   * @return false if this connection does not take new requests
+   */
+  synchronized boolean join(int maxInFlight) {
+    if (this.retired || this.broken || this.inFlight >= maxInFlight) {
+      return false;
+    }
+    this.inFlight++;
+    this.requests++;
+    if (this.requests >= MAX_REQUESTS) {
+      this.retired = true;
+    }
+    return true;
+  }
+
+  /**
+   * Removes the calling thread from the users of this connection. Once the last user is gone the
+   * connection takes no new requests.
+   *
+   * @return true if the calling thread was the last user and has to return the connection
+   */
+  boolean leave() {
+    synchronized (this) {
+      this.inFlight--;
+      if (this.inFlight > 0) {
+        return false;
+      }
+      this.retired = true;
+    }
+    ByteBuffer bb = this.readBuffer;
+    this.readBuffer = null;
+    ServerConnection.releaseCommBuffer(bb);
+    return true;
+  }
+
+  synchronized int getInFlight() {
+    return this.inFlight;
+  }
+
+  /**
+   * Returns whether this connection may still take new requests.
+   */
+  synchronized boolean isOpen() {
+    return !this.retired && !this.broken;
+  }
+
+  /**
+   * Sends the message of the given op.
+   *
+   * @return the position of the request, used to wait for its response
+   */
+  long send(AbstractOp op) throws Exception {
+    synchronized (this.sendLock) {
+      if (this.broken) {
+        throw new ConnectionDestroyedException();
+      }
+      boolean success = false;
+      try {
+        op.attemptSend(this);
+        success = true;
+      } finally {
+        if (!success) {
+          markBroken();
+        }
+      }
+      return this.sent++;
+    }
+  }
+
+  /**
+   * Waits until the responses to all the requests sent before the given one have been read and
+   * then reads the response to it into the given message.
+   */
+  void receive(long position, Message msg) throws Exception {
+    boolean success = false;
+    try {
+      waitForTurn(position);
+      if (this.broken) {
+        throw new ConnectionDestroyedException();
+      }
+      msg.setComms(getSocket(), getInputStream(), getOutputStream(), this.readBuffer, getStats());
+      try {
+        msg.receive();
+      } finally {
+        msg.unsetComms();
+      }
+      success = true;
+    } finally {
+      if (!success) {
+        markBroken();
+      }
+      synchronized (this) {
+        this.received++;
+        notifyAll();
+      }
+    }
+    getEndpoint().updateLastExecute();
+  }
+
+  /**
+   * Waits until the responses to all the requests sent before the given one have been read or the
+   * connection is broken.
+   *
+   * @throws SocketTimeoutException if no response is read for the read timeout
+   */
+  private synchronized void waitForTurn(long position)
+      throws InterruptedException, SocketTimeoutException {
+    if (this.readTimeout <= 0) {
+      while (this.received != position && !this.broken) {
+        wait();
+      }
+      return;
+    }
+    long timeout = TimeUnit.MILLISECONDS.toNanos(this.readTimeout);
+    long lastReceived = this.received;
+    long deadline = System.nanoTime() + timeout;
+    while (this.received != position && !this.broken) {
+      if (this.received != lastReceived) {
+        // the connection is making progress, so the timeout starts over
+        lastReceived = this.received;
+        deadline = System.nanoTime() + timeout;
+      }
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        throw new SocketTimeoutException(
+            "Timed out waiting " + this.readTimeout + " ms for the responses to earlier requests");
+      }
+      TimeUnit.NANOSECONDS.timedWait(this, remaining);
+    }
+  }
+
+  /**
+   * Queues the read of a response for a request that was sent without waiting for its response.
+   * The queued reads are run in order by one thread of the given executor at a time, so a
+   * connection never has more than one thread waiting for responses to such requests.
+   */
+  void readAsync(Runnable read, Executor executor) {
+    synchronized (this.asyncReads) {
+      this.asyncReads.add(read);
+      if (this.asyncReaderRunning) {
+        return;
+      }
+      this.asyncReaderRunning = true;
+    }
+    try {
+      executor.execute(this::runAsyncReads);
+    } catch (RejectedExecutionException e) {
+      // the pool is closing; the reads fail quickly on the destroyed connection
+      runAsyncReads();
+    }
+  }
+
+  private void runAsyncReads() {
+    for (;;) {
+      Runnable read;
+      synchronized (this.asyncReads) {
+        read = this.asyncReads.poll();
+        if (read == null) {
+          this.asyncReaderRunning = false;
+          return;
+        }
+      }
+      read.run();
+    }
+  }
+
+  private void markBroken() {
+    synchronized (this) {
+      if (this.broken) {
+        return;
+      }
+      this.broken = true;
+      notifyAll();
+    }
+    this.connection.destroy();
+  }
+
+  @Override
+  public Socket getSocket() {
+    return this.connection.getSocket();
+  }
+
+  @Override
+  public ByteBuffer getCommBuffer() throws SocketException {
+    return this.connection.getCommBuffer();
+  }
+
+  @Override
+  public ConnectionStats getStats() {
+    return this.connection.getStats();
+  }
+
+  @Override
+  public void destroy() {
+    markBroken();
+  }
+
+  @Override
+  public boolean isDestroyed() {
+    return this.broken || this.connection.isDestroyed();
+  }
+
+  @Override
+  public void close(boolean keepAlive) throws Exception {
+    markBroken();
+  }
+
+  @Override
+  public ServerLocation getServer() {
+    return this.connection.getServer();
+  }
+
+  @Override
+  public Endpoint getEndpoint() {
+    return this.connection.getEndpoint();
+  }
+
+  @Override
+  public ServerQueueStatus getQueueStatus() {
+    return this.connection.getQueueStatus();
+  }
+
+  @Override
+  public Object execute(Op op) throws Exception {
+    if (EndpointManagerImpl.LATENCY_AWARE_SELECTION && ((AbstractOp) op).measuresLatency()) {
+      long start = getEndpoint().opStarted();
+      try {
+        return ((AbstractOp) op).attemptPipelined(this);
+      } finally {
+        getEndpoint().opEnded(start);
+      }
+    }
+    return ((AbstractOp) op).attemptPipelined(this);
+  }
+
+  @Override
+  public void emergencyClose() {
+    this.connection.emergencyClose();
+  }
+
+  @Override
+  public short getWanSiteVersion() {
+    return this.connection.getWanSiteVersion();
+  }
+
+  @Override
+  public void setWanSiteVersion(short wanSiteVersion) {
+    this.connection.setWanSiteVersion(wanSiteVersion);
+  }
+
+  @Override
+  public int getDistributedSystemId() {
+    return this.connection.getDistributedSystemId();
+  }
+
+  @Override
+  public OutputStream getOutputStream() {
+    return this.connection.getOutputStream();
+  }
+
+  @Override
+  public InputStream getInputStream() {
+    return this.connection.getInputStream();
+  }
+
+  @Override
+  public void setConnectionID(long id) {
+    this.connection.setConnectionID(id);
+  }
+
+  @Override
+  public long getConnectionID() {
+    return this.connection.getConnectionID();
+  }
+
+  @Override
+  public String toString() {
+    return "Pipelined " + this.connection;
+  }
+}
@@ -25,11 +25,16 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import org.apache.logging.log4j.Logger;
 
@@ -131,7 +136,12 @@ public class PoolImpl implements InternalPool {
   protected volatile boolean destroyed;
   private final PoolStats stats;
   private ScheduledExecutorService backgroundProcessor;
+  /** reads the responses to ops that were sent without waiting for them */
+  private ExecutorService asyncReader;
   private final OpExecutorImpl executor;
+  /** the latencies of the gets of the pool's regions, if they are hedged */
+  private final LatencyHistogram getLatencies =
+      GetOp.HEDGED_READS ? new LatencyHistogram(GetOp.HEDGED_READ_PERCENTILE) : null;
   private final RegisterInterestTracker riTracker = new RegisterInterestTracker();
   private final InternalDistributedSystem dsys;
   private InternalCache cache;
@@ -330,6 +340,17 @@ public class PoolImpl implements InternalPool {
     ((ScheduledThreadPoolExecutorWithKeepAlive) backgroundProcessor)
         .setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
 
+    final String readerName = "poolAsyncReader-" + getName() + "-";
+    asyncReader = Executors.newCachedThreadPool(new ThreadFactory() {
+      AtomicInteger threadNum = new AtomicInteger();
+
+      public Thread newThread(final Runnable r) {
+        Thread result = new Thread(r, readerName + threadNum.incrementAndGet());
+        result.setDaemon(true);
+        return result;
+      }
+    });
+
     source.start(this);
     connectionFactory.start(backgroundProcessor);
     endpointManager.addListener(new InstantiatorRecoveryListener(backgroundProcessor, this));
@@ -598,6 +619,11 @@ public class PoolImpl implements InternalPool {
             .create(LocalizedStrings.PoolImpl_INTERRUPTED_WHILE_STOPPING_BACKGROUNDPROCESSOR), e);
       }
 
+      if (asyncReader != null) {
+        // responses still being read fail once the connections are closed
+        asyncReader.shutdown();
+      }
+
       try {
         if (this.source != null) {
           this.source.stop();
@@ -856,6 +882,42 @@ public class PoolImpl implements InternalPool {
     executor.executeOnAllQueueServers(op);
   }
 
+  /**
+   * Executes the given op without waiting for its response if it can be sent on a connection that
+   * other ops are waiting for responses on.
+   *
+   * @param server the server to do the execution on or null for any server
+   * @param op the operation to execute
+   * @param fallback executes the op and returns its result if it cannot be sent without waiting or
+   *        has to be retried
+   * @param fallbackExecutor runs the fallback
+   * @return a future completed with the result of the op
+   * @see OpExecutorImpl#executeAsync
+   */
+  public CompletableFuture<Object> executeAsync(ServerLocation server, Op op,
+      boolean onlyUseExistingCnx, Supplier<Object> fallback, Executor fallbackExecutor) {
+    return executeAsync(server, op, onlyUseExistingCnx, OpExecutorImpl.MAX_ASYNC_REQUESTS,
+        fallback, fallbackExecutor);
+  }
+
+  /**
+   * Executes the given op like {@link #executeAsync(ServerLocation, Op, boolean, Supplier,
+   * Executor)} but only on a connection with fewer than the given number of requests in flight.
+   */
+  public CompletableFuture<Object> executeAsync(ServerLocation server, Op op,
+      boolean onlyUseExistingCnx, int maxInFlight, Supplier<Object> fallback,
+      Executor fallbackExecutor) {
+    return executor.executeAsync(server, op, onlyUseExistingCnx, maxInFlight, fallback,
+        asyncReader, fallbackExecutor);
+  }
+
+  /**
+   * Returns the latencies of the gets done by the pool, or null if gets are not hedged.
+   */
+  LatencyHistogram getGetLatencies() {
+    return this.getLatencies;
+  }
+
   /**
    * Execute the given op on the current primary server.
    *
@@ -23,6 +23,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.Lock;
 
+import org.apache.geode.cache.AsyncRegion;
 import org.apache.geode.cache.AttributesMutator;
 import org.apache.geode.cache.Cache;
 import org.apache.geode.cache.CacheLoaderException;
@@ -43,6 +44,7 @@ import org.apache.geode.cache.query.QueryInvocationTargetException;
 import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.TypeMismatchException;
 import org.apache.geode.cache.snapshot.RegionSnapshotService;
+import org.apache.geode.internal.cache.BlockingAsyncRegion;
 import org.apache.geode.internal.cache.snapshot.RegionSnapshotServiceImpl;
 
 /**
@@ -677,6 +679,15 @@ public class ProxyRegion implements Region {
     }
   }
 
+  /**
+   * Returns an async view whose operations are done by the blocking methods of this region, so that
+   * each is done with the attributes of this region's user.
+   */
+  @Override
+  public AsyncRegion async() {
+    return new BlockingAsyncRegion(this);
+  }
+
   public RegionSnapshotService<?, ?> getSnapshotService() {
     return new RegionSnapshotServiceImpl(this);
   }
@@ -16,6 +16,8 @@ package org.apache.geode.cache.client.internal;
 
 import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import org.apache.logging.log4j.Logger;
 
@@ -89,6 +91,35 @@ public class PutOp {
     return pool.execute(op);
   }
 
+  /**
+   * Does a region put on a server without waiting for the response, if the pool can send it on a
+   * connection that is waiting for other responses. Otherwise, or if that fails, the put is done
+   * with {@link #execute} by a thread of the given executor.
+   *
+   * @return a future completed with the result of the put
+   */
+  public static CompletableFuture<Object> executeAsync(PoolImpl pool, LocalRegion region,
+      Object key, Object value, EntryEventImpl event, Operation operation, Object callbackArg,
+      boolean prSingleHopEnabled, Executor executor) {
+    PutOpImpl op = new PutOpImpl(region, key, value, null, event, operation, false, null,
+        callbackArg, false, prSingleHopEnabled);
+    ServerLocation server = null;
+    boolean onlyUseExistingCnx = false;
+    if (prSingleHopEnabled) {
+      ClientMetadataService cms = region.getCache().getClientMetadataService();
+      ServerLocation bucketServer =
+          cms.getBucketServerLocation(region, Operation.UPDATE, key, value, callbackArg);
+      if (bucketServer != null) {
+        server = new ServerLocation(bucketServer.getHostName(), bucketServer.getPort());
+        onlyUseExistingCnx = pool.getMaxConnections() != -1
+            && pool.getConnectionCount() >= pool.getMaxConnections();
+        op.setAllowDuplicateMetadataRefresh(!onlyUseExistingCnx);
+      }
+    }
+    return pool.executeAsync(server, op, onlyUseExistingCnx, () -> execute(pool, region, key,
+        value, null, event, operation, false, null, callbackArg, prSingleHopEnabled), executor);
+  }
+
   public static Object execute(ExecutablePool pool, String regionName, Object key, Object value,
       byte[] deltaBytes, EntryEventImpl event, Operation operation, boolean requireOldValue,
       Object expectedOldValue, Object callbackArg, boolean prSingleHopEnabled,
@@ -432,6 +463,12 @@ public class PutOp {
       stats.endPut(start, hasTimedOut(), hasFailed());
     }
 
+    @Override
+    protected boolean supportsPipelining() {
+      // a failed delta is sent again in full while processing the response
+      return !this.deltaSent;
+    }
+
     @Override
     public String toString() {
       return "PutOp:" + key;
@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.distributed.DistributedMember;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.cache.tier.sockets.ChunkedMessage;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+
+/**
+ * Does a query on a server whose results are fetched in batches from a cursor the server keeps,
+ * instead of all at once. The first batch comes with the response to the query. Later batches are
+ * fetched from the same server, as no other server has the cursor. A server older than
+ * {@link Version#GEODE_180} has no cursors, so the query is done on it the usual way and all its
+ * results come in the first batch.
+ *
+ * @since Geode 1.8
+ */
+public class QueryCursorOp {
+
+  /**
+   * Does a query on a server and returns the first batch of its results.
+   *
+   * @param pool the pool to use to communicate with the server.
+   * @param queryPredicate A query language boolean query predicate
+   * @param queryParams the parameters of the query
+   * @param fetchSize the number of results in every batch
+   */
+  public static Batch open(ExecutablePool pool, String queryPredicate, Object[] queryParams,
+      int fetchSize) {
+    return (Batch) pool.execute(new OpenQueryCursorOpImpl(queryPredicate, queryParams, fetchSize));
+  }
+
+  /**
+   * Fetches the next batch of results from the given cursor on the given server.
+   */
+  public static Batch fetch(ExecutablePool pool, ServerLocation server, long cursorId) {
+    return (Batch) pool.executeOn(server, new FetchQueryCursorOpImpl(server, cursorId));
+  }
+
+  /**
+   * Closes the given cursor on the given server before all its results were fetched.
+   */
+  public static void close(ExecutablePool pool, ServerLocation server, long cursorId) {
+    pool.executeOn(server, new CloseQueryCursorOpImpl(cursorId));
+  }
+
+  private QueryCursorOp() {
+    // no instances allowed
+  }
+
+  /**
+   * Returns whether the server of the given connection keeps query cursors.
+   */
+  static boolean supportsCursors(Connection cnx) {
+    DistributedMember member = cnx.getEndpoint().getMemberId();
+    return member instanceof InternalDistributedMember && ((InternalDistributedMember) member)
+        .getVersionObject().compareTo(Version.GEODE_180) >= 0;
+  }
+
+  /**
+   * A batch of results, the server that sent it and the id of the cursor on that server to fetch
+   * the next batch from, or 0 if there are no more results.
+   */
+  public static class Batch {
+
+    private final SelectResults results;
+
+    private final ServerLocation server;
+
+    private final long cursorId;
+
+    Batch(SelectResults results, ServerLocation server, long cursorId) {
+      this.results = results;
+      this.server = server;
+      this.cursorId = cursorId;
+    }
+
+    public SelectResults getResults() {
+      return this.results;
+    }
+
+    public ServerLocation getServer() {
+      return this.server;
+    }
+
+    public long getCursorId() {
+      return this.cursorId;
+    }
+  }
+
+  /**
+   * Reads the batch results like a query and the cursor id that follows them in every chunk.
+   */
+  private abstract static class BatchOpImpl extends QueryOp.QueryOpImpl {
+
+    private long cursorId;
+
+    BatchOpImpl(int msgType, int numParts) {
+      super(msgType, numParts);
+    }
+
+    @Override
+    protected Message createResponseMessage() {
+      return new ChunkedMessage(3, Version.CURRENT);
+    }
+
+    @Override
+    protected void handleChunk(ChunkedMessage cm) throws Exception {
+      // exception chunks and results that are not a collection have no cursor id
+      if (cm.getNumberOfParts() > 2) {
+        this.cursorId = cm.getPart(2).getLong();
+      }
+    }
+
+    @Override
+    protected Object processResponse(Message msg) throws Exception {
+      this.cursorId = 0;
+      SelectResults results = (SelectResults) super.processResponse(msg);
+      return new Batch(results, getServer(), this.cursorId);
+    }
+
+    protected abstract ServerLocation getServer();
+  }
+
+  private static class OpenQueryCursorOpImpl extends BatchOpImpl {
+
+    private final String queryPredicate;
+
+    private final Object[] queryParams;
+
+    private ServerLocation server;
+
+    /**
+     * @throws org.apache.geode.SerializationException if serialization fails
+     */
+    OpenQueryCursorOpImpl(String queryPredicate, Object[] queryParams, int fetchSize) {
+      super(MessageType.QUERY_WITH_CURSOR, 3 + queryParams.length);
+      this.queryPredicate = queryPredicate;
+      this.queryParams = queryParams;
+      getMessage().addStringPart(queryPredicate);
+      getMessage().addIntPart(fetchSize);
+      getMessage().addIntPart(queryParams.length);
+      for (Object param : queryParams) {
+        getMessage().addObjPart(param);
+      }
+    }
+
+    @Override
+    public Object attempt(Connection cnx) throws Exception {
+      // the cursor is on the server that answers this attempt
+      this.server = cnx.getServer();
+      if (!supportsCursors(cnx)) {
+        QueryOp.QueryOpImpl query = this.queryParams.length > 0
+            ? new QueryOp.QueryOpImpl(this.queryPredicate, this.queryParams)
+            : new QueryOp.QueryOpImpl(this.queryPredicate);
+        return new Batch((SelectResults) query.attempt(cnx), this.server, 0);
+      }
+      return super.attempt(cnx);
+    }
+
+    @Override
+    protected ServerLocation getServer() {
+      return this.server;
+    }
+  }
+
+  private static class FetchQueryCursorOpImpl extends BatchOpImpl {
+
+    private final ServerLocation server;
+
+    FetchQueryCursorOpImpl(ServerLocation server, long cursorId) {
+      super(MessageType.QUERY_CURSOR_FETCH, 1);
+      this.server = server;
+      getMessage().addLongPart(cursorId);
+    }
+
+    @Override
+    protected ServerLocation getServer() {
+      return this.server;
+    }
+
+    @Override
+    protected String getOpName() {
+      return "fetchQueryCursor";
+    }
+  }
+
+  private static class CloseQueryCursorOpImpl extends AbstractOp {
+
+    CloseQueryCursorOpImpl(long cursorId) {
+      super(MessageType.QUERY_CURSOR_CLOSE, 1);
+      getMessage().addLongPart(cursorId);
+    }
+
+    @Override
+    protected Object processResponse(Message msg) throws Exception {
+      processAck(msg, "closeQueryCursor");
+      return null;
+    }
+
+    @Override
+    protected boolean isErrorResponse(int msgType) {
+      return false;
+    }
+
+    // closing a cursor is counted with the queries
+
+    @Override
+    protected long startAttempt(ConnectionStats stats) {
+      return stats.startQuery();
+    }
+
+    @Override
+    protected void endSendAttempt(ConnectionStats stats, long start) {
+      stats.endQuerySend(start, hasFailed());
+    }
+
+    @Override
+    protected void endAttempt(ConnectionStats stats, long start) {
+      stats.endQuery(start, hasTimedOut(), hasFailed());
+    }
+  }
+}
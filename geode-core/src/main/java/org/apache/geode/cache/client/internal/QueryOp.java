@@ -107,6 +107,7 @@ public class QueryOp {
       final Exception[] exceptionRef = new Exception[1];
       ChunkHandler ch = new ChunkHandler() {
         public void handle(ChunkedMessage cm) throws Exception {
+          handleChunk(cm);
           Part collectionTypePart = cm.getPart(0);
           Object o = collectionTypePart.getObject();
           if (o instanceof Throwable) {
@@ -176,10 +177,23 @@ public class QueryOp {
       }
     }
 
+    /**
+     * Called for every chunk of the response before its results are read, for subclasses whose
+     * chunks carry parts after the results.
+     */
+    protected void handleChunk(ChunkedMessage cm) throws Exception {
+      // nothing by default
+    }
+
     protected String getOpName() {
       return "query";
     }
 
+    @Override
+    protected boolean measuresLatency() {
+      return false;
+    }
+
     @Override
     protected boolean isErrorResponse(int msgType) {
       return msgType == MessageType.QUERY_DATA_ERROR || msgType == MessageType.CQDATAERROR_MSG_TYPE
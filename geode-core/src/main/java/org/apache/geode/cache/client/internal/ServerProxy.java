@@ -15,6 +15,7 @@
 package org.apache.geode.cache.client.internal;
 
 
+import org.apache.geode.cache.query.QueryResultIterator;
 import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.distributed.internal.ServerLocation;
 
@@ -69,4 +70,16 @@ public class ServerProxy {
     return QueryOp.execute(this.pool, queryPredicate, queryParams);
   }
 
+  /**
+   * Does a query on a server whose results are fetched in batches as they are iterated over
+   *
+   * @param queryPredicate A query language boolean query predicate
+   * @param fetchSize the number of results in every batch
+   * @return An iterator over the values that match the <code>queryPredicate</code>.
+   */
+  public <E> QueryResultIterator<E> queryWithCursor(String queryPredicate, Object[] queryParams,
+      int fetchSize) {
+    return ServerQueryResultIterator.open(this.pool, queryPredicate, queryParams, fetchSize);
+  }
+
 }
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.apache.geode.cache.query.QueryResultIterator;
+import org.apache.geode.distributed.internal.ServerLocation;
+
+/**
+ * Iterates over the results of a query executed on a server, fetching them from the cursor the
+ * server keeps for the query one batch at a time. Fetches and closes are done as the user of the
+ * thread that executed the query, for pools in multiuser mode.
+ *
+ * @since Geode 1.8
+ */
+public class ServerQueryResultIterator<E> implements QueryResultIterator<E> {
+
+  private final ExecutablePool pool;
+
+  private final ServerLocation server;
+
+  private final UserAttributes userAttributes;
+
+  private long cursorId;
+
+  private Iterator<E> batch;
+
+  /**
+   * Does the given query on a server and returns an iterator over the first batch of its results.
+   */
+  public static <E> ServerQueryResultIterator<E> open(ExecutablePool pool, String queryPredicate,
+      Object[] queryParams, int fetchSize) {
+    QueryCursorOp.Batch first = QueryCursorOp.open(pool, queryPredicate, queryParams, fetchSize);
+    return new ServerQueryResultIterator<>(pool, first, UserAttributes.userAttributes.get());
+  }
+
+  ServerQueryResultIterator(ExecutablePool pool, QueryCursorOp.Batch first,
+      UserAttributes userAttributes) {
+    this.pool = pool;
+    this.server = first.getServer();
+    this.userAttributes = userAttributes;
+    this.cursorId = first.getCursorId();
+    this.batch = iterator(first);
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (!this.batch.hasNext() && this.cursorId != 0) {
+      QueryCursorOp.Batch next;
+      setUserAttributes();
+      try {
+        next = QueryCursorOp.fetch(this.pool, this.server, this.cursorId);
+      } finally {
+        clearUserAttributes();
+      }
+      this.cursorId = next.getCursorId();
+      this.batch = iterator(next);
+    }
+    return this.batch.hasNext();
+  }
+
+  @Override
+  public E next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return this.batch.next();
+  }
+
+  @Override
+  public void close() {
+    long openCursorId = this.cursorId;
+    this.cursorId = 0;
+    this.batch = Collections.emptyIterator();
+    if (openCursorId != 0) {
+      setUserAttributes();
+      try {
+        QueryCursorOp.close(this.pool, this.server, openCursorId);
+      } finally {
+        clearUserAttributes();
+      }
+    }
+  }
+
+  private void setUserAttributes() {
+    if (this.userAttributes != null) {
+      UserAttributes.userAttributes.set(this.userAttributes);
+    }
+  }
+
+  private void clearUserAttributes() {
+    if (this.userAttributes != null) {
+      UserAttributes.userAttributes.set(null);
+    }
+  }
+
+  private static <E> Iterator<E> iterator(QueryCursorOp.Batch batch) {
+    if (batch.getResults() == null) {
+      return Collections.emptyIterator();
+    }
+    return batch.getResults().iterator();
+  }
+}
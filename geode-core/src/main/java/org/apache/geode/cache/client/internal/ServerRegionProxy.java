@@ -20,6 +20,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import org.apache.logging.log4j.Logger;
 
@@ -114,6 +116,17 @@ public class ServerRegionProxy extends ServerProxy implements ServerRegionDataAc
         this.pool.getPRSingleHopEnabled(), clientEvent);
   }
 
+  /**
+   * Does a get on the server without waiting for the response if the pool can.
+   *
+   * @param executor runs the get if the pool has to wait for the response
+   * @see GetOp#executeAsync
+   */
+  public CompletableFuture<Object> getAsync(Object key, Object callbackArg, Executor executor) {
+    return GetOp.executeAsync((PoolImpl) this.pool, this.region, key, callbackArg,
+        this.pool.getPRSingleHopEnabled(), executor);
+  }
+
 
 
   public int size() {
@@ -158,6 +171,18 @@ public class ServerRegionProxy extends ServerProxy implements ServerRegionDataAc
   }
 
 
+  /**
+   * Does a put on the server without waiting for the response if the pool can.
+   *
+   * @param executor runs the put if the pool has to wait for the response
+   * @see PutOp#executeAsync
+   */
+  public CompletableFuture<Object> putAsync(Object key, Object value, EntryEventImpl event,
+      Object callbackArg, Executor executor) {
+    return PutOp.executeAsync((PoolImpl) this.pool, this.region, key, value, event,
+        event.getOperation(), callbackArg, this.pool.getPRSingleHopEnabled(), executor);
+  }
+
   /**
    * Does a region put on the server using the given connection.
    *
@@ -194,6 +219,18 @@ public class ServerRegionProxy extends ServerProxy implements ServerRegionDataAc
   }
 
 
+  /**
+   * Does an entry destroy on the server without waiting for the response if the pool can.
+   *
+   * @param executor runs the destroy if the pool has to wait for the response
+   * @see DestroyOp#executeAsync
+   */
+  public CompletableFuture<Object> destroyAsync(Object key, EntryEventImpl event,
+      Object callbackArg, Executor executor) {
+    return DestroyOp.executeAsync((PoolImpl) this.pool, this.region, key, event.getOperation(),
+        event, callbackArg, this.pool.getPRSingleHopEnabled(), executor);
+  }
+
   public void invalidate(EntryEventImpl event) {
     recordTXOperation(ServerRegionOperation.INVALIDATE, event.getKey(), event);
     InvalidateOp.execute(this.pool, this.region.getFullPath(), event);
@@ -49,6 +49,7 @@ import org.apache.geode.cache.client.internal.Connection;
 import org.apache.geode.cache.client.internal.ConnectionFactory;
 import org.apache.geode.cache.client.internal.Endpoint;
 import org.apache.geode.cache.client.internal.EndpointManager;
+import org.apache.geode.cache.client.internal.EndpointManagerImpl;
 import org.apache.geode.cache.client.internal.PoolImpl;
 import org.apache.geode.cache.client.internal.PoolImpl.PoolTask;
 import org.apache.geode.cache.client.internal.QueueConnectionImpl;
@@ -189,6 +190,8 @@ public class ConnectionManagerImpl implements ConnectionManager {
 
     long startTime = System.currentTimeMillis();
     long remainingTime = acquireTimeout;
+    Set<ServerLocation> slowServers = EndpointManagerImpl.LATENCY_AWARE_SELECTION
+        ? endpointManager.getSlowServers() : Collections.emptySet();
 
     // wait for a connection to become free
     lock.lock();
@@ -216,7 +219,11 @@ public class ConnectionManagerImpl implements ConnectionManager {
       }
 
       while (!availableConnections.isEmpty()) {
-        PooledConnection connection = (PooledConnection) availableConnections.removeFirst();
+        PooledConnection connection = removeAvailableConnection(slowServers);
+        if (connection == null) {
+          // the available connections are all to slow servers
+          break;
+        }
         try {
           connection.activate();
           return connection;
@@ -237,8 +244,13 @@ public class ConnectionManagerImpl implements ConnectionManager {
 
     PooledConnection connection = null;
     try {
-      Connection plainConnection =
-          connectionFactory.createClientToServerConnection(Collections.EMPTY_SET);
+      Connection plainConnection = null;
+      if (!slowServers.isEmpty()) {
+        plainConnection = connectionFactory.createClientToServerConnection(slowServers);
+      }
+      if (plainConnection == null) {
+        plainConnection = connectionFactory.createClientToServerConnection(Collections.EMPTY_SET);
+      }
 
       connection = addConnection(plainConnection);
     } catch (GemFireSecurityException e) {
@@ -270,6 +282,27 @@ public class ConnectionManagerImpl implements ConnectionManager {
     return connection;
   }
 
+  /**
+   * Removes the most recently used available connection that is not to one of the given slow
+   * servers. If all of them are, returns null so that a connection to another server is created
+   * instead, unless the pool has no room for one.
+   */
+  private PooledConnection removeAvailableConnection(Set<ServerLocation> slowServers) {
+    if (!slowServers.isEmpty()) {
+      for (Iterator it = availableConnections.iterator(); it.hasNext();) {
+        PooledConnection connection = (PooledConnection) it.next();
+        if (!slowServers.contains(connection.getServer())) {
+          it.remove();
+          return connection;
+        }
+      }
+      if (connectionCount < maxConnections) {
+        return null;
+      }
+    }
+    return (PooledConnection) availableConnections.removeFirst();
+  }
+
   /**
    * Borrow a connection to a specific server. This task currently allows us to break the connection
    * limit, because it is used by tasks from the background thread that shouldn't be constrained by
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query;
+
+import java.util.Collections;
+import java.util.Iterator;
+
+/**
+ * Iterates over the results of a query that are all held in memory already, for queries executed
+ * locally or without a server cursor.
+ *
+ * @since Geode 1.8
+ */
+class LocalQueryResultIterator<E> implements QueryResultIterator<E> {
+
+  private Iterator<E> results;
+
+  /**
+   * @param result the result of the query, a SelectResults or the one result of a query that is
+   *        not a select statement
+   */
+  LocalQueryResultIterator(Object result) {
+    if (result instanceof SelectResults) {
+      this.results = ((SelectResults<E>) result).iterator();
+    } else {
+      this.results = Collections.singletonList((E) result).iterator();
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    return this.results.hasNext();
+  }
+
+  @Override
+  public E next() {
+    return this.results.next();
+  }
+
+  @Override
+  public void close() {
+    this.results = Collections.emptyIterator();
+  }
+}
@@ -16,6 +16,7 @@
 package org.apache.geode.cache.query;
 
 import org.apache.geode.cache.Region;
+import org.apache.geode.cache.client.ServerOperationException;
 import org.apache.geode.cache.execute.Function;
 import org.apache.geode.cache.execute.FunctionContext;
 import org.apache.geode.cache.execute.FunctionService;
@@ -247,6 +248,45 @@ public interface Query {
   Object execute(RegionFunctionContext context, Object[] params) throws FunctionDomainException,
       TypeMismatchException, NameResolutionException, QueryInvocationTargetException;
 
+  /**
+   * Executes this query with the given parameters and returns an iterator over its results. When
+   * this query is executed on a server by a client, the results are sent to the client in batches
+   * of <code>fetchSize</code> results, each fetched from the server when the iterator reaches the
+   * end of the previous one, so the client never holds more than one batch. The server keeps the
+   * results of the query until the last batch is fetched or the iterator is closed, so an iterator
+   * that is not read to the end should be closed.
+   * <p>
+   * Batches are always fetched from the server that executed the query, so the iterator throws an
+   * exception if that server can no longer be reached. It throws a
+   * {@link ServerOperationException} if it was not fetched from for longer than the
+   * "gemfire.Query.CURSOR_IDLE_TIMEOUT" system property of the server. The query fails if the
+   * client already has "gemfire.Query.MAX_CURSORS_PER_CLIENT" iterators open on the server, 16 by
+   * default, or all clients have "gemfire.Query.MAX_CURSORS", 1024 by default. A server older than
+   * Geode 1.8 sends all the results at once, as does {@link #execute(Object...)}. When the query is
+   * executed locally, the iterator iterates over its results.
+   *
+   * @param fetchSize the number of results in each batch
+   * @param params Values that are bound to parameters (such as <code>$1</code>) in this query.
+   *
+   * @return An iterator over the results of the query. If the query is not a select statement,
+   *         such as <code><b>(select distinct * from /rgn).size</b></code>, the iterator returns
+   *         its one result.
+   *
+   * @throws IllegalArgumentException If <code>fetchSize</code> is not positive or the number of
+   *         bound parameters does not match the number of placeholders
+   * @see #execute(Object...) for the other exceptions thrown
+   *
+   * @since Geode 1.8
+   */
+  default <E> QueryResultIterator<E> executeAsIterator(int fetchSize, Object... params)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    if (fetchSize <= 0) {
+      throw new IllegalArgumentException("fetchSize must be positive but was " + fetchSize);
+    }
+    return new LocalQueryResultIterator<>(execute(params));
+  }
+
   /**
    * Compiles this <code>Query</code> to achieve higher performance execution.
    *
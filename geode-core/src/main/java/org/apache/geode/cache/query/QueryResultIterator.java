@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query;
+
+import java.util.Iterator;
+
+/**
+ * An iterator over the results of a query executed with
+ * {@link Query#executeAsIterator(int, Object...)}. When the query was executed on a server, the
+ * results are fetched from the server in batches as the iterator advances, and the server keeps
+ * them until the last batch is fetched or the iterator is closed.
+ *
+ * @since Geode 1.8
+ */
+public interface QueryResultIterator<E> extends Iterator<E>, AutoCloseable {
+
+  /**
+   * Releases the results the server keeps for this iterator, after which it has no more results.
+   * Closing an iterator that has returned all its results, or was closed before, does nothing.
+   */
+  @Override
+  void close();
+}
@@ -18,7 +18,6 @@
  */
 package org.apache.geode.cache.query.internal;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
@@ -218,31 +217,15 @@ public abstract class AbstractGroupOrRangeJunction extends AbstractCompiledValue
 
 
 
-  private List getCondtionsSortedOnIncreasingEstimatedIndexResultSize(ExecutionContext context)
-      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
-      QueryInvocationTargetException {
+  private List getCondtionsSortedOnIncreasingEstimatedIndexResultSize(int[] estimates,
+      ExecutionContext context) throws FunctionDomainException, TypeMismatchException,
+      NameResolutionException, QueryInvocationTargetException {
     // The checks before this function is invoked
     // have ensured that all the operands are of type ComparisonQueryInfo
     // and of the form var = constant. Also need for sorting will not arise
     // if there are only two operands
 
-    List sortedList = new ArrayList(this._operands.length);
-    int len = this._operands.length;
-    for (int i = 0; i < len; ++i) {
-      Filter toSort = (Filter) this._operands[i];
-      int indxRsltToSort = toSort.getSizeEstimate(context);
-      int sortedListLen = sortedList.size();
-      int j = 0;
-      for (; j < sortedListLen; ++j) {
-        Filter currSorted = (Filter) sortedList.get(j);
-        if (currSorted.getSizeEstimate(context) > indxRsltToSort) {
-          break;
-        }
-      }
-      sortedList.add(j, toSort);
-    }
-    return sortedList;
-
+    return JunctionCostModel.sortOnIncreasingSizeEstimate(this._operands, estimates, context);
   }
 
 
@@ -260,12 +243,15 @@ public abstract class AbstractGroupOrRangeJunction extends AbstractCompiledValue
     // using the intermediate results so far (passed in)
     // put results into new intermediate results
 
+    int[] estimates = new int[this._operands.length];
     List sortedConditionsList =
-        this.getCondtionsSortedOnIncreasingEstimatedIndexResultSize(context);
+        this.getCondtionsSortedOnIncreasingEstimatedIndexResultSize(estimates, context);
+    int filterIndex = 0;
 
     // Sort the operands in increasing order of resultset size
     Iterator i = sortedConditionsList.iterator();
     // SortedSet intersectionSet = new TreeSet(new SelectResultsComparator());
+    boolean isAnyFilterEvaluated = false;
     while (i.hasNext()) {
       // Asif:TODO The intermediate ResultSet should be passed as null when
       // invoking filterEvaluate. Just because filterEvaluate is being called,
@@ -285,6 +271,13 @@ public abstract class AbstractGroupOrRangeJunction extends AbstractCompiledValue
       // RangeJunction then the Filter is a RangeJunctionEvaluator
       SelectResults filterResults = null;
       Filter filter = (Filter) i.next();
+      int estimate = estimates[filterIndex++];
+      if (_operator == LITERAL_and && isAnyFilterEvaluated
+          && JunctionCostModel.isIterationCheaper(estimate, intermediateResults.size())) {
+        // Iterating the results so far is cheaper than this index lookup, the
+        // residual filter operands will be transferred for iter evaluation
+        break;
+      }
       boolean isConditioningNeeded = filter.isConditioningNeededForIndex(
           this.indpndntItr.length == 1 ? this.indpndntItr[0] : null, context,
           this.completeExpansion);
@@ -308,6 +301,7 @@ public abstract class AbstractGroupOrRangeJunction extends AbstractCompiledValue
               (intermediateResults == null || !isConditioningNeeded) ? filterResults
                   : QueryUtils.intersection(intermediateResults, filterResults, context);
           i.remove();
+          isAnyFilterEvaluated = true;
           if (intermediateResults.size() <= indexThresholdSize) {
             // Abort further intersection , the residual filter operands will be transferred for
             // iter evaluation
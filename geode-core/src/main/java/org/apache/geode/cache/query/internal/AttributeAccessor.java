@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.lang.reflect.Member;
+
+import org.apache.geode.cache.query.NameNotFoundException;
+import org.apache.geode.cache.query.QueryInvocationTargetException;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.Struct;
+import org.apache.geode.internal.cache.Token;
+import org.apache.geode.pdx.PdxInstance;
+import org.apache.geode.pdx.internal.PdxField;
+import org.apache.geode.pdx.internal.PdxInstanceImpl;
+import org.apache.geode.pdx.internal.PdxType;
+
+/**
+ * Reads an attribute of the objects a query path evaluates, compiled for the class or PDX type of
+ * the objects it read last. {@link PathUtils#evaluateAttribute} looks the attribute up by class and
+ * name every time it reads it; this remembers the field or getter that was found, or the field of
+ * the PDX type, so that reading the attribute of the next object of the same class or type only
+ * checks the class or type and then reads the field or invokes the getter. An object of another
+ * class or type binds it again, and objects whose attribute is not read from a field or getter of
+ * their class, such as structs, are read by {@link PathUtils#evaluateAttribute}.
+ *
+ * @since Geode 1.8
+ */
+class AttributeAccessor {
+
+  private final String name;
+
+  /** how the attribute of the objects read last is read, or null if none were bound yet */
+  private volatile Binding binding;
+
+  AttributeAccessor(String name) {
+    this.name = name;
+  }
+
+  Object read(ExecutionContext context, Object target)
+      throws NameNotFoundException, QueryInvocationTargetException {
+    Binding binding = this.binding;
+    if (binding != null && binding.isFor(target)) {
+      return read(binding, context, target);
+    }
+    return bindAndRead(context, target);
+  }
+
+  private Object read(Binding binding, ExecutionContext context, Object target)
+      throws NameNotFoundException, QueryInvocationTargetException {
+    try {
+      return binding.read(context, target);
+    } catch (NameNotFoundException e) {
+      // read it the usual way, which decides whether heterogeneous objects are UNDEFINED
+      return PathUtils.evaluateAttribute(context, target, this.name);
+    }
+  }
+
+  private Object bindAndRead(ExecutionContext context, Object target)
+      throws NameNotFoundException, QueryInvocationTargetException {
+    Binding binding = null;
+    if (target == null || target == QueryService.UNDEFINED || target instanceof Struct
+        || target instanceof Token) {
+      // not bound
+    } else if (target.getClass() == PdxInstanceImpl.class) {
+      PdxType type = ((PdxInstanceImpl) target).getPdxType();
+      PdxField field = type.getPdxField(this.name);
+      if (field != null) {
+        binding = new Binding(PdxInstanceImpl.class, null, type, field);
+      }
+    } else if (!(target instanceof PdxInstance)) {
+      try {
+        Member member = new AttributeDescriptor(context.getMethodInvocationAuthorizer(), this.name)
+            .getReadMember(target.getClass());
+        binding = new Binding(target.getClass(), member, null, null);
+      } catch (NameNotFoundException e) {
+        // not bound
+      }
+    }
+    if (binding == null) {
+      return PathUtils.evaluateAttribute(context, target, this.name);
+    }
+    this.binding = binding;
+    return read(binding, context, target);
+  }
+
+  /**
+   * The field or getter of a class, or the field of a PDX type, that an attribute is read from.
+   */
+  private static class Binding {
+
+    private final Class<?> targetClass;
+
+    private final Member member;
+
+    private final PdxType pdxType;
+
+    private final PdxField pdxField;
+
+    Binding(Class<?> targetClass, Member member, PdxType pdxType, PdxField pdxField) {
+      this.targetClass = targetClass;
+      this.member = member;
+      this.pdxType = pdxType;
+      this.pdxField = pdxField;
+    }
+
+    boolean isFor(Object target) {
+      return target != null && target.getClass() == this.targetClass
+          && (this.pdxType == null || ((PdxInstanceImpl) target).getPdxType() == this.pdxType);
+    }
+
+    Object read(ExecutionContext context, Object target)
+        throws NameNotFoundException, QueryInvocationTargetException {
+      if (this.pdxField != null) {
+        return ((PdxInstanceImpl) target).getRawField(this.pdxField);
+      }
+      return AttributeDescriptor.readMember(context.getMethodInvocationAuthorizer(), this.member,
+          target);
+    }
+  }
+}
@@ -95,10 +95,19 @@ public class AttributeDescriptor {
 
     Class resolutionClass = target.getClass();
     Member m = getReadMember(resolutionClass);
+    return readMember(_methodInvocationAuthorizer, m, target);
+  }
+
+  /**
+   * Reads the given field, or invokes the given method, of the target, which is neither null,
+   * UNDEFINED nor a Token.
+   */
+  static Object readMember(MethodInvocationAuthorizer methodInvocationAuthorizer, Member m,
+      Object target) throws NameNotFoundException, QueryInvocationTargetException {
     try {
       if (m instanceof Method) {
         try {
-          _methodInvocationAuthorizer.authorizeMethodInvocation((Method) m, target);
+          methodInvocationAuthorizer.authorizeMethodInvocation((Method) m, target);
           return ((Method) m).invoke(target, (Object[]) null);
         } catch (EntryDestroyedException e) {
           // eat the Exception
@@ -227,28 +227,13 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
     return result;
   }
 
-  private List getCondtionsSortedOnIncreasingEstimatedIndexResultSize(ExecutionContext context)
-      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
-      QueryInvocationTargetException {
+  private List getCondtionsSortedOnIncreasingEstimatedIndexResultSize(int[] estimates,
+      ExecutionContext context) throws FunctionDomainException, TypeMismatchException,
+      NameResolutionException, QueryInvocationTargetException {
     // The checks invoked before this function have ensured that all the
     // operands are of type ComparisonQueryInfo and of the form 'var = constant'.
     // Also need for sorting will not arise if there are only two operands
-    int len = this._operands.length;
-    List sortedList = new ArrayList(len);
-    for (int i = 0; i < len; ++i) {
-      Filter toSort = (Filter) this._operands[i];
-      int indxRsltToSort = toSort.getSizeEstimate(context);
-      int sortedListLen = sortedList.size();
-      int j = 0;
-      for (; j < sortedListLen; ++j) {
-        Filter currSorted = (Filter) sortedList.get(j);
-        if (currSorted.getSizeEstimate(context) > indxRsltToSort) {
-          break;
-        }
-      }
-      sortedList.add(j, toSort);
-    }
-    return sortedList;
+    return JunctionCostModel.sortOnIncreasingSizeEstimate(this._operands, estimates, context);
   }
 
   /**
@@ -262,12 +247,23 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
     // evaluate the result set from the indexed values
     // using the intermediate results so far (passed in)
     // put results into new intermediate results
+    int[] estimates = new int[this._operands.length];
     List sortedConditionsList =
-        this.getCondtionsSortedOnIncreasingEstimatedIndexResultSize(context);
+        this.getCondtionsSortedOnIncreasingEstimatedIndexResultSize(estimates, context);
+    int filterIndex = 0;
 
     // Sort the operands in increasing order of resultset size
     Iterator sortedConditionsItr = sortedConditionsList.iterator();
+    boolean isAnyFilterEvaluated = false;
     while (sortedConditionsItr.hasNext()) {
+      Filter filter = (Filter) sortedConditionsItr.next();
+      int estimate = estimates[filterIndex++];
+      if (_operator == LITERAL_and && isAnyFilterEvaluated
+          && JunctionCostModel.isIterationCheaper(estimate, intermediateResults.size())) {
+        // Iterating the results so far is cheaper than this index lookup, the
+        // remaining filter operands will be transferred for iter evaluation
+        break;
+      }
       // Asif:TODO The intermediate ResultSet should be passed as null when invoking
       // filterEvaluate. Just because filterEvaluate is being called, itself
       // guarantees that there will be at least on auxFilterEvalaute call.
@@ -280,8 +276,7 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
       // recursion being ended by evaluating auxIterEvaluate if any. The passing
       // of IntermediateResult in filterEvalaute causes AND junction evaluation
       // to be corrupted , if the intermediateResultset contains some value.
-      SelectResults filterResults =
-          ((Filter) sortedConditionsItr.next()).filterEvaluate(context, null);
+      SelectResults filterResults = filter.filterEvaluate(context, null);
       if (_operator == LITERAL_and) {
         if (filterResults != null && filterResults.isEmpty()) {
           return filterResults;
@@ -290,6 +285,7 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
               : QueryUtils.intersection(intermediateResults, filterResults, context);
 
           sortedConditionsItr.remove();
+          isAnyFilterEvaluated = true;
 
           if (intermediateResults.size() <= indexThresholdSize) {
             // Abort further intersection , the remaining filter operands will be
@@ -259,7 +259,7 @@ public class CompiledOperation extends AbstractCompiledValue {
     if (methodDispatch == null) {
       try {
         methodDispatch =
-            new MethodDispatch(context.getCache().getQueryService().getMethodInvocationAuthorizer(),
+            new MethodDispatch(context.getMethodInvocationAuthorizer(),
                 resolutionType, this.methodName, argTypes);
       } catch (NameResolutionException nre) {
         if (!org.apache.geode.cache.query.Struct.class.isAssignableFrom(resolutionType)
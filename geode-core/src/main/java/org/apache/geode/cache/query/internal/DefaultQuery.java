@@ -37,9 +37,8 @@ import org.apache.geode.cache.persistence.PartitionOfflineException;
 import org.apache.geode.cache.query.FunctionDomainException;
 import org.apache.geode.cache.query.NameResolutionException;
 import org.apache.geode.cache.query.Query;
-import org.apache.geode.cache.query.QueryException;
-import org.apache.geode.cache.query.QueryInvalidException;
 import org.apache.geode.cache.query.QueryInvocationTargetException;
+import org.apache.geode.cache.query.QueryResultIterator;
 import org.apache.geode.cache.query.QueryService;
 import org.apache.geode.cache.query.QueryStatistics;
 import org.apache.geode.cache.query.RegionNotFoundException;
@@ -167,19 +166,18 @@ public class DefaultQuery implements Query {
    * @see QueryService#newQuery
    */
   public DefaultQuery(String queryString, InternalCache cache, boolean isForRemote) {
+    this(queryString, cache, QueryPlanCache.compile(queryString, cache, isForRemote));
+  }
+
+  /**
+   * Creates a query of the given, already compiled, query string
+   *
+   * @see QueryPlanCache
+   */
+  DefaultQuery(String queryString, InternalCache cache, QueryPlanCache.CompiledPlan plan) {
     this.queryString = queryString;
-    QCompiler compiler = new QCompiler();
-    this.compiledQuery = compiler.compileQuery(queryString);
-    CompiledSelect cs = getSimpleSelect();
-    if (cs != null && !isForRemote && (cs.isGroupBy() || cs.isOrderBy())) {
-      QueryExecutionContext ctx = new QueryExecutionContext(null, cache);
-      try {
-        cs.computeDependencies(ctx);
-      } catch (QueryException qe) {
-        throw new QueryInvalidException("", qe);
-      }
-    }
-    this.traceOn = compiler.isTraceRequested() || QUERY_VERBOSE;
+    this.compiledQuery = plan.getCompiledQuery();
+    this.traceOn = plan.isTraceRequested() || QUERY_VERBOSE;
     this.cache = cache;
     this.stats = new DefaultQueryStatistics();
   }
@@ -328,6 +326,41 @@ public class DefaultQuery implements Query {
     return !isRemoteQuery() && !this.cache.getPdxReadSerialized();
   }
 
+  @Override
+  public <E> QueryResultIterator<E> executeAsIterator(int fetchSize, Object... params)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    if (fetchSize <= 0) {
+      throw new IllegalArgumentException("fetchSize must be positive but was " + fetchSize);
+    }
+    if (params == null) {
+      throw new IllegalArgumentException(
+          LocalizedStrings.DefaultQuery_PARAMETERS_CANNOT_BE_NULL.toLocalizedString());
+    }
+    if (this.serverProxy != null) {
+      return executeOnServerWithCursor(params, fetchSize);
+    }
+    return Query.super.executeAsIterator(fetchSize, params);
+  }
+
+  private <E> QueryResultIterator<E> executeOnServerWithCursor(Object[] parameters,
+      int fetchSize) {
+    long startTime = CachePerfStats.getStatTime();
+    try {
+      if (this.proxyCache != null) {
+        if (this.proxyCache.isClosed()) {
+          throw proxyCache.getCacheClosedException("Cache is closed for this user.");
+        }
+        UserAttributes.userAttributes.set(this.proxyCache.getUserAttributes());
+      }
+      return this.serverProxy.queryWithCursor(this.queryString, parameters, fetchSize);
+    } finally {
+      UserAttributes.userAttributes.set(null);
+      long endTime = CachePerfStats.getStatTime();
+      updateStatistics(endTime - startTime);
+    }
+  }
+
   private Object executeOnServer(Object[] parameters) {
     long startTime = CachePerfStats.getStatTime();
     Object result = null;
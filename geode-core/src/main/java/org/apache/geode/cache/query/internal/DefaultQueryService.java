@@ -151,7 +151,10 @@ public class DefaultQueryService implements InternalQueryService {
           LocalizedStrings.DefaultQueryService_THE_QUERY_STRING_MUST_NOT_BE_EMPTY
               .toLocalizedString());
     ServerProxy serverProxy = pool == null ? null : new ServerProxy(pool);
-    DefaultQuery query = new DefaultQuery(queryString, this.cache, serverProxy != null);
+    QueryPlanCache planCache = serverProxy == null ? this.cache.getQueryPlanCache() : null;
+    DefaultQuery query = planCache == null
+        ? new DefaultQuery(queryString, this.cache, serverProxy != null)
+        : new DefaultQuery(queryString, this.cache, planCache.getPlan(queryString, this.cache));
     query.setServerProxy(serverProxy);
     return query;
   }
@@ -93,6 +93,14 @@ public class ExecutionContext {
   private Object currentProjectionField = null;
   private boolean isPRQueryNode = false;
 
+  private MethodInvocationAuthorizer methodInvocationAuthorizer;
+
+  /**
+   * The paths that implicit attribute names resolved to, reused while a name resolves to the same
+   * iterator so that the attribute accessor of the path stays bound across iterations
+   */
+  private final Map<String, CompiledPath> implicitPaths = new HashMap<>();
+
   /**
    * Param specialIteratorVar name of special variable to use to denote the current iteration
    * element. Used to implement the "this" var in the query shortcut methods
@@ -298,9 +306,29 @@ public class ExecutionContext {
     return this.cache;
   }
 
+  /**
+   * Returns the authorizer of the methods the query invokes, looked up once for the execution
+   * rather than for every attribute that is read.
+   */
+  public MethodInvocationAuthorizer getMethodInvocationAuthorizer() {
+    if (this.methodInvocationAuthorizer == null) {
+      this.methodInvocationAuthorizer =
+          this.cache.getQueryService().getMethodInvocationAuthorizer();
+    }
+    return this.methodInvocationAuthorizer;
+  }
+
   private CompiledValue resolveImplicitPath(String name) throws AmbiguousNameException {
     CompiledValue result = resolveImplicitOperationName(name, 0, false);
-    return (result == null) ? null : new CompiledPath(result, name);
+    if (result == null) {
+      return null;
+    }
+    CompiledPath path = this.implicitPaths.get(name);
+    if (path == null || path.getReceiver() != result) {
+      path = new CompiledPath(result, name);
+      this.implicitPaths.put(name, path);
+    }
+    return path;
   }
 
   /**
@@ -614,6 +642,26 @@ public class ExecutionContext {
     throw new UnsupportedOperationException("Method should not have been called");
   }
 
+  /**
+   * Returns the number of key hash ranges the buckets of this context are split into, of which
+   * this context queries one.
+   */
+  public int getNumBucketSplits() {
+    return 1;
+  }
+
+  public int getBucketSplitIndex() {
+    return 0;
+  }
+
+  /**
+   * Called when the buckets of this context were restricted to its key hash range, so that any
+   * other iteration over the region in this context sees the whole buckets.
+   */
+  public void bucketSplitApplied() {
+    throw new UnsupportedOperationException("Method should not have been called");
+  }
+
   public PdxString getSavedPdxString(int index) {
     throw new UnsupportedOperationException("Method should not have been called");
   }
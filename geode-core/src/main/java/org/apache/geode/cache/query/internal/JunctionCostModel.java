@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.geode.cache.query.FunctionDomainException;
+import org.apache.geode.cache.query.NameResolutionException;
+import org.apache.geode.cache.query.QueryInvocationTargetException;
+import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.distributed.internal.DistributionConfig;
+
+/**
+ * Orders the filter operands of a junction by the estimated size of their index results and
+ * decides, for an AND junction, when intersecting the results of one more index lookup costs more
+ * than iterating over the results collected so far and evaluating the remaining operands on each.
+ * <p>
+ * Iterating over a result is taken to cost the gemfire.Query.ITERATION_COST_FACTOR system property
+ * times the cost of fetching one index value, as every iterated result evaluates the remaining
+ * conditions. The factor is 0 by default, and a factor of 0 or less always intersects, so query
+ * plans only change when the property is set.
+ *
+ * @since Geode 1.8
+ */
+class JunctionCostModel {
+
+  public static final String ITERATION_COST_PROP_STR =
+      DistributionConfig.GEMFIRE_PREFIX + "Query.ITERATION_COST_FACTOR";
+
+  private static final int ITERATION_COST_FACTOR_DEFAULT = 0;
+
+  static final int ITERATION_COST_FACTOR =
+      Integer.getInteger(ITERATION_COST_PROP_STR, ITERATION_COST_FACTOR_DEFAULT);
+
+  private JunctionCostModel() {
+    // no instances
+  }
+
+  /**
+   * Returns the given filter operands sorted on increasing estimated index result size, keeping
+   * the order of operands with equal estimates. The estimate of each operand is computed once and
+   * stored in the given array, which is as long as the operands, at the index of the operand in the
+   * returned list.
+   */
+  static List sortOnIncreasingSizeEstimate(CompiledValue[] operands, int[] estimates,
+      ExecutionContext context) throws FunctionDomainException, TypeMismatchException,
+      NameResolutionException, QueryInvocationTargetException {
+    int len = operands.length;
+    List sortedList = new ArrayList(len);
+    for (int i = 0; i < len; ++i) {
+      Filter toSort = (Filter) operands[i];
+      int estimate = toSort.getSizeEstimate(context);
+      int j = i;
+      while (j > 0 && estimates[j - 1] > estimate) {
+        estimates[j] = estimates[j - 1];
+        --j;
+      }
+      estimates[j] = estimate;
+      sortedList.add(j, toSort);
+    }
+    return sortedList;
+  }
+
+  /**
+   * Returns whether iterating over the given number of intermediate results is estimated to be
+   * cheaper than looking up and intersecting the index results of a filter with the given size
+   * estimate.
+   */
+  static boolean isIterationCheaper(int filterSizeEstimate, int intermediateResultsSize) {
+    if (ITERATION_COST_FACTOR <= 0) {
+      return false;
+    }
+    return (long) intermediateResultsSize * ITERATION_COST_FACTOR < filterSizeEstimate;
+  }
+}
@@ -98,8 +98,16 @@ public class QRegion implements SelectResults {
 
     ResultsCollectionWrapper res = null;
     if (context.getBucketList() != null && region instanceof PartitionedRegion) {
-      LocalDataSet localData =
-          new LocalDataSet(((PartitionedRegion) region), new HashSet(context.getBucketList()));
+      LocalDataSet localData;
+      int numSplits = context.getNumBucketSplits();
+      if (numSplits > 1) {
+        localData = new LocalDataSet(((PartitionedRegion) region),
+            new HashSet(context.getBucketList()), context.getBucketSplitIndex(), numSplits);
+        context.bucketSplitApplied();
+      } else {
+        localData =
+            new LocalDataSet(((PartitionedRegion) region), new HashSet(context.getBucketList()));
+      }
       this.region = localData;
       if (includeKeys) {
         res = new ResultsCollectionWrapper(TypeUtils.getObjectType(constraint),
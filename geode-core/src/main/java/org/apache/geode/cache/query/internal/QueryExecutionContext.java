@@ -41,6 +41,12 @@ public class QueryExecutionContext extends ExecutionContext {
 
   private List bucketList;
 
+  private int numBucketSplits = 1;
+
+  private int bucketSplitIndex = 0;
+
+  private boolean bucketSplitApplied = false;
+
   private boolean indexUsed = false;
 
   /**
@@ -166,6 +172,37 @@ public class QueryExecutionContext extends ExecutionContext {
     return this.bucketList;
   }
 
+  /**
+   * Restricts the first iteration over the buckets of this context to the entries whose keys fall
+   * into the given one of the given number of key hash ranges.
+   */
+  public void setBucketSplit(int splitIndex, int numSplits) {
+    this.bucketSplitIndex = splitIndex;
+    this.numBucketSplits = numSplits;
+    this.bucketSplitApplied = false;
+  }
+
+  @Override
+  public int getNumBucketSplits() {
+    return this.numBucketSplits;
+  }
+
+  @Override
+  public int getBucketSplitIndex() {
+    return this.bucketSplitIndex;
+  }
+
+  @Override
+  public void bucketSplitApplied() {
+    this.numBucketSplits = 1;
+    this.bucketSplitIndex = 0;
+    this.bucketSplitApplied = true;
+  }
+
+  public boolean isBucketSplitApplied() {
+    return this.bucketSplitApplied;
+  }
+
   /**
    * creates new PdxString from String and caches it
    */
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.geode.cache.query.QueryException;
+import org.apache.geode.cache.query.QueryInvalidException;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.CachePerfStats;
+import org.apache.geode.internal.cache.InternalCache;
+
+/**
+ * A bounded, least recently used cache of the compiled trees of the queries of a cache, keyed by
+ * their query string with whitespace normalized. A {@link DefaultQuery} created for a query string
+ * that was compiled before shares the compiled tree instead of parsing the string again, the same
+ * way concurrent executions of one query share it. Bind parameters are evaluated against the tree
+ * on every execution, so a parameterized query compiles once for all its parameter values.
+ * <p>
+ * The cache is cleared whenever an index is created or removed, so that queries created after an
+ * index change start from a freshly compiled tree as they would without the cache. Indexes are
+ * still selected for every execution, as the best index depends on the values of the bind
+ * parameters and, on partitioned regions, on the bucket that is queried.
+ * <p>
+ * The cache is disabled unless the gemfire.QueryService.planCacheSize system property sets the
+ * number of compiled trees to keep.
+ *
+ * @since Geode 1.8
+ */
+public class QueryPlanCache {
+
+  /** the maximum number of compiled trees each cache keeps, or 0 to not keep any */
+  public static final int MAX_SIZE =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "QueryService.planCacheSize", 0);
+
+  private final Map<String, CompiledPlan> plans;
+
+  private final CachePerfStats stats;
+
+  public QueryPlanCache(int maxSize, CachePerfStats stats) {
+    this.plans = new LinkedHashMap<String, CompiledPlan>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, CompiledPlan> eldest) {
+        return size() > maxSize;
+      }
+    };
+    this.stats = stats;
+  }
+
+  /**
+   * Returns the compiled tree of the given query string, compiling it if it is not cached.
+   *
+   * @throws QueryInvalidException if the query string does not compile
+   */
+  CompiledPlan getPlan(String queryString, InternalCache cache) {
+    String key = normalize(queryString);
+    CompiledPlan plan;
+    synchronized (this.plans) {
+      plan = this.plans.get(key);
+    }
+    if (plan != null) {
+      this.stats.incQueryPlanCacheHits();
+      return plan;
+    }
+    this.stats.incQueryPlanCacheMisses();
+    plan = compile(queryString, cache, false);
+    synchronized (this.plans) {
+      CompiledPlan existing = this.plans.putIfAbsent(key, plan);
+      return existing != null ? existing : plan;
+    }
+  }
+
+  /**
+   * Removes all compiled trees, called when an index is created or removed.
+   */
+  public void clear() {
+    synchronized (this.plans) {
+      this.plans.clear();
+    }
+  }
+
+  public int size() {
+    synchronized (this.plans) {
+      return this.plans.size();
+    }
+  }
+
+  /**
+   * Compiles the given query string. Queries that are executed locally and group or order their
+   * results have their dependencies computed up front.
+   *
+   * @throws QueryInvalidException if the query string does not compile
+   */
+  static CompiledPlan compile(String queryString, InternalCache cache, boolean isForRemote) {
+    QCompiler compiler = new QCompiler();
+    CompiledValue compiledQuery = compiler.compileQuery(queryString);
+    if (compiledQuery instanceof CompiledSelect && !isForRemote) {
+      CompiledSelect cs = (CompiledSelect) compiledQuery;
+      if (cs.isGroupBy() || cs.isOrderBy()) {
+        QueryExecutionContext ctx = new QueryExecutionContext(null, cache);
+        try {
+          cs.computeDependencies(ctx);
+        } catch (QueryException qe) {
+          throw new QueryInvalidException("", qe);
+        }
+      }
+    }
+    return new CompiledPlan(compiledQuery, compiler.isTraceRequested());
+  }
+
+  /**
+   * Returns the given query string with leading and trailing whitespace removed and every other
+   * run of whitespace outside of quotes replaced by a single space. Everything from the first
+   * comment on is kept as it is.
+   */
+  static String normalize(String queryString) {
+    StringBuilder normalized = new StringBuilder(queryString.length());
+    char quote = 0;
+    boolean whitespace = false;
+    for (int i = 0; i < queryString.length(); i++) {
+      char c = queryString.charAt(i);
+      if (quote == 0) {
+        if (Character.isWhitespace(c)) {
+          whitespace = true;
+          continue;
+        }
+        if (whitespace && normalized.length() > 0) {
+          normalized.append(' ');
+        }
+        whitespace = false;
+        if (queryString.startsWith("--", i) || queryString.startsWith("/*", i)) {
+          return normalized.append(queryString, i, queryString.length()).toString();
+        }
+        if (c == '\'' || c == '"') {
+          quote = c;
+        }
+      } else if (c == quote) {
+        quote = 0;
+      }
+      normalized.append(c);
+    }
+    return normalized.toString();
+  }
+
+  /**
+   * The compiled tree of a query string and whether the string requested tracing.
+   */
+  static class CompiledPlan {
+
+    private final CompiledValue compiledQuery;
+
+    private final boolean traceRequested;
+
+    CompiledPlan(CompiledValue compiledQuery, boolean traceRequested) {
+      this.compiledQuery = compiledQuery;
+      this.traceRequested = traceRequested;
+    }
+
+    CompiledValue getCompiledQuery() {
+      return this.compiledQuery;
+    }
+
+    boolean isTraceRequested() {
+      return this.traceRequested;
+    }
+  }
+}
@@ -27,12 +27,15 @@ import java.util.Set;
 import org.apache.geode.cache.query.AmbiguousNameException;
 import org.apache.geode.cache.query.FunctionDomainException;
 import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.IndexType;
 import org.apache.geode.cache.query.NameResolutionException;
 import org.apache.geode.cache.query.QueryInvocationTargetException;
 import org.apache.geode.cache.query.QueryService;
 import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.Struct;
 import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.index.AbstractIndex;
+import org.apache.geode.cache.query.internal.index.IndexProtocol;
 import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
 import org.apache.geode.cache.query.internal.types.StructTypeImpl;
 import org.apache.geode.cache.query.internal.types.TypeUtils;
@@ -814,10 +817,47 @@ public class RangeJunction extends AbstractGroupOrRangeJunction {
       return NOTEQUALCONDITIONEVALUATOR;
     }
 
-    public int getSizeEstimate(ExecutionContext context) {
+    public int getSizeEstimate(ExecutionContext context) throws TypeMismatchException {
       return RANGE_SIZE_ESTIMATE;
     }
 
+    /**
+     * Returns the estimated number of values the index holds for the given inequality, or -1 if
+     * the index can not estimate inequalities. A hinted index is estimated at its hint size.
+     */
+    int getIndexSizeEstimate(ExecutionContext context, Object key, int operator)
+        throws TypeMismatchException {
+      IndexProtocol index = this.indxInfo._index;
+      if (context instanceof QueryExecutionContext) {
+        QueryExecutionContext qcontext = (QueryExecutionContext) context;
+        if (qcontext.isHinted(index.getName())) {
+          return qcontext.getHintSize(index.getName());
+        }
+      }
+      if (index.getType() != IndexType.FUNCTIONAL) {
+        return -1;
+      }
+      return index.getSizeEstimate(key, operator, this.indxInfo._matchLevel);
+    }
+
+    /**
+     * Returns the estimated number of values of the index whose key is between the given bounds,
+     * or -1 if the index is hinted or has no histogram that can estimate it.
+     */
+    int getIndexRangeSizeEstimate(ExecutionContext context, Object lowerKey, int lowerOperator,
+        Object upperKey, int upperOperator) throws TypeMismatchException {
+      IndexProtocol index = this.indxInfo._index;
+      if (context instanceof QueryExecutionContext
+          && ((QueryExecutionContext) context).isHinted(index.getName())) {
+        return -1;
+      }
+      if (index.getType() != IndexType.FUNCTIONAL || !(index instanceof AbstractIndex)) {
+        return -1;
+      }
+      return ((AbstractIndex) index).getHistogramSizeEstimate(lowerKey, lowerOperator, upperKey,
+          upperOperator, this.indxInfo._matchLevel);
+    }
+
     @Override
     public void visitNodes(NodeVisitor visitor) {
       Support.assertionFailed("Should not have come here");
@@ -974,6 +1014,12 @@ public class RangeJunction extends AbstractGroupOrRangeJunction {
       return SINGLECONDNEVALUATOR;
     }
 
+    @Override
+    public int getSizeEstimate(ExecutionContext context) throws TypeMismatchException {
+      int size = getIndexSizeEstimate(context, this.condnKey, this.condnOp);
+      return size < 0 ? RANGE_SIZE_ESTIMATE : size;
+    }
+
     @Override
     public void visitNodes(NodeVisitor visitor) {
       Support.assertionFailed("Should not have come here");
@@ -1126,6 +1172,25 @@ public class RangeJunction extends AbstractGroupOrRangeJunction {
       return DOUBLECONDNRANGEJUNCTIONEVALUATOR;
     }
 
+    /**
+     * Estimates the values between the bounds from the histogram of the index. Without one, the
+     * values that both bounds keep are not known, so the smaller of the two estimates is used.
+     */
+    @Override
+    public int getSizeEstimate(ExecutionContext context) throws TypeMismatchException {
+      int size = getIndexRangeSizeEstimate(context, this.greaterCondnKey, this.greaterCondnOp,
+          this.lessCondnKey, this.lessCondnOp);
+      if (size >= 0) {
+        return size;
+      }
+      int lessSize = getIndexSizeEstimate(context, this.lessCondnKey, this.lessCondnOp);
+      int greaterSize = getIndexSizeEstimate(context, this.greaterCondnKey, this.greaterCondnOp);
+      if (lessSize < 0 || greaterSize < 0) {
+        return RANGE_SIZE_ESTIMATE;
+      }
+      return Math.min(lessSize, greaterSize);
+    }
+
     @Override
     public void visitNodes(NodeVisitor visitor) {
       Support.assertionFailed("Should not have come here");
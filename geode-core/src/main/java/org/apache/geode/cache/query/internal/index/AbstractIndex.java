@@ -23,6 +23,8 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -61,6 +63,7 @@ import org.apache.geode.cache.query.internal.Support;
 import org.apache.geode.cache.query.internal.index.IndexStore.IndexStoreEntry;
 import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
 import org.apache.geode.cache.query.internal.types.StructTypeImpl;
+import org.apache.geode.cache.query.internal.types.TypeUtils;
 import org.apache.geode.cache.query.types.ObjectType;
 import org.apache.geode.internal.Assert;
 import org.apache.geode.internal.cache.BucketRegion;
@@ -141,6 +144,11 @@ public abstract class AbstractIndex implements IndexProtocol {
   /** Flag to indicate if the index is populated with data */
   volatile boolean isPopulated = false;
 
+  /** The distribution of the keys of this index, or null if it has not been built */
+  private volatile IndexHistogram histogram;
+
+  private final AtomicBoolean histogramBuildInProgress = new AtomicBoolean();
+
   AbstractIndex(InternalCache cache, String indexName, Region region, String fromClause,
       String indexedExpression, String projectionAttributes, String originalFromClause,
       String originalIndexedExpression, String[] defintions, IndexStatistics stats) {
@@ -845,6 +853,94 @@ public abstract class AbstractIndex implements IndexProtocol {
     this.prIndex = parIndex;
   }
 
+  /**
+   * Returns the estimated number of values whose key compares to the given key as the given range
+   * operator requires, from the histogram of the keys of this index, or -1 if this index has no
+   * histogram or the histogram can not estimate it.
+   */
+  int getHistogramSizeEstimate(Object key, int operator, int matchLevel)
+      throws TypeMismatchException {
+    if (matchLevel > 0) {
+      return -1;
+    }
+    IndexHistogram histogram = getHistogram();
+    if (histogram == null) {
+      return -1;
+    }
+    return histogram.getSizeEstimate(getPdxStringForIndexedPdxKeys(TypeUtils.indexKeyFor(key)),
+        operator);
+  }
+
+  /**
+   * Returns the estimated number of values whose key is above the lower key and below the upper
+   * key as the given range operators require, from the histogram of the keys of this index, or -1
+   * if this index has no histogram or the histogram can not estimate it.
+   */
+  public int getHistogramSizeEstimate(Object lowerKey, int lowerOperator, Object upperKey,
+      int upperOperator, int matchLevel) throws TypeMismatchException {
+    if (matchLevel > 0) {
+      return -1;
+    }
+    IndexHistogram histogram = getHistogram();
+    if (histogram == null) {
+      return -1;
+    }
+    return histogram.getSizeEstimate(
+        getPdxStringForIndexedPdxKeys(TypeUtils.indexKeyFor(lowerKey)), lowerOperator,
+        getPdxStringForIndexedPdxKeys(TypeUtils.indexKeyFor(upperKey)), upperOperator);
+  }
+
+  /**
+   * Returns the histogram of the keys of this index, or null if it has not been built yet. The
+   * histogram is built in the background on first use and built again once this index has been
+   * updated enough times since.
+   */
+  private IndexHistogram getHistogram() {
+    IndexHistogram histogram = this.histogram;
+    long numUpdates = this.internalIndexStats.getNumUpdates();
+    if ((histogram == null || histogram.isStale(numUpdates))
+        && this.histogramBuildInProgress.compareAndSet(false, true)) {
+      scheduleHistogramBuild(numUpdates);
+    }
+    return histogram;
+  }
+
+  /**
+   * Builds the histogram on another thread so that no query waits for it. Queries keep using the
+   * old histogram, or the estimates that need none, until the new one is built.
+   */
+  private void scheduleHistogramBuild(long numUpdates) {
+    Runnable build = () -> {
+      try {
+        IndexHistogram newHistogram = buildHistogram(numUpdates);
+        if (newHistogram != null) {
+          this.histogram = newHistogram;
+          this.internalIndexStats.incHistogramBuilds();
+        }
+      } catch (RuntimeException e) {
+        logger.debug("Failed to build the histogram of index {}", this.indexName, e);
+      } finally {
+        this.histogramBuildInProgress.set(false);
+      }
+    };
+    try {
+      this.cache.getDistributionManager().getWaitingThreadPool().execute(build);
+    } catch (RejectedExecutionException e) {
+      // the cache is closing
+      this.histogramBuildInProgress.set(false);
+    }
+  }
+
+  /**
+   * Builds a histogram of the keys of this index, or returns null if this index does not keep its
+   * keys in order.
+   *
+   * @param numUpdates the number of updates this index has had so far
+   */
+  IndexHistogram buildHistogram(long numUpdates) {
+    return null;
+  }
+
   /**
    * Dummy implementation that subclasses can override.
    */
@@ -921,6 +1017,8 @@ public abstract class AbstractIndex implements IndexProtocol {
     public void incReadLockCount(int delta) {}
 
     public void incNumBucketIndexes(int delta) {}
+
+    public void incHistogramBuilds() {}
   }
 
   class IMQEvaluator implements IndexedExpressionEvaluator {
@@ -309,6 +309,10 @@ public class CompactRangeIndex extends AbstractIndex {
           break;
         case OQLLexerTokenTypes.TOK_LE:
         case OQLLexerTokenTypes.TOK_LT:
+          size = getHistogramSizeEstimate(key, operator, matchLevel);
+          if (size >= 0) {
+            break;
+          }
           if (matchLevel <= 0 && (key instanceof Number)) {
 
             int totalSize = indexStore.size();
@@ -373,6 +377,10 @@ public class CompactRangeIndex extends AbstractIndex {
 
         case OQLLexerTokenTypes.TOK_GE:
         case OQLLexerTokenTypes.TOK_GT:
+          size = getHistogramSizeEstimate(key, operator, matchLevel);
+          if (size >= 0) {
+            break;
+          }
           if (matchLevel <= 0 && (key instanceof Number)) {
             int totalSize = indexStore.size();
             if (CompactRangeIndex.testHook != null) {
@@ -947,6 +955,21 @@ public class CompactRangeIndex extends AbstractIndex {
     return this.indexStore.printAll();
   }
 
+  @Override
+  IndexHistogram buildHistogram(long numUpdates) {
+    if (!(this.indexStore instanceof MemoryIndexStore)) {
+      return null;
+    }
+    IndexHistogram.Builder builder =
+        new IndexHistogram.Builder(this.internalIndexStats.getNumberOfValues(), numUpdates);
+    Iterator<IndexStoreEntry> keys = ((MemoryIndexStore) this.indexStore).getKeysIterator();
+    while (keys.hasNext()) {
+      Object key = keys.next().getDeserializedKey();
+      builder.add(key, this.indexStore.size(key));
+    }
+    return builder.build();
+  }
+
   protected InternalIndexStatistics createStats(String indexName) {
     return new RangeIndexStatistics(indexName);
   }
@@ -1009,6 +1032,10 @@ public class CompactRangeIndex extends AbstractIndex {
       this.vsdStats.incReadLockCount(delta);
     }
 
+    public void incHistogramBuilds() {
+      this.vsdStats.incHistogramBuilds();
+    }
+
     /**
      * Returns the total amount of time (in nanoseconds) spent updating this index.
      */
@@ -0,0 +1,276 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.geode.cache.query.internal.NullToken;
+import org.apache.geode.cache.query.internal.Undefined;
+import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
+import org.apache.geode.cache.query.internal.types.TypeUtils;
+
+/**
+ * An equi-depth histogram of the keys of an index, used to estimate how many values a range
+ * condition on the index selects. The keys are split, in index order, into buckets that hold about
+ * the same number of values each. A bucket remembers its highest key, the number of values with
+ * that key and the number of values up to and including it. Keys within a bucket are assumed to be
+ * spread evenly between the highest keys of the bucket and of the bucket before it.
+ * <p>
+ * The histogram is a snapshot: the index builds a new one once enough updates were made to it
+ * since this one was built. Null and UNDEFINED keys are left out, as range conditions never select
+ * them.
+ *
+ * @since Geode 1.8
+ */
+class IndexHistogram {
+
+  /** the number of buckets the keys are split into */
+  static final int NUM_BUCKETS = 64;
+
+  /**
+   * the least number of updates to an index before its histogram is built again; more are
+   * required for indexes with more than ten times as many values
+   */
+  static final int MIN_UPDATES_BEFORE_REBUILD = 1000;
+
+  private final Comparator comparator = TypeUtils.getExtendedNumericComparator();
+
+  private final Object lowestKey;
+
+  private final Object[] upperBounds;
+
+  private final long[] upperBoundCounts;
+
+  private final long[] cumulativeCounts;
+
+  private final long numKeys;
+
+  private final long builtAtUpdates;
+
+  private IndexHistogram(Object lowestKey, Object[] upperBounds, long[] upperBoundCounts,
+      long[] cumulativeCounts, long numKeys, long builtAtUpdates) {
+    this.lowestKey = lowestKey;
+    this.upperBounds = upperBounds;
+    this.upperBoundCounts = upperBoundCounts;
+    this.cumulativeCounts = cumulativeCounts;
+    this.numKeys = numKeys;
+    this.builtAtUpdates = builtAtUpdates;
+  }
+
+  /**
+   * Returns the number of values in the histogram
+   */
+  long getNumValues() {
+    return this.cumulativeCounts.length == 0 ? 0
+        : this.cumulativeCounts[this.cumulativeCounts.length - 1];
+  }
+
+  /**
+   * Returns the number of distinct keys in the histogram
+   */
+  long getNumKeys() {
+    return this.numKeys;
+  }
+
+  /**
+   * Returns whether the index has been updated enough times since this histogram was built that
+   * a new one should be built.
+   */
+  boolean isStale(long numUpdates) {
+    return numUpdates - this.builtAtUpdates > Math.max(MIN_UPDATES_BEFORE_REBUILD,
+        getNumValues() / 10);
+  }
+
+  /**
+   * Returns the estimated number of values whose key is above the lower key and below the upper
+   * key as the given operators require, or -1 if the histogram can not estimate it. The values
+   * outside the range are taken from the same histogram, so the estimate is not negative.
+   */
+  int getSizeEstimate(Object lowerKey, int lowerOperator, Object upperKey, int upperOperator) {
+    int aboveLower = getSizeEstimate(lowerKey, lowerOperator);
+    int belowUpper = getSizeEstimate(upperKey, upperOperator);
+    if (aboveLower < 0 || belowUpper < 0) {
+      return -1;
+    }
+    return (int) Math.max(0, (long) aboveLower + belowUpper - getNumValues());
+  }
+
+  /**
+   * Returns the estimated number of values whose key compares to the given key as the given
+   * operator requires, or -1 if the histogram can not estimate it.
+   */
+  int getSizeEstimate(Object key, int operator) {
+    if (key == null || key instanceof NullToken || key instanceof Undefined) {
+      return -1;
+    }
+    long size;
+    try {
+      switch (operator) {
+        case OQLLexerTokenTypes.TOK_LT:
+          size = countBelow(key, false);
+          break;
+        case OQLLexerTokenTypes.TOK_LE:
+          size = countBelow(key, true);
+          break;
+        case OQLLexerTokenTypes.TOK_GT:
+          size = getNumValues() - countBelow(key, true);
+          break;
+        case OQLLexerTokenTypes.TOK_GE:
+          size = getNumValues() - countBelow(key, false);
+          break;
+        default:
+          return -1;
+      }
+    } catch (ClassCastException e) {
+      // the key is not comparable to the keys of the index
+      return -1;
+    }
+    return (int) Math.min(Integer.MAX_VALUE, Math.max(0, size));
+  }
+
+  /**
+   * Returns the estimated number of values whose key is less than, or if inclusive is true not
+   * greater than, the given key
+   */
+  private long countBelow(Object key, boolean inclusive) {
+    int numBuckets = this.upperBounds.length;
+    if (numBuckets == 0) {
+      return 0;
+    }
+    int low = 0;
+    int high = numBuckets - 1;
+    if (this.comparator.compare(this.upperBounds[high], key) < 0) {
+      return getNumValues();
+    }
+    // find the first bucket whose highest key is not less than the key
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (this.comparator.compare(this.upperBounds[mid], key) < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    int bucket = low;
+    long before = bucket == 0 ? 0 : this.cumulativeCounts[bucket - 1];
+    if (this.comparator.compare(this.upperBounds[bucket], key) == 0) {
+      return inclusive ? this.cumulativeCounts[bucket]
+          : this.cumulativeCounts[bucket] - this.upperBoundCounts[bucket];
+    }
+    Object lowerBound = bucket == 0 ? this.lowestKey : this.upperBounds[bucket - 1];
+    if (bucket == 0 && this.comparator.compare(lowerBound, key) >= 0) {
+      return 0;
+    }
+    long inBucket = this.cumulativeCounts[bucket] - before - this.upperBoundCounts[bucket];
+    return before + Math.round(inBucket * fractionBelow(lowerBound, this.upperBounds[bucket], key));
+  }
+
+  /**
+   * Returns the estimated fraction of the keys between the given bounds that are less than the
+   * given key, which lies between them
+   */
+  private static double fractionBelow(Object lowerBound, Object upperBound, Object key) {
+    if (lowerBound instanceof Number && upperBound instanceof Number && key instanceof Number) {
+      double low = ((Number) lowerBound).doubleValue();
+      double high = ((Number) upperBound).doubleValue();
+      if (high > low) {
+        double fraction = (((Number) key).doubleValue() - low) / (high - low);
+        return Math.min(1, Math.max(0, fraction));
+      }
+    }
+    return 0.5;
+  }
+
+  /**
+   * Collects the keys of an index, in index order, into a histogram
+   */
+  static class Builder {
+
+    private final long depth;
+
+    private final long numUpdates;
+
+    private final List<Object> upperBounds = new ArrayList<>(NUM_BUCKETS + 1);
+
+    private final List<Long> upperBoundCounts = new ArrayList<>(NUM_BUCKETS + 1);
+
+    private final List<Long> cumulativeCounts = new ArrayList<>(NUM_BUCKETS + 1);
+
+    private Object lowestKey;
+
+    private Object lastKey;
+
+    private long lastCount;
+
+    private long numKeys;
+
+    private long numValues;
+
+    private long inBucket;
+
+    /**
+     * @param expectedNumValues the number of values the index is expected to have
+     * @param numUpdates the number of updates the index has had so far
+     */
+    Builder(long expectedNumValues, long numUpdates) {
+      this.depth = Math.max(1, expectedNumValues / NUM_BUCKETS);
+      this.numUpdates = numUpdates;
+    }
+
+    /**
+     * Adds the next key of the index and the number of values it has
+     */
+    void add(Object key, long count) {
+      if (count <= 0 || key instanceof NullToken || key instanceof Undefined) {
+        return;
+      }
+      if (this.lowestKey == null) {
+        this.lowestKey = key;
+      }
+      this.numKeys++;
+      this.numValues += count;
+      this.inBucket += count;
+      this.lastKey = key;
+      this.lastCount = count;
+      if (this.inBucket >= this.depth) {
+        closeBucket();
+      }
+    }
+
+    private void closeBucket() {
+      this.upperBounds.add(this.lastKey);
+      this.upperBoundCounts.add(this.lastCount);
+      this.cumulativeCounts.add(this.numValues);
+      this.inBucket = 0;
+    }
+
+    IndexHistogram build() {
+      if (this.inBucket > 0) {
+        closeBucket();
+      }
+      int numBuckets = this.upperBounds.size();
+      long[] upperBoundCounts = new long[numBuckets];
+      long[] cumulativeCounts = new long[numBuckets];
+      for (int i = 0; i < numBuckets; i++) {
+        upperBoundCounts[i] = this.upperBoundCounts.get(i);
+        cumulativeCounts[i] = this.cumulativeCounts.get(i);
+      }
+      return new IndexHistogram(this.lowestKey, this.upperBounds.toArray(), upperBoundCounts,
+          cumulativeCounts, this.numKeys, this.numUpdates);
+    }
+  }
+}
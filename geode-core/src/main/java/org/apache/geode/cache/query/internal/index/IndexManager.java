@@ -58,6 +58,7 @@ import org.apache.geode.cache.query.internal.NullToken;
 import org.apache.geode.cache.query.internal.QueryMonitor;
 import org.apache.geode.cache.query.internal.QueryObserver;
 import org.apache.geode.cache.query.internal.QueryObserverHolder;
+import org.apache.geode.cache.query.internal.QueryPlanCache;
 import org.apache.geode.cache.query.internal.index.AbstractIndex.InternalIndexStatistics;
 import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
 import org.apache.geode.distributed.internal.DistributionConfig;
@@ -422,6 +423,7 @@ public class IndexManager {
         }
       }
       assert (index != null);
+      clearQueryPlanCache();
       if (logger.isDebugEnabled()) {
         logger.debug("Completed creating index with indexName: {} On region: {}", indexName,
             region.getFullPath());
@@ -513,6 +515,7 @@ public class IndexManager {
   public void addIndex(String indexName, Index index) {
     IndexTask indexTask = new IndexTask(cache, indexName);
     this.indexes.put(indexTask, index);
+    clearQueryPlanCache();
   }
 
   /**
@@ -841,6 +844,7 @@ public class IndexManager {
     if (this.indexes.remove(indexTask) != null) {
       AbstractIndex indexHandle = (AbstractIndex) index;
       indexHandle.destroy();
+      clearQueryPlanCache();
     }
   }
 
@@ -864,9 +868,22 @@ public class IndexManager {
       IndexTask indexTask = (IndexTask) entry.getKey();
       this.indexes.remove(indexTask);
     }
+    if (numIndexes > 0) {
+      clearQueryPlanCache();
+    }
     return numIndexes;
   }
 
+  /**
+   * Clears the cache of compiled queries when the indexes of the region change
+   */
+  private void clearQueryPlanCache() {
+    QueryPlanCache planCache = this.cache.getQueryPlanCache();
+    if (planCache != null) {
+      planCache.clear();
+    }
+  }
+
 
   /**
    * Asif : This function is invoked during clear operation on Region. It causes re execution of
@@ -1299,6 +1316,7 @@ public class IndexManager {
    */
   public void destroy() throws QueryException {
     this.indexes.clear();
+    clearQueryPlanCache();
     if (!isIndexMaintenanceTypeSynchronous())
       updater.shutdown();
   }
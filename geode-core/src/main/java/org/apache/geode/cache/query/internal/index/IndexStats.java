@@ -40,6 +40,7 @@ public class IndexStats {
   private static final int readLockCountId;
   private static final int numMapIndexKeysId;
   private static final int numBucketIndexesId;
+  private static final int histogramBuildsId;
 
   /** The Statistics object that we delegate most behavior to */
   private final Statistics stats;
@@ -66,7 +67,10 @@ public class IndexStats {
             f.createIntGauge("readLockCount", "Current number of read locks taken.", "uses"),
             f.createLongGauge("numMapIndexKeys", "Number of keys in this Map index", "keys"),
             f.createIntGauge("numBucketIndexes",
-                "Number of bucket indexes in the partitioned region", "indexes"),});
+                "Number of bucket indexes in the partitioned region", "indexes"),
+            f.createLongCounter("histogramBuilds",
+                "Number of times the histogram of the keys of this index was built",
+                "operations"),});
 
     // Initialize id fields
     numKeysId = type.nameToId("numKeys");
@@ -80,6 +84,7 @@ public class IndexStats {
     readLockCountId = type.nameToId("readLockCount");
     numMapIndexKeysId = type.nameToId("numMapIndexKeys");
     numBucketIndexesId = type.nameToId("numBucketIndexes");
+    histogramBuildsId = type.nameToId("histogramBuilds");
   }
 
   /**
@@ -182,6 +187,14 @@ public class IndexStats {
     this.stats.incInt(numBucketIndexesId, delta);
   }
 
+  public long getHistogramBuilds() {
+    return this.stats.getLong(histogramBuildsId);
+  }
+
+  public void incHistogramBuilds() {
+    this.stats.incLong(histogramBuildsId, 1);
+  }
+
   /**
    * Closes these stats so that they can not longer be used. The stats are closed when the cache is
    * closed.
@@ -678,6 +678,10 @@ public class RangeIndex extends AbstractIndex {
           break;
         case OQLLexerTokenTypes.TOK_LE:
         case OQLLexerTokenTypes.TOK_LT:
+          size = getHistogramSizeEstimate(key, operator, matchLevel);
+          if (size >= 0) {
+            break;
+          }
           if (matchLevel <= 0 && key instanceof Number) {
             int totalSize = valueToEntriesMapSize;// this.valueToEntriesMap.size();
             if (RangeIndex.testHook != null) {
@@ -717,6 +721,10 @@ public class RangeIndex extends AbstractIndex {
 
         case OQLLexerTokenTypes.TOK_GE:
         case OQLLexerTokenTypes.TOK_GT:
+          size = getHistogramSizeEstimate(key, operator, matchLevel);
+          if (size >= 0) {
+            break;
+          }
           if (matchLevel <= 0 && key instanceof Number) {
             int totalSize = valueToEntriesMapSize;// this.valueToEntriesMap.size();
             if (testHook != null) {
@@ -1460,6 +1468,19 @@ public class RangeIndex extends AbstractIndex {
     RangeIndex.testHook = hook;
   }
 
+  @Override
+  IndexHistogram buildHistogram(long numUpdates) {
+    IndexHistogram.Builder builder =
+        new IndexHistogram.Builder(this.internalIndexStats.getNumberOfValues(), numUpdates);
+    for (Object entry : this.valueToEntriesMap.entrySet()) {
+      Map.Entry mapEntry = (Map.Entry) entry;
+      Object values = mapEntry.getValue();
+      builder.add(mapEntry.getKey(), values instanceof RegionEntryToValuesMap
+          ? ((RegionEntryToValuesMap) values).getNumValues() : 1);
+    }
+    return builder.build();
+  }
+
   protected InternalIndexStatistics createStats(String indexName) {
     return new RangeIndexStatistics(indexName);
   }
@@ -1524,6 +1545,10 @@ public class RangeIndex extends AbstractIndex {
       this.vsdStats.incReadLockCount(delta);
     }
 
+    public void incHistogramBuilds() {
+      this.vsdStats.incHistogramBuilds();
+    }
+
     /**
      * Returns the total amount of time (in nanoseconds) spent updating this index.
      */
@@ -26,6 +26,7 @@ import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.statistics.StatisticsTypeFactoryImpl;
 import org.apache.geode.internal.tcp.Buffers;
 import org.apache.geode.internal.util.Breadcrumbs;
+import org.apache.geode.internal.util.concurrent.VirtualThreads;
 
 /**
  * This class maintains statistics in GemFire about the distribution manager and distribution in
@@ -235,6 +236,10 @@ public class DistributionStats implements DMStats {
   private static final int udpFinalCheckResponsesSentId;
   private static final int udpFinalCheckResponsesReceivedId;
 
+  private static final int virtualThreadsCreatedId;
+  private static final int virtualThreadPinsId;
+  private static final int virtualThreadPinnedTimeId;
+
   static {
     String statName = "DistributionStats";
     String statDescription = "Statistics on the gemfire distribution layer.";
@@ -438,6 +443,12 @@ public class DistributionStats implements DMStats {
         "UDP final check responses that this member has sent.";
     final String udpFinalCheckResponsesReceivedDesc =
         "UDP final check responses that this member has received.";
+    final String virtualThreadsCreatedDesc =
+        "The number of virtual threads created in this JVM for client connections and p2p readers.";
+    final String virtualThreadPinsDesc =
+        "The number of times a virtual thread in this JVM blocked while pinned to its carrier thread, for example inside a synchronized block.";
+    final String virtualThreadPinnedTimeDesc =
+        "The total amount of time, in nanoseconds, virtual threads in this JVM blocked while pinned to their carrier thread.";
 
     StatisticsTypeFactory f = StatisticsTypeFactoryImpl.singleton();
 
@@ -738,7 +749,12 @@ public class DistributionStats implements DMStats {
         f.createLongCounter("udpFinalCheckResponsesSent", udpFinalCheckResponsesSentDesc,
             "messages"),
         f.createLongCounter("udpFinalCheckResponsesReceived", udpFinalCheckResponsesReceivedDesc,
-            "messages"),});
+            "messages"),
+
+        f.createLongCounter("virtualThreadsCreated", virtualThreadsCreatedDesc, "threads"),
+        f.createLongCounter("virtualThreadPins", virtualThreadPinsDesc, "pins"),
+        f.createLongCounter("virtualThreadPinnedTime", virtualThreadPinnedTimeDesc, "nanoseconds",
+            false),});
 
     // Initialize id fields
     sentMessagesId = type.nameToId("sentMessages");
@@ -928,6 +944,10 @@ public class DistributionStats implements DMStats {
     udpFinalCheckRequestsReceivedId = type.nameToId("udpFinalCheckRequestsReceived");
     udpFinalCheckResponsesSentId = type.nameToId("udpFinalCheckResponsesSent");
     udpFinalCheckResponsesReceivedId = type.nameToId("udpFinalCheckResponsesReceived");
+
+    virtualThreadsCreatedId = type.nameToId("virtualThreadsCreated");
+    virtualThreadPinsId = type.nameToId("virtualThreadPins");
+    virtualThreadPinnedTimeId = type.nameToId("virtualThreadPinnedTime");
   }
 
   /** The Statistics object that we delegate most behavior to */
@@ -951,6 +971,11 @@ public class DistributionStats implements DMStats {
     // new long[] {100000, 200000, 300000, 400000, 500000, 600000, 700000, 800000, 900000, 1000000},
     // false);
     Buffers.initBufferStats(this);
+    if (VirtualThreads.ENABLED) {
+      this.stats.setLongSupplier(virtualThreadsCreatedId, VirtualThreads::getCreated);
+      this.stats.setLongSupplier(virtualThreadPinsId, VirtualThreads::getPins);
+      this.stats.setLongSupplier(virtualThreadPinnedTimeId, VirtualThreads::getPinnedTime);
+    }
   }
 
   /**
@@ -527,10 +527,13 @@ public class HeapDataOutputStream extends OutputStream
   private void sendChunkTo(ByteBuffer in, SocketChannel sc, ByteBuffer out) throws IOException {
     int bytesSent = in.remaining();
     if (in.isDirect()) {
-      flushBuffer(sc, out);
-      while (in.remaining() > 0) {
-        sc.write(in);
-      }
+      // write out's buffered data and the direct chunk together instead of flushing out first
+      out.flip();
+      final ByteBuffer[] buffers = {out, in};
+      do {
+        sc.write(buffers);
+      } while (out.hasRemaining() || in.hasRemaining());
+      out.clear();
     } else {
       // copy in to out. If out fills flush it
       int OUT_MAX = out.remaining();
@@ -26,6 +26,7 @@ import java.util.Set;
 import java.util.concurrent.locks.Lock;
 
 import org.apache.geode.admin.RuntimeAdminException;
+import org.apache.geode.cache.AsyncRegion;
 import org.apache.geode.cache.AttributesMutator;
 import org.apache.geode.cache.Cache;
 import org.apache.geode.cache.CacheException;
@@ -603,6 +604,11 @@ public class AdminRegion implements Region {
     throw new UnsupportedOperationException();
   }
 
+  @Override
+  public AsyncRegion async() {
+    throw new UnsupportedOperationException();
+  }
+
   public RegionSnapshotService<?, ?> getSnapshotService() {
     throw new UnsupportedOperationException();
   }
@@ -49,6 +49,7 @@ import org.apache.geode.internal.cache.FilterRoutingInfo.FilterInfo;
 import org.apache.geode.internal.cache.entries.AbstractOplogDiskRegionEntry;
 import org.apache.geode.internal.cache.entries.AbstractRegionEntry;
 import org.apache.geode.internal.cache.entries.DiskEntry;
+import org.apache.geode.internal.cache.entries.OffHeapKeyRegionEntry;
 import org.apache.geode.internal.cache.entries.OffHeapRegionEntry;
 import org.apache.geode.internal.cache.eviction.EvictableEntry;
 import org.apache.geode.internal.cache.eviction.EvictionController;
@@ -73,6 +74,7 @@ import org.apache.geode.internal.logging.log4j.LocalizedMessage;
 import org.apache.geode.internal.logging.log4j.LogMarker;
 import org.apache.geode.internal.offheap.OffHeapHelper;
 import org.apache.geode.internal.offheap.OffHeapRegionEntryHelper;
+import org.apache.geode.internal.offheap.OffHeapRegionKeyHelper;
 import org.apache.geode.internal.offheap.StoredObject;
 import org.apache.geode.internal.offheap.annotations.Released;
 import org.apache.geode.internal.offheap.annotations.Retained;
@@ -80,6 +82,7 @@ import org.apache.geode.internal.sequencelog.EntryLogger;
 import org.apache.geode.internal.size.ReflectionSingleObjectSizer;
 import org.apache.geode.internal.util.concurrent.ConcurrentMapWithReusableEntries;
 import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap;
+import org.apache.geode.internal.util.concurrent.PrimitiveKeyConcurrentHashMap;
 
 /**
  * Abstract implementation of {@link RegionMap}that has all the common behavior.
@@ -90,6 +93,14 @@ public abstract class AbstractRegionMap
     implements RegionMap, FocusedRegionMap, CacheModificationLock {
   private static final Logger logger = LogService.getLogger();
 
+  /**
+   * If true then regions whose keys are constrained to Long or Integer store their entries in a
+   * {@link CustomEntryConcurrentHashMap} like other regions instead of a
+   * {@link PrimitiveKeyConcurrentHashMap}.
+   */
+  private static final boolean DISABLE_PRIMITIVE_KEY_MAP =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "DISABLE_PRIMITIVE_KEY_REGION_MAP");
+
   /** The underlying map for this region. */
   protected ConcurrentMapWithReusableEntries<Object, Object> map;
 
@@ -116,8 +127,6 @@ public abstract class AbstractRegionMap
       InternalRegionArguments internalRegionArgs, boolean isLRU) {
     _setAttributes(attr);
     setOwner(owner);
-    setEntryMap(createConcurrentMapWithReusableEntries(attr.initialCapacity, attr.loadFactor,
-        attr.concurrencyLevel, false, new AbstractRegionEntry.HashRegionEntryCreator()));
 
     boolean isDisk;
     boolean withVersioning;
@@ -136,6 +145,18 @@ public abstract class AbstractRegionMap
       throw new IllegalStateException("expected LocalRegion or PlaceHolderDiskRegion");
     }
 
+    if (!DISABLE_PRIMITIVE_KEY_MAP
+        && PrimitiveKeyConcurrentHashMap.isSupportedKeyClass(attr.keyConstraint)) {
+      setEntryMap(new PrimitiveKeyConcurrentHashMap<>(attr.keyConstraint, attr.initialCapacity,
+          attr.loadFactor, attr.concurrencyLevel));
+    } else if (offHeap && OffHeapRegionKeyHelper.OFF_HEAP_REGION_KEYS) {
+      setEntryMap(new OffHeapKeyEntryMap(attr.initialCapacity, attr.loadFactor,
+          attr.concurrencyLevel));
+    } else {
+      setEntryMap(createConcurrentMapWithReusableEntries(attr.initialCapacity, attr.loadFactor,
+          attr.concurrencyLevel, false, new AbstractRegionEntry.HashRegionEntryCreator()));
+    }
+
     setEntryFactory(new RegionEntryFactoryBuilder().create(attr.statisticsEnabled, isLRU, isDisk,
         withVersioning, offHeap));
   }
@@ -278,7 +299,15 @@ public abstract class AbstractRegionMap
 
   @Override
   public RegionEntry putEntryIfAbsent(Object key, RegionEntry regionEntry) {
+    if (regionEntry instanceof OffHeapKeyRegionEntry) {
+      // the entry may be put again after losing an earlier race that released its key
+      OffHeapRegionKeyHelper.restoreKey((OffHeapKeyRegionEntry) regionEntry, (String) key);
+    }
     RegionEntry oldRe = (RegionEntry) getEntryMap().putIfAbsent(key, regionEntry);
+    if (oldRe != null && regionEntry instanceof OffHeapKeyRegionEntry) {
+      // the entry lost the race; release its key now in case the caller discards it
+      OffHeapRegionKeyHelper.releaseKey((OffHeapKeyRegionEntry) regionEntry);
+    }
     if (oldRe == null && (regionEntry instanceof OffHeapRegionEntry) && _isOwnerALocalRegion()
         && _getOwner().isThisRegionBeingClosedOrDestroyed()) {
       // prevent orphan during concurrent destroy (#48068)
@@ -2682,4 +2711,27 @@ public abstract class AbstractRegionMap
   public void setARMLockTestHook(ARMLockTestHook theHook) {
     armLockTestHook = theHook;
   }
+
+  /**
+   * The entry map of an off-heap region that stores its keys off heap. Nothing can look an entry
+   * up by its key once the entry has been removed from the map, so its off-heap key is released
+   * then.
+   */
+  private static class OffHeapKeyEntryMap extends CustomEntryConcurrentHashMap<Object, Object> {
+    private static final long serialVersionUID = 2458375924301537184L;
+
+    OffHeapKeyEntryMap(int initialCapacity, float loadFactor, int concurrencyLevel) {
+      super(initialCapacity, loadFactor, concurrencyLevel, false,
+          new AbstractRegionEntry.HashRegionEntryCreator());
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+      boolean removed = super.remove(key, value);
+      if (removed && value instanceof OffHeapKeyRegionEntry) {
+        OffHeapRegionKeyHelper.releaseKey((OffHeapKeyRegionEntry) value);
+      }
+      return removed;
+    }
+  }
 }
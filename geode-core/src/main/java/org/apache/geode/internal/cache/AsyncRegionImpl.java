@@ -0,0 +1,344 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.cache.AsyncRegion;
+import org.apache.geode.cache.DataPolicy;
+import org.apache.geode.cache.EntryNotFoundException;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.client.internal.ChunkedBulkOp;
+import org.apache.geode.cache.client.internal.PoolImpl;
+import org.apache.geode.cache.client.internal.ServerRegionProxy;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.i18n.LocalizedStrings;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThreadGroup;
+
+/**
+ * The {@link AsyncRegion} of a {@link LocalRegion}. The gets, puts and removes of a client region
+ * that only forwards them to its server are sent with the pool's async ops. Everything else is
+ * done with the blocking methods of the region by a pool of threads shared by all the async
+ * regions of the JVM.
+ *
+ * @since Geode 1.8
+ */
+public class AsyncRegionImpl<K, V> implements AsyncRegion<K, V> {
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * The most threads that do the blocking region operations of async regions.
+   */
+  static final int MAX_THREADS = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "AsyncRegion.MAX_THREADS",
+      Math.max(8, 2 * Runtime.getRuntime().availableProcessors()));
+
+  /**
+   * The most blocking region operations of async regions that wait for a thread.
+   */
+  static final int MAX_QUEUED =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "AsyncRegion.MAX_QUEUED", 10000);
+
+  /**
+   * The event thread identities that no operation in progress uses. Operations a thread does not
+   * wait for may reach the server in any order and a server ignores an event with a lower sequence
+   * ID than one it saw from the same thread, so each operation in progress gets its own identity.
+   */
+  private static final Queue<EventID.ThreadAndSequenceIDWrapper> idleEventIdentities =
+      new ConcurrentLinkedQueue<>();
+
+  private final LocalRegion region;
+
+  public AsyncRegionImpl(LocalRegion region) {
+    this.region = region;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Region<K, V> getRegion() {
+    return this.region;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public CompletableFuture<V> getAsync(Object key) {
+    this.region.validateKey(key);
+    ServerRegionProxy proxy = getNonBlockingProxy();
+    if (proxy == null) {
+      return supply(() -> (V) this.region.get(key));
+    }
+    this.region.checkReadiness();
+    final CachePerfStats stats = this.region.getCachePerfStats();
+    final long start = stats.startGet();
+    CompletableFuture<Object> future = null;
+    try {
+      future = proxy.getAsync(key, null, getExecutor());
+    } finally {
+      if (future == null) {
+        stats.endGet(start, true);
+      }
+    }
+    return future.handle((result, exception) -> {
+      boolean isMiss = true;
+      try {
+        if (exception != null) {
+          throw exception instanceof CompletionException ? (CompletionException) exception
+              : new CompletionException(exception);
+        }
+        Object value = result;
+        if (Token.isInvalidOrRemoved(value)) {
+          value = null;
+        } else if (value instanceof CachedDeserializable) {
+          value = ((CachedDeserializable) value).getDeserializedForReading();
+        }
+        isMiss = value == null;
+        return (V) value;
+      } finally {
+        stats.endGet(start, isMiss);
+      }
+    });
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public CompletableFuture<V> putAsync(K key, V value) {
+    this.region.validateArguments(key, value, null);
+    if (value == null) {
+      throw new NullPointerException(
+          LocalizedStrings.LocalRegion_VALUE_MUST_NOT_BE_NULL.toLocalizedString());
+    }
+    ServerRegionProxy proxy = getNonBlockingProxy();
+    if (proxy == null) {
+      return supply(() -> (V) this.region.put(key, value));
+    }
+    final long start = CachePerfStats.getStatTime();
+    final EntryEventImpl event = this.region.newUpdateEntryEvent(key, value, null);
+    EventID.ThreadAndSequenceIDWrapper identity = null;
+    CompletableFuture<Object> future = null;
+    try {
+      identity = setEventId(event);
+      future = proxy.putAsync(key, event.getRawNewValue(), event, null, getExecutor());
+    } finally {
+      if (future == null) {
+        done(event, identity);
+      }
+    }
+    final EventID.ThreadAndSequenceIDWrapper eventIdentity = identity;
+    return future.whenComplete((result, exception) -> done(event, eventIdentity))
+        .thenApply(result -> {
+          this.region.getCachePerfStats().endPut(start, false);
+          return null;
+        });
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public CompletableFuture<Map<K, V>> getAllAsync(Collection<?> keys) {
+    if (keys == null) {
+      throw new NullPointerException("The collection of keys for getAll cannot be null");
+    }
+    return supply(() -> (Map<K, V>) this.region.getAll(keys));
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public CompletableFuture<Void> getAllAsync(Collection<?> keys, int chunkSize,
+      Consumer<Map<K, V>> consumer) {
+    if (keys == null) {
+      throw new NullPointerException("The collection of keys for getAll cannot be null");
+    }
+    if (consumer == null) {
+      throw new NullPointerException("The consumer of the values cannot be null");
+    }
+    return ChunkedBulkOp.execute(this.region, keys, chunkSize,
+        chunk -> consumer.accept((Map<K, V>) this.region.getAll(chunk)));
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public CompletableFuture<Void> putAllAsync(Map<? extends K, ? extends V> map, int chunkSize,
+      Consumer<Map<K, V>> consumer) {
+    if (map == null) {
+      throw new NullPointerException(
+          LocalizedStrings.AbstractRegion_MAP_CANNOT_BE_NULL.toLocalizedString());
+    }
+    if (consumer == null) {
+      throw new NullPointerException("The consumer of the put entries cannot be null");
+    }
+    return ChunkedBulkOp.execute(this.region, (Collection<K>) map.keySet(), chunkSize,
+        (List<K> chunk) -> {
+          Map<K, V> entries = new LinkedHashMap<>();
+          for (K key : chunk) {
+            entries.put(key, map.get(key));
+          }
+          this.region.putAll(entries);
+          consumer.accept(entries);
+        });
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public CompletableFuture<V> removeAsync(Object key) {
+    this.region.validateKey(key);
+    ServerRegionProxy proxy = getNonBlockingProxy();
+    if (proxy == null) {
+      return supply(() -> (V) this.region.remove(key));
+    }
+    final EntryEventImpl event = this.region.newDestroyEntryEvent(key, null);
+    EventID.ThreadAndSequenceIDWrapper identity = null;
+    CompletableFuture<Object> future = null;
+    try {
+      identity = setEventId(event);
+      future = proxy.destroyAsync(key, event, null, getExecutor());
+    } finally {
+      if (future == null) {
+        done(event, identity);
+      }
+    }
+    final EventID.ThreadAndSequenceIDWrapper eventIdentity = identity;
+    return future.whenComplete((result, exception) -> done(event, eventIdentity))
+        .handle((result, exception) -> {
+          if (exception != null
+              && !(getCause(exception) instanceof EntryNotFoundException)) {
+            throw exception instanceof CompletionException ? (CompletionException) exception
+                : new CompletionException(exception);
+          }
+          return null;
+        });
+  }
+
+  private static Throwable getCause(Throwable exception) {
+    Throwable cause = exception;
+    while (cause instanceof CompletionException && cause.getCause() != null) {
+      cause = cause.getCause();
+    }
+    return cause;
+  }
+
+  /**
+   * Returns the proxy to send the region's entry operations with if they need nothing but a
+   * response from the server, or null if they have to be done by the blocking region methods.
+   */
+  private ServerRegionProxy getNonBlockingProxy() {
+    ServerRegionProxy proxy = this.region.getServerProxy();
+    if (proxy == null || !(proxy.getPool() instanceof PoolImpl)) {
+      return null;
+    }
+    if (this.region.getDataPolicy() != DataPolicy.EMPTY || this.region.hasListener()
+        || this.region.getCacheWriter() != null || this.region.getCacheLoader() != null) {
+      return null;
+    }
+    if (TXManagerImpl.getCurrentTXState() != null) {
+      return null;
+    }
+    return proxy;
+  }
+
+  /**
+   * Gives the event an ID with an event thread identity that no other operation in progress uses.
+   *
+   * @return the identity, to be given back once the operation is done, or null if the event needs
+   *         no new ID
+   */
+  private EventID.ThreadAndSequenceIDWrapper setEventId(EntryEventImpl event) {
+    if (event.getEventId() != null || !this.region.generateEventID()) {
+      return null;
+    }
+    EventID.ThreadAndSequenceIDWrapper identity = idleEventIdentities.poll();
+    if (identity == null) {
+      identity = new EventID.ThreadAndSequenceIDWrapper();
+    }
+    event.setEventId(new EventID(this.region.getCache().getDistributedSystem(), identity));
+    return identity;
+  }
+
+  private static void done(EntryEventImpl event, EventID.ThreadAndSequenceIDWrapper identity) {
+    event.release();
+    if (identity != null) {
+      idleEventIdentities.offer(identity);
+    }
+  }
+
+  /**
+   * Runs the given blocking operation in the async region threads, or in the calling thread if it
+   * is in a transaction since the transaction belongs to the thread. The future fails with a
+   * RejectedExecutionException if MAX_QUEUED operations are already waiting for the threads.
+   */
+  static <T> CompletableFuture<T> supply(Supplier<T> operation) {
+    if (TXManagerImpl.getCurrentTXState() != null) {
+      CompletableFuture<T> future = new CompletableFuture<>();
+      try {
+        future.complete(operation.get());
+      } catch (RuntimeException e) {
+        future.completeExceptionally(e);
+      }
+      return future;
+    }
+    try {
+      return CompletableFuture.supplyAsync(operation, getExecutor());
+    } catch (RejectedExecutionException e) {
+      CompletableFuture<T> future = new CompletableFuture<>();
+      future.completeExceptionally(e);
+      return future;
+    }
+  }
+
+  static Executor getExecutor() {
+    return ExecutorHolder.EXECUTOR;
+  }
+
+  /**
+   * Holds the threads of the async regions so that they are only created once one is used. An
+   * operation submitted while MAX_QUEUED others wait for a thread is rejected instead of queued, so
+   * a caller that does not wait for its futures cannot fill the heap with operations; its future
+   * fails with a RejectedExecutionException.
+   */
+  private static class ExecutorHolder {
+    static final ThreadPoolExecutor EXECUTOR = createExecutor();
+
+    private static ThreadPoolExecutor createExecutor() {
+      final ThreadGroup group =
+          LoggingThreadGroup.createThreadGroup("Async Region Threads", logger);
+      final AtomicInteger threadId = new AtomicInteger();
+      ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 60,
+          TimeUnit.SECONDS, new LinkedBlockingQueue<>(MAX_QUEUED), command -> {
+            Thread thread = new Thread(group, command,
+                "Async Region Thread " + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+          });
+      executor.allowCoreThreadTimeOut(true);
+      return executor;
+    }
+  }
+}
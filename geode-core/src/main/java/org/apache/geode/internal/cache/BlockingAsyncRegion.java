@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import org.apache.geode.cache.AsyncRegion;
+import org.apache.geode.cache.Region;
+import org.apache.geode.internal.i18n.LocalizedStrings;
+
+/**
+ * The {@link AsyncRegion} of a region that wraps another one, such as the region of a user of a
+ * multiuser cache or the local data of a function. Every operation is done with the blocking
+ * methods of the wrapping region by the async region threads, so that the wrapper does whatever it
+ * does around each operation in the thread that does it. The chunks of a bulk operation are done
+ * one after the other.
+ *
+ * @since Geode 1.8
+ */
+public class BlockingAsyncRegion<K, V> implements AsyncRegion<K, V> {
+
+  private final Region<K, V> region;
+
+  public BlockingAsyncRegion(Region<K, V> region) {
+    this.region = region;
+  }
+
+  @Override
+  public Region<K, V> getRegion() {
+    return this.region;
+  }
+
+  @Override
+  public CompletableFuture<V> getAsync(Object key) {
+    validateKey(key);
+    return AsyncRegionImpl.supply(() -> this.region.get(key));
+  }
+
+  @Override
+  public CompletableFuture<V> putAsync(K key, V value) {
+    validateKey(key);
+    if (value == null) {
+      throw new NullPointerException(
+          LocalizedStrings.LocalRegion_VALUE_MUST_NOT_BE_NULL.toLocalizedString());
+    }
+    return AsyncRegionImpl.supply(() -> this.region.put(key, value));
+  }
+
+  @Override
+  public CompletableFuture<Map<K, V>> getAllAsync(Collection<?> keys) {
+    if (keys == null) {
+      throw new NullPointerException("The collection of keys for getAll cannot be null");
+    }
+    return AsyncRegionImpl.supply(() -> this.region.getAll(keys));
+  }
+
+  @Override
+  public CompletableFuture<Void> getAllAsync(Collection<?> keys, int chunkSize,
+      Consumer<Map<K, V>> consumer) {
+    if (keys == null) {
+      throw new NullPointerException("The collection of keys for getAll cannot be null");
+    }
+    if (consumer == null) {
+      throw new NullPointerException("The consumer of the values cannot be null");
+    }
+    validateChunkSize(chunkSize);
+    return AsyncRegionImpl.supply(() -> {
+      for (List<?> chunk : split(keys, chunkSize)) {
+        consumer.accept(this.region.getAll(chunk));
+      }
+      return null;
+    });
+  }
+
+  @Override
+  public CompletableFuture<Void> putAllAsync(Map<? extends K, ? extends V> map, int chunkSize,
+      Consumer<Map<K, V>> consumer) {
+    if (map == null) {
+      throw new NullPointerException(
+          LocalizedStrings.AbstractRegion_MAP_CANNOT_BE_NULL.toLocalizedString());
+    }
+    if (consumer == null) {
+      throw new NullPointerException("The consumer of the put entries cannot be null");
+    }
+    validateChunkSize(chunkSize);
+    return AsyncRegionImpl.supply(() -> {
+      for (List<? extends K> chunk : split(map.keySet(), chunkSize)) {
+        Map<K, V> entries = new LinkedHashMap<>();
+        for (K key : chunk) {
+          entries.put(key, map.get(key));
+        }
+        this.region.putAll(entries);
+        consumer.accept(entries);
+      }
+      return null;
+    });
+  }
+
+  @Override
+  public CompletableFuture<V> removeAsync(Object key) {
+    validateKey(key);
+    return AsyncRegionImpl.supply(() -> this.region.remove(key));
+  }
+
+  private static void validateKey(Object key) {
+    if (key == null) {
+      throw new NullPointerException(
+          LocalizedStrings.LocalRegion_KEY_CANNOT_BE_NULL.toLocalizedString());
+    }
+  }
+
+  private static void validateChunkSize(int chunkSize) {
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("The chunk size must be positive but was " + chunkSize);
+    }
+  }
+
+  private static <T> List<List<T>> split(Collection<T> keys, int chunkSize) {
+    List<List<T>> result = new ArrayList<>();
+    List<T> chunk = null;
+    for (T key : keys) {
+      if (chunk == null || chunk.size() == chunkSize) {
+        chunk = new ArrayList<>(Math.min(chunkSize, keys.size()));
+        result.add(chunk);
+      }
+      chunk.add(key);
+    }
+    return result;
+  }
+}
@@ -79,6 +79,8 @@ public class CachePerfStats {
   protected static final int queryExecutionTimeId;
   protected static final int queryResultsHashCollisionsId;
   protected static final int queryResultsHashCollisionProbeTimeId;
+  protected static final int queryPlanCacheHitsId;
+  protected static final int queryPlanCacheMissesId;
   protected static final int partitionedRegionQueryRetriesId;
 
   protected static final int txSuccessLifeTimeId;
@@ -240,6 +242,10 @@ public class CachePerfStats {
         "Total number of times an hash code collision occurred when inserting an object into an OQL result set or rehashing it";
     final String queryResultsHashCollisionProbeTimeDesc =
         "Total time spent probing the hashtable in an OQL result set due to hash code collisions, includes reads, writes, and rehashes";
+    final String queryPlanCacheHitsDesc =
+        "Total number of times a new query found its compiled query in the query plan cache";
+    final String queryPlanCacheMissesDesc =
+        "Total number of times a new query had to be compiled because it was not in the query plan cache";
     final String partitionedRegionOQLQueryRetriesDesc =
         "Total number of times an OQL Query on a Partitioned Region had to be retried";
     final String txSuccessLifeTimeDesc =
@@ -416,6 +422,8 @@ public class CachePerfStats {
                 "operations"),
             f.createLongCounter("queryResultsHashCollisionProbeTime",
                 queryResultsHashCollisionProbeTimeDesc, "nanoseconds"),
+            f.createLongCounter("queryPlanCacheHits", queryPlanCacheHitsDesc, "operations"),
+            f.createLongCounter("queryPlanCacheMisses", queryPlanCacheMissesDesc, "operations"),
             f.createLongCounter("partitionedRegionQueryRetries",
                 partitionedRegionOQLQueryRetriesDesc, "retries"),
 
@@ -561,6 +569,8 @@ public class CachePerfStats {
     queryExecutionTimeId = type.nameToId("queryExecutionTime");
     queryResultsHashCollisionsId = type.nameToId("queryResultsHashCollisions");
     queryResultsHashCollisionProbeTimeId = type.nameToId("queryResultsHashCollisionProbeTime");
+    queryPlanCacheHitsId = type.nameToId("queryPlanCacheHits");
+    queryPlanCacheMissesId = type.nameToId("queryPlanCacheMisses");
     partitionedRegionQueryRetriesId = type.nameToId("partitionedRegionQueryRetries");
 
     txSuccessLifeTimeId = type.nameToId("txSuccessLifeTime");
@@ -1185,6 +1195,22 @@ public class CachePerfStats {
     stats.incInt(queryResultsHashCollisionsId, 1);
   }
 
+  public void incQueryPlanCacheHits() {
+    stats.incLong(queryPlanCacheHitsId, 1);
+  }
+
+  public long getQueryPlanCacheHits() {
+    return stats.getLong(queryPlanCacheHitsId);
+  }
+
+  public void incQueryPlanCacheMisses() {
+    stats.incLong(queryPlanCacheMissesId, 1);
+  }
+
+  public long getQueryPlanCacheMisses() {
+    return stats.getLong(queryPlanCacheMissesId);
+  }
+
   public int getTxCommits() {
     return stats.getInt(txCommitsId);
   }
@@ -30,6 +30,12 @@ public interface CompactableOplog {
 
   int compact(OplogCompactor compactor);
 
+  /**
+   * Returns the fraction, between 0 and 1, of the records in this oplog that are no longer live and
+   * would be reclaimed by compacting it.
+   */
+  double getGarbageRatio();
+
   BytesAndBits getBytesAndBits(DiskRegionView dr, DiskId id, boolean faultIn, boolean bitOnly);
 
   BytesAndBits getNoBuffer(DiskRegion dr, DiskId id);
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the rate at which the compactions of a disk store copy bytes forward. All the concurrent
+ * compactions of a disk store share one throttle so the limit bounds their combined bandwidth.
+ * Bytes are accounted for after they have been copied; a compactor that got ahead of the budget
+ * waits for the returned delay before copying its next entry.
+ *
+ * @since Geode 1.8
+ */
+class CompactionThrottle {
+
+  private final long bytesPerSecond;
+
+  /** The time at which the bytes reserved so far will have been paid for. Guarded by this. */
+  private long nextFreeNanos;
+
+  CompactionThrottle(long bytesPerSecond) {
+    if (bytesPerSecond <= 0) {
+      throw new IllegalArgumentException("bytesPerSecond must be positive: " + bytesPerSecond);
+    }
+    this.bytesPerSecond = bytesPerSecond;
+  }
+
+  long getBytesPerSecond() {
+    return this.bytesPerSecond;
+  }
+
+  /**
+   * Accounts for bytes that were just copied.
+   *
+   * @return the number of nanoseconds the caller should wait before copying more bytes
+   */
+  long reserve(long bytes) {
+    return reserve(bytes, System.nanoTime());
+  }
+
+  synchronized long reserve(long bytes, long nowNanos) {
+    if (this.nextFreeNanos - nowNanos < 0) {
+      // the budget does not accumulate while compactors are idle
+      this.nextFreeNanos = nowNanos;
+    }
+    long delay = this.nextFreeNanos - nowNanos;
+    this.nextFreeNanos += (long) (bytes * ((double) TimeUnit.SECONDS.toNanos(1) / bytesPerSecond));
+    return delay;
+  }
+}
@@ -217,6 +217,10 @@ public class DiskStoreImpl implements DiskStore {
       DistributionConfig.GEMFIRE_PREFIX + "MAX_OPLOGS_PER_COMPACTION",
       Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "MAX_OPLOGS_PER_ROLL", 1).intValue());
 
+  /**
+   * Maximum number of oplog compactions a disk store runs at the same time. Each compaction works
+   * on its own oplogs. Defaults to 1.
+   */
   public static final int MAX_CONCURRENT_COMPACTIONS = Integer.getInteger(
       DistributionConfig.GEMFIRE_PREFIX + "MAX_CONCURRENT_COMPACTIONS",
       Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "MAX_CONCURRENT_ROLLS", 1).intValue());
@@ -257,6 +261,48 @@ public class DiskStoreImpl implements DiskStore {
   static final boolean SYNC_IF_WRITES =
       Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "syncMetaDataWrites");
 
+  public static final String GROUP_COMMIT_PROPERTY_NAME =
+      DistributionConfig.GEMFIRE_PREFIX + "disk.groupCommit";
+
+  /**
+   * This system property turns on group commit of synchronous oplog writes. Concurrent writers to
+   * the same oplog share one flush, and one force when syncWrites is also set, instead of each
+   * flushing the oplog while holding its lock.
+   */
+  final boolean groupCommit = getBoolean(GROUP_COMMIT_PROPERTY_NAME, false);
+
+  public static final String MMAP_READS_PROPERTY_NAME =
+      DistributionConfig.GEMFIRE_PREFIX + "disk.mmapReads";
+
+  /**
+   * This system property turns on memory mapped reads of crf files that are no longer being
+   * appended to. Values faulted in from such an oplog are copied out of the mapping without
+   * synchronizing on the oplog. Mapped files can not be deleted on Windows until they are unmapped
+   * by the garbage collector so this should only be used on other platforms.
+   */
+  final boolean MMAP_READS = getBoolean(MMAP_READS_PROPERTY_NAME, false);
+
+  public static final String RECOVERY_THREADS_PROPERTY_NAME =
+      DistributionConfig.GEMFIRE_PREFIX + "disk.recoveryThreads";
+
+  /**
+   * This system property sets the number of threads used to read krf files ahead of the recovery
+   * thread. The oplogs are still applied one at a time, in order, by the recovery thread. Zero, the
+   * default, reads each krf on the recovery thread.
+   */
+  final int RECOVERY_THREADS = Integer.getInteger(RECOVERY_THREADS_PROPERTY_NAME, 0);
+
+  public static final String COMPACTION_MAX_BYTES_PER_SECOND_PROPERTY_NAME =
+      DistributionConfig.GEMFIRE_PREFIX + "disk.compactionMaxBytesPerSecond";
+
+  /**
+   * This system property limits the number of bytes per second that the compactions of a disk store
+   * copy forward, combined, so that compaction does not starve foreground writes of disk bandwidth.
+   * Zero, the default, does not limit compaction.
+   */
+  final long COMPACTION_MAX_BYTES_PER_SECOND =
+      Long.getLong(COMPACTION_MAX_BYTES_PER_SECOND_PROPERTY_NAME, 0);
+
   /**
    * For testing - to keep track of files for which fallocate happened
    */
@@ -2753,17 +2799,27 @@ public class DiskStoreImpl implements DiskStore {
     if (!all && max > MAX_OPLOGS_PER_COMPACTION && MAX_OPLOGS_PER_COMPACTION > 0) {
       max = MAX_OPLOGS_PER_COMPACTION;
     }
-    getPersistentOplogs().getCompactableOplogs(l, max);
-
-    // Note this always puts overflow oplogs on the end of the list.
-    // They may get starved.
-    overflowOplogs.getCompactableOplogs(l, max);
+    getPersistentOplogs().getCompactableOplogs(l, Integer.MAX_VALUE);
+    overflowOplogs.getCompactableOplogs(l, Integer.MAX_VALUE);
 
+    if (!all && this.oplogCompactor != null) {
+      // leave the oplogs a running compaction owns to it
+      this.oplogCompactor.removeScheduled(l);
+    }
     if (l.isEmpty()) {
       return null;
     }
 
-    return l.toArray(new CompactableOplog[l.size()]);
+    // Compact the oplogs with the most garbage first since they free the most disk for the least
+    // copying. The sort is stable so oplogs with the same ratio are still compacted oldest first.
+    // The ratios change as entries are modified so sort on a snapshot of them.
+    final Map<CompactableOplog, Double> garbageRatios = new HashMap<>();
+    for (CompactableOplog oplog : l) {
+      garbageRatios.put(oplog, oplog.getGarbageRatio());
+    }
+    l.sort(Comparator.<CompactableOplog, Double>comparing(garbageRatios::get).reversed());
+    List<CompactableOplog> selected = l.size() > max ? l.subList(0, max) : l;
+    return selected.toArray(new CompactableOplog[selected.size()]);
   }
 
   /**
@@ -2782,20 +2838,28 @@ public class DiskStoreImpl implements DiskStore {
   final AtomicLong undeletedOplogSize = new AtomicLong();
 
   /**
-   * Compacts oplogs
+   * Compacts oplogs. Up to {@link #MAX_CONCURRENT_COMPACTIONS} compactions run at the same time,
+   * each on its own oplogs, and they share the disk store's compaction bandwidth limit.
    *
    * @since GemFire 5.1
    *
    */
-  class OplogCompactor implements Runnable {
+  class OplogCompactor {
     /** boolean for the thread to continue compaction* */
     private volatile boolean compactorEnabled;
-    private volatile boolean scheduled;
-    private CompactableOplog[] scheduledOplogs;
+    /** The number of compactions scheduled or running. Guarded by this. */
+    private int scheduledRuns;
+    /** The oplogs owned by a scheduled or running compaction. Guarded by this. */
+    private final Set<CompactableOplog> scheduledOplogs = new HashSet<>();
     /**
-     * used to keep track of the Thread currently invoking run on this compactor
+     * used to keep track of the Threads currently running a compaction
      */
-    private volatile Thread me;
+    private final Set<Thread> compactorThreads = new HashSet<>();
+
+    private final int maxRuns;
+
+    /** Null if the bandwidth of compaction is not limited. */
+    private final CompactionThrottle throttle;
 
     // Boolean which decides if the compactor can terminate early i.e midway
     // between compaction.
@@ -2810,6 +2874,9 @@ public class DiskStoreImpl implements DiskStore {
     OplogCompactor() {
       this.compactionCompletionRequired =
           Boolean.getBoolean(COMPLETE_COMPACTION_BEFORE_TERMINATION_PROPERTY_NAME);
+      this.maxRuns = Math.max(1, MAX_CONCURRENT_COMPACTIONS);
+      this.throttle = COMPACTION_MAX_BYTES_PER_SECOND > 0
+          ? new CompactionThrottle(COMPACTION_MAX_BYTES_PER_SECOND) : null;
     }
 
     /** Creates a new thread and starts the thread* */
@@ -2839,25 +2906,36 @@ public class DiskStoreImpl implements DiskStore {
      * @return true if compaction done; false if it was not
      */
     private synchronized boolean scheduleIfNeeded(CompactableOplog[] opLogs) {
-      return !this.scheduled && schedule(opLogs);
+      return this.scheduledRuns < this.maxRuns && schedule(opLogs);
     }
 
     /**
      * @return true if compaction done; false if it was not
      */
     private synchronized boolean schedule(CompactableOplog[] opLogs) {
-      assert !this.scheduled;
+      assert this.scheduledRuns < this.maxRuns;
       if (!this.compactorEnabled)
         return false;
       if (opLogs != null) {
+        // another compaction may have claimed some of these oplogs since they were selected
+        List<CompactableOplog> unclaimed = new ArrayList<>(opLogs.length);
         for (final CompactableOplog opLog : opLogs) {
+          if (!this.scheduledOplogs.contains(opLog)) {
+            unclaimed.add(opLog);
+          }
+        }
+        if (unclaimed.isEmpty()) {
+          return false;
+        }
+        for (final CompactableOplog opLog : unclaimed) {
           opLog.prepareForCompact();
         }
-        this.scheduled = true;
-        this.scheduledOplogs = opLogs;
-        boolean result = executeDiskStoreTask(this);
+        this.scheduledRuns++;
+        this.scheduledOplogs.addAll(unclaimed);
+        boolean result = executeDiskStoreTask(
+            new CompactionRun(unclaimed.toArray(new CompactableOplog[unclaimed.size()])));
         if (!result) {
-          reschedule(false);
+          reschedule(unclaimed, false);
           return false;
         } else {
           return true;
@@ -2867,13 +2945,19 @@ public class DiskStoreImpl implements DiskStore {
       }
     }
 
+    /**
+     * Removes the oplogs already owned by a scheduled compaction from the given list.
+     */
+    synchronized void removeScheduled(List<CompactableOplog> opLogs) {
+      opLogs.removeAll(this.scheduledOplogs);
+    }
+
     /**
      * A non-backup just needs values that are written to one of the oplogs being compacted that are
      * still alive (have not been deleted or modified in a future oplog) to be copied forward to the
      * current active oplog
      */
-    private boolean compact() {
-      CompactableOplog[] oplogs = this.scheduledOplogs;
+    private boolean compact(CompactableOplog[] oplogs) {
       int totalCount = 0;
       long compactionStart = getStats().startCompaction();
       long start = System.nanoTime();
@@ -2894,6 +2978,47 @@ public class DiskStoreImpl implements DiskStore {
       return true /* @todo !owner.isDestroyed */;
     }
 
+    /**
+     * Called by a compacting oplog after it copied the given number of bytes forward.
+     *
+     * @return the nanoseconds the oplog has to wait, with {@link #waitForThrottle(long)}, to keep
+     *         all the compactions of this disk store within the configured bandwidth
+     */
+    long copiedForward(long bytes) {
+      getStats().incCompactionCopiedBytes(bytes);
+      if (this.throttle == null) {
+        return 0;
+      }
+      return this.throttle.reserve(bytes);
+    }
+
+    /**
+     * Waits for the given nanoseconds returned by {@link #copiedForward(long)}, or until the
+     * compactor is stopped.
+     */
+    void waitForThrottle(long delay) {
+      long waitStart = System.nanoTime();
+      long remaining = delay;
+      boolean interrupted = false;
+      try {
+        // wait in slices so that a stopped compactor does not keep waiting
+        while (remaining > 0 && keepCompactorRunning()) {
+          try {
+            TimeUnit.NANOSECONDS.sleep(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(100)));
+          } catch (InterruptedException ignore) {
+            interrupted = true;
+            break;
+          }
+          remaining = delay - (System.nanoTime() - waitStart);
+        }
+      } finally {
+        getStats().incCompactionThrottleTime(System.nanoTime() - waitStart);
+        if (interrupted) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+
     private boolean isClosing() {
       if (getCache().isClosed()) {
         return true;
@@ -2903,78 +3028,93 @@ public class DiskStoreImpl implements DiskStore {
     }
 
     /**
-     * Just do compaction and then check to see if another needs to be done and if so schedule it.
-     * Asif:The compactor thread checks for an oplog in the LinkedHasMap in a synchronization on the
-     * oplogIdToOplog object. This will ensure that an addition of an Oplog to the Map does not get
-     * missed. Notifications need not be sent if the thread is already compaction
+     * Compacts the oplogs it was scheduled with and then checks to see if another compaction needs
+     * to be done and if so schedules it.
      */
-    public void run() {
-      if (!this.scheduled)
-        return;
-      boolean compactedSuccessfully = false;
-      try {
-        SystemFailure.checkFailure();
-        if (isClosing()) {
-          return;
-        }
-        if (!this.compactorEnabled)
-          return;
-        final CompactableOplog[] oplogs = this.scheduledOplogs;
-        this.me = Thread.currentThread();
+    private class CompactionRun implements Runnable {
+      private final CompactableOplog[] oplogs;
+
+      CompactionRun(CompactableOplog[] oplogs) {
+        this.oplogs = oplogs;
+      }
+
+      /**
+       * Just do compaction and then check to see if another needs to be done and if so schedule
+       * it. Asif:The compactor thread checks for an oplog in the LinkedHasMap in a synchronization
+       * on the oplogIdToOplog object. This will ensure that an addition of an Oplog to the Map does
+       * not get missed. Notifications need not be sent if the thread is already compaction
+       */
+      public void run() {
+        boolean compactedSuccessfully = false;
         try {
-          // set our thread's name
-          String tName = "OplogCompactor " + getName() + " for oplog " + oplogs[0].toString();
-          Thread.currentThread().setName(tName);
-
-          StringBuilder buffer = new StringBuilder();
-          for (int j = 0; j < oplogs.length; ++j) {
-            buffer.append(oplogs[j].toString());
-            if (j + 1 < oplogs.length) {
-              buffer.append(", ");
-            }
+          SystemFailure.checkFailure();
+          if (isClosing()) {
+            return;
           }
-          String ids = buffer.toString();
-          logger.info(LocalizedMessage.create(LocalizedStrings.DiskRegion_COMPACTION_OPLOGIDS,
-              new Object[] {getName(), ids}));
-          if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
-            CacheObserverHolder.getInstance().beforeGoingToCompact();
+          if (!compactorEnabled)
+            return;
+          final CompactableOplog[] oplogs = this.oplogs;
+          final Thread me = Thread.currentThread();
+          synchronized (OplogCompactor.this) {
+            compactorThreads.add(me);
           }
-          compactedSuccessfully = compact();
-          if (compactedSuccessfully) {
-            if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
-              CacheObserverHolder.getInstance().afterHavingCompacted();
+          try {
+            // set our thread's name
+            String tName = "OplogCompactor " + getName() + " for oplog " + oplogs[0].toString();
+            me.setName(tName);
+
+            StringBuilder buffer = new StringBuilder();
+            for (int j = 0; j < oplogs.length; ++j) {
+              buffer.append(oplogs[j].toString());
+              if (j + 1 < oplogs.length) {
+                buffer.append(", ");
+              }
             }
-          } else {
-            logger.warn(LocalizedMessage.create(LocalizedStrings.DiskRegion_COMPACTION_FAILURE,
+            String ids = buffer.toString();
+            logger.info(LocalizedMessage.create(LocalizedStrings.DiskRegion_COMPACTION_OPLOGIDS,
                 new Object[] {getName(), ids}));
+            if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
+              CacheObserverHolder.getInstance().beforeGoingToCompact();
+            }
+            compactedSuccessfully = compact(oplogs);
+            if (compactedSuccessfully) {
+              if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
+                CacheObserverHolder.getInstance().afterHavingCompacted();
+              }
+            } else {
+              logger.warn(LocalizedMessage.create(LocalizedStrings.DiskRegion_COMPACTION_FAILURE,
+                  new Object[] {getName(), ids}));
+            }
+          } catch (DiskAccessException dae) {
+            handleDiskAccessException(dae);
+            throw dae;
+          } catch (KillCompactorException ex) {
+            if (logger.isDebugEnabled()) {
+              logger.debug("compactor thread terminated by test");
+            }
+            throw ex;
+          } finally {
+            if (compactedSuccessfully) {
+              me.setName("Idle OplogCompactor");
+            }
+            synchronized (OplogCompactor.this) {
+              compactorThreads.remove(me);
+            }
           }
-        } catch (DiskAccessException dae) {
-          handleDiskAccessException(dae);
-          throw dae;
-        } catch (KillCompactorException ex) {
-          if (logger.isDebugEnabled()) {
-            logger.debug("compactor thread terminated by test");
-          }
-          throw ex;
+        } catch (CancelException ignore) {
+          // if cache is closed, just about the compaction
         } finally {
-          if (compactedSuccessfully) {
-            this.me.setName("Idle OplogCompactor");
-          }
-          this.me = null;
+          reschedule(Arrays.asList(this.oplogs), compactedSuccessfully);
         }
-      } catch (CancelException ignore) {
-        // if cache is closed, just about the compaction
-      } finally {
-        reschedule(compactedSuccessfully);
       }
     }
 
     synchronized void waitForRunToComplete() {
-      if (this.me == Thread.currentThread()) {
+      if (this.compactorThreads.contains(Thread.currentThread())) {
         // no need to wait since we are the compactor to fix bug 40630
         return;
       }
-      while (this.scheduled) {
+      while (this.scheduledRuns > 0) {
         try {
           wait();
         } catch (InterruptedException ignore) {
@@ -2983,9 +3123,10 @@ public class DiskStoreImpl implements DiskStore {
       }
     }
 
-    private synchronized void reschedule(boolean success) {
-      this.scheduled = false;
-      this.scheduledOplogs = null;
+    private synchronized void reschedule(Collection<CompactableOplog> compacted,
+        boolean success) {
+      this.scheduledRuns--;
+      this.scheduledOplogs.removeAll(compacted);
       notifyAll();
       if (!success)
         return;
@@ -2997,7 +3138,9 @@ public class DiskStoreImpl implements DiskStore {
       // synchronized (DiskStoreImpl.this.oplogIdToOplog) {
       if (this.compactorEnabled) {
         if (isCompactionEnabled()) {
-          schedule(getOplogToBeCompacted());
+          // keep as many compactions running as there are oplogs for
+          while (this.scheduledRuns < this.maxRuns && schedule(getOplogToBeCompacted())) {
+          }
         }
       }
       // }
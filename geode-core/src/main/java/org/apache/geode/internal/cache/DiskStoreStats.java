@@ -69,6 +69,8 @@ public class DiskStoreStats {
   private static final int compactUpdateTimeId;
   private static final int compactDeletesId;
   private static final int compactDeleteTimeId;
+  private static final int compactCopiedBytesId;
+  private static final int compactThrottleTimeId;
 
   private static final int openOplogsId;
   private static final int inactiveOplogsId;
@@ -76,11 +78,19 @@ public class DiskStoreStats {
 
   private static final int oplogReadsId;
   private static final int oplogSeeksId;
+  private static final int oplogMappedReadsId;
 
   private static final int uncreatedRecoveredRegionsId;
   private static final int backupsInProgress;
   private static final int backupsCompleted;
 
+  private static final int pendingOplogRecoveriesId;
+  private static final int krfPrefetchesId;
+  private static final int krfPrefetchedBytesId;
+
+  private static final int groupCommitsId;
+  private static final int groupCommittedWritesId;
+
   static {
     String statName = "DiskStoreStatistics";
     String statDescription = "Statistics about a Region's use of the disk";
@@ -167,6 +177,11 @@ public class DiskStoreStats {
             f.createLongCounter("compactDeleteTime",
                 "Total amount of time, in nanoseconds, spent doing deletes during a compact",
                 "nanoseconds"),
+            f.createLongCounter("compactCopiedBytes",
+                "Total number of value bytes copied forward by oplog compacts", "bytes"),
+            f.createLongCounter("compactThrottleTime",
+                "Total amount of time, in nanoseconds, oplog compacts waited to stay within the compaction bandwidth limit",
+                "nanoseconds"),
             f.createIntGauge("compactsInProgress",
                 "current number of oplog compacts that are in progress", "compacts"),
             f.createIntGauge("writesInProgress",
@@ -185,11 +200,28 @@ public class DiskStoreStats {
                 "oplogs"),
             f.createLongCounter("oplogReads", "Total number of oplog reads", "reads"),
             f.createLongCounter("oplogSeeks", "Total number of oplog seeks", "seeks"),
+            f.createLongCounter("oplogMappedReads",
+                "Total number of oplog reads served from a memory mapped crf without a seek",
+                "reads"),
             f.createIntGauge("uncreatedRecoveredRegions",
                 "The current number of regions that have been recovered but have not yet been created.",
                 "regions"),
             f.createIntGauge("backupsInProgress", backupsInProgressDesc, "backups"),
-            f.createIntCounter("backupsCompleted", backupsCompletedDesc, "backups"),});
+            f.createIntCounter("backupsCompleted", backupsCompletedDesc, "backups"),
+            f.createIntGauge("pendingOplogRecoveries",
+                "The current number of oplogs that a recovery in progress still has to recover",
+                "oplogs"),
+            f.createLongCounter("krfPrefetches",
+                "The total number of krf files read ahead in parallel during recovery", "files"),
+            f.createLongCounter("krfPrefetchedBytes",
+                "The total number of bytes of krf files read ahead in parallel during recovery",
+                "bytes"),
+            f.createLongCounter("groupCommits",
+                "The total number of group commits done to make concurrent synchronous oplog writes durable",
+                "commits"),
+            f.createLongCounter("groupCommittedWrites",
+                "The total number of synchronous oplog writes made durable by group commits",
+                "writes"),});
 
     // Initialize id fields
     writesId = type.nameToId("writes");
@@ -228,8 +260,11 @@ public class DiskStoreStats {
     compactInsertTimeId = type.nameToId("compactInsertTime");
     compactUpdatesId = type.nameToId("compactUpdates");
     compactUpdateTimeId = type.nameToId("compactUpdateTime");
+    compactCopiedBytesId = type.nameToId("compactCopiedBytes");
+    compactThrottleTimeId = type.nameToId("compactThrottleTime");
     oplogReadsId = type.nameToId("oplogReads");
     oplogSeeksId = type.nameToId("oplogSeeks");
+    oplogMappedReadsId = type.nameToId("oplogMappedReads");
 
     openOplogsId = type.nameToId("openOplogs");
     inactiveOplogsId = type.nameToId("inactiveOplogs");
@@ -237,6 +272,11 @@ public class DiskStoreStats {
     uncreatedRecoveredRegionsId = type.nameToId("uncreatedRecoveredRegions");
     backupsInProgress = type.nameToId("backupsInProgress");
     backupsCompleted = type.nameToId("backupsCompleted");
+    pendingOplogRecoveriesId = type.nameToId("pendingOplogRecoveries");
+    krfPrefetchesId = type.nameToId("krfPrefetches");
+    krfPrefetchedBytesId = type.nameToId("krfPrefetchedBytes");
+    groupCommitsId = type.nameToId("groupCommits");
+    groupCommittedWritesId = type.nameToId("groupCommittedWrites");
   }
 
   ////////////////////// Instance Fields //////////////////////
@@ -451,6 +491,23 @@ public class DiskStoreStats {
     this.stats.incLong(oplogRecoveredBytesId, bytesRead);
   }
 
+  public void incPendingOplogRecoveries(int delta) {
+    this.stats.incInt(pendingOplogRecoveriesId, delta);
+  }
+
+  public int getPendingOplogRecoveries() {
+    return this.stats.getInt(pendingOplogRecoveriesId);
+  }
+
+  public void incKrfPrefetches(long bytes) {
+    this.stats.incLong(krfPrefetchesId, 1);
+    this.stats.incLong(krfPrefetchedBytesId, bytes);
+  }
+
+  public long getKrfPrefetches() {
+    return this.stats.getLong(krfPrefetchesId);
+  }
+
   public void incRecoveredEntryCreates() {
     this.stats.incLong(recoveredEntryCreatesId, 1);
   }
@@ -502,6 +559,14 @@ public class DiskStoreStats {
     this.stats.incLong(oplogSeeksId, 1);
   }
 
+  public void incOplogMappedReads() {
+    this.stats.incLong(oplogMappedReadsId, 1);
+  }
+
+  public long getOplogMappedReads() {
+    return this.stats.getLong(oplogMappedReadsId);
+  }
+
   public void incInactiveOplogs(int delta) {
     this.stats.incInt(inactiveOplogsId, delta);
   }
@@ -525,6 +590,22 @@ public class DiskStoreStats {
     this.stats.incLong(compactUpdateTimeId, getStatTime() - start);
   }
 
+  public void incCompactionCopiedBytes(long bytes) {
+    this.stats.incLong(compactCopiedBytesId, bytes);
+  }
+
+  public long getCompactionCopiedBytes() {
+    return this.stats.getLong(compactCopiedBytesId);
+  }
+
+  public void incCompactionThrottleTime(long nanos) {
+    this.stats.incLong(compactThrottleTimeId, nanos);
+  }
+
+  public long getCompactionThrottleTime() {
+    return this.stats.getLong(compactThrottleTimeId);
+  }
+
   public long getStatTime() {
     return DistributionStats.getStatTime();
   }
@@ -546,6 +627,22 @@ public class DiskStoreStats {
     this.stats.incInt(backupsCompleted, 1);
   }
 
+  /**
+   * Invoked after a group commit made the given number of synchronous writes durable.
+   */
+  public void incGroupCommits(long writes) {
+    this.stats.incLong(groupCommitsId, 1);
+    this.stats.incLong(groupCommittedWritesId, writes);
+  }
+
+  public long getGroupCommits() {
+    return this.stats.getLong(groupCommitsId);
+  }
+
+  public long getGroupCommittedWrites() {
+    return this.stats.getLong(groupCommittedWritesId);
+  }
+
   public Statistics getStats() {
     return stats;
   }
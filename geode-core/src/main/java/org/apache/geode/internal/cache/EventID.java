@@ -128,13 +128,16 @@ public class EventID implements DataSerializableFixedID, Serializable, Externali
    * serialization and comparison problems when used in EventIDs
    */
   private EventID(final byte[] membershipId) {
-    // Assert.assertTrue(membershipId.length <= Short.MAX_VALUE);
-    this.membershipID = membershipId;
     // TODO:Asif : If the DS is closed & restarted can we continue with the
     // existing Thread ID & Sequenec ID. Should not be an issue.
     // But we should not cache membershipID as for the same thread it can
     // differ.Hence it should be passed as parameter in the constructor
-    ThreadAndSequenceIDWrapper wrapper = (ThreadAndSequenceIDWrapper) threadIDLocal.get();
+    this(membershipId, (ThreadAndSequenceIDWrapper) threadIDLocal.get());
+  }
+
+  private EventID(final byte[] membershipId, ThreadAndSequenceIDWrapper wrapper) {
+    // Assert.assertTrue(membershipId.length <= Short.MAX_VALUE);
+    this.membershipID = membershipId;
     this.threadID = wrapper.threadID;
     this.sequenceID = wrapper.getAndIncrementSequenceID();
     this.bucketID = -1;
@@ -149,6 +152,20 @@ public class EventID implements DataSerializableFixedID, Serializable, Externali
     this(initializeAndGetDSEventIdentity(sys));
   }
 
+  /**
+   * constructor for creating an event ID originating in the local cache with the thread
+   * identification and next sequence ID of the given identity instead of the calling thread's. A
+   * receiver ignores an event whose sequence ID is not higher than the last one it saw from the
+   * same thread, so an identity must not be used for another event before the previous one is
+   * done.
+   *
+   * @param sys the local distributed system
+   * @param identity the thread identification to use
+   */
+  EventID(DistributedSystem sys, ThreadAndSequenceIDWrapper identity) {
+    this(initializeAndGetDSEventIdentity(sys), identity);
+  }
+
   public static byte[] getMembershipId(DistributedSystem sys) {
     return EventID.initializeAndGetDSEventIdentity(sys);
   }
@@ -138,6 +138,7 @@ import org.apache.geode.cache.query.QueryService;
 import org.apache.geode.cache.query.internal.DefaultQueryService;
 import org.apache.geode.cache.query.internal.InternalQueryService;
 import org.apache.geode.cache.query.internal.QueryMonitor;
+import org.apache.geode.cache.query.internal.QueryPlanCache;
 import org.apache.geode.cache.query.internal.cq.CqService;
 import org.apache.geode.cache.query.internal.cq.CqServiceProvider;
 import org.apache.geode.cache.server.CacheServer;
@@ -533,6 +534,8 @@ public class GemFireCacheImpl implements InternalCache, InternalClientCache, Has
 
   private final Object queryMonitorLock = new Object();
 
+  private final QueryPlanCache queryPlanCache;
+
   private final PersistentMemberManager persistentMemberManager;
 
   private ClientMetadataService clientMetadataService = null;
@@ -893,6 +896,8 @@ public class GemFireCacheImpl implements InternalCache, InternalClientCache, Has
       // Create the CacheStatistics
       this.cachePerfStats = new CachePerfStats(system);
       CachePerfStats.enableClockStats = this.system.getConfig().getEnableTimeStatistics();
+      this.queryPlanCache = QueryPlanCache.MAX_SIZE > 0
+          ? new QueryPlanCache(QueryPlanCache.MAX_SIZE, this.cachePerfStats) : null;
 
       this.transactionManager = new TXManagerImpl(this.cachePerfStats, this);
       this.dm.addMembershipListener(this.transactionManager);
@@ -2971,9 +2976,15 @@ public class GemFireCacheImpl implements InternalCache, InternalClientCache, Has
 
   public <K, V> Region<K, V> basicCreateRegion(String name, RegionAttributes<K, V> attrs)
       throws RegionExistsException, TimeoutException {
+    return basicCreateRegion(name, attrs, new InternalRegionArguments());
+  }
+
+  @Override
+  public <K, V> Region<K, V> basicCreateRegion(String name, RegionAttributes<K, V> attrs,
+      InternalRegionArguments ira) throws RegionExistsException, TimeoutException {
     try {
-      InternalRegionArguments ira = new InternalRegionArguments().setDestroyLockFlag(true)
-          .setRecreateFlag(false).setSnapshotInputStream(null).setImageTarget(null);
+      ira.setDestroyLockFlag(true).setRecreateFlag(false).setSnapshotInputStream(null)
+          .setImageTarget(null);
 
       if (attrs instanceof UserSpecifiedRegionAttributes) {
         ira.setIndexes(((UserSpecifiedRegionAttributes) attrs).getIndexes());
@@ -4512,6 +4523,11 @@ public class GemFireCacheImpl implements InternalCache, InternalClientCache, Has
     return this.queryMonitor;
   }
 
+  @Override
+  public QueryPlanCache getQueryPlanCache() {
+    return this.queryPlanCache;
+  }
+
   /**
    * Simple class to allow waiters for register interest. Has at most one thread that ever calls
    * wait.
@@ -63,6 +63,7 @@ public class InternalRegionArguments {
 
 
   private Object userAttribute = null;
+  private boolean isNearCache;
   private List indexes;
 
   private Map<String, CacheServiceProfile> cacheServiceProfiles;
@@ -238,6 +239,21 @@ public class InternalRegionArguments {
     return this.userAttribute;
   }
 
+  /**
+   * Makes a client region keep the entries it caches coherent with the server by registering
+   * interest in them.
+   *
+   * @see org.apache.geode.cache.client.internal.NearCache
+   */
+  public InternalRegionArguments setNearCache(boolean nearCache) {
+    this.isNearCache = nearCache;
+    return this;
+  }
+
+  public boolean isNearCache() {
+    return this.isNearCache;
+  }
+
   public InternalRegionArguments setIsUsedForSerialGatewaySenderQueue(boolean queueFlag) {
     this.isUsedForSerialGatewaySenderQueue = queueFlag;
     return this;
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThreadGroup;
+
+/**
+ * Reads the krf files of the oplogs being recovered into memory on a bounded pool of threads so
+ * that the recovery thread, which has to apply the oplogs one at a time and in order, does not wait
+ * on disk reads. A krf is only scheduled once the recovery thread has taken an earlier one, so at
+ * most {@code 2 * threads} krfs are held in memory at once. A krf that could not be read ahead is
+ * read by the recovery thread from disk as before. Only krfs the init file says are complete are
+ * read ahead since a krf may still be being created for an oplog when a later region recovers.
+ *
+ * @since Geode 1.8
+ */
+class KrfPrefetcher implements AutoCloseable {
+  private static final Logger logger = LogService.getLogger();
+
+  private final ThreadPoolExecutor executor;
+
+  private final DiskInitFile initFile;
+
+  private final DiskStoreStats stats;
+
+  /** Oplogs whose krf has not been scheduled yet, in recovery order. */
+  private final Iterator<Oplog> pending;
+
+  private final Map<Oplog, Future<byte[]>> prefetches = new HashMap<>();
+
+  /**
+   * Starts reading the krfs of the given oplogs in iteration order.
+   */
+  KrfPrefetcher(Collection<Oplog> oplogs, int threads, DiskInitFile initFile,
+      DiskStoreStats stats) {
+    this.initFile = initFile;
+    this.stats = stats;
+    this.pending = new ArrayList<>(oplogs).iterator();
+    final ThreadGroup group =
+        LoggingThreadGroup.createThreadGroup("Oplog Recovery Thread Group", logger);
+    final ThreadFactory factory =
+        GemfireCacheHelper.CreateThreadFactory(group, "Oplog Krf Prefetcher");
+    this.executor = new ThreadPoolExecutor(threads, threads, 10, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), factory);
+    for (int i = 0; i < 2 * threads; i++) {
+      scheduleNext();
+    }
+  }
+
+  private void scheduleNext() {
+    while (this.pending.hasNext()) {
+      Oplog oplog = this.pending.next();
+      File crf = oplog.getCrfFile();
+      if (crf != null && this.initFile.hasKrf(oplog.getOplogId())) {
+        File krf = new File(Oplog.getKRFFilenameFromCRFFilename(crf.getAbsolutePath()));
+        this.prefetches.put(oplog, this.executor.submit(() -> read(krf)));
+        return;
+      }
+    }
+  }
+
+  private byte[] read(File krf) throws IOException {
+    if (!krf.exists()) {
+      return null;
+    }
+    byte[] bytes = Files.readAllBytes(krf.toPath());
+    this.stats.incKrfPrefetches(bytes.length);
+    return bytes;
+  }
+
+  /**
+   * Returns the contents of the oplog's krf, waiting for it to be read if needed, or null if the
+   * krf was not read ahead and should be read from disk.
+   */
+  byte[] take(Oplog oplog) {
+    Future<byte[]> prefetch = this.prefetches.remove(oplog);
+    if (prefetch == null) {
+      return null;
+    }
+    scheduleNext();
+    try {
+      return prefetch.get();
+    } catch (InterruptedException ignore) {
+      Thread.currentThread().interrupt();
+      return null;
+    } catch (ExecutionException ex) {
+      if (logger.isDebugEnabled()) {
+        logger.debug("Could not read ahead the krf of {}", oplog, ex.getCause());
+      }
+      return null;
+    }
+  }
+
+  @Override
+  public void close() {
+    for (Future<byte[]> prefetch : this.prefetches.values()) {
+      prefetch.cancel(true);
+    }
+    this.prefetches.clear();
+    this.executor.shutdownNow();
+  }
+}
@@ -29,6 +29,7 @@ import java.util.concurrent.locks.Lock;
 
 import org.apache.logging.log4j.Logger;
 
+import org.apache.geode.cache.AsyncRegion;
 import org.apache.geode.cache.AttributesMutator;
 import org.apache.geode.cache.CacheLoaderException;
 import org.apache.geode.cache.CacheStatistics;
@@ -72,15 +73,42 @@ public class LocalDataSet implements Region, QueryExecutor {
 
   private final PartitionedRegion proxy;
   private final Set<Integer> buckets;
+  private final int splitIndex;
+  private final int numSplits;
   private InternalRegionFunctionContext rfContext;
 
   public LocalDataSet(PartitionedRegion pr, Set<Integer> buckets) {
+    this(pr, buckets, 0, 1);
+  }
+
+  /**
+   * Creates a data set of the entries of the given buckets whose keys fall into the given one of
+   * the given number of key hash ranges. Every entry of the buckets is in exactly one range.
+   */
+  public LocalDataSet(PartitionedRegion pr, Set<Integer> buckets, int splitIndex, int numSplits) {
     this.proxy = pr;
     this.buckets = buckets;
+    this.splitIndex = splitIndex;
+    this.numSplits = numSplits;
+  }
+
+  /**
+   * Returns whether the given key falls into the key hash range of this data set. The key hash is
+   * spread first, as the keys of one bucket share their hash modulo the number of buckets.
+   */
+  private boolean isInSplit(Object key) {
+    if (this.numSplits <= 1) {
+      return true;
+    }
+    long spreadHash = (key.hashCode() * 0x9E3779B9) & 0xFFFFFFFFL;
+    return (int) ((spreadHash * this.numSplits) >>> 32) == this.splitIndex;
   }
 
   @Override
   public Set<Region.Entry> entrySet(boolean recursive) {
+    if (this.numSplits > 1) {
+      return localEntrySet();
+    }
     return this.proxy.entrySet(getBucketSet());
   }
 
@@ -90,10 +118,16 @@ public class LocalDataSet implements Region, QueryExecutor {
 
   public Collection values() {
     this.proxy.checkReadiness();
+    if (this.numSplits > 1) {
+      return localValues();
+    }
     return this.proxy.new ValuesSet(getBucketSet());
   }
 
   public Set keys() {
+    if (this.numSplits > 1) {
+      return localKeys();
+    }
     return this.proxy.keySet(getBucketSet());
   }
 
@@ -615,6 +649,11 @@ public class LocalDataSet implements Region, QueryExecutor {
     return getCache();
   }
 
+  @Override
+  public AsyncRegion async() {
+    return new BlockingAsyncRegion(this);
+  }
+
   public RegionSnapshotService<?, ?> getSnapshotService() {
     return new RegionSnapshotServiceImpl(this);
   }
@@ -685,6 +724,9 @@ public class LocalDataSet implements Region, QueryExecutor {
             // Check if there is a valid value.
             if (hasNext) {
               Map.Entry e = (Map.Entry) curBucketIter.next();
+              if (!isInSplit(e.getKey())) {
+                continue;
+              }
               try {
                 if (iterType == IteratorType.VALUES) {
                   if (isKeepSerialized()) {
@@ -730,6 +772,12 @@ public class LocalDataSet implements Region, QueryExecutor {
     @Override
     public int size() {
       int size = 0;
+      if (numSplits > 1) {
+        for (Iterator it = iterator(); it.hasNext(); it.next()) {
+          size++;
+        }
+        return size;
+      }
       for (Integer bId : buckets) {
         BucketRegion br = proxy.getDataStore().getLocalBucketById(bId);
         size += br.size();
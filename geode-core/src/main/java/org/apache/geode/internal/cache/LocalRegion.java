@@ -69,6 +69,7 @@ import org.apache.geode.LogWriter;
 import org.apache.geode.Statistics;
 import org.apache.geode.SystemFailure;
 import org.apache.geode.admin.internal.SystemMemberCacheEventProcessor;
+import org.apache.geode.cache.AsyncRegion;
 import org.apache.geode.cache.AttributesMutator;
 import org.apache.geode.cache.Cache;
 import org.apache.geode.cache.CacheClosedException;
@@ -115,6 +116,7 @@ import org.apache.geode.cache.client.ServerOperationException;
 import org.apache.geode.cache.client.SubscriptionNotEnabledException;
 import org.apache.geode.cache.client.internal.Connection;
 import org.apache.geode.cache.client.internal.Endpoint;
+import org.apache.geode.cache.client.internal.NearCache;
 import org.apache.geode.cache.client.internal.PoolImpl;
 import org.apache.geode.cache.client.internal.ServerRegionProxy;
 import org.apache.geode.cache.control.ResourceManager;
@@ -671,6 +673,10 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
 
     // initialize client to server proxy
     this.serverRegionProxy = this.getPoolName() != null ? new ServerRegionProxy(this) : null;
+    this.nearCache = internalRegionArgs.isNearCache() && this.serverRegionProxy != null
+        ? new NearCache(this.serverRegionProxy, getDataPolicy().ordinal,
+            this.serverRegionProxy.getPool().getBackgroundProcessor(), this::isNearCached)
+        : null;
     this.imageState = new UnsharedImageState(this.serverRegionProxy != null,
         getDataPolicy().withReplication() || getDataPolicy().isPreloaded(),
         getAttributes().getDataPolicy().withPersistence(), this.stopper);
@@ -700,6 +706,7 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
       ma.loadFactor = this.loadFactor;
       ma.initialCapacity = this.initialCapacity;
       ma.concurrencyLevel = this.concurrencyLevel;
+      ma.keyConstraint = this.keyConstraint;
       result = RegionMapFactory.createVM(this, ma, internalRegionArgs);
     }
     return result;
@@ -814,6 +821,12 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
    */
   final ServerRegionProxy serverRegionProxy;
 
+  /**
+   * Keeps the entries of a client near cache coherent with the server; null if this region is not
+   * a near cache.
+   */
+  private final NearCache nearCache;
+
   private final InternalDataView sharedDataView;
 
   @Override
@@ -826,6 +839,18 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     return this.serverRegionProxy != null;
   }
 
+  public NearCache getNearCache() {
+    return this.nearCache;
+  }
+
+  /**
+   * Returns whether an entry for the given key is cached, or being created, for the near cache
+   */
+  private boolean isNearCached(Object key) {
+    RegionEntry re = this.entries.getEntry(key);
+    return re != null && !re.isRemovedPhase2() && !re.isTombstone();
+  }
+
   /** Returns true if the ExpiryTask is currently allowed to expire. */
   protected boolean isExpirationAllowed(ExpiryTask expiry) {
     return true;
@@ -2765,7 +2790,23 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
       boolean generateCallbacks, Object localValue, boolean disableCopyOnRead, boolean preferCD,
       ClientProxyMembershipID requestingClient, EntryEventImpl clientEvent,
       boolean returnTombstones) throws CacheLoaderException, TimeoutException {
+    if (this.nearCache == null || getServerProxy() == null) {
+      return findObjectInServerOrLoader(keyInfo, isCreate, generateCallbacks, preferCD,
+          clientEvent);
+    }
+    final Object key = keyInfo.getKey();
+    this.nearCache.register(key);
+    try {
+      return findObjectInServerOrLoader(keyInfo, isCreate, generateCallbacks, preferCD,
+          clientEvent);
+    } finally {
+      // a miss or a failure caches nothing
+      this.nearCache.release(key, isNearCached(key));
+    }
+  }
 
+  private Object findObjectInServerOrLoader(KeyInfo keyInfo, boolean isCreate,
+      boolean generateCallbacks, boolean preferCD, EntryEventImpl clientEvent) {
     final Object key = keyInfo.getKey();
     final Object aCallbackArgument = keyInfo.getCallbackArg();
     Object value = null;
@@ -3019,32 +3060,43 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
         // serverPut is called by cacheWriteBeforePut so the new value will not yet be off-heap
         Object callbackArg = event.getRawCallbackArgument();
         boolean isCreate = event.isCreate();
-        Object result = mySRP.put(key, value, event.getDeltaBytes(), event, op, requireOldValue,
-            expectedOldValue, callbackArg, isCreate);
-
-        // bug #42296, serverProxy returns null when cache is closing
-        getCancelCriterion().checkCancelInProgress(null);
-        // if concurrent map operations failed we don't want the region map
-        // to apply the operation and need to throw an exception
-        if (op.guaranteesOldValue()) {
-          if (op != Operation.REPLACE || requireOldValue) {
-            event.setConcurrentMapOldValue(result);
-          }
-          if (op == Operation.PUT_IF_ABSENT) {
-            if (result != null) {
-              // customers don't see this exception
-              throw new EntryNotFoundException("entry existed for putIfAbsent");
+        if (this.nearCache != null) {
+          this.nearCache.register(key);
+        }
+        boolean put = false;
+        try {
+          Object result = mySRP.put(key, value, event.getDeltaBytes(), event, op, requireOldValue,
+              expectedOldValue, callbackArg, isCreate);
+
+          // bug #42296, serverProxy returns null when cache is closing
+          getCancelCriterion().checkCancelInProgress(null);
+          // if concurrent map operations failed we don't want the region map
+          // to apply the operation and need to throw an exception
+          if (op.guaranteesOldValue()) {
+            if (op != Operation.REPLACE || requireOldValue) {
+              event.setConcurrentMapOldValue(result);
             }
-          } else if (op == Operation.REPLACE) {
-            if (requireOldValue && result == null) {
-              throw new EntryNotFoundException("entry not found for replace");
-            } else if (!requireOldValue) {
-              if (!(Boolean) result) {
+            if (op == Operation.PUT_IF_ABSENT) {
+              if (result != null) {
                 // customers don't see this exception
-                throw new EntryNotFoundException("entry found with wrong value");
+                throw new EntryNotFoundException("entry existed for putIfAbsent");
+              }
+            } else if (op == Operation.REPLACE) {
+              if (requireOldValue && result == null) {
+                throw new EntryNotFoundException("entry not found for replace");
+              } else if (!requireOldValue) {
+                if (!(Boolean) result) {
+                  // customers don't see this exception
+                  throw new EntryNotFoundException("entry found with wrong value");
+                }
               }
             }
           }
+          put = true;
+        } finally {
+          if (this.nearCache != null) {
+            this.nearCache.release(key, put);
+          }
         }
       }
     }
@@ -6784,6 +6836,9 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     if (this.entryUserAttributes != null) {
       this.entryUserAttributes.remove(event.getKey());
     }
+    if (this.nearCache != null && !inTokenMode && !event.isFromRILocalDestroy()) {
+      this.nearCache.removed(event.getKey());
+    }
   }
 
   /**
@@ -7285,6 +7340,9 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
   private void detachPool() {
     ServerRegionProxy serverRegionProxy = getServerProxy();
     if (serverRegionProxy != null) {
+      if (this.nearCache != null) {
+        this.nearCache.close();
+      }
       InternalCache internalCache = getCache();
       String poolName = this.getPoolName();
       PoolImpl pool = (PoolImpl) PoolManager.find(this.getPoolName());
@@ -8976,6 +9034,11 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     return value;
   }
 
+  @Override
+  public AsyncRegion async() {
+    return new AsyncRegionImpl<>(this);
+  }
+
   // TODO: fromClient is always true
   public void basicBridgeDestroyRegion(Object callbackArg, final ClientProxyMembershipID client,
       boolean fromClient, EventID eventId)
@@ -9258,80 +9321,89 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
 
       // Send the rest of the keys to the server (if necessary)
       if (!keysList.isEmpty()) {
-        VersionedObjectList remoteResults = getServerProxy().getAll(keysList, callback);
-        if (isDebugEnabled) {
-          logger.debug("remote getAll results are {}", remoteResults);
+        if (this.nearCache != null) {
+          this.nearCache.registerAll(keysList);
         }
-
-        // Add remote results to local cache and all results if successful
-        for (VersionedObjectList.Iterator it = remoteResults.iterator(); it.hasNext();) {
-          VersionedObjectList.Entry entry = it.next();
-          Object key = entry.getKey();
-          boolean notOnServer = entry.isKeyNotOnServer();
-          // in 8.0 we added transfer of tombstones with RI/getAll results for bug #40791
-          boolean createTombstone = false;
-          if (notOnServer) {
-            createTombstone = entry.getVersionTag() != null && this.getConcurrencyChecksEnabled();
-            allResults.put(key, null);
-            if (isDebugEnabled) {
-              logger.debug("Added remote result for missing key: {}", key);
-            }
-            if (!createTombstone) {
-              continue;
-            }
+        try {
+          VersionedObjectList remoteResults = getServerProxy().getAll(keysList, callback);
+          if (isDebugEnabled) {
+            logger.debug("remote getAll results are {}", remoteResults);
           }
 
-          Object value;
-          if (createTombstone) {
-            // the value is null in this case, so use TOKEN_TOMBSTONE
-            value = Token.TOMBSTONE;
-          } else {
-            value = entry.getObject();
-          }
+          // Add remote results to local cache and all results if successful
+          for (VersionedObjectList.Iterator it = remoteResults.iterator(); it.hasNext();) {
+            VersionedObjectList.Entry entry = it.next();
+            Object key = entry.getKey();
+            boolean notOnServer = entry.isKeyNotOnServer();
+            // in 8.0 we added transfer of tombstones with RI/getAll results for bug #40791
+            boolean createTombstone = false;
+            if (notOnServer) {
+              createTombstone = entry.getVersionTag() != null && this.getConcurrencyChecksEnabled();
+              allResults.put(key, null);
+              if (isDebugEnabled) {
+                logger.debug("Added remote result for missing key: {}", key);
+              }
+              if (!createTombstone) {
+                continue;
+              }
+            }
 
-          if (value instanceof Throwable) {
-            continue;
-          }
+            Object value;
+            if (createTombstone) {
+              // the value is null in this case, so use TOKEN_TOMBSTONE
+              value = Token.TOMBSTONE;
+            } else {
+              value = entry.getObject();
+            }
 
-          // The following basicPutEntry needs to be done
-          // even if we do not have storage so that the
-          // correct events will be delivered to any callbacks we have.
-          long startPut = CachePerfStats.getStatTime();
-          validateKey(key);
+            if (value instanceof Throwable) {
+              continue;
+            }
 
-          @Released
-          EntryEventImpl event = EntryEventImpl.create(this, Operation.LOCAL_LOAD_CREATE, key,
-              value, callback, false, getMyId(), true);
+            // The following basicPutEntry needs to be done
+            // even if we do not have storage so that the
+            // correct events will be delivered to any callbacks we have.
+            long startPut = CachePerfStats.getStatTime();
+            validateKey(key);
 
-          try {
-            event.setFromServer(true);
-            event.setVersionTag(entry.getVersionTag());
+            @Released
+            EntryEventImpl event = EntryEventImpl.create(this, Operation.LOCAL_LOAD_CREATE, key,
+                value, callback, false, getMyId(), true);
 
-            if (!alreadyInvalid(key, event)) {
-              // bug #47716 - don't update if it's already here & invalid
-              TXStateProxy txState = this.cache.getTXMgr().pauseTransaction();
-              try {
-                basicPutEntry(event, 0L);
-              } catch (ConcurrentCacheModificationException e) {
-                if (isDebugEnabled) {
-                  logger.debug(
-                      "getAll result for {} not stored in cache due to concurrent modification",
-                      key, e);
+            try {
+              event.setFromServer(true);
+              event.setVersionTag(entry.getVersionTag());
+
+              if (!alreadyInvalid(key, event)) {
+                // bug #47716 - don't update if it's already here & invalid
+                TXStateProxy txState = this.cache.getTXMgr().pauseTransaction();
+                try {
+                  basicPutEntry(event, 0L);
+                } catch (ConcurrentCacheModificationException e) {
+                  if (isDebugEnabled) {
+                    logger.debug(
+                        "getAll result for {} not stored in cache due to concurrent modification",
+                        key, e);
+                  }
+                } finally {
+                  this.cache.getTXMgr().unpauseTransaction(txState);
                 }
-              } finally {
-                this.cache.getTXMgr().unpauseTransaction(txState);
+                getCachePerfStats().endPut(startPut, event.isOriginRemote());
               }
-              getCachePerfStats().endPut(startPut, event.isOriginRemote());
-            }
 
-            if (!createTombstone) {
-              allResults.put(key, value);
-              if (isTraceEnabled) {
-                logger.trace("Added remote result for getAll request: {}, {}", key, value);
+              if (!createTombstone) {
+                allResults.put(key, value);
+                if (isTraceEnabled) {
+                  logger.trace("Added remote result for getAll request: {}, {}", key, value);
+                }
               }
+            } finally {
+              event.release();
             }
-          } finally {
-            event.release();
+          }
+        } finally {
+          if (this.nearCache != null) {
+            this.nearCache.releaseAll(keysList, this::isNearCached);
           }
         }
       }
@@ -9555,6 +9627,9 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
         TXStateProxyImpl txState = (TXStateProxyImpl) this.cache.getTxManager().getTXState();
         txState.getRealDeal(null, this);
       }
+      if (this.nearCache != null) {
+        this.nearCache.registerAll(map.keySet());
+      }
       try {
         proxyResult = getServerProxy().putAll(map, eventId, !event.isGenerateCallbacks(),
             event.getCallbackArgument());
@@ -9588,6 +9663,13 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
                 e.getFailure());
           }
         }
+      } finally {
+        if (this.nearCache != null) {
+          // keys the server did not put are not cached
+          Set<Object> putKeys = proxyResult == null ? Collections.emptySet()
+              : partialResult ? new HashSet<>(proxyResult.getKeys()) : null;
+          this.nearCache.releaseAll(map.keySet(), key -> putKeys == null || putKeys.contains(key));
+        }
       }
     }
 
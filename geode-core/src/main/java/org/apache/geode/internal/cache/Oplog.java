@@ -16,6 +16,7 @@ package org.apache.geode.internal.cache;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.DataOutput;
@@ -26,9 +27,12 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -540,6 +544,11 @@ public class Oplog implements CompactableOplog, Flushable {
    */
   final Object lock = new Object();
 
+  /**
+   * Used instead of flushing under {@link #lock} when the disk store has group commit enabled.
+   */
+  private final OplogGroupCommitter groupCommitter = new OplogGroupCommitter();
+
   final ByteBuffer[] bbArray = new ByteBuffer[2];
 
   private boolean lockedForKRFcreate = false;
@@ -1094,7 +1103,7 @@ public class Oplog implements CompactableOplog, Flushable {
     }
     this.crf.f = f;
     preblow(this.crf, getMaxCrfSize());
-    this.crf.raf = new UninterruptibleRandomAccessFile(f, SYNC_WRITES ? "rwd" : "rw");
+    this.crf.raf = new UninterruptibleRandomAccessFile(f, getRafMode());
     this.crf.RAFClosed = false;
     oplogSet.crfCreate(this.oplogId);
     this.crf.writeBuf = allocateWriteBuf(prevOlf);
@@ -1114,6 +1123,16 @@ public class Oplog implements CompactableOplog, Flushable {
     this.maxCrfSize += this.crf.currSize;
   }
 
+  /**
+   * With group commit the entry writes are forced once per group so the files are not opened in
+   * synchronous mode. Every other synchronous record, such as the header, RVV and clear records and
+   * the records copied forward by the compactor, is then made durable by the force that
+   * {@link #flush(OplogFile, boolean)} does when asked to sync.
+   */
+  private String getRafMode() {
+    return SYNC_WRITES && !getParent().groupCommit ? "rwd" : "rw";
+  }
+
   private static ByteBuffer allocateWriteBuf(OplogFile prevOlf) {
     if (prevOlf != null && prevOlf.writeBuf != null) {
       ByteBuffer result = prevOlf.writeBuf;
@@ -1134,7 +1153,7 @@ public class Oplog implements CompactableOplog, Flushable {
       logger.debug("Creating operation log file {}", f);
     }
     preblow(this.drf, getMaxDrfSize());
-    this.drf.raf = new UninterruptibleRandomAccessFile(f, SYNC_WRITES ? "rwd" : "rw");
+    this.drf.raf = new UninterruptibleRandomAccessFile(f, getRafMode());
     this.drf.RAFClosed = false;
     this.oplogSet.drfCreate(this.oplogId);
     this.drf.writeBuf = allocateWriteBuf(prevOlf);
@@ -1633,7 +1652,8 @@ public class Oplog implements CompactableOplog, Flushable {
   private OplogEntryIdMap skippedKeyBytes;
 
   private boolean readKrf(OplogEntryIdSet deletedIds, boolean recoverValues,
-      boolean recoverValuesSync, Set<Oplog> oplogsNeedingValueRecovery, boolean latestOplog) {
+      boolean recoverValuesSync, Set<Oplog> oplogsNeedingValueRecovery, boolean latestOplog,
+      byte[] prefetchedKrf) {
     File f = new File(this.diskFile.getPath() + KRF_FILE_EXT);
     if (!f.exists()) {
       return false;
@@ -1643,6 +1663,7 @@ public class Oplog implements CompactableOplog, Flushable {
       logger.info(LocalizedMessage.create(LocalizedStrings.Oplog_REMOVING_INCOMPLETE_KRF,
           new Object[] {f.getName(), this.oplogId, getParent().getName()}));
       f.delete();
+      prefetchedKrf = null;
     }
     // Set krfCreated to true since we have a krf.
     this.krfCreated.set(true);
@@ -1653,9 +1674,9 @@ public class Oplog implements CompactableOplog, Flushable {
       return false;
     }
 
-    FileInputStream fis;
+    InputStream fis;
     try {
-      fis = new FileInputStream(f);
+      fis = openKrf(f, prefetchedKrf);
     } catch (FileNotFoundException ignore) {
       return false;
     }
@@ -1686,7 +1707,7 @@ public class Oplog implements CompactableOplog, Flushable {
           // beginning or this is not a valid file at all. Try reading it as a
           // file in old format
           fis.close();
-          fis = new FileInputStream(f);
+          fis = openKrf(f, prefetchedKrf);
           dis = new DataInputStream(new BufferedInputStream(fis, 1024 * 1024));
           readDiskStoreRecord(dis, f);
         } catch (IllegalStateException ignore) {
@@ -1694,7 +1715,7 @@ public class Oplog implements CompactableOplog, Flushable {
           // is in new format which has a magic seq in the beginning or this is
           // not a valid file at all
           fis.close();
-          fis = new FileInputStream(f);
+          fis = openKrf(f, prefetchedKrf);
           dis = new DataInputStream(new BufferedInputStream(fis, 1024 * 1024));
           readDiskStoreRecord(dis, f);
         }
@@ -1834,6 +1855,13 @@ public class Oplog implements CompactableOplog, Flushable {
     return true;
   }
 
+  private static InputStream openKrf(File f, byte[] prefetchedKrf) throws FileNotFoundException {
+    if (prefetchedKrf != null) {
+      return new ByteArrayInputStream(prefetchedKrf);
+    }
+    return new FileInputStream(f);
+  }
+
   private void validateOpcode(DataInputStream dis, byte expect) throws IOException {
     byte opCode = dis.readByte();
     if (opCode != expect) {
@@ -2205,6 +2233,17 @@ public class Oplog implements CompactableOplog, Flushable {
    */
   long recoverCrf(OplogEntryIdSet deletedIds, boolean recoverValues, boolean recoverValuesSync,
       boolean alreadyRecoveredOnce, Set<Oplog> oplogsNeedingValueRecovery, boolean latestOplog) {
+    return recoverCrf(deletedIds, recoverValues, recoverValuesSync, alreadyRecoveredOnce,
+        oplogsNeedingValueRecovery, latestOplog, null);
+  }
+
+  /**
+   * @param prefetchedKrf the contents of this oplog's krf if it has already been read into memory,
+   *        otherwise null
+   */
+  long recoverCrf(OplogEntryIdSet deletedIds, boolean recoverValues, boolean recoverValuesSync,
+      boolean alreadyRecoveredOnce, Set<Oplog> oplogsNeedingValueRecovery, boolean latestOplog,
+      byte[] prefetchedKrf) {
     // crf might not exist; but drf always will
     this.diskFile = new File(this.drf.f.getParentFile(),
         oplogSet.getPrefix() + getParent().getName() + "_" + this.oplogId);
@@ -2229,7 +2268,7 @@ public class Oplog implements CompactableOplog, Flushable {
       // if we have a KRF then read it and delay reading the CRF.
       // Unless we are in synchronous recovery mode
       if (!readKrf(deletedIds, recoverValues, recoverValuesSync, oplogsNeedingValueRecovery,
-          latestOplog)) {
+          latestOplog, prefetchedKrf)) {
         logger.info(LocalizedMessage.create(LocalizedStrings.DiskRegion_RECOVERING_OPLOG_0_1_2,
             new Object[] {toString(), crfFile.getAbsolutePath(), getParent().getName()}));
         byteCount = readCrf(deletedIds, recoverValues, latestOplog);
@@ -3252,6 +3291,7 @@ public class Oplog implements CompactableOplog, Flushable {
         this.stats.decOpenOplogs();
       }
       this.closed = true;
+      releaseMappedCrf();
     }
     // No need to get the backup lock prior to synchronizing (correct lock order) since the
     // synchronized block does not attempt to get the backup lock (incorrect lock order)
@@ -3498,6 +3538,8 @@ public class Oplog implements CompactableOplog, Flushable {
     DiskId id = entry.getDiskId();
     boolean useNextOplog = false;
     long startPosForSynchOp = -1;
+    final boolean groupCommit = isGroupCommit(async);
+    long commitTicket = 0;
     if (DiskStoreImpl.KRF_DEBUG) {
       // wait for cache close to create krf
       System.out.println("basicCreate KRF_DEBUG");
@@ -3566,7 +3608,10 @@ public class Oplog implements CompactableOplog, Flushable {
           id.setOplogId(getOplogId());
           // do the io while holding lock so that switch can set doneAppending
           // Write the data to the opLog for the synch mode
-          startPosForSynchOp = writeOpLogBytes(this.crf, async, true);
+          startPosForSynchOp = writeOpLogBytes(this.crf, async, !groupCommit);
+          if (groupCommit) {
+            commitTicket = this.groupCommitter.append();
+          }
           // if (this.crf.currSize != startPosForSynchOp) {
           // assert false;
           // }
@@ -3629,6 +3674,9 @@ public class Oplog implements CompactableOplog, Flushable {
       Assert.assertTrue(this != getOplogSet().getChild());
       getOplogSet().getChild().basicCreate(dr, entry, value, userBits, async);
     } else {
+      if (commitTicket != 0) {
+        groupCommit(commitTicket);
+      }
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSettingOplogOffSet(startPosForSynchOp);
       }
@@ -4529,6 +4577,8 @@ public class Oplog implements CompactableOplog, Flushable {
     DiskId id = entry.getDiskId();
     boolean useNextOplog = false;
     long startPosForSynchOp = -1L;
+    final boolean groupCommit = isGroupCommit(async);
+    long commitTicket = 0;
     int adjustment = 0;
     Oplog emptyOplog = null;
     if (DiskStoreImpl.KRF_DEBUG) {
@@ -4562,7 +4612,10 @@ public class Oplog implements CompactableOplog, Flushable {
             long oldOplogId;
             // do the io while holding lock so that switch can set doneAppending
             // Write the data to the opLog for the synch mode
-            startPosForSynchOp = writeOpLogBytes(this.crf, async, true);
+            startPosForSynchOp = writeOpLogBytes(this.crf, async, !groupCommit);
+            if (groupCommit) {
+              commitTicket = this.groupCommitter.append();
+            }
             this.crf.currSize = temp;
             startPosForSynchOp += getOpStateValueOffset();
             if (logger.isTraceEnabled(LogMarker.PERSIST_WRITES_VERBOSE)) {
@@ -4640,6 +4693,9 @@ public class Oplog implements CompactableOplog, Flushable {
       Assert.assertTrue(getOplogSet().getChild() != this);
       getOplogSet().getChild().basicModify(dr, entry, value, userBits, async, calledByCompactor);
     } else {
+      if (commitTicket != 0) {
+        groupCommit(commitTicket);
+      }
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSettingOplogOffSet(startPosForSynchOp);
       }
@@ -4983,6 +5039,8 @@ public class Oplog implements CompactableOplog, Flushable {
 
     boolean useNextOplog = false;
     long startPosForSynchOp = -1;
+    final boolean groupCommit = isGroupCommit(async);
+    long commitTicket = 0;
     Oplog emptyOplog = null;
     if (DiskStoreImpl.KRF_DEBUG) {
       // wait for cache close to create krf
@@ -5032,7 +5090,10 @@ public class Oplog implements CompactableOplog, Flushable {
             // before we flush the crf.
             // However we can't have removes by async if we are doing a sync write
             // because we might be killed right after we do this write.
-            startPosForSynchOp = writeOpLogBytes(this.drf, async, true);
+            startPosForSynchOp = writeOpLogBytes(this.drf, async, !groupCommit);
+            if (groupCommit) {
+              commitTicket = this.groupCommitter.append();
+            }
             setHasDeletes(true);
             if (logger.isDebugEnabled(LogMarker.PERSIST_WRITES_VERBOSE)) {
               logger.debug("basicRemove: id=<{}> key=<{}> drId={} oplog#{}", abs(id.getKeyId()),
@@ -5071,6 +5132,9 @@ public class Oplog implements CompactableOplog, Flushable {
       Assert.assertTrue(getOplogSet().getChild() != this);
       getOplogSet().getChild().basicRemove(dr, entry, async, isClear);
     } else {
+      if (commitTicket != 0) {
+        groupCommit(commitTicket);
+      }
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSettingOplogOffSet(startPosForSynchOp);
       }
@@ -5159,7 +5223,8 @@ public class Oplog implements CompactableOplog, Flushable {
         }
         if (doSync) {
           if (SYNC_WRITES) {
-            // Synch Meta Data as well as content
+            // Synch Meta Data as well as content. Without this the files opened in rw mode for
+            // group commit would not make the records written outside of a group durable.
             olf.channel.force(true);
           }
         }
@@ -5203,6 +5268,55 @@ public class Oplog implements CompactableOplog, Flushable {
     }
   }
 
+  /**
+   * Returns true if a synchronous entry write should be made durable by a group commit once the
+   * oplog lock has been released instead of being flushed while holding it.
+   */
+  private boolean isGroupCommit(boolean async) {
+    return !async && getParent().groupCommit;
+  }
+
+  /**
+   * Waits until the write identified by ticket has been flushed, flushing the current group of
+   * writes if no other writer is already doing so. Must not be called while holding {@link #lock}.
+   */
+  private void groupCommit(long ticket) throws IOException, InterruptedException {
+    long writes = this.groupCommitter.commit(ticket, this::flushGroup);
+    if (writes > 0) {
+      getStats().incGroupCommits(writes);
+    }
+  }
+
+  /**
+   * Writes the buffered records of every writer in the current group with one write per file and
+   * then forces both files once. The force is done outside of {@link #lock} so that the next group
+   * can already append to the write buffers.
+   */
+  private long flushGroup() throws IOException {
+    long covered;
+    synchronized (this.lock) {
+      covered = this.groupCommitter.getAppended();
+      flush(this.drf, false);
+      flush(this.crf, false);
+    }
+    if (SYNC_WRITES) {
+      force(this.drf);
+      force(this.crf);
+    }
+    return covered;
+  }
+
+  private void force(OplogFile olf) throws IOException {
+    if (olf.RAFClosed) {
+      return;
+    }
+    try {
+      olf.channel.force(true);
+    } catch (ClosedChannelException ignore) {
+      // The oplog was closed while forcing. See flush(OplogFile, boolean).
+    }
+  }
+
   public void flushAll() {
     flushAll(false);
   }
@@ -5316,6 +5430,86 @@ public class Oplog implements CompactableOplog, Flushable {
 
   private volatile boolean beingRead;
 
+  /**
+   * Read only mapping of the flushed part of the crf. Only created once this oplog is done
+   * appending, when the disk store has memory mapped reads enabled.
+   */
+  private volatile ByteBuffer mappedCrf;
+
+  /**
+   * Set if mapping the crf failed so that reads do not keep retrying it. Guarded by lock.
+   */
+  private boolean mappedCrfFailed;
+
+  /**
+   * Returns the mapping of this oplog's crf, creating it on first use, or null if reads need to go
+   * through the RAF.
+   */
+  private ByteBuffer getMappedCrf() {
+    ByteBuffer result = this.mappedCrf;
+    if (result != null || !getParent().MMAP_READS || !this.doneAppending) {
+      return result;
+    }
+    // No need to get the backup lock prior to synchronizing (correct lock order) since the
+    // synchronized block does not attempt to get the backup lock (incorrect lock order)
+    synchronized (this.lock/* crf */) {
+      if (this.mappedCrf == null && !this.mappedCrfFailed && this.doneAppending && !this.closed
+          && !this.deleted.get() && this.crf.f != null) {
+        this.mappedCrf = mapCrf();
+      }
+      return this.mappedCrf;
+    }
+  }
+
+  private ByteBuffer mapCrf() {
+    long size = this.crf.bytesFlushed;
+    try (RandomAccessFile raf = new RandomAccessFile(this.crf.f, "r")) {
+      if (size > Integer.MAX_VALUE || size > raf.length()) {
+        this.mappedCrfFailed = true;
+        return null;
+      }
+      return raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, size);
+    } catch (IOException ex) {
+      if (logger.isDebugEnabled()) {
+        logger.debug("Could not map {}, reads will use the file instead", this.crf.f, ex);
+      }
+      this.mappedCrfFailed = true;
+      return null;
+    }
+  }
+
+  /**
+   * Drops the mapping of the crf. The mapped memory is released once the buffer is garbage
+   * collected, which lets readers that already have it finish safely.
+   */
+  private void releaseMappedCrf() {
+    this.mappedCrf = null;
+  }
+
+  /**
+   * Reads a value from the mapped crf without synchronizing on this oplog.
+   *
+   * @return the value or null if this oplog is not mapped or does not contain the range
+   */
+  private BytesAndBits mappedGet(long offsetInOplog, int valueLength, byte userBits) {
+    ByteBuffer mapped = getMappedCrf();
+    if (mapped == null || offsetInOplog < 0 || offsetInOplog + valueLength > mapped.capacity()) {
+      return null;
+    }
+    ByteBuffer reader = mapped.duplicate();
+    reader.position((int) offsetInOplog);
+    byte[] valueBytes = new byte[valueLength];
+    reader.get(valueBytes);
+    this.stats.incOplogMappedReads();
+    BytesAndBits bb = new BytesAndBits(valueBytes, userBits);
+    // also set the product version for an older product
+    final Version version = getProductVersionIfOld();
+    if (version != null) {
+      bb.setVersion(version);
+    }
+    return bb;
+  }
+
   /**
    * If crfRAF has been closed then attempt to reopen the oplog for this read. Verify that this only
    * happens when test methods are invoked.
@@ -5448,6 +5642,10 @@ public class Oplog implements CompactableOplog, Flushable {
     } else {
       if (offsetInOplog == -1)
         return null;
+      bb = mappedGet(offsetInOplog, valueLength, userBits);
+      if (bb != null) {
+        return bb;
+      }
       try {
         for (;;) {
           dr.getCancelCriterion().checkCancelInProgress(null);
@@ -5627,6 +5825,7 @@ public class Oplog implements CompactableOplog, Flushable {
   }
 
   public void deleteCRFFileOnly() {
+    releaseMappedCrf();
     deleteFile(this.crf);
     // replace .crf at the end with .krf
     if (this.crf.f != null) {
@@ -5815,6 +6014,16 @@ public class Oplog implements CompactableOplog, Flushable {
     return this.totalCount.get() != 0;
   }
 
+  @Override
+  public double getGarbageRatio() {
+    long total = this.totalCount.get();
+    if (total <= 0) {
+      return 1.0;
+    }
+    long live = Math.max(0, this.totalLiveCount.get());
+    return 1.0 - Math.min(1.0, (double) live / total);
+  }
+
   public boolean hasNoLiveValues() {
     return this.totalLiveCount.get() <= 0
         // if we have an unrecoveredRegion then we don't know how many liveValues we
@@ -6017,6 +6226,7 @@ public class Oplog implements CompactableOplog, Flushable {
             }
             lastDe = de;
             didCompact = false;
+            long copiedBytes = 0;
             synchronized (de) { // fix for bug 41797
               DiskId did = de.getDiskId();
               assert did != null;
@@ -6037,6 +6247,8 @@ public class Oplog implements CompactableOplog, Flushable {
                     }
                     continue;
                   }
+                  copiedBytes = wrapper.getOffHeapData() != null
+                      ? wrapper.getOffHeapData().getDataSize() : wrapper.getValidLength();
                   // write it to the current oplog
                   getOplogSet().getChild().copyForwardModifyForCompact(dr, de, wrapper);
                   // the did's oplogId will now be set to the current active oplog
@@ -6047,7 +6259,7 @@ public class Oplog implements CompactableOplog, Flushable {
             if (didCompact) {
               totalCount++;
               getStats().endCompactionUpdate(opStart);
-              opStart = getStats().getStatTime();
+              long delay = compactor.copiedForward(copiedBytes);
               // Check if the value byte array happens to be any of the
               // constant
               // static byte arrays or references the value byte array of
@@ -6058,8 +6270,17 @@ public class Oplog implements CompactableOplog, Flushable {
               if (!wrapper.isReusable()) {
                 wrapper = new BytesAndBitsForCompactor();
               }
+              if (delay > 0) {
+                // waits with the compactor locks held so that a clear or close of the oplog cannot
+                // run in the middle of this pass; a stopped compactor ends the wait
+                compactor.waitForThrottle(delay);
+              }
+              opStart = getStats().getStatTime();
             }
           }
+          if (compactFailed) {
+            break;
+          }
         }
 
         if (!compactFailed) {
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.io.IOException;
+
+/**
+ * Coordinates group commit of synchronous oplog writes. A writer appends its record to the oplog
+ * write buffer while holding the oplog lock and takes a ticket with {@link #append()}. After
+ * releasing the oplog lock it calls {@link #commit(long, GroupFlusher)}. The first waiting writer
+ * becomes the leader and flushes everything appended so far with one write (and one force) per
+ * file; every writer whose ticket was covered by that flush is then woken up.
+ *
+ * @since Geode 1.8
+ */
+class OplogGroupCommitter {
+
+  /**
+   * Flushes all records appended so far.
+   */
+  interface GroupFlusher {
+    /**
+     * Makes every record appended before this call durable.
+     *
+     * @return the highest ticket covered by the flush; must be read while holding the same lock
+     *         that {@link OplogGroupCommitter#append()} is called under
+     */
+    long flushGroup() throws IOException;
+  }
+
+  private final Object monitor = new Object();
+
+  /** The last ticket handed out. Guarded by monitor. */
+  private long appended;
+
+  /** The highest ticket known to be durable. Guarded by monitor. */
+  private long committed;
+
+  /** True while a leader is flushing a group. Guarded by monitor. */
+  private boolean committing;
+
+  private long groupCount;
+
+  /**
+   * Records that a write has been appended to the oplog buffer and returns the ticket the writer
+   * must wait for. Must be called while holding the oplog lock.
+   */
+  long append() {
+    synchronized (this.monitor) {
+      return ++this.appended;
+    }
+  }
+
+  /**
+   * Returns the last ticket handed out by {@link #append()}.
+   */
+  long getAppended() {
+    synchronized (this.monitor) {
+      return this.appended;
+    }
+  }
+
+  long getCommitted() {
+    synchronized (this.monitor) {
+      return this.committed;
+    }
+  }
+
+  /**
+   * Returns the number of groups flushed so far.
+   */
+  long getGroupCount() {
+    synchronized (this.monitor) {
+      return this.groupCount;
+    }
+  }
+
+  /**
+   * Waits until the write identified by ticket is durable, flushing the current group if no other
+   * writer is already doing so.
+   *
+   * @return the number of tickets this caller committed as the leader of a group, or zero if
+   *         another writer committed the ticket
+   */
+  long commit(long ticket, GroupFlusher flusher) throws IOException, InterruptedException {
+    long committedBefore;
+    synchronized (this.monitor) {
+      while (this.committed < ticket) {
+        if (!this.committing) {
+          this.committing = true;
+          break;
+        }
+        this.monitor.wait();
+      }
+      if (this.committed >= ticket) {
+        return 0;
+      }
+      committedBefore = this.committed;
+    }
+    long covered = 0;
+    try {
+      covered = flusher.flushGroup();
+    } finally {
+      synchronized (this.monitor) {
+        this.committing = false;
+        if (covered > this.committed) {
+          this.committed = covered;
+          this.groupCount++;
+        }
+        this.monitor.notifyAll();
+      }
+    }
+    return Math.max(0, covered - committedBefore);
+  }
+}
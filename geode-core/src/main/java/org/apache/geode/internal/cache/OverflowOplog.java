@@ -1045,6 +1045,16 @@ class OverflowOplog implements CompactableOplog, Flushable {
     return false;
   }
 
+  @Override
+  public double getGarbageRatio() {
+    long total = this.totalCount.get();
+    if (total <= 0) {
+      return 1.0;
+    }
+    long live = Math.max(0, this.totalLiveCount.get());
+    return 1.0 - Math.min(1.0, (double) live / total);
+  }
+
   public boolean hasNoLiveValues() {
     return this.totalLiveCount.get() <= 0;
   }
@@ -1254,6 +1264,7 @@ class OverflowOplog implements CompactableOplog, Flushable {
           }
           lastDe = de;
           didCompact = false;
+          long copiedBytes = 0;
           synchronized (de) { // fix for bug 41797
             DiskId did = de.getDiskId();
             assert did != null;
@@ -1291,6 +1302,7 @@ class OverflowOplog implements CompactableOplog, Flushable {
                   }
                   continue;
                 }
+                copiedBytes = length;
                 // write it to the current oplog
                 getOplogSet().copyForwardForOverflowCompact(de, valueBytes, length, userBits);
                 // the did's oplogId will now be set to the current active oplog
@@ -1301,7 +1313,7 @@ class OverflowOplog implements CompactableOplog, Flushable {
           if (didCompact) {
             totalCount++;
             getStats().endCompactionUpdate(opStart);
-            opStart = getStats().getStatTime();
+            long delay = compactor.copiedForward(copiedBytes);
             // Check if the value byte array happens to be any of the constant
             // static byte arrays or references the value byte array of underlying RegionEntry.
             // If so for preventing data corruption across regions
@@ -1310,6 +1322,12 @@ class OverflowOplog implements CompactableOplog, Flushable {
             if (!wrapper.isReusable()) {
               wrapper = new BytesAndBitsForCompactor();
             }
+            if (delay > 0) {
+              // waits with the compactor locks held so that a clear or close of the oplog cannot
+              // run in the middle of this pass; a stopped compactor ends the wait
+              compactor.waitForThrottle(delay);
+            }
+            opStart = getStats().getStatTime();
           }
         }
 
@@ -24,11 +24,14 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -67,6 +70,9 @@ import org.apache.geode.internal.logging.LogService;
  *
  * The QueryTasks add results directly to a results queue. The BucketQueryResult is used not only to
  * indicate completion, and holds an exception if there one occurred while processing a query.
+ *
+ * Buckets that are large enough can also be split into key hash ranges that are queried in
+ * parallel on a fork-join pool, see {@link #BUCKET_SPLIT_SIZE}.
  */
 public class PRQueryProcessor {
   private static final Logger logger = LogService.getLogger();
@@ -79,6 +85,25 @@ public class PRQueryProcessor {
   /* For Test purpose */
   public static int TEST_NUM_THREADS = 0;
 
+  /**
+   * Buckets with at least twice this many entries are split into key hash ranges of about this
+   * many entries each, which are queried in parallel. 0, the default, queries every bucket on a
+   * single thread.
+   */
+  public static final int BUCKET_SPLIT_SIZE =
+      getInteger(DistributionConfig.GEMFIRE_PREFIX + "PRQueryProcessor.bucketSplitSize", 0);
+
+  /** the parallelism of the fork-join pool that queries the key hash ranges of split buckets */
+  public static final int BUCKET_SPLIT_THREADS =
+      getInteger(DistributionConfig.GEMFIRE_PREFIX + "PRQueryProcessor.bucketSplitThreads",
+          Runtime.getRuntime().availableProcessors());
+
+  /* For Test purpose */
+  public static int TEST_BUCKET_SPLIT_SIZE = 0;
+
+  /* For Test purpose */
+  public static int TEST_BUCKET_SPLIT_THREADS = 0;
+
   private PartitionedRegionDataStore _prds;
   private PartitionedRegion pr;
   private final DefaultQuery query;
@@ -87,7 +112,7 @@ public class PRQueryProcessor {
   private volatile int numBucketsProcessed = 0;
   private volatile ObjectType resultType = null;
 
-  private boolean isIndexUsedForLocalQuery = false;
+  private volatile boolean isIndexUsedForLocalQuery = false;
 
   public PRQueryProcessor(PartitionedRegionDataStore prDS, DefaultQuery query, Object[] parameters,
       List<Integer> buckets) {
@@ -132,7 +157,9 @@ public class PRQueryProcessor {
     // ((IndexTrackingQueryObserver)observer).setIndexInfo(resultCollector.getIndexInfoMap());
     // }
 
-    if (NUM_THREADS > 1 || TEST_NUM_THREADS > 1) {
+    if (executeWithBucketSplits(resultCollector)) {
+      // large buckets were queried in parallel
+    } else if (NUM_THREADS > 1 || TEST_NUM_THREADS > 1) {
       executeWithThreadPool(resultCollector);
     } else {
       executeSequentially(resultCollector, this._bucketsToQuery);
@@ -140,6 +167,108 @@ public class PRQueryProcessor {
     return this.resultType.isStructType();
   }
 
+  /**
+   * Returns whether the results of the query on a bucket are the union of its results on the key
+   * hash ranges of the bucket. That is the case when the query iterates over this region alone and
+   * the region has no index that the query could use instead of iterating.
+   */
+  private boolean isSplittable() {
+    CompiledSelect cs = this.query.getSimpleSelect();
+    return this.pr != null && cs != null && !this.pr.isIndexed() && cs.getIterators().size() == 1
+        && this.query.getRegionsInQuery(this.parameters).size() == 1;
+  }
+
+  /**
+   * Executes the query on the local buckets on the fork-join pool, splitting every bucket that is
+   * large enough into key hash ranges. Each range adds its own results to the result collector,
+   * as each bucket does on the thread pool, so that the query node merges ordered, limited and
+   * aggregated results of ranges the same way as those of buckets. A bucket whose query did not
+   * iterate over its range, for example because an index was created meanwhile, is queried again
+   * as a whole.
+   *
+   * @return false if the query can not be split or no bucket is large enough, in which case the
+   *         query has not been executed
+   */
+  private boolean executeWithBucketSplits(Collection<Collection> resultCollector)
+      throws QueryException, InterruptedException, ForceReattemptException {
+    int splitSize = TEST_BUCKET_SPLIT_SIZE > 0 ? TEST_BUCKET_SPLIT_SIZE : BUCKET_SPLIT_SIZE;
+    if (splitSize <= 0 || !isSplittable()) {
+      return false;
+    }
+    ForkJoinPool splitPool = PRQueryExecutor.getSplitPool();
+    List<BucketSplitTask> tasks = new ArrayList<>();
+    boolean isAnyBucketSplit = false;
+    for (Integer bucketId : this._bucketsToQuery) {
+      BucketRegion bucket = this.pr.getDataStore().getLocalBucketById(bucketId);
+      int numSplits = bucket == null ? 1
+          : Math.min(splitPool.getParallelism(), bucket.size() / splitSize);
+      if (numSplits > 1) {
+        isAnyBucketSplit = true;
+      } else {
+        numSplits = 1;
+      }
+      for (int i = 0; i < numSplits; i++) {
+        tasks.add(new BucketSplitTask(bucketId, i, numSplits));
+      }
+    }
+    if (!isAnyBucketSplit) {
+      return false;
+    }
+    if (Thread.interrupted()) {
+      throw new InterruptedException();
+    }
+
+    Map<Integer, List<BucketSplitTask>> bucketToTasks = new LinkedHashMap<>();
+    for (Future<BucketSplitTask> future : splitPool.invokeAll(tasks)) {
+      BucketSplitTask task;
+      try {
+        task = future.get();
+      } catch (ExecutionException ee) {
+        Throwable cause = ee.getCause();
+        if (cause instanceof QueryException) {
+          throw (QueryException) cause;
+        } else if (cause instanceof ForceReattemptException) {
+          throw (ForceReattemptException) cause;
+        } else if (cause instanceof CacheRuntimeException) {
+          throw (CacheRuntimeException) cause;
+        } else {
+          throw new InternalGemFireException(
+              LocalizedStrings.PRQueryProcessor_GOT_UNEXPECTED_EXCEPTION_WHILE_EXECUTING_QUERY_ON_PARTITIONED_REGION_BUCKET
+                  .toLocalizedString(),
+              cause);
+        }
+      }
+      bucketToTasks.computeIfAbsent(task.bucketId, k -> new ArrayList<>()).add(task);
+    }
+
+    for (Map.Entry<Integer, List<BucketSplitTask>> bucketTasks : bucketToTasks.entrySet()) {
+      boolean isSplitApplied = true;
+      for (BucketSplitTask task : bucketTasks.getValue()) {
+        isSplitApplied &= task.isSplitApplied();
+      }
+      if (isSplitApplied) {
+        for (BucketSplitTask task : bucketTasks.getValue()) {
+          resultCollector.addAll(task.results);
+        }
+      } else {
+        ExecutionContext context =
+            new QueryExecutionContext(this.parameters, this.pr.getCache(), this.query);
+        context.setBucketList(Collections.singletonList(bucketTasks.getKey()));
+        executeQueryOnBuckets(resultCollector, context);
+      }
+    }
+
+    CompiledSelect cs = this.query.getSimpleSelect();
+    if (cs.isOrderBy() || cs.isGroupBy()) {
+      ExecutionContext context = new QueryExecutionContext(this.parameters, this.pr.getCache());
+      int limit = this.query.getLimit(this.parameters);
+      Collection mergedResults = coalesceOrderedResults(resultCollector, context, cs, limit);
+      resultCollector.clear();
+      resultCollector.add(mergedResults);
+    }
+    return true;
+  }
+
   private void executeWithThreadPool(Collection<Collection> resultCollector)
       throws QueryException, InterruptedException, ForceReattemptException {
     if (Thread.interrupted())
@@ -432,6 +561,8 @@ public class PRQueryProcessor {
 
     private static ExecutorService execService = null;
 
+    private static ForkJoinPool splitPool = null;
+
     /**
      * Closes the executor service. This is called from
      * {@link PartitionedRegion#afterRegionsClosedByCacheClose(InternalCache)}
@@ -440,11 +571,29 @@ public class PRQueryProcessor {
       if (execService != null) {
         execService.shutdown();
       }
+      if (splitPool != null) {
+        splitPool.shutdown();
+      }
     }
 
     static synchronized void shutdownNow() {
       if (execService != null)
         execService.shutdownNow();
+      if (splitPool != null)
+        splitPool.shutdownNow();
+    }
+
+    /**
+     * Returns the fork-join pool that queries the key hash ranges of split buckets, creating it if
+     * needed.
+     */
+    static synchronized ForkJoinPool getSplitPool() {
+      if (splitPool == null || splitPool.isShutdown()) {
+        int numThreads =
+            TEST_BUCKET_SPLIT_THREADS > 0 ? TEST_BUCKET_SPLIT_THREADS : BUCKET_SPLIT_THREADS;
+        splitPool = new ForkJoinPool(Math.max(1, numThreads));
+      }
+      return splitPool;
     }
 
     static synchronized ExecutorService getExecutorService() {
@@ -508,6 +657,42 @@ public class PRQueryProcessor {
     }
   }
 
+  /**
+   * Task that queries one key hash range of a bucket, or the whole bucket if it is not split, and
+   * keeps the results.
+   */
+  @SuppressWarnings("synthetic-access")
+  private class BucketSplitTask implements Callable<BucketSplitTask> {
+    private final Integer bucketId;
+    private final int numSplits;
+    private final QueryExecutionContext context;
+    private final List<Collection> results = new ArrayList<>(1);
+
+    BucketSplitTask(Integer bucketId, int splitIndex, int numSplits) {
+      this.bucketId = bucketId;
+      this.numSplits = numSplits;
+      this.context = new QueryExecutionContext(parameters, pr.getCache(), query);
+      this.context.setBucketList(Collections.singletonList(bucketId));
+      if (numSplits > 1) {
+        this.context.setBucketSplit(splitIndex, numSplits);
+      }
+    }
+
+    public BucketSplitTask call() throws Exception {
+      executeQueryOnBuckets(this.results, this.context);
+      return this;
+    }
+
+    /**
+     * Returns whether the results are those of the key hash range of this task. They are those of
+     * the whole bucket if the query used an index, or did not iterate over the bucket at all.
+     */
+    boolean isSplitApplied() {
+      return this.numSplits == 1
+          || (this.context.isBucketSplitApplied() && !this.context.isIndexUsed());
+    }
+  }
+
   /**
    * Implementation of call-able task to execute query on a bucket region. This task will be
    * generated by the PRQueryProcessor.
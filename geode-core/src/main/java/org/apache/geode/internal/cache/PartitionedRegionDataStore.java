@@ -700,6 +700,10 @@ public class PartitionedRegionDataStore implements HasCachePerfStats {
     factory.setConcurrencyChecksEnabled(this.partitionedRegion.getConcurrencyChecksEnabled());
     factory.setIndexMaintenanceSynchronous(this.partitionedRegion.getIndexMaintenanceSynchronous());
 
+    if (this.partitionedRegion.getKeyConstraint() != null) {
+      // lets the bucket pick an entry map specialized for the key class
+      factory.setKeyConstraint(this.partitionedRegion.getKeyConstraint());
+    }
     if (this.partitionedRegion.getValueConstraint() != null) {
       factory.setValueConstraint(this.partitionedRegion.getValueConstraint());
     }
@@ -451,23 +451,40 @@ public class PersistentOplogSet implements OplogSet {
       parent.incDeadRecordCount(deletedIds.size());
       // now figure out live entries
       latestOplog = true;
-      for (Oplog oplog : oplogSet) {
-        long startOpLogRead = parent.getStats().startOplogRead();
-        long bytesRead = oplog.recoverCrf(deletedIds,
-            // @todo make recoverValues per region
-            recoverValues(), recoverValuesSync(), this.alreadyRecoveredOnce.get(),
-            oplogsNeedingValueRecovery, latestOplog);
-        latestOplog = false;
-        if (!this.alreadyRecoveredOnce.get()) {
-          updateOplogEntryId(oplog.getMaxRecoveredOplogEntryId());
+      int pendingOplogs = oplogSet.size();
+      parent.getStats().incPendingOplogRecoveries(pendingOplogs);
+      KrfPrefetcher krfPrefetcher = null;
+      if (canPrefetchKrfs()) {
+        krfPrefetcher = new KrfPrefetcher(oplogSet, parent.RECOVERY_THREADS,
+            parent.getDiskInitFile(), parent.getStats());
+      }
+      try {
+        for (Oplog oplog : oplogSet) {
+          long startOpLogRead = parent.getStats().startOplogRead();
+          byte[] prefetchedKrf = krfPrefetcher != null ? krfPrefetcher.take(oplog) : null;
+          long bytesRead = oplog.recoverCrf(deletedIds,
+              // @todo make recoverValues per region
+              recoverValues(), recoverValuesSync(), this.alreadyRecoveredOnce.get(),
+              oplogsNeedingValueRecovery, latestOplog, prefetchedKrf);
+          latestOplog = false;
+          if (!this.alreadyRecoveredOnce.get()) {
+            updateOplogEntryId(oplog.getMaxRecoveredOplogEntryId());
+          }
+          byteCount += bytesRead;
+          parent.getStats().endOplogRead(startOpLogRead, bytesRead);
+          parent.getStats().incPendingOplogRecoveries(-1);
+          pendingOplogs--;
+
+          // Callback to the disk regions to indicate the oplog is recovered
+          // Used for offline export
+          for (DiskRecoveryStore drs : this.currentRecoveryMap.values()) {
+            drs.getDiskRegionView().oplogRecovered(oplog.oplogId);
+          }
         }
-        byteCount += bytesRead;
-        parent.getStats().endOplogRead(startOpLogRead, bytesRead);
-
-        // Callback to the disk regions to indicate the oplog is recovered
-        // Used for offline export
-        for (DiskRecoveryStore drs : this.currentRecoveryMap.values()) {
-          drs.getDiskRegionView().oplogRecovered(oplog.oplogId);
+      } finally {
+        parent.getStats().incPendingOplogRecoveries(-pendingOplogs);
+        if (krfPrefetcher != null) {
+          krfPrefetcher.close();
         }
       }
       long endOpLogRecovery = System.currentTimeMillis();
@@ -520,6 +537,16 @@ public class PersistentOplogSet implements OplogSet {
     return byteCount;
   }
 
+  /**
+   * Returns true if krfs should be read ahead of the recovery thread. Krfs are not read at all
+   * when values are recovered synchronously or when an offline disk store is not forced to use
+   * them.
+   */
+  private boolean canPrefetchKrfs() {
+    return parent.RECOVERY_THREADS > 0 && !recoverValuesSync()
+        && (!parent.isOffline() || parent.FORCE_KRF_RECOVERY);
+  }
+
   protected boolean recoverValuesSync() {
     return parent.RECOVER_VALUES_SYNC;
   }
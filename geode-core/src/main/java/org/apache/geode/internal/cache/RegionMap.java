@@ -66,6 +66,9 @@ public interface RegionMap extends EvictableMap {
 
     /** whether "api" statistics are enabled */
     boolean statisticsEnabled = false;
+
+    /** the class every key is an instance of, or null if the keys are not constrained */
+    Class<?> keyConstraint = null;
   }
 
   RegionEntryFactory getEntryFactory();
@@ -1565,7 +1565,9 @@ public class TXManagerImpl implements CacheTransactionManager, MembershipListene
     @Override
     public int keyHashCode(Object key, boolean compareValues) {
       // key will always be an AbstractRegionEntry because our map is strongly typed.
-      return ((AbstractRegionEntry) key).getEntryHash();
+      int hash = ((AbstractRegionEntry) key).getEntryHash();
+      // entries in a PrimitiveKeyConcurrentHashMap are not chained so they never get a hash
+      return hash != 0 ? hash : System.identityHashCode(key);
     }
   }
   private static class RefCountMapEntry
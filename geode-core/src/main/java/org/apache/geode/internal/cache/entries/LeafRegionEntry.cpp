@@ -25,6 +25,8 @@ package org.apache.geode.internal.cache.entries;
 #define KEY_TYPE UUID
 #elif defined(KEY_STRING1) || defined(KEY_STRING2)
 #define KEY_TYPE String
+#elif defined(KEY_OFFHEAP_STRING)
+#define KEY_TYPE long
 #else
 #error the KEY_TYPE macro must be defined    
 #endif
@@ -67,6 +69,9 @@ import org.apache.geode.internal.cache.versions.VersionTag;
 #ifdef OFFHEAP
 import org.apache.geode.internal.cache.Token;
 import org.apache.geode.internal.offheap.OffHeapRegionEntryHelper;
+#ifdef KEY_OFFHEAP_STRING
+import org.apache.geode.internal.offheap.OffHeapRegionKeyHelper;
+#endif
 import org.apache.geode.internal.offheap.annotations.Released;
 import org.apache.geode.internal.offheap.annotations.Retained;
 import org.apache.geode.internal.offheap.annotations.Unretained;
@@ -96,7 +101,11 @@ import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap.Ha
  * Do not modify this class. It was generated. Instead modify LeafRegionEntry.cpp and then run
  * ./dev-tools/generateRegionEntryClasses.sh (it must be run from the top level directory).
  */
+#ifdef KEY_OFFHEAP_STRING
+public class LEAF_CLASS extends PARENT_CLASS implements OffHeapKeyRegionEntry {
+#else
 public class LEAF_CLASS extends PARENT_CLASS {
+#endif
 
   // --------------------------------------- common fields ----------------------------------------
 
@@ -199,6 +208,16 @@ public class LEAF_CLASS extends PARENT_CLASS {
    * bits2 encodes character data
    */
   private final long bits2;
+#elif defined(KEY_OFFHEAP_STRING)
+  /**
+   * The address of the off-heap chunk that holds the key. All access done using
+   * KEY_ADDRESS_UPDATER.
+   */
+  @SuppressWarnings("unused")
+  @Retained @Released private volatile long keyAddress;
+
+  private static final AtomicLongFieldUpdater<LEAF_CLASS> KEY_ADDRESS_UPDATER =
+      AtomicLongFieldUpdater.newUpdater(LEAF_CLASS.class, "keyAddress");
 #endif
 
   public LEAF_CLASS (final RegionEntryContext context, final KEY_TYPE key,
@@ -223,6 +242,9 @@ public class LEAF_CLASS extends PARENT_CLASS {
 #endif
 #if defined(KEY_OBJECT)
     this.key = key;
+#elif defined(KEY_OFFHEAP_STRING)
+    // the caller allocated the key with OffHeapRegionKeyHelper.allocateStringKey
+    this.keyAddress = key;
 #elif defined(KEY_INT)
     this.key = key;
 #elif defined(KEY_LONG)
@@ -332,6 +354,9 @@ public class LEAF_CLASS extends PARENT_CLASS {
 #endif
   public void release() {
     OffHeapRegionEntryHelper.releaseEntry(this);
+#ifdef KEY_OFFHEAP_STRING
+    OffHeapRegionKeyHelper.releaseKey(this);
+#endif
   }
 
   @Override
@@ -942,6 +967,29 @@ public class LEAF_CLASS extends PARENT_CLASS {
     }
     return false;
   }
+#elif defined(KEY_OFFHEAP_STRING)
+  @Override
+  public Object getKey() {
+    return OffHeapRegionKeyHelper.getStringKey(this);
+  }
+
+  @Override
+  public boolean isKeyEqual(final Object key) {
+    if (key instanceof String) {
+      return OffHeapRegionKeyHelper.isStringKeyEqual(this, (String) key);
+    }
+    return false;
+  }
+
+  @Override
+  public long getKeyAddress() {
+    return KEY_ADDRESS_UPDATER.get(this);
+  }
+
+  @Override
+  public boolean setKeyAddress(final long expectedAddress, final long newAddress) {
+    return KEY_ADDRESS_UPDATER.compareAndSet(this, expectedAddress, newAddress);
+  }
 #endif
 
   // DO NOT modify this class. It was generated from LeafRegionEntry.cpp
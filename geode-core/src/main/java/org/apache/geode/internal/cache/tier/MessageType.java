@@ -382,10 +382,19 @@ public class MessageType {
   public static final int PUT_ALL_WITH_CALLBACK = 108;
 
   public static final int REMOVE_ALL = 109;
+
+  /** opens a cursor over the results of a query @since Geode 1.8 */
+  public static final int QUERY_WITH_CURSOR = 110;
+
+  /** fetches the next batch of results from a query cursor @since Geode 1.8 */
+  public static final int QUERY_CURSOR_FETCH = 111;
+
+  /** closes a query cursor @since Geode 1.8 */
+  public static final int QUERY_CURSOR_CLOSE = 112;
   /**
    * Must be equal to last valid message id.
    */
-  private static final int LAST_VALID_MESSAGE_ID = REMOVE_ALL;
+  private static final int LAST_VALID_MESSAGE_ID = QUERY_CURSOR_CLOSE;
 
 
   public static boolean validate(int messageType) {
@@ -605,6 +614,12 @@ public class MessageType {
         return "PUT_ALL_WITH_CALLBACK";
       case REMOVE_ALL:
         return "REMOVE_ALL";
+      case QUERY_WITH_CURSOR:
+        return "QUERY_WITH_CURSOR";
+      case QUERY_CURSOR_FETCH:
+        return "QUERY_CURSOR_FETCH";
+      case QUERY_CURSOR_CLOSE:
+        return "QUERY_CURSOR_CLOSE";
       default:
         return Integer.toString(type);
     }
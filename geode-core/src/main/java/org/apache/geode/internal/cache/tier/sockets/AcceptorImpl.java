@@ -97,6 +97,7 @@ import org.apache.geode.internal.security.SecurableCommunicationChannel;
 import org.apache.geode.internal.security.SecurityService;
 import org.apache.geode.internal.tcp.ConnectionTable;
 import org.apache.geode.internal.util.ArrayUtils;
+import org.apache.geode.internal.util.concurrent.VirtualThreads;
 
 /**
  * Implements the acceptor thread on the bridge server. Accepts connections from the edge and starts
@@ -630,6 +631,8 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
         // + serverSock.getInetAddress()
         + "on port " + this.localPort;
     final ThreadGroup socketThreadGroup = LoggingThreadGroup.createThreadGroup(gName, logger);
+    final ThreadFactory virtualThreadFactory =
+        VirtualThreads.createThreadFactory(socketThreadGroup);
 
     ThreadFactory socketThreadFactory = new ThreadFactory() {
       AtomicInteger connNum = new AtomicInteger(-1);
@@ -649,6 +652,11 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
             }
           }
         };
+        if (virtualThreadFactory != null) {
+          Thread thread = virtualThreadFactory.newThread(r);
+          thread.setName(tName);
+          return thread;
+        }
         return new Thread(socketThreadGroup, r, tName);
       }
     };
@@ -793,6 +801,7 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
 
   private void finishCon(ServerConnection sc) {
     if (sc != null) {
+      sc.releaseReadAheadBuffer();
       sc.handleTermination();
     }
   }
@@ -1099,6 +1108,10 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
               if (key.isValid() && key.isReadable()) {
                 // this is the only event we currently register for
                 try {
+                  if (!sc.readAhead()) {
+                    // wait for the rest of the request before taking a thread
+                    continue;
+                  }
                   key.cancel();
                   this.selectorRegistrations.remove(sc);
                   registeredKeys--;
@@ -1111,7 +1124,7 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
                   // in the thread pool queue and to cancel operations that
                   // have waited too long in the queue.
                   sc.setProcessingMessage();
-                } catch (ClosedChannelException ignore) {
+                } catch (ClosedChannelException | EOFException ignore) {
                   finishCon(sc);
                   continue;
                 } catch (IOException ex) {
@@ -1375,7 +1388,7 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
     }
   }
 
-  private ByteBuffer takeCommBuffer() {
+  ByteBuffer takeCommBuffer() {
     ByteBuffer result = (ByteBuffer) this.commBufferQueue.poll();
     if (result == null) {
       result = ByteBuffer.allocateDirect(this.socketBufferSize);
@@ -1383,7 +1396,7 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
     return result;
   }
 
-  private void releaseCommBuffer(ByteBuffer bb) {
+  void releaseCommBuffer(ByteBuffer bb) {
     if (bb == null) { // fix for bug 37107
       return;
     }
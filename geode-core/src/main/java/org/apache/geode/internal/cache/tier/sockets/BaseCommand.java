@@ -702,6 +702,21 @@ public abstract class BaseCommand implements Command {
     queryResponseMsg.sendChunk(serverConnection);
   }
 
+  /**
+   * Writes a chunk of a batch of query cursor results, which also carries the id of the cursor to
+   * fetch the next batch from, or 0 if there are no more results.
+   */
+  static void writeQueryResponseChunk(Object queryResponseChunk, CollectionType collectionType,
+      boolean lastChunk, long cursorId, ServerConnection serverConnection) throws IOException {
+    ChunkedMessage queryResponseMsg = serverConnection.getQueryResponseMessage();
+    queryResponseMsg.setNumberOfParts(3);
+    queryResponseMsg.setLastChunk(lastChunk);
+    queryResponseMsg.addObjPart(collectionType, false);
+    queryResponseMsg.addObjPart(queryResponseChunk, false);
+    queryResponseMsg.addLongPart(cursorId);
+    queryResponseMsg.sendChunk(serverConnection);
+  }
+
   protected static void writeQueryResponseException(Message origMsg, Throwable exception,
       ServerConnection serverConnection) throws IOException {
     Throwable e = getClientException(serverConnection, exception);
@@ -15,6 +15,7 @@
 package org.apache.geode.internal.cache.tier.sockets;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -70,6 +71,21 @@ public abstract class BaseCommandQuery extends BaseCommand {
       Set regionNames, long start, ServerCQ cqQuery, QueryOperationContext queryContext,
       ServerConnection servConn, boolean sendResults, Object[] params,
       final SecurityService securityService) throws IOException, InterruptedException {
+    return processQueryUsingParams(msg, query, queryString, regionNames, start, cqQuery,
+        queryContext, servConn, sendResults, params, 0, securityService);
+  }
+
+  /**
+   * Process the give query and sends the resulset back to the client. If fetchSize is greater
+   * than 0 only the first fetchSize results are sent, along with the id of a
+   * {@link ServerQueryCursor} the client fetches the rest from.
+   *
+   * @return true if successful execution false in case of failure.
+   */
+  protected boolean processQueryUsingParams(Message msg, Query query, String queryString,
+      Set regionNames, long start, ServerCQ cqQuery, QueryOperationContext queryContext,
+      ServerConnection servConn, boolean sendResults, Object[] params, int fetchSize,
+      final SecurityService securityService) throws IOException, InterruptedException {
     ChunkedMessage queryResponseMsg = servConn.getQueryResponseMessage();
     CacheServerStats stats = servConn.getCacheServerStats();
     CachedRegionHelper crHelper = servConn.getCachedRegionHelper();
@@ -190,13 +206,26 @@ public abstract class BaseCommandQuery extends BaseCommand {
         start = DistributionStats.getStatTime();
         stats.incProcessQueryTime(start - oldStart);
 
+        ServerQueryCursor cursor = null;
+        if (sendResults && cqQuery == null && fetchSize > 0) {
+          cursor = new ServerQueryCursor(servConn.getProxyID(), servConn.getRequestPrincipalName(),
+              queryString, regionNames, selectResults.iterator(), collectionType,
+              hasSerializedObjects, fetchSize);
+          if (selectResults.size() > fetchSize) {
+            // the client fetches the batches after the first one from the cursor
+            servConn.getAcceptor().getCacheClientNotifier().addQueryCursor(cursor);
+          }
+        }
+
         if (sendResults) {
           queryResponseMsg.setMessageType(MessageType.RESPONSE);
           queryResponseMsg.setTransactionId(msg.getTransactionId());
           queryResponseMsg.sendHeader();
         }
 
-        if (sendResults && numberOfChunks == 0) {
+        if (cursor != null) {
+          sendQueryCursorBatch(cursor, servConn, securityService);
+        } else if (sendResults && numberOfChunks == 0) {
           // Send 1 empty chunk
           if (logger.isTraceEnabled()) {
             logger.trace("{}: Creating chunk: 0", servConn.getName());
@@ -505,6 +534,64 @@ public abstract class BaseCommandQuery extends BaseCommand {
     }
   }
 
+  /**
+   * Sends the next fetch size results of the given cursor, in chunks of at most MAXIMUM_CHUNK_SIZE
+   * results, after the response header. Every chunk carries the id of the cursor, or 0 once the
+   * last result of the cursor is sent. The cursor is removed from the {@link CacheClientNotifier}
+   * once it has no more results.
+   */
+  protected void sendQueryCursorBatch(ServerQueryCursor cursor, ServerConnection servConn,
+      final SecurityService securityService) throws IOException {
+    CacheClientNotifier ccn = servConn.getAcceptor().getCacheClientNotifier();
+    synchronized (cursor) {
+      cursor.touch(System.currentTimeMillis());
+      int remaining = cursor.getFetchSize();
+      boolean lastChunk;
+      try {
+        do {
+          int chunkSize = Math.min(remaining, MAXIMUM_CHUNK_SIZE);
+          Object chunk;
+          int numResults = 0;
+          if (cursor.hasSerializedObjects()) {
+            ObjectPartList serializedObjs = new ObjectPartList(chunkSize, false);
+            for (; numResults < chunkSize && cursor.hasNext(); numResults++) {
+              addToObjectPartList(serializedObjs, cursor.next(), cursor.getCollectionType(), false,
+                  servConn, cursor.isStructs(), securityService);
+            }
+            chunk = serializedObjs;
+          } else {
+            Object[] results = new Object[chunkSize];
+            for (; numResults < chunkSize && cursor.hasNext(); numResults++) {
+              Object result = cursor.next();
+              // instance check added to fix bug 40516.
+              if (cursor.isStructs() && (result instanceof Struct)) {
+                results[numResults] = ((Struct) result).getFieldValues();
+              } else {
+                results[numResults] = result;
+              }
+            }
+            chunk = numResults < chunkSize ? Arrays.copyOf(results, numResults) : results;
+          }
+          remaining -= numResults;
+          boolean exhausted = !cursor.hasNext();
+          lastChunk = exhausted || remaining == 0;
+          if (exhausted) {
+            ccn.removeQueryCursor(cursor.getId());
+          }
+          writeQueryResponseChunk(chunk, cursor.getCollectionType(), lastChunk,
+              exhausted ? 0 : cursor.getId(), servConn);
+        } while (!lastChunk);
+      } catch (IOException | RuntimeException e) {
+        ccn.removeQueryCursor(cursor.getId());
+        throw e;
+      }
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug("{}: Sent a batch of query cursor {} for query {}", servConn.getName(),
+          cursor.getId(), cursor.getQueryString());
+    }
+  }
+
   private void addToObjectPartList(ObjectPartList serializedObjs, Object res,
       CollectionType collectionType, boolean lastChunk, ServerConnection servConn,
       boolean isStructs, final SecurityService securityService) throws IOException {
@@ -61,6 +61,7 @@ import org.apache.geode.cache.client.internal.PoolImpl;
 import org.apache.geode.cache.client.internal.PoolImpl.PoolTask;
 import org.apache.geode.cache.query.CqException;
 import org.apache.geode.cache.query.Query;
+import org.apache.geode.cache.query.QueryException;
 import org.apache.geode.cache.query.internal.DefaultQuery;
 import org.apache.geode.cache.query.internal.cq.CqService;
 import org.apache.geode.cache.query.internal.cq.ServerCQ;
@@ -1492,6 +1493,7 @@ public class CacheClientNotifier {
         }
       }
       this.clearCompiledQueries();
+      this.clearQueryCursors();
       blackListedClients.clear();
 
       // cancel the ping task
@@ -1668,6 +1670,7 @@ public class CacheClientNotifier {
     // Exception("stack trace"));
     ClientProxyMembershipID client = proxy.getProxyID();
     this._clientProxies.remove(client);
+    removeQueryCursors(client);
     this._connectionListener.queueRemoved();
     this.getCache().cleanupForClient(this, client);
     if (!(proxy.clientConflation == Handshake.CONFLATION_ON)) {
@@ -2029,6 +2032,128 @@ public class CacheClientNotifier {
     }
   }
 
+  /**
+   * Keeps the given cursor until its last result is sent, it is closed, it is idle or its client
+   * goes away.
+   *
+   * @throws QueryException if the client of the cursor already has
+   *         ServerQueryCursor.MAX_CURSORS_PER_CLIENT cursors open, or all clients together have
+   *         ServerQueryCursor.MAX_CURSORS
+   */
+  public void addQueryCursor(ServerQueryCursor cursor) throws QueryException {
+    synchronized (this.queryCursors) {
+      if (this.queryCursors.size() >= ServerQueryCursor.MAX_CURSORS) {
+        throw new QueryException("The server already has the maximum of "
+            + ServerQueryCursor.MAX_CURSORS + " query cursors open");
+      }
+      int clientCursors = 0;
+      for (ServerQueryCursor openCursor : this.queryCursors.values()) {
+        if (openCursor.getProxyId().equals(cursor.getProxyId())) {
+          clientCursors++;
+        }
+      }
+      if (clientCursors >= ServerQueryCursor.MAX_CURSORS_PER_CLIENT) {
+        throw new QueryException("The client already has the maximum of "
+            + ServerQueryCursor.MAX_CURSORS_PER_CLIENT + " query cursors open");
+      }
+      this.queryCursors.put(cursor.getId(), cursor);
+    }
+    this.statistics.incQueryCursorCount(1);
+    if (logger.isDebugEnabled()) {
+      logger.debug("Added query cursor {} for query: {}. Total query cursors: {}", cursor.getId(),
+          cursor.getQueryString(), this.statistics.getQueryCursorCount());
+    }
+    startQueryCursorCleanupThread();
+  }
+
+  /**
+   * Returns the cursor with the given id if the given client opened it for the user whose principal
+   * has the given name, or null otherwise.
+   */
+  public ServerQueryCursor getQueryCursor(long cursorId, ClientProxyMembershipID proxyId,
+      String principal) {
+    ServerQueryCursor cursor = this.queryCursors.get(cursorId);
+    if (cursor == null || !cursor.isOwnedBy(proxyId, principal)) {
+      return null;
+    }
+    return cursor;
+  }
+
+  /**
+   * Removes the cursor with the given id if the given client opened it for the user whose
+   * principal has the given name.
+   *
+   * @return the removed cursor, or null if no cursor was removed
+   */
+  public ServerQueryCursor removeQueryCursor(long cursorId, ClientProxyMembershipID proxyId,
+      String principal) {
+    ServerQueryCursor cursor = getQueryCursor(cursorId, proxyId, principal);
+    if (cursor == null || !this.queryCursors.remove(cursorId, cursor)) {
+      return null;
+    }
+    this.statistics.incQueryCursorCount(-1);
+    return cursor;
+  }
+
+  ServerQueryCursor removeQueryCursor(long cursorId) {
+    ServerQueryCursor cursor = this.queryCursors.remove(cursorId);
+    if (cursor != null) {
+      this.statistics.incQueryCursorCount(-1);
+    }
+    return cursor;
+  }
+
+  /**
+   * Removes the cursors of the given client, whose proxy is removed.
+   */
+  private void removeQueryCursors(ClientProxyMembershipID proxyId) {
+    for (ServerQueryCursor cursor : this.queryCursors.values()) {
+      if (cursor.getProxyId().equals(proxyId) && removeQueryCursor(cursor.getId()) != null
+          && logger.isDebugEnabled()) {
+        logger.debug("Removed query cursor {} of removed client {}", cursor.getId(), proxyId);
+      }
+    }
+  }
+
+  private void clearQueryCursors() {
+    if (this.queryCursors.size() > 0) {
+      this.statistics.incQueryCursorCount(-(this.queryCursors.size()));
+      this.queryCursors.clear();
+    }
+  }
+
+  /**
+   * This starts the cleanup thread that periodically removes the query cursors that have not been
+   * fetched from for ServerQueryCursor.IDLE_TIMEOUT, such as those of clients that went away.
+   */
+  private void startQueryCursorCleanupThread() {
+    if (isQueryCursorCleanupThreadStarted) {
+      return;
+    }
+
+    SystemTimer.SystemTimerTask task = new SystemTimer.SystemTimerTask() {
+      @Override
+      public void run2() {
+        long now = System.currentTimeMillis();
+        for (ServerQueryCursor cursor : queryCursors.values()) {
+          if (cursor.isIdle(now, ServerQueryCursor.IDLE_TIMEOUT)
+              && removeQueryCursor(cursor.getId()) != null && logger.isDebugEnabled()) {
+            logger.debug("Removed idle query cursor {} for query: {}", cursor.getId(),
+                cursor.getQueryString());
+          }
+        }
+      }
+    };
+
+    synchronized (lockIsQueryCursorCleanupThreadStarted) {
+      if (!isQueryCursorCleanupThreadStarted) {
+        long period = Math.max(1000, Math.min(ServerQueryCursor.IDLE_TIMEOUT / 2, 60000));
+        cache.getCCPTimer().scheduleAtFixedRate(task, period, period);
+      }
+      isQueryCursorCleanupThreadStarted = true;
+    }
+  }
+
   protected void scheduleClientPingTask() {
     this.clientPingTask = new SystemTimer.SystemTimerTask() {
 
@@ -2198,6 +2323,13 @@ public class CacheClientNotifier {
 
   private final Object lockIsCompiledQueryCleanupThreadStarted = new Object();
 
+  private final ConcurrentHashMap<Long, ServerQueryCursor> queryCursors =
+      new ConcurrentHashMap<Long, ServerQueryCursor>();
+
+  private volatile boolean isQueryCursorCleanupThreadStarted = false;
+
+  private final Object lockIsQueryCursorCleanupThreadStarted = new Object();
+
   private SystemTimer.SystemTimerTask clientPingTask;
 
   private final SocketCloser socketCloser;
@@ -46,6 +46,7 @@ public class CacheClientNotifierStats {
   private static final String CQ_PROCESSING_TIME = "cqProcessingTime";
   private static final String COMPILED_QUERY_COUNT = "compiledQueryCount";
   private static final String COMPILED_QUERY_USED_COUNT = "compiledQueryUsedCount";
+  private static final String QUERY_CURSOR_COUNT = "queryCursorCount";
 
   private static final int _eventsId;
   private static final int _eventProcessingTimeId;
@@ -67,6 +68,9 @@ public class CacheClientNotifierStats {
 
   private static final int _compiledQueryUsedCount;
 
+  // Open query cursor count.
+  private static final int _queryCursorCount;
+
   static {
     String statName = "CacheClientNotifierStatistics";
 
@@ -108,6 +112,9 @@ public class CacheClientNotifierStats {
         f.createLongCounter(COMPILED_QUERY_USED_COUNT, "Number of times compiled queries are used.",
             "used"),
 
+        f.createLongGauge(QUERY_CURSOR_COUNT,
+            "Number of query cursors held open for clients to fetch results from.", "cursors"),
+
     });
 
     // Initialize id fields
@@ -127,6 +134,7 @@ public class CacheClientNotifierStats {
     _cqProcessingTimeId = _type.nameToId(CQ_PROCESSING_TIME);
     _compiledQueryCount = _type.nameToId(COMPILED_QUERY_COUNT);
     _compiledQueryUsedCount = _type.nameToId(COMPILED_QUERY_USED_COUNT);
+    _queryCursorCount = _type.nameToId(QUERY_CURSOR_COUNT);
   }
 
   ////////////////////// Instance Fields //////////////////////
@@ -231,6 +239,10 @@ public class CacheClientNotifierStats {
     return this._stats.getLong(_compiledQueryUsedCount);
   }
 
+  public long getQueryCursorCount() {
+    return this._stats.getLong(_queryCursorCount);
+  }
+
   public void incDurableReconnectionCount() {
     this._stats.incInt(_durableReconnectionCount, 1);
   }
@@ -255,6 +267,10 @@ public class CacheClientNotifierStats {
     this._stats.incLong(_compiledQueryUsedCount, count);
   }
 
+  public void incQueryCursorCount(long count) {
+    this._stats.incLong(_queryCursorCount, count);
+  }
+
   public int getClientUnRegisterRequests() {
     return this._stats.getInt(_clientHealthMonitorUnRegisterId);
   }
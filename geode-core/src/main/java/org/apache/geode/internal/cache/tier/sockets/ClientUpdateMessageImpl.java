@@ -20,21 +20,25 @@ import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.DataSerializer;
 import org.apache.geode.GemFireIOException;
 import org.apache.geode.InternalGemFireError;
+import org.apache.geode.SerializationException;
 import org.apache.geode.cache.query.internal.cq.InternalCqQuery;
 import org.apache.geode.cache.util.ObjectSizer;
 import org.apache.geode.internal.DSCODE;
+import org.apache.geode.internal.HeapDataOutputStream;
 import org.apache.geode.internal.InternalDataSerializer;
 import org.apache.geode.internal.Sendable;
 import org.apache.geode.internal.Version;
@@ -49,6 +53,7 @@ import org.apache.geode.internal.cache.tier.MessageType;
 import org.apache.geode.internal.cache.versions.VersionTag;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.size.Sizeable;
+import org.apache.geode.internal.util.BlobHelper;
 
 
 /**
@@ -145,6 +150,21 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
 
   private VersionTag versionTag;
 
+  /**
+   * The parts that are the same for every client of a version, serialized once for each version
+   * and shared by the dispatchers of all the proxies this message is queued for. The message itself
+   * is shared by the queues through reference counted
+   * {@link org.apache.geode.internal.cache.ha.HAEventWrapper}s, so the serialized parts go away
+   * with the last queue that holds the message. They are counted by {@link #getSizeInBytes()}.
+   */
+  private transient volatile SerializedParts[] serializedParts = NO_SERIALIZED_PARTS;
+
+  private static final SerializedParts[] NO_SERIALIZED_PARTS = new SerializedParts[0];
+
+  private static final AtomicReferenceFieldUpdater<ClientUpdateMessageImpl, SerializedParts[]>
+      serializedPartsUpdater = AtomicReferenceFieldUpdater
+          .newUpdater(ClientUpdateMessageImpl.class, SerializedParts[].class, "serializedParts");
+
   /* added up all constants and form single value */
   private static final int CONSTANT_MEMORY_OVERHEAD;
 
@@ -815,6 +835,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
     byte[] latestValue = p_latestValue;
     Message message = null;
     ClientProxyMembershipID proxyId = proxy.getProxyID();
+    SerializedParts parts = getSerializedParts(proxy, clientVersion);
     // Add CQ info.
     int cqMsgParts = 0;
     boolean clientHasCq = this._hasCqs && (this.getCqs(proxyId) != null);
@@ -834,21 +855,21 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
         message = getMessage(7 + cqMsgParts, clientVersion);
         message.setMessageType(MessageType.LOCAL_INVALIDATE);
         message.addStringPart(this._regionName, true);
-        message.addStringOrObjPart(this._keyOfInterest);
+        parts.addKey(message);
       } else {
         // Notify by subscription - send the value
         message = getMessage(9 + cqMsgParts, clientVersion);
         if (isCreate()) {
           message.setMessageType(MessageType.LOCAL_CREATE);
           message.addStringPart(this._regionName, true);
-          message.addStringOrObjPart(this._keyOfInterest);
+          parts.addKey(message);
           message.addObjPart(Boolean.FALSE); // NO delta
           // Add the value (which has already been serialized)
           message.addRawPart(latestValue, (this._valueIsObject == 0x01));
         } else {
           message.setMessageType(MessageType.LOCAL_UPDATE);
           message.addStringPart(this._regionName, true);
-          message.addStringOrObjPart(this._keyOfInterest);
+          parts.addKey(message);
 
           if (this.deltaBytes != null && !conflation && !proxy.isMarkerEnqueued()
               && !proxy.getRegionsWithEmptyDataPolicy().containsKey(_regionName)) {
@@ -869,11 +890,8 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
         }
       }
 
-      message.addObjPart(this._callbackArgument);
-      if (this.versionTag != null) {
-        this.versionTag.setCanonicalIDs(proxy.getCache().getDistributionManager());
-      }
-      message.addObjPart(this.versionTag);
+      parts.addCallbackArgument(message);
+      parts.addVersionTag(message);
       message.addObjPart(Boolean.valueOf(isClientInterested(proxyId)));
       message.addObjPart(Boolean.valueOf(clientHasCq));
 
@@ -896,9 +914,9 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
         message.setMessageType(MessageType.LOCAL_INVALIDATE);
       }
       message.addStringPart(this._regionName, true);
-      message.addStringOrObjPart(this._keyOfInterest);
-      message.addObjPart(this._callbackArgument);
-      message.addObjPart(this.versionTag);
+      parts.addKey(message);
+      parts.addCallbackArgument(message);
+      parts.addVersionTag(message);
       message.addObjPart(Boolean.valueOf(isClientInterested(proxyId)));
       message.addObjPart(Boolean.valueOf(clientHasCq));
 
@@ -914,7 +932,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
       message = getMessage(4 + cqMsgParts, clientVersion);
       message.setMessageType(MessageType.LOCAL_DESTROY_REGION);
       message.addStringPart(this._regionName, true);
-      message.addObjPart(this._callbackArgument);
+      parts.addCallbackArgument(message);
       message.addObjPart(Boolean.valueOf(clientHasCq));
 
       if (clientHasCq) {
@@ -924,7 +942,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
       message = getMessage(4 + cqMsgParts, clientVersion);
       message.setMessageType(MessageType.CLEAR_REGION);
       message.addStringPart(this._regionName, true);
-      message.addObjPart(this._callbackArgument);
+      parts.addCallbackArgument(message);
       message.addObjPart(Boolean.valueOf(clientHasCq));
 
       if (clientHasCq) {
@@ -934,7 +952,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
       message = getMessage(4 + cqMsgParts, clientVersion);
       message.setMessageType(MessageType.INVALIDATE_REGION);
       message.addStringPart(this._regionName, true);
-      message.addObjPart(this._callbackArgument);
+      parts.addCallbackArgument(message);
 
       // Add CQ status.
       message.addObjPart(Boolean.valueOf(clientHasCq));
@@ -949,10 +967,124 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
     message.setTransactionId(0);
     // Add the EventId since 5.1 (used to prevent duplicate events
     // received on the client side after a failover)
-    message.addObjPart(this._eventIdentifier);
+    parts.addEventId(message);
     return message;
   }
 
+  /**
+   * Returns the parts of this message that are the same for every client of the given version,
+   * serializing them if no client of that version was sent this message yet.
+   */
+  private SerializedParts getSerializedParts(CacheClientProxy proxy, Version clientVersion) {
+    SerializedParts parts = findSerializedParts(this.serializedParts, clientVersion);
+    if (parts != null) {
+      return parts;
+    }
+    if (this.versionTag != null) {
+      this.versionTag.setCanonicalIDs(proxy.getCache().getDistributionManager());
+    }
+    parts = new SerializedParts(this, clientVersion);
+    for (;;) {
+      SerializedParts[] current = this.serializedParts;
+      SerializedParts existing = findSerializedParts(current, clientVersion);
+      if (existing != null) {
+        // a racing dispatcher serialized them first
+        return existing;
+      }
+      SerializedParts[] grown = Arrays.copyOf(current, current.length + 1);
+      grown[current.length] = parts;
+      if (serializedPartsUpdater.compareAndSet(this, current, grown)) {
+        return parts;
+      }
+    }
+  }
+
+  private static SerializedParts findSerializedParts(SerializedParts[] all, Version version) {
+    for (SerializedParts parts : all) {
+      if (parts.version.equals(version)) {
+        return parts;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * The key, callback argument, version tag and event id of a message serialized for the clients of
+   * one version, as {@link Message#addStringOrObjPart} and {@link Message#addObjPart} would have
+   * serialized them.
+   */
+  static class SerializedParts {
+    private final Version version;
+    private final byte[] key;
+    private final boolean keyIsObject;
+    private final byte[] callbackArgument;
+    private final boolean callbackArgumentIsObject;
+    private final byte[] versionTag;
+    private final byte[] eventId;
+
+    SerializedParts(ClientUpdateMessageImpl msg, Version version) {
+      this.version = version;
+      Version v = version.equals(Version.CURRENT) ? null : version;
+      Object k = msg._keyOfInterest;
+      if (k == null || k instanceof String) {
+        this.key = k == null ? null : toBytes(new HeapDataOutputStream((String) k));
+        this.keyIsObject = false;
+      } else {
+        this.key = serialize(k, v);
+        this.keyIsObject = true;
+      }
+      Object arg = msg._callbackArgument;
+      this.callbackArgumentIsObject = arg != null && !(arg instanceof byte[]);
+      this.callbackArgument = this.callbackArgumentIsObject ? serialize(arg, v) : (byte[]) arg;
+      this.versionTag = msg.versionTag == null ? null : serialize(msg.versionTag, v);
+      this.eventId = msg._eventIdentifier == null ? null : serialize(msg._eventIdentifier, v);
+    }
+
+    void addKey(Message message) {
+      message.addRawPart(this.key, this.keyIsObject);
+    }
+
+    void addCallbackArgument(Message message) {
+      message.addRawPart(this.callbackArgument, this.callbackArgumentIsObject);
+    }
+
+    void addVersionTag(Message message) {
+      message.addRawPart(this.versionTag, this.versionTag != null);
+    }
+
+    void addEventId(Message message) {
+      message.addRawPart(this.eventId, this.eventId != null);
+    }
+
+    int getSizeInBytes() {
+      // five references and two booleans
+      return Sizeable.PER_OBJECT_OVERHEAD + 5 * 4 + 2 + sizeOf(this.key)
+          + sizeOf(this.callbackArgument) + sizeOf(this.versionTag) + sizeOf(this.eventId);
+    }
+
+    private static int sizeOf(byte[] bytes) {
+      return bytes == null ? 0 : CachedDeserializableFactory.getByteSize(bytes);
+    }
+
+    private static byte[] serialize(Object o, Version v) {
+      HeapDataOutputStream hdos = new HeapDataOutputStream(v);
+      try {
+        BlobHelper.serializeTo(o, hdos);
+      } catch (IOException ex) {
+        throw new SerializationException("failed serializing object", ex);
+      }
+      return toBytes(hdos);
+    }
+
+    private static byte[] toBytes(HeapDataOutputStream hdos) {
+      try {
+        return hdos.toByteArray();
+      } finally {
+        hdos.close();
+      }
+    }
+  }
+
   private static final ThreadLocal<Map<Integer, Message>> CACHED_MESSAGES =
       new ThreadLocal<Map<Integer, Message>>() {
         protected Map<Integer, Message> initialValue() {
@@ -1365,6 +1497,14 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
 
     // The sizeOf call gets the size of the input callback argument.
     size += sizeOf(getOriginalCallbackArgument());
+
+    SerializedParts[] parts = this.serializedParts;
+    if (parts.length > 0) {
+      size += Sizeable.PER_OBJECT_OVERHEAD + 4 + 4 * parts.length;
+      for (SerializedParts p : parts) {
+        size += p.getSizeInBytes();
+      }
+    }
     return size;
   }
 
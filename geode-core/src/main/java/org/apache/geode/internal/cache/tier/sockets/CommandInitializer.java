@@ -28,6 +28,7 @@ import org.apache.geode.internal.cache.tier.sockets.command.AddPdxType;
 import org.apache.geode.internal.cache.tier.sockets.command.ClearRegion;
 import org.apache.geode.internal.cache.tier.sockets.command.ClientReady;
 import org.apache.geode.internal.cache.tier.sockets.command.CloseConnection;
+import org.apache.geode.internal.cache.tier.sockets.command.CloseQueryCursor;
 import org.apache.geode.internal.cache.tier.sockets.command.CommitCommand;
 import org.apache.geode.internal.cache.tier.sockets.command.ContainsKey;
 import org.apache.geode.internal.cache.tier.sockets.command.ContainsKey66;
@@ -44,6 +45,7 @@ import org.apache.geode.internal.cache.tier.sockets.command.ExecuteRegionFunctio
 import org.apache.geode.internal.cache.tier.sockets.command.ExecuteRegionFunction65;
 import org.apache.geode.internal.cache.tier.sockets.command.ExecuteRegionFunction66;
 import org.apache.geode.internal.cache.tier.sockets.command.ExecuteRegionFunctionSingleHop;
+import org.apache.geode.internal.cache.tier.sockets.command.FetchQueryCursor;
 import org.apache.geode.internal.cache.tier.sockets.command.GatewayReceiverCommand;
 import org.apache.geode.internal.cache.tier.sockets.command.Get70;
 import org.apache.geode.internal.cache.tier.sockets.command.GetAll;
@@ -330,6 +332,13 @@ public class CommandInitializer {
     ALL_COMMANDS.put(Version.GEODE_160, commands);
     ALL_COMMANDS.put(Version.GEODE_170, commands);
 
+    Map<Integer, Command> geode18Commands = new HashMap<Integer, Command>();
+    geode18Commands.putAll(commands);
+    geode18Commands.put(MessageType.QUERY_WITH_CURSOR, QueryWithParametersGeode10.getCommand());
+    geode18Commands.put(MessageType.QUERY_CURSOR_FETCH, FetchQueryCursor.getCommand());
+    geode18Commands.put(MessageType.QUERY_CURSOR_CLOSE, CloseQueryCursor.getCommand());
+    ALL_COMMANDS.put(Version.GEODE_180, geode18Commands);
+
   }
 
   public static Map<Integer, Command> getCommands(Version version) {
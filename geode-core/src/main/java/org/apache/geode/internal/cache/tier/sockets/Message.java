@@ -41,6 +41,7 @@ import org.apache.geode.internal.logging.log4j.LocalizedMessage;
 import org.apache.geode.internal.offheap.StoredObject;
 import org.apache.geode.internal.offheap.annotations.Unretained;
 import org.apache.geode.internal.util.BlobHelper;
+import org.apache.geode.internal.util.concurrent.VirtualThreads;
 
 /**
  * This class encapsulates the wire protocol. It provides accessors to encode and decode a message
@@ -92,6 +93,14 @@ public class Message {
 
   private static final int PART_HEADER_SIZE = 5; // 4 bytes for length, 1 byte for isObject
 
+  /**
+   * Off-heap parts of at least this many bytes are written to a socket channel straight from
+   * off-heap memory, together with the buffered headers, instead of being copied into the comm
+   * buffer first.
+   */
+  private static final int MIN_GATHERED_PART_SIZE = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "Message.MIN_GATHERED_PART_SIZE", 1024);
+
   private static final int FIXED_LENGTH = 17;
 
   private static final ThreadLocal<ByteBuffer> tlCommBuffer = new ThreadLocal<>();
@@ -111,6 +120,13 @@ public class Message {
 
   private static final int NO_HEADER_READ_TIMEOUT = 0;
 
+  /**
+   * True if a server connection waits for the header of its next request before it takes the
+   * monitor of its comm buffer, which only matters when it runs on a virtual thread. Only changed
+   * by tests.
+   */
+  static boolean readHeaderOutsideMonitor = VirtualThreads.ENABLED;
+
   private static byte[] defineTrue() {
     try (HeapDataOutputStream hdos = new HeapDataOutputStream(10, null)) {
       BlobHelper.serializeTo(Boolean.TRUE, hdos);
@@ -141,6 +157,8 @@ public class Message {
   int currentPart = 0;
   private Part[] partsList = null;
   private ByteBuffer cachedCommBuffer;
+  /** reuses the payload arrays of small incoming parts on a server connection */
+  private PartPayloadPool partPayloadPool;
   protected Socket socket = null;
   private SocketChannel socketChannel = null;
   private OutputStream outputStream = null;
@@ -157,6 +175,13 @@ public class Message {
   private Semaphore dataLimiter = null;
   private Semaphore messageLimiter = null;
   private boolean readHeader = false;
+
+  /**
+   * True if the header, and possibly some of the payload, of the next message to read is already
+   * between the position and the limit of the comm buffer.
+   */
+  private boolean hasBufferedInput;
+
   private int chunkSize = DEFAULT_CHUNK_SIZE;
 
   Part securePart = null;
@@ -393,15 +418,15 @@ public class Message {
       v = null;
     }
 
+    Part part = this.partsList[this.currentPart];
     // do NOT close the HeapDataOutputStream
-    HeapDataOutputStream hdos = new HeapDataOutputStream(this.chunkSize, v);
+    HeapDataOutputStream hdos = part.getReusableOutputStream(this.chunkSize, v);
     try {
       BlobHelper.serializeTo(o, hdos);
     } catch (IOException ex) {
       throw new SerializationException("failed serializing object", ex);
     }
     this.messageModified = true;
-    Part part = this.partsList[this.currentPart];
     part.setPartState(hdos, true);
     this.currentPart++;
   }
@@ -467,6 +492,15 @@ public class Message {
     return result;
   }
 
+  /**
+   * Tells this message that the comm buffer already holds the start of the next message it
+   * receives. The buffer has to be flipped so that the header starts at its position, and it must
+   * not hold any bytes past the end of that message.
+   */
+  void setBufferedInput() {
+    this.hasBufferedInput = true;
+  }
+
   public ByteBuffer getCommBuffer() {
     if (this.cachedCommBuffer != null) {
       return this.cachedCommBuffer;
@@ -604,7 +638,13 @@ public class Message {
           int partLen = part.getLength();
           commBuffer.putInt(partLen);
           commBuffer.put(part.getTypeCode());
-          if (partLen <= commBuffer.remaining()) {
+          ByteBuffer offHeapData = null;
+          if (this.socketChannel != null && partLen >= MIN_GATHERED_PART_SIZE) {
+            offHeapData = part.getOffHeapByteBuffer();
+          }
+          if (offHeapData != null) {
+            writeGathered(offHeapData);
+          } else if (partLen <= commBuffer.remaining()) {
             part.writeTo(commBuffer);
           } else {
             flushBuffer();
@@ -633,6 +673,24 @@ public class Message {
     }
   }
 
+  /**
+   * Writes what is in the comm buffer followed by the given data to the socket channel with
+   * gathering writes so that the data does not have to be copied into the comm buffer.
+   */
+  private void writeGathered(ByteBuffer data) throws IOException {
+    final ByteBuffer cb = getCommBuffer();
+    final int bytesToSend = cb.position() + data.remaining();
+    cb.flip();
+    final ByteBuffer[] buffers = {cb, data};
+    do {
+      this.socketChannel.write(buffers);
+    } while (cb.hasRemaining() || data.hasRemaining());
+    if (this.messageStats != null) {
+      this.messageStats.incSentBytes(bytesToSend);
+    }
+    cb.clear();
+  }
+
   void flushBuffer() throws IOException {
     final ByteBuffer cb = getCommBuffer();
     if (this.socketChannel != null) {
@@ -653,12 +711,12 @@ public class Message {
     clearParts();
     // TODO: for server changes make sure sc is not null as this class also used by client
 
-    int timeout = socket.getSoTimeout();
-    try {
-      socket.setSoTimeout(headerReadTimeoutMillis);
-      fetchHeader();
-    } finally {
-      socket.setSoTimeout(timeout);
+    final boolean bufferedInput = this.hasBufferedInput;
+    this.hasBufferedInput = false;
+    if (bufferedInput) {
+      this.messageType = MessageType.INVALID;
+    } else {
+      fetchHeader(headerReadTimeoutMillis);
     }
 
     final ByteBuffer cb = getCommBuffer();
@@ -667,7 +725,9 @@ public class Message {
     final int numParts = cb.getInt();
     final int txid = cb.getInt();
     byte bits = cb.get();
-    cb.clear();
+    if (!bufferedInput) {
+      cb.clear();
+    }
 
     if (!MessageType.validate(type)) {
       throw new IOException(LocalizedStrings.Message_INVALID_MESSAGE_TYPE_0_WHILE_READING_HEADER
@@ -761,7 +821,7 @@ public class Message {
     this.flags = bits;
     this.messageType = type;
 
-    readPayloadFields(numParts, len);
+    readPayloadFields(numParts, len, bufferedInput);
 
     // Set the header and payload fields only after receiving all the
     // socket data, providing better message consistency in the face
@@ -776,6 +836,16 @@ public class Message {
     }
   }
 
+  private void fetchHeader(int headerReadTimeoutMillis) throws IOException {
+    int timeout = socket.getSoTimeout();
+    try {
+      socket.setSoTimeout(headerReadTimeoutMillis);
+      fetchHeader();
+    } finally {
+      socket.setSoTimeout(timeout);
+    }
+  }
+
   /**
    * Read the actual bytes of the header off the socket
    */
@@ -827,6 +897,15 @@ public class Message {
    * TODO: refactor overly long method readPayloadFields
    */
   void readPayloadFields(final int numParts, final int len) throws IOException {
+    readPayloadFields(numParts, len, false);
+  }
+
+  /**
+   * @param bufferedInput true if the bytes of the payload between the position and the limit of the
+   *        comm buffer have already been read
+   */
+  private void readPayloadFields(final int numParts, final int len, final boolean bufferedInput)
+      throws IOException {
     if (len > 0 && numParts <= 0 || len <= 0 && numParts > 0) {
       throw new IOException(
           LocalizedStrings.Message_PART_LENGTH_0_AND_NUMBER_OF_PARTS_1_INCONSISTENT
@@ -856,12 +935,17 @@ public class Message {
     }
 
     final ByteBuffer cb = getCommBuffer();
-    cb.clear();
-    cb.flip();
+    int bytesRemaining = len;
+    if (bufferedInput) {
+      bytesRemaining -= cb.remaining();
+    } else {
+      cb.clear();
+      cb.flip();
+    }
 
     int readSecurePart = checkAndSetSecurityPart();
+    final PartPayloadPool pool = getPartPayloadPool();
 
-    int bytesRemaining = len;
     for (int i = 0; i < numParts + readSecurePart
         || readSecurePart == 1 && cb.remaining() > 0; i++) {
       int bytesReadThisTime = readPartChunk(bytesRemaining);
@@ -878,9 +962,10 @@ public class Message {
       int partLen = cb.getInt();
       byte partType = cb.get();
       byte[] partBytes = null;
+      boolean pooled = pool != null && i < numParts && pool.isPoolable(partLen);
 
       if (partLen > 0) {
-        partBytes = new byte[partLen];
+        partBytes = pooled ? pool.allocate(partLen) : new byte[partLen];
         int alreadyReadBytes = cb.remaining();
         if (alreadyReadBytes > 0) {
           if (partLen < alreadyReadBytes) {
@@ -932,8 +1017,20 @@ public class Message {
           }
         }
       }
-      part.init(partBytes, partType);
+      if (pooled) {
+        part.initRecyclable(partBytes, partType);
+      } else {
+        part.init(partBytes, partType);
+      }
+    }
+  }
+
+  private PartPayloadPool getPartPayloadPool() {
+    if (this.partPayloadPool == null && this.serverConnection != null
+        && PartPayloadPool.isEnabled()) {
+      this.partPayloadPool = new PartPayloadPool();
     }
+    return this.partPayloadPool;
   }
 
   protected int checkAndSetSecurityPart() {
@@ -1024,7 +1121,14 @@ public class Message {
    * Gets rid of all the parts that have been added to this message.
    */
   public void clearParts() {
+    PartPayloadPool pool = this.partPayloadPool;
     for (Part part : this.partsList) {
+      if (pool != null) {
+        byte[] payload = part.takeRecyclablePayload();
+        if (payload != null) {
+          pool.release(payload);
+        }
+      }
       part.clear();
     }
     this.currentPart = 0;
@@ -1141,6 +1245,15 @@ public class Message {
     this.maxIncomingMessageLength = maxMessageLength;
     this.dataLimiter = dataLimiter;
     this.messageLimiter = msgLimiter;
+    if (readHeaderOutsideMonitor && this.socket != null && this.cachedCommBuffer != null
+        && !this.hasBufferedInput) {
+      // Only the thread of the connection uses its comm buffer, so the thread can wait for the next
+      // request without holding the monitor of the buffer. A virtual thread that waits inside a
+      // monitor keeps its carrier thread for as long as the client is idle.
+      fetchHeader(NO_HEADER_READ_TIMEOUT);
+      this.cachedCommBuffer.limit(getHeaderLength());
+      this.hasBufferedInput = true;
+    }
     receive();
   }
 
@@ -60,6 +60,24 @@ public class Part {
   /** Is the payload (<code>part</code>) a serialized object? */
   private byte typeCode;
 
+  /**
+   * Serialized streams of at most this many bytes are kept by the part for the next object it
+   * serializes.
+   */
+  private static final int MAX_REUSED_OUTPUT_SIZE = 16 * 1024;
+
+  /**
+   * The payload if it was read into an array from a {@link PartPayloadPool} and no reference to it
+   * has been handed out, so that it can go back to the pool once the message is done with.
+   */
+  private byte[] recyclablePayload;
+
+  /** The array this part encodes longs into, if no reference to it has been handed out */
+  private byte[] longBytes;
+
+  /** The stream this part serialized its last object into, reused for the next one */
+  private HeapDataOutputStream reusableOutputStream;
+
   public void init(byte[] v, byte tc) {
     if (tc == EMPTY_BYTEARRAY_CODE) {
       this.part = EMPTY_BYTE_ARRAY;
@@ -69,16 +87,73 @@ public class Part {
     this.typeCode = tc;
   }
 
+  /**
+   * Same as {@link #init(byte[], byte)} but the array came from a {@link PartPayloadPool}.
+   */
+  void initRecyclable(byte[] v, byte tc) {
+    init(v, tc);
+    if (this.part == v) {
+      this.recyclablePayload = v;
+    }
+  }
+
   public void clear() {
     if (this.part != null) {
       if (this.part instanceof HeapDataOutputStream) {
-        ((HeapDataOutputStream) this.part).close();
+        HeapDataOutputStream hdos = (HeapDataOutputStream) this.part;
+        if (hdos == this.reusableOutputStream && hdos.size() > MAX_REUSED_OUTPUT_SIZE) {
+          // do not hold on to the memory of a large object
+          this.reusableOutputStream = null;
+        }
+        hdos.close();
       }
       this.part = null;
     }
+    this.recyclablePayload = null;
     this.typeCode = BYTE_CODE;
   }
 
+  /**
+   * Returns the payload array so it can be pooled if it came from a {@link PartPayloadPool} and no
+   * reference to it was handed out; otherwise returns null. Must be called before {@link #clear}.
+   */
+  byte[] takeRecyclablePayload() {
+    byte[] result = this.recyclablePayload;
+    this.recyclablePayload = null;
+    if (result != null && result != this.part) {
+      return null;
+    }
+    return result;
+  }
+
+  /**
+   * Returns a stream, possibly the one used by the last object this part serialized, for
+   * serializing a new object into this part.
+   */
+  HeapDataOutputStream getReusableOutputStream(int chunkSize, Version v) {
+    HeapDataOutputStream hdos = this.reusableOutputStream;
+    if (hdos != null && hdos.getVersion() == v) {
+      hdos.reset();
+    } else {
+      hdos = new HeapDataOutputStream(chunkSize, v);
+      this.reusableOutputStream = hdos;
+    }
+    return hdos;
+  }
+
+  /**
+   * Called when a reference to the payload array leaves this part; the array can no longer be
+   * reused.
+   */
+  private void handOutPayload() {
+    if (this.part == this.recyclablePayload) {
+      this.recyclablePayload = null;
+    }
+    if (this.part == this.longBytes) {
+      this.longBytes = null;
+    }
+  }
+
   public boolean isNull() {
     if (this.part == null) {
       return true;
@@ -180,7 +255,7 @@ public class Part {
       Assert.assertTrue(false,
           "expected int length to be 4 but it was " + getLength() + "; part = " + this.toString());
     }
-    byte[] bytes = getSerializedForm();
+    byte[] bytes = (byte[]) this.part;
     return decodeInt(bytes, 0);
   }
 
@@ -218,7 +293,11 @@ public class Part {
   }
 
   public void setLong(long v) {
-    byte[] bytes = new byte[8];
+    byte[] bytes = this.longBytes;
+    if (bytes == null) {
+      bytes = new byte[8];
+      this.longBytes = bytes;
+    }
     bytes[0] = (byte) ((v & 0xFF00000000000000l) >> 56);
     bytes[1] = (byte) ((v & 0x00FF000000000000l) >> 48);
     bytes[2] = (byte) ((v & 0x0000FF0000000000l) >> 40);
@@ -239,7 +318,7 @@ public class Part {
       Assert.assertTrue(false,
           "expected long length to be 8 but it was " + getLength() + "; part = " + this.toString());
     }
-    byte[] bytes = getSerializedForm();
+    byte[] bytes = (byte[]) this.part;
     return ((((long) bytes[0]) << 56) & 0xFF00000000000000l)
         | ((((long) bytes[1]) << 48) & 0x00FF000000000000l)
         | ((((long) bytes[2]) << 40) & 0x0000FF0000000000l)
@@ -253,6 +332,7 @@ public class Part {
     if (this.part == null) {
       return null;
     } else if (this.part instanceof byte[]) {
+      handOutPayload();
       return (byte[]) this.part;
     } else {
       return null; // should not be called on sender side?
@@ -260,6 +340,8 @@ public class Part {
   }
 
   public Object getObject(boolean unzip) throws IOException, ClassNotFoundException {
+    // a deserialized object, like a PdxInstance, may keep referencing the payload
+    handOutPayload();
     if (isBytes()) {
       return this.part;
     } else {
@@ -283,6 +365,17 @@ public class Part {
     }
   }
 
+  /**
+   * Returns a direct ByteBuffer on the data of this part if it is stored off heap so that it can be
+   * written to a socket channel without copying it. Returns null otherwise.
+   */
+  ByteBuffer getOffHeapByteBuffer() {
+    if (this.part instanceof StoredObject) {
+      return ((StoredObject) this.part).createDirectByteBuffer();
+    }
+    return null;
+  }
+
   /**
    * Write the contents of this part to the specified output stream. This is only called for parts
    * that will not fit into the commBuffer so they need to be written directly to the stream. A
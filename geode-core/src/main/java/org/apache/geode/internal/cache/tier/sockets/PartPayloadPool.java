@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+
+/**
+ * Keeps the payload arrays of small message parts so that reading the next message on the same
+ * connection does not allocate them again. A part is read into an array of exactly its length so
+ * the arrays are kept by length. A {@link Part} only gives its array back if no reference to the
+ * array was handed out while the message was processed.
+ * <p>
+ * Each {@link Message} has its own pool so it is not thread safe.
+ *
+ * @since Geode 1.8
+ */
+class PartPayloadPool {
+
+  /**
+   * Parts longer than this are not pooled. Zero disables the pooling of part payloads.
+   */
+  static final int MAX_PAYLOAD_SIZE =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "Message.MAX_POOLED_PART_SIZE", 256);
+
+  /**
+   * The most bytes of payload arrays a pool keeps.
+   */
+  static final int MAX_POOLED_BYTES = 16 * 1024;
+
+  private static final int MAX_ARRAYS_PER_SIZE = 4;
+
+  private final int maxPayloadSize;
+
+  private final int maxPooledBytes;
+
+  private final byte[][][] arrays;
+
+  private final int[] counts;
+
+  private int pooledBytes;
+
+  PartPayloadPool() {
+    this(MAX_PAYLOAD_SIZE, MAX_POOLED_BYTES);
+  }
+
+  PartPayloadPool(int maxPayloadSize, int maxPooledBytes) {
+    this.maxPayloadSize = maxPayloadSize;
+    this.maxPooledBytes = maxPooledBytes;
+    this.arrays = new byte[maxPayloadSize + 1][][];
+    this.counts = new int[maxPayloadSize + 1];
+  }
+
+  static boolean isEnabled() {
+    return MAX_PAYLOAD_SIZE > 0;
+  }
+
+  boolean isPoolable(int size) {
+    return size > 0 && size <= this.maxPayloadSize;
+  }
+
+  /**
+   * Returns an array of exactly the given size, reusing a pooled one if there is one. The content
+   * of a reused array is stale; the caller overwrites all of it.
+   */
+  byte[] allocate(int size) {
+    if (isPoolable(size)) {
+      int count = this.counts[size];
+      if (count > 0) {
+        count--;
+        byte[][] pooled = this.arrays[size];
+        byte[] result = pooled[count];
+        pooled[count] = null;
+        this.counts[size] = count;
+        this.pooledBytes -= size;
+        return result;
+      }
+    }
+    return new byte[size];
+  }
+
+  /**
+   * Offers an array that is no longer referenced for reuse.
+   */
+  void release(byte[] array) {
+    int size = array.length;
+    if (!isPoolable(size) || this.pooledBytes + size > this.maxPooledBytes) {
+      return;
+    }
+    int count = this.counts[size];
+    if (count == MAX_ARRAYS_PER_SIZE) {
+      return;
+    }
+    byte[][] pooled = this.arrays[size];
+    if (pooled == null) {
+      pooled = new byte[MAX_ARRAYS_PER_SIZE][];
+      this.arrays[size] = pooled;
+    }
+    pooled[count] = array;
+    this.counts[size] = count + 1;
+    this.pooledBytes += size;
+  }
+
+  int getPooledBytes() {
+    return this.pooledBytes;
+  }
+}
@@ -30,6 +30,7 @@ import java.nio.ByteBuffer;
 import java.nio.channels.SelectableChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
 import java.security.Principal;
 import java.util.Map;
 import java.util.Properties;
@@ -159,6 +160,13 @@ public abstract class ServerConnection implements Runnable {
   // private InputStream in = null;
   // private OutputStream out = null;
   private ByteBuffer commBuffer;
+
+  /**
+   * The start of the next request, read by the selector thread before this connection is handed to
+   * a thread of the pool. Null unless some of the next request has been read.
+   */
+  private ByteBuffer readAheadBuffer;
+
   protected final CachedRegionHelper crHelper;
   protected String name = null;
 
@@ -1213,7 +1221,13 @@ public abstract class ServerConnection implements Runnable {
       try {
         this.stats.decThreadQueueSize();
         if (!isTerminated()) {
-          getAcceptor().setTLCommBuffer();
+          ByteBuffer bb = takeReadAheadBuffer();
+          if (bb == null) {
+            getAcceptor().setTLCommBuffer();
+          } else {
+            Message.setTLCommBuffer(bb);
+            this.requestMsg.setBufferedInput();
+          }
           doOneMessage();
           if (this.processMessages && !(this.crHelper.isShutdown())) {
             registerWithSelector(); // finished msg so reregister
@@ -1280,6 +1294,106 @@ public abstract class ServerConnection implements Runnable {
     getAcceptor().registerSC(this);
   }
 
+  /**
+   * Returns true if the next request on this connection can be read by the selector thread. Only
+   * requests in the message format of {@link Message} can be, and not the handshake.
+   */
+  protected boolean supportsReadAhead() {
+    return false;
+  }
+
+  /**
+   * Reads what is available of the next request without blocking. The selector thread calls this
+   * when the channel of this connection is readable so that a thread of the pool is only taken
+   * once the whole request has arrived and does not wait for the client while it reads it. A
+   * request that does not fit in a comm buffer is handed over once the buffer is full and the rest
+   * of it is read with blocking reads.
+   *
+   * @return true if this connection should be handed to a thread of the pool
+   * @throws EOFException if the client closed the connection
+   */
+  boolean readAhead() throws IOException {
+    if (!supportsReadAhead()) {
+      return true;
+    }
+    ByteBuffer bb = this.readAheadBuffer;
+    if (bb == null) {
+      bb = getAcceptor().takeCommBuffer();
+      bb.clear();
+      bb.limit(this.requestMsg.getHeaderLength());
+      this.readAheadBuffer = bb;
+    }
+    final int headerLength = this.requestMsg.getHeaderLength();
+    final SocketChannel channel = this.theSocket.getChannel();
+    for (;;) {
+      int bytesRead = channel.read(bb);
+      if (bytesRead == -1) {
+        throw new EOFException(
+            LocalizedStrings.Message_THE_CONNECTION_HAS_BEEN_RESET_WHILE_READING_THE_HEADER
+                .toLocalizedString());
+      }
+      this.stats.incReceivedBytes(bytesRead);
+      if (bb.hasRemaining()) {
+        return false;
+      }
+      if (bb.position() > headerLength) {
+        return true;
+      }
+      // the header is complete so read up to the end of the request but never past it since the
+      // client may already have sent the next one
+      int payloadLength = bb.getInt(4);
+      if (payloadLength <= 0 || bb.capacity() == headerLength) {
+        return true;
+      }
+      bb.limit((int) Math.min((long) headerLength + payloadLength, bb.capacity()));
+    }
+  }
+
+  /**
+   * Returns the comm buffer holding the start of the next request, flipped so that the header
+   * starts at its position, or null if the selector thread has not read any of it.
+   */
+  private ByteBuffer takeReadAheadBuffer() throws IOException {
+    ByteBuffer bb = this.readAheadBuffer;
+    if (bb == null) {
+      return null;
+    }
+    this.readAheadBuffer = null;
+    // a connection whose key looked stuck is handed over without reading the whole header
+    boolean success = false;
+    try {
+      final int headerLength = this.requestMsg.getHeaderLength();
+      while (bb.position() < headerLength) {
+        bb.limit(headerLength);
+        int bytesRead = this.theSocket.getChannel().read(bb);
+        if (bytesRead == -1) {
+          throw new EOFException(
+              LocalizedStrings.Message_THE_CONNECTION_HAS_BEEN_RESET_WHILE_READING_THE_HEADER
+                  .toLocalizedString());
+        }
+        this.stats.incReceivedBytes(bytesRead);
+      }
+      bb.flip();
+      success = true;
+    } finally {
+      if (!success) {
+        getAcceptor().releaseCommBuffer(bb);
+      }
+    }
+    return bb;
+  }
+
+  /**
+   * Gives back the comm buffer of a partly read request once this connection is closed.
+   */
+  void releaseReadAheadBuffer() {
+    ByteBuffer bb = this.readAheadBuffer;
+    if (bb != null) {
+      this.readAheadBuffer = null;
+      getAcceptor().releaseCommBuffer(bb);
+    }
+  }
+
   public SelectableChannel getSelectableChannel() {
     return this.theSocket.getChannel();
   }
@@ -1619,6 +1733,24 @@ public abstract class ServerConnection implements Runnable {
     return this.proxyId;
   }
 
+  /**
+   * Returns the name of the principal of the user the current request is made for, or null if
+   * clients are not authenticated.
+   */
+  public String getRequestPrincipalName() throws IOException {
+    Object requestPrincipal;
+    if (this.securityService.isIntegratedSecurity()) {
+      requestPrincipal = this.securityService.getSubject().getPrincipal();
+    } else {
+      AuthorizeRequest authzRequest = getAuthzRequest();
+      requestPrincipal = authzRequest != null ? authzRequest.getPrincipal() : this.principal;
+    }
+    if (requestPrincipal instanceof Principal) {
+      return ((Principal) requestPrincipal).getName();
+    }
+    return requestPrincipal == null ? null : requestPrincipal.toString();
+  }
+
   /**
    * @return The ClientProxyMembershipID associated with the ServerConnection
    */
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.geode.cache.query.types.CollectionType;
+import org.apache.geode.distributed.internal.DistributionConfig;
+
+/**
+ * The results of a query that a client fetches from a server in batches of a fixed number of
+ * results, instead of receiving them all in one response. The server keeps the cursor in its
+ * {@link CacheClientNotifier} between the batches and removes it once its last result is sent, the
+ * client closes it or it has not been fetched from for the gemfire.Query.CURSOR_IDLE_TIMEOUT system
+ * property, 5 minutes by default.
+ *
+ * A cursor belongs to the client, and the user of the client, that opened it. Only they can fetch
+ * from it or close it.
+ *
+ * @since Geode 1.8
+ */
+public class ServerQueryCursor {
+
+  /** the milliseconds after which a cursor that is not fetched from is removed */
+  public static final long IDLE_TIMEOUT = Long
+      .getLong(DistributionConfig.GEMFIRE_PREFIX + "Query.CURSOR_IDLE_TIMEOUT", 5 * 60 * 1000);
+
+  /** the number of cursors that one client can have open at a time */
+  public static final int MAX_CURSORS_PER_CLIENT =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "Query.MAX_CURSORS_PER_CLIENT", 16);
+
+  /** the number of cursors that all clients of the server can have open at a time */
+  public static final int MAX_CURSORS =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "Query.MAX_CURSORS", 1024);
+
+  private static final AtomicLong nextId = new AtomicLong();
+
+  private final long id;
+
+  private final ClientProxyMembershipID proxyId;
+
+  private final String principal;
+
+  private final String queryString;
+
+  private final Set regionNames;
+
+  private final Iterator results;
+
+  private final CollectionType collectionType;
+
+  private final boolean isStructs;
+
+  private final boolean hasSerializedObjects;
+
+  private final int fetchSize;
+
+  private volatile long lastAccessTime;
+
+  /**
+   * @param proxyId the id of the client that opens the cursor
+   * @param principal the name of the principal of the user that opens the cursor, or null if
+   *        clients are not authenticated
+   */
+  public ServerQueryCursor(ClientProxyMembershipID proxyId, String principal, String queryString,
+      Set regionNames, Iterator results, CollectionType collectionType,
+      boolean hasSerializedObjects, int fetchSize) {
+    // 0 tells the client there are no more batches, so it is never used as an id
+    this.id = nextId.incrementAndGet();
+    this.proxyId = proxyId;
+    this.principal = principal;
+    this.queryString = queryString;
+    this.regionNames = regionNames;
+    this.results = results;
+    this.collectionType = collectionType;
+    this.isStructs = collectionType.getElementType().isStructType();
+    this.hasSerializedObjects = hasSerializedObjects;
+    this.fetchSize = fetchSize;
+    this.lastAccessTime = System.currentTimeMillis();
+  }
+
+  public long getId() {
+    return this.id;
+  }
+
+  public ClientProxyMembershipID getProxyId() {
+    return this.proxyId;
+  }
+
+  /**
+   * Returns whether the cursor was opened by the given client for the user whose principal has the
+   * given name
+   */
+  public boolean isOwnedBy(ClientProxyMembershipID proxyId, String principal) {
+    return this.proxyId.equals(proxyId) && Objects.equals(this.principal, principal);
+  }
+
+  public String getQueryString() {
+    return this.queryString;
+  }
+
+  /**
+   * Returns the names of the regions the query reads, which are authorized again on every fetch
+   */
+  public Set getRegionNames() {
+    return this.regionNames;
+  }
+
+  public CollectionType getCollectionType() {
+    return this.collectionType;
+  }
+
+  public boolean isStructs() {
+    return this.isStructs;
+  }
+
+  public boolean hasSerializedObjects() {
+    return this.hasSerializedObjects;
+  }
+
+  /**
+   * Returns the number of results sent in every batch
+   */
+  public int getFetchSize() {
+    return this.fetchSize;
+  }
+
+  public boolean hasNext() {
+    return this.results.hasNext();
+  }
+
+  public Object next() {
+    return this.results.next();
+  }
+
+  /**
+   * Records that a batch of the cursor was fetched at the given time
+   */
+  public void touch(long now) {
+    this.lastAccessTime = now;
+  }
+
+  /**
+   * Returns whether the cursor has not been fetched from for longer than the given timeout
+   */
+  public boolean isIdle(long now, long timeout) {
+    return now - this.lastAccessTime > timeout;
+  }
+}
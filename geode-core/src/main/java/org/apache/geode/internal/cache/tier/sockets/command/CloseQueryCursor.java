@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets.command;
+
+import java.io.IOException;
+
+import org.apache.geode.internal.cache.tier.Command;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.cache.tier.sockets.BaseCommand;
+import org.apache.geode.internal.cache.tier.sockets.CacheClientNotifier;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+import org.apache.geode.internal.cache.tier.sockets.ServerConnection;
+import org.apache.geode.internal.security.SecurityService;
+
+/**
+ * Removes a query cursor opened by {@link MessageType#QUERY_WITH_CURSOR} before the client
+ * fetched all its results. A request to close a cursor of another client, or of another user, is
+ * ignored like one to close a cursor that does not exist.
+ *
+ * @since Geode 1.8
+ */
+public class CloseQueryCursor extends BaseCommand {
+
+  private static final CloseQueryCursor singleton = new CloseQueryCursor();
+
+  public static Command getCommand() {
+    return singleton;
+  }
+
+  private CloseQueryCursor() {}
+
+  @Override
+  public void cmdExecute(final Message clientMessage, final ServerConnection serverConnection,
+      final SecurityService securityService, long start) throws IOException {
+    serverConnection.setAsTrue(REQUIRES_RESPONSE);
+    long cursorId = clientMessage.getPart(0).getLong();
+
+    CacheClientNotifier ccn = serverConnection.getAcceptor().getCacheClientNotifier();
+    // only the client and user that opened the cursor can close it
+    if (ccn.removeQueryCursor(cursorId, serverConnection.getProxyID(),
+        serverConnection.getRequestPrincipalName()) != null && logger.isDebugEnabled()) {
+      logger.debug("{}: Closed query cursor {} for {}", serverConnection.getName(), cursorId,
+          serverConnection.getSocketString());
+    }
+    writeReply(clientMessage, serverConnection);
+    serverConnection.setAsTrue(RESPONDED);
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets.command;
+
+import java.io.IOException;
+
+import org.apache.geode.cache.query.QueryException;
+import org.apache.geode.internal.cache.tier.Command;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.cache.tier.sockets.BaseCommandQuery;
+import org.apache.geode.internal.cache.tier.sockets.CacheClientNotifier;
+import org.apache.geode.internal.cache.tier.sockets.ChunkedMessage;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+import org.apache.geode.internal.cache.tier.sockets.ServerConnection;
+import org.apache.geode.internal.cache.tier.sockets.ServerQueryCursor;
+import org.apache.geode.internal.security.SecurityService;
+import org.apache.geode.security.ResourcePermission.Operation;
+import org.apache.geode.security.ResourcePermission.Resource;
+
+/**
+ * Sends the next batch of results of a query cursor opened by
+ * {@link MessageType#QUERY_WITH_CURSOR}.
+ *
+ * @since Geode 1.8
+ */
+public class FetchQueryCursor extends BaseCommandQuery {
+
+  private static final FetchQueryCursor singleton = new FetchQueryCursor();
+
+  public static Command getCommand() {
+    return singleton;
+  }
+
+  private FetchQueryCursor() {}
+
+  @Override
+  public void cmdExecute(final Message clientMessage, final ServerConnection serverConnection,
+      final SecurityService securityService, long start) throws IOException, InterruptedException {
+    serverConnection.setAsTrue(REQUIRES_RESPONSE);
+    serverConnection.setAsTrue(REQUIRES_CHUNKED_RESPONSE);
+    long cursorId = clientMessage.getPart(0).getLong();
+
+    CacheClientNotifier ccn = serverConnection.getAcceptor().getCacheClientNotifier();
+    // a cursor opened by another client or user is treated as one that does not exist
+    ServerQueryCursor cursor = ccn.getQueryCursor(cursorId, serverConnection.getProxyID(),
+        serverConnection.getRequestPrincipalName());
+    if (cursor == null) {
+      writeQueryResponseException(clientMessage,
+          new QueryException("Query cursor " + cursorId + " was closed or has expired"),
+          serverConnection);
+      return;
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug("{}: Received fetch request from {} for query cursor {} of query: {}",
+          serverConnection.getName(), serverConnection.getSocketString(), cursorId,
+          cursor.getQueryString());
+    }
+
+    try {
+      for (Object regionName : cursor.getRegionNames()) {
+        securityService.authorize(Resource.DATA, Operation.READ, regionName.toString());
+      }
+    } catch (RuntimeException e) {
+      writeQueryResponseException(clientMessage, e, serverConnection);
+      return;
+    }
+
+    ChunkedMessage queryResponseMsg = serverConnection.getQueryResponseMessage();
+    queryResponseMsg.setMessageType(MessageType.RESPONSE);
+    queryResponseMsg.setTransactionId(clientMessage.getTransactionId());
+    queryResponseMsg.sendHeader();
+    try {
+      sendQueryCursorBatch(cursor, serverConnection, securityService);
+    } catch (RuntimeException e) {
+      writeQueryResponseException(clientMessage, e, serverConnection);
+    }
+  }
+}
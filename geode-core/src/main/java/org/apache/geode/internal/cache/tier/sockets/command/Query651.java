@@ -56,8 +56,19 @@ public class Query651 extends BaseCommandQuery {
     String queryString = clientMessage.getPart(0).getString();
     long compiledQueryId = 0;
     Object[] queryParams = null;
+    int fetchSize = 0;
     try {
-      if (clientMessage.getMessageType() == MessageType.QUERY_WITH_PARAMETERS) {
+      if (clientMessage.getMessageType() == MessageType.QUERY_WITH_CURSOR) {
+        // Query with a cursor supported from Geode 1.8 onwards.
+        fetchSize = clientMessage.getPart(1).getInt();
+        int params = clientMessage.getPart(2).getInt(); // Number of parameters.
+        if (params > 0) {
+          queryParams = new Object[params];
+          for (int i = 0; i < queryParams.length; i++) {
+            queryParams[i] = clientMessage.getPart(i + 3).getObject();
+          }
+        }
+      } else if (clientMessage.getMessageType() == MessageType.QUERY_WITH_PARAMETERS) {
         // Query with parameters supported from 6.6 onwards.
         int params = clientMessage.getPart(1).getInt(); // Number of parameters.
         // In case of native client there will be extra two parameters at 2 and 3 index.
@@ -131,7 +142,7 @@ public class Query651 extends BaseCommandQuery {
       }
 
       processQueryUsingParams(clientMessage, query, queryString, regionNames, start, null,
-          queryContext, serverConnection, true, queryParams, securityService);
+          queryContext, serverConnection, true, queryParams, fetchSize, securityService);
     } catch (QueryInvalidException e) {
       throw new QueryInvalidException(e.getMessage() + queryString);
     }
@@ -28,6 +28,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.Lock;
 
+import org.apache.geode.cache.AsyncRegion;
 import org.apache.geode.cache.AttributesFactory;
 import org.apache.geode.cache.AttributesMutator;
 import org.apache.geode.cache.Cache;
@@ -923,6 +924,11 @@ public class RegionCreation implements Region, Extensible<Region<?, ?>> {
     return this.hasAttributes;
   }
 
+  @Override
+  public AsyncRegion async() {
+    throw new UnsupportedOperationException(LocalizedStrings.SHOULDNT_INVOKE.toLocalizedString());
+  }
+
   public RegionSnapshotService<?, ?> getSnapshotService() {
     throw new UnsupportedOperationException();
   }
@@ -19,6 +19,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.NavigableSet;
 import java.util.concurrent.ConcurrentSkipListSet;
@@ -54,6 +55,28 @@ public class FreeListManager {
       new ConcurrentSkipListSet<OffHeapStoredObject>();
   private final AtomicLong allocatedSize = new AtomicLong(0L);
 
+  private final int threadCacheSize;
+
+  private final int threadCacheFreeListCount;
+
+  /**
+   * The tiny chunk caches of all threads; defragmentation drains them. The caches of threads that
+   * have exited are drained and removed by defragmentation and whenever a thread creates its cache.
+   */
+  private final CopyOnWriteArrayList<TinyChunkCache> threadCaches =
+      new CopyOnWriteArrayList<TinyChunkCache>();
+
+  private final ThreadLocal<TinyChunkCache> threadCache = new ThreadLocal<TinyChunkCache>() {
+    @Override
+    protected TinyChunkCache initialValue() {
+      drainExitedThreadCaches();
+      TinyChunkCache cache = new TinyChunkCache(Thread.currentThread(),
+          threadCacheFreeListCount, threadCacheSize);
+      threadCaches.add(cache);
+      return cache;
+    }
+  };
+
   private int getNearestTinyMultiple(int size) {
     return (size - 1) / TINY_MULTIPLE;
   }
@@ -123,6 +146,11 @@ public class FreeListManager {
         tinyFree += cl.computeTotalSize();
       }
     }
+    for (TinyChunkCache cache : this.threadCaches) {
+      synchronized (cache) {
+        tinyFree += cache.computeTotalSize();
+      }
+    }
     return tinyFree;
   }
 
@@ -142,8 +170,15 @@ public class FreeListManager {
   private final MemoryAllocatorImpl ma;
 
   public FreeListManager(MemoryAllocatorImpl ma, final Slab[] slabs) {
+    this(ma, slabs, TINY_THREAD_CACHE_SIZE, TINY_THREAD_CACHE_FREE_LIST_COUNT);
+  }
+
+  FreeListManager(MemoryAllocatorImpl ma, final Slab[] slabs, int threadCacheSize,
+      int threadCacheFreeListCount) {
     this.ma = ma;
     this.slabs = slabs;
+    this.threadCacheSize = threadCacheSize;
+    this.threadCacheFreeListCount = threadCacheFreeListCount;
     long total = 0;
     Fragment[] tmp = new Fragment[slabs.length];
     for (int i = 0; i < slabs.length; i++) {
@@ -168,10 +203,14 @@ public class FreeListManager {
    * enabled.
    */
   private void fillFragments() {
+    fillFragments(this.fragmentList);
+  }
+
+  private void fillFragments(List<Fragment> fragments) {
     if (!this.validateMemoryWithFill) {
       return;
     }
-    for (Fragment fragment : this.fragmentList) {
+    for (Fragment fragment : fragments) {
       fragment.fill();
     }
   }
@@ -322,6 +361,19 @@ public class FreeListManager {
     verifyHugeMultiple(HUGE_MULTIPLE);
   }
   public static final int MAX_TINY = TINY_MULTIPLE * TINY_FREE_LIST_COUNT;
+  /**
+   * Number of free chunks of each tiny size that each thread keeps for itself in front of the
+   * shared tiny free lists. Chunks move between a thread and the shared lists in batches of half
+   * this size. Zero, the default, disables the thread caches.
+   */
+  public static final int TINY_THREAD_CACHE_SIZE =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_THREAD_CACHE_SIZE", 0);
+  /**
+   * Number of tiny free lists, starting with the smallest size, that are cached by each thread.
+   */
+  public static final int TINY_THREAD_CACHE_FREE_LIST_COUNT = Math.min(TINY_FREE_LIST_COUNT,
+      Integer.getInteger(
+          DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_THREAD_CACHE_FREE_LIST_COUNT", 128));
 
   /**
    * Return true if the two chunks have been combined into one. If low and high are adjacent to each
@@ -385,6 +437,51 @@ public class FreeListManager {
     }
   }
 
+  /**
+   * Defragments memory from a background thread, spending about timeBudgetNanos on it. Free chunks
+   * that could not be combined within the budget are left where they are for the next run.
+   * Allocations that are waiting to defragment memory themselves retry instead once this is done.
+   *
+   * @return true if all the free chunks were combined within the budget
+   */
+  boolean defragmentIncrementally(long timeBudgetNanos) {
+    final OffHeapMemoryStats stats = this.ma.getStats();
+    final long startDefragmentationTime = stats.startDefragmentation();
+    try {
+      synchronized (this) {
+        boolean result = doDefragment(0, timeBudgetNanos);
+
+        // Signal any waiters that a defragmentation happened.
+        this.defragmentationCount.incrementAndGet();
+
+        stats.incBackgroundDefragmentations();
+        if (!result) {
+          stats.incUnfinishedDefragmentations();
+        }
+        return result;
+      } // sync
+    } finally {
+      stats.endDefragmentation(startDefragmentationTime);
+    }
+  }
+
+  /**
+   * Returns true if any freed chunks are waiting on the free lists to be combined by a
+   * defragmentation.
+   */
+  boolean hasFreeListChunks() {
+    if (!this.hugeChunkSet.isEmpty()) {
+      return true;
+    }
+    for (int i = 0; i < this.tinyFreeLists.length(); i++) {
+      OffHeapStoredObjectAddressStack cl = this.tinyFreeLists.get(i);
+      if (cl != null && !cl.isEmpty()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Simple interface the represents a "stack" of primitive longs. Currently this interface only
    * allows supports poll but more could be added if needed in the future. This interface was
@@ -452,11 +549,85 @@ public class FreeListManager {
    * for a concurrent defragment. It should only be called by defragment and unit tests.
    */
   boolean doDefragment(int chunkSize) {
-    boolean result = false;
+    drainThreadCaches();
     ArrayList<LongStack> freeChunks = new ArrayList<LongStack>();
     collectFreeChunks(freeChunks);
     ResizableLongArray sorted = new ResizableLongArray();
-    for (LongStack l : freeChunks) {
+    sortFreeChunks(freeChunks, sorted, 0);
+    return createFragments(sorted, chunkSize);
+  }
+
+  /**
+   * Like {@link #doDefragment(int)} but stops combining free chunks once timeBudgetNanos have
+   * passed. The fragments, huge chunks and tiny free lists are polled one chunk at a time, so the
+   * chunks a run does not get to stay where allocations can find them. The chunks combined so far
+   * are turned into fragments whether or not the run finished.
+   *
+   * @return true if all the free chunks were combined within the budget
+   */
+  boolean doDefragment(int chunkSize, long timeBudgetNanos) {
+    drainThreadCaches();
+    ArrayList<LongStack> freeChunks = new ArrayList<LongStack>();
+    FragmentChunks fragmentChunks = new FragmentChunks();
+    freeChunks.add(fragmentChunks);
+    freeChunks.add(() -> {
+      OffHeapStoredObject c = this.hugeChunkSet.pollFirst();
+      return c == null ? 0L : c.getAddress();
+    });
+    for (int i = 0; i < this.tinyFreeLists.length(); i++) {
+      OffHeapStoredObjectAddressStack cl = this.tinyFreeLists.get(i);
+      if (cl != null) {
+        freeChunks.add(cl::poll);
+      }
+    }
+    ResizableLongArray sorted = new ResizableLongArray();
+    boolean finished = sortFreeChunks(freeChunks, sorted, timeBudgetNanos);
+    // before the new fragments are added since a new one can have the address of an old one
+    this.fragmentList.removeAll(fragmentChunks.getPolledFragments());
+    createFragments(sorted, chunkSize);
+    return finished;
+  }
+
+  /**
+   * Takes the free space of the fragments in the fragment list, one fragment at a time, leaving
+   * the fragments in the list. Once a fragment has been polled all of it is allocated, so it only
+   * has to be removed from the list before its space is turned into new fragments.
+   */
+  private class FragmentChunks implements LongStack {
+    private final Iterator<Fragment> fragments = fragmentList.iterator();
+    private final List<Fragment> polledFragments = new ArrayList<Fragment>();
+
+    @Override
+    public long poll() {
+      while (this.fragments.hasNext()) {
+        Fragment f = this.fragments.next();
+        this.polledFragments.add(f);
+        long chunkAddr = takeFreeSpace(f);
+        if (chunkAddr != 0L) {
+          return chunkAddr;
+        }
+      }
+      return 0L;
+    }
+
+    List<Fragment> getPolledFragments() {
+      return this.polledFragments;
+    }
+  }
+
+  /**
+   * Sorts the given free chunks by address into sorted, combining the adjacent ones. If
+   * timeBudgetNanos is not zero and runs out then the chunks not yet polled are left in their
+   * stacks.
+   *
+   * @return true if all the free chunks were polled
+   */
+  private boolean sortFreeChunks(List<LongStack> freeChunks, ResizableLongArray sorted,
+      long timeBudgetNanos) {
+    final long startNanos = System.nanoTime();
+    int polled = 0;
+    for (int stackIdx = 0; stackIdx < freeChunks.size(); stackIdx++) {
+      LongStack l = freeChunks.get(stackIdx);
       long addr = l.poll();
       while (addr != 0) {
         int idx = sorted.binarySearch(addr);
@@ -482,9 +653,24 @@ public class FreeListManager {
             }
           }
         }
+        if (timeBudgetNanos != 0 && (++polled % 256) == 0
+            && System.nanoTime() - startNanos > timeBudgetNanos) {
+          return false;
+        }
         addr = l.poll();
       }
     }
+    return true;
+  }
+
+  /**
+   * Turns the given sorted free chunks into fragments, combining those that became adjacent, and
+   * adds them to the fragment list.
+   *
+   * @return true if one of the fragments is at least chunkSize
+   */
+  private boolean createFragments(ResizableLongArray sorted, int chunkSize) {
+    boolean result = false;
     for (int i = sorted.size() - 1; i > 0; i--) {
       if (combineIfAdjacentAndSmallEnough(sorted.get(i - 1), sorted.get(i))) {
         sorted.set(i, 0L);
@@ -511,10 +697,10 @@ public class FreeListManager {
         tmp.add(f);
       }
     }
+    // fill the new fragments before other threads can allocate from them
+    fillFragments(tmp);
     this.fragmentList.addAll(tmp);
 
-    fillFragments();
-
     this.ma.getStats().setLargestFragment(largestFragment);
     this.ma.getStats().setFragments(tmp.size());
     this.ma.getStats().setFragmentation(getFragmentation());
@@ -596,23 +782,10 @@ public class FreeListManager {
       return;
     OffHeapStoredObjectAddressStack result = new OffHeapStoredObjectAddressStack();
     for (Fragment f : this.fragmentList) {
-      int offset;
-      int diff;
-      do {
-        offset = f.getFreeIndex();
-        diff = f.getSize() - offset;
-      } while (diff >= OffHeapStoredObject.MIN_CHUNK_SIZE && !f.allocate(offset, offset + diff));
-      if (diff < OffHeapStoredObject.MIN_CHUNK_SIZE) {
-        // If diff > 0 then that memory will be lost during defragmentation.
-        // This should never happen since we keep the sizes rounded
-        // based on MIN_CHUNK_SIZE.
-        assert diff == 0;
-        // The current fragment is completely allocated so just skip it.
-        continue;
+      long chunkAddr = takeFreeSpace(f);
+      if (chunkAddr != 0L) {
+        result.offer(chunkAddr);
       }
-      long chunkAddr = f.getAddress() + offset;
-      OffHeapStoredObject.setSize(chunkAddr, diff);
-      result.offer(chunkAddr);
     }
     // All the fragments have been turned in to chunks so now clear them
     // The defragmentation will create new fragments.
@@ -622,6 +795,30 @@ public class FreeListManager {
     }
   }
 
+  /**
+   * Allocates all the free space left in the given fragment and returns it as a chunk, or returns
+   * 0 if the fragment is completely allocated.
+   */
+  private long takeFreeSpace(Fragment f) {
+    int offset;
+    int diff;
+    do {
+      offset = f.getFreeIndex();
+      diff = f.getSize() - offset;
+    } while (diff >= OffHeapStoredObject.MIN_CHUNK_SIZE && !f.allocate(offset, offset + diff));
+    if (diff < OffHeapStoredObject.MIN_CHUNK_SIZE) {
+      // If diff > 0 then that memory will be lost during defragmentation.
+      // This should never happen since we keep the sizes rounded
+      // based on MIN_CHUNK_SIZE.
+      assert diff == 0;
+      // The current fragment is completely allocated so just skip it.
+      return 0L;
+    }
+    long chunkAddr = f.getAddress() + offset;
+    OffHeapStoredObject.setSize(chunkAddr, diff);
+    return chunkAddr;
+  }
+
   private void collectFreeTinyChunks(List<LongStack> l) {
     for (int i = 0; i < this.tinyFreeLists.length(); i++) {
       OffHeapStoredObjectAddressStack cl = this.tinyFreeLists.get(i);
@@ -699,8 +896,107 @@ public class FreeListManager {
   }
 
   private OffHeapStoredObject allocateTiny(int size, boolean useFragments) {
-    return basicAllocate(getNearestTinyMultiple(size), TINY_MULTIPLE, 0, this.tinyFreeLists,
-        useFragments);
+    int idx = getNearestTinyMultiple(size);
+    if (isThreadCached(idx)) {
+      long memAddr = pollThreadCache(idx);
+      if (memAddr != 0L) {
+        OffHeapStoredObject result = new OffHeapStoredObject(memAddr);
+        checkDataIntegrity(result);
+        result.readyForAllocation();
+        return result;
+      }
+    }
+    return basicAllocate(idx, TINY_MULTIPLE, 0, this.tinyFreeLists, useFragments);
+  }
+
+  private boolean isThreadCached(int idx) {
+    return this.threadCacheSize > 0 && idx < this.threadCacheFreeListCount;
+  }
+
+  private int getThreadCacheBatchSize() {
+    return Math.max(1, this.threadCacheSize / 2);
+  }
+
+  /**
+   * Returns the address of a free chunk from the calling thread's cache, refilling it with a batch
+   * from the shared free list if it is empty, or zero if neither had one.
+   */
+  private long pollThreadCache(int idx) {
+    TinyChunkCache cache = this.threadCache.get();
+    synchronized (cache) {
+      long result = cache.poll(idx);
+      if (result == 0L) {
+        OffHeapStoredObjectAddressStack clq = this.tinyFreeLists.get(idx);
+        if (clq != null && !clq.isEmpty()
+            && cache.refill(idx, clq, getThreadCacheBatchSize()) > 0) {
+          publishThreadCacheStats(cache);
+          result = cache.poll(idx);
+        }
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Adds a freed chunk to the calling thread's cache, moving a batch of its chunks to the shared
+   * free list if it is full.
+   */
+  private void offerThreadCache(long addr, int idx) {
+    TinyChunkCache cache = this.threadCache.get();
+    synchronized (cache) {
+      if (!cache.offer(idx, addr)) {
+        cache.spill(idx, getOrCreateTinyFreeList(idx), getThreadCacheBatchSize());
+        publishThreadCacheStats(cache);
+        cache.offer(idx, addr);
+      }
+    }
+  }
+
+  private void publishThreadCacheStats(TinyChunkCache cache) {
+    OffHeapMemoryStats stats = this.ma.getStats();
+    stats.incThreadCacheAllocations(cache.takeUnpublishedAllocations());
+    stats.incFreeListTransfers(1);
+  }
+
+  /**
+   * Moves the chunks cached by every thread to the shared free lists. Caches of threads that have
+   * exited are forgotten.
+   */
+  void drainThreadCaches() {
+    for (TinyChunkCache cache : this.threadCaches) {
+      drainThreadCache(cache);
+      if (!cache.isOwnerAlive()) {
+        this.threadCaches.remove(cache);
+      }
+    }
+  }
+
+  /**
+   * Moves the chunks cached by threads that have exited to the shared free lists and forgets their
+   * caches. Nothing else would ever take those chunks until the next defragmentation.
+   */
+  void drainExitedThreadCaches() {
+    for (TinyChunkCache cache : this.threadCaches) {
+      if (!cache.isOwnerAlive()) {
+        drainThreadCache(cache);
+        this.threadCaches.remove(cache);
+      }
+    }
+  }
+
+  private void drainThreadCache(TinyChunkCache cache) {
+    synchronized (cache) {
+      for (int idx = 0; idx < cache.getFreeListCount(); idx++) {
+        if (cache.size(idx) > 0) {
+          cache.spill(idx, getOrCreateTinyFreeList(idx), cache.size(idx));
+        }
+      }
+      this.ma.getStats().incThreadCacheAllocations(cache.takeUnpublishedAllocations());
+    }
+  }
+
+  int getThreadCacheCount() {
+    return this.threadCaches.size();
   }
 
   private OffHeapStoredObject basicAllocate(int idx, int multiple, int offset,
@@ -797,7 +1093,12 @@ public class FreeListManager {
   }
 
   private void freeTiny(long addr, int cSize) {
-    basicFree(addr, getNearestTinyMultiple(cSize), this.tinyFreeLists);
+    int idx = getNearestTinyMultiple(cSize);
+    if (isThreadCached(idx)) {
+      offerThreadCache(addr, idx);
+    } else {
+      basicFree(addr, idx, this.tinyFreeLists);
+    }
   }
 
   private void basicFree(long addr, int idx,
@@ -815,6 +1116,17 @@ public class FreeListManager {
     }
   }
 
+  private OffHeapStoredObjectAddressStack getOrCreateTinyFreeList(int idx) {
+    OffHeapStoredObjectAddressStack clq = this.tinyFreeLists.get(idx);
+    if (clq == null) {
+      clq = createFreeListForEmptySlot(this.tinyFreeLists, idx);
+      if (!this.tinyFreeLists.compareAndSet(idx, null, clq)) {
+        clq = this.tinyFreeLists.get(idx);
+      }
+    }
+    return clq;
+  }
+
   /**
    * Tests override this method to simulate concurrent modification
    */
@@ -872,6 +1184,15 @@ public class FreeListManager {
         addr = OffHeapStoredObject.getNext(addr);
       }
     }
+    for (TinyChunkCache cache : this.threadCaches) {
+      synchronized (cache) {
+        for (int i = 0; i < cache.getFreeListCount(); i++) {
+          for (int j = 0; j < cache.size(i); j++) {
+            value.add(new MemoryBlockNode(sma, new TinyMemoryBlock(cache.get(i, j), i)));
+          }
+        }
+      }
+    }
     return value;
   }
 
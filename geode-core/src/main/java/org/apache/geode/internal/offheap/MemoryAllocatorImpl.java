@@ -35,6 +35,7 @@ import org.apache.geode.internal.cache.InternalRegion;
 import org.apache.geode.internal.cache.PartitionedRegion;
 import org.apache.geode.internal.cache.PartitionedRegionDataStore;
 import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.internal.cache.entries.OffHeapKeyRegionEntry;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.offheap.annotations.OffHeapIdentifier;
 import org.apache.geode.internal.offheap.annotations.Unretained;
@@ -68,6 +69,8 @@ public class MemoryAllocatorImpl implements MemoryAllocator {
 
   private MemoryInspector memoryInspector;
 
+  private final OffHeapDefragmenter defragmenter;
+
   private volatile MemoryUsageListener[] memoryUsageListeners = new MemoryUsageListener[0];
 
   private static MemoryAllocatorImpl singleton = null;
@@ -221,6 +224,15 @@ public class MemoryAllocatorImpl implements MemoryAllocator {
 
     this.stats.incMaxMemory(this.freeList.getTotalMemory());
     this.stats.incFreeMemory(this.freeList.getTotalMemory());
+
+    if (OffHeapDefragmenter.THRESHOLD_PERCENTAGE > 0) {
+      this.defragmenter = new OffHeapDefragmenter(this.freeList,
+          OffHeapDefragmenter.THRESHOLD_PERCENTAGE, OffHeapDefragmenter.TIME_BUDGET_MS,
+          OffHeapDefragmenter.INTERVAL_MS);
+      this.defragmenter.start();
+    } else {
+      this.defragmenter = null;
+    }
   }
 
   public List<OffHeapStoredObject> getLostChunks(InternalCache cache) {
@@ -287,6 +299,12 @@ public class MemoryAllocatorImpl implements MemoryAllocator {
         if (value instanceof OffHeapStoredObject) {
           result.add((OffHeapStoredObject) value);
         }
+        if (re instanceof OffHeapKeyRegionEntry) {
+          long keyAddress = ((OffHeapKeyRegionEntry) re).getKeyAddress();
+          if (keyAddress != 0L) {
+            result.add(new OffHeapStoredObject(keyAddress));
+          }
+        }
       }
     }
   }
@@ -385,6 +403,9 @@ public class MemoryAllocatorImpl implements MemoryAllocator {
   private void realClose() {
     // Removing this memory immediately can lead to a SEGV. See 47885.
     if (setClosed()) {
+      if (this.defragmenter != null) {
+        this.defragmenter.stop();
+      }
       this.freeList.freeSlabs();
       this.stats.close();
       singleton = null;
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * Defragments off-heap memory on a background thread once the used memory crosses a threshold so
+ * that allocations rarely have to defragment memory themselves. Each run combines free chunks for
+ * at most a time budget and holds the free list lock only for that long. The chunks it combined
+ * become fragments right away and the chunks it did not get to stay on the free lists, where
+ * allocations can use them, until the next run. The pause after a run that ran out of time starts
+ * at the time budget and doubles with every further such run, up to the interval, so a large
+ * backlog does not keep a CPU busy. An allocation that still finds no free memory defragments all
+ * of it inline as before.
+ *
+ * @since Geode 1.8
+ */
+class OffHeapDefragmenter implements Runnable {
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * Percentage of the off-heap memory that must be used before the background defragmenter runs.
+   * Zero, the default, disables the background defragmenter.
+   */
+  static final int THRESHOLD_PERCENTAGE =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_DEFRAGMENT_THRESHOLD", 0);
+
+  /**
+   * Milliseconds a background defragmentation may spend combining free chunks.
+   */
+  static final long TIME_BUDGET_MS =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_DEFRAGMENT_TIME_BUDGET_MS", 10);
+
+  /**
+   * Milliseconds between the background defragmenter's checks of the used memory.
+   */
+  static final long INTERVAL_MS =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_DEFRAGMENT_INTERVAL_MS", 1000);
+
+  private final FreeListManager freeList;
+
+  private final int thresholdPercentage;
+
+  private final long timeBudgetNanos;
+
+  private final long timeBudgetMillis;
+
+  private final long intervalMillis;
+
+  private volatile boolean stopped;
+
+  private Thread thread;
+
+  OffHeapDefragmenter(FreeListManager freeList, int thresholdPercentage, long timeBudgetMillis,
+      long intervalMillis) {
+    if (thresholdPercentage <= 0 || thresholdPercentage > 100) {
+      throw new IllegalArgumentException(
+          "thresholdPercentage must be between 1 and 100: " + thresholdPercentage);
+    }
+    this.freeList = freeList;
+    this.thresholdPercentage = thresholdPercentage;
+    this.timeBudgetMillis = Math.max(1, timeBudgetMillis);
+    this.timeBudgetNanos = TimeUnit.MILLISECONDS.toNanos(this.timeBudgetMillis);
+    this.intervalMillis = Math.max(1, intervalMillis);
+  }
+
+  synchronized void start() {
+    if (this.thread == null) {
+      this.thread = new Thread(this, "OffHeapDefragmenter");
+      this.thread.setDaemon(true);
+      this.thread.start();
+    }
+  }
+
+  void stop() {
+    this.stopped = true;
+    Thread t;
+    synchronized (this) {
+      t = this.thread;
+    }
+    if (t != null) {
+      t.interrupt();
+      try {
+        t.join(this.intervalMillis + TimeUnit.NANOSECONDS.toMillis(this.timeBudgetNanos));
+      } catch (InterruptedException ignore) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  @Override
+  public void run() {
+    long pauseMillis = 0;
+    while (!this.stopped) {
+      try {
+        if (defragmentIfNeeded()) {
+          // continue soon so a large backlog is not left for allocations, but not right away
+          pauseMillis = getPauseAfterUnfinishedRun(pauseMillis);
+        } else {
+          pauseMillis = 0;
+        }
+        Thread.sleep(pauseMillis == 0 ? this.intervalMillis : pauseMillis);
+      } catch (InterruptedException ignore) {
+        break;
+      } catch (RuntimeException ex) {
+        if (this.stopped) {
+          break;
+        }
+        logger.warn("Background off-heap defragmentation failed", ex);
+      }
+    }
+  }
+
+  /**
+   * Defragments memory if enough of it is used and there are free chunks to combine.
+   *
+   * @return true if a defragmentation ran out of time and should be continued right away
+   */
+  boolean defragmentIfNeeded() {
+    if (!isAboveThreshold() || !this.freeList.hasFreeListChunks()) {
+      return false;
+    }
+    return !this.freeList.defragmentIncrementally(this.timeBudgetNanos);
+  }
+
+  /**
+   * Returns the milliseconds to pause after a run that ran out of time, given the pause after the
+   * previous run, 0 if that one finished.
+   */
+  long getPauseAfterUnfinishedRun(long previousPauseMillis) {
+    if (previousPauseMillis == 0) {
+      return Math.min(this.timeBudgetMillis, this.intervalMillis);
+    }
+    return Math.min(previousPauseMillis * 2, this.intervalMillis);
+  }
+
+  boolean isAboveThreshold() {
+    long total = this.freeList.getTotalMemory();
+    return total > 0 && this.freeList.getUsedMemory() * 100 >= total * this.thresholdPercentage;
+  }
+}
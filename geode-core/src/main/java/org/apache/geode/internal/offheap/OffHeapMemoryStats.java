@@ -43,6 +43,14 @@ public interface OffHeapMemoryStats {
 
   void setFragmentation(int value);
 
+  void incBackgroundDefragmentations();
+
+  void incUnfinishedDefragmentations();
+
+  void incThreadCacheAllocations(long value);
+
+  void incFreeListTransfers(long value);
+
   long getFreeMemory();
 
   long getMaxMemory();
@@ -65,6 +73,14 @@ public interface OffHeapMemoryStats {
 
   long getDefragmentationTime();
 
+  int getBackgroundDefragmentations();
+
+  int getUnfinishedDefragmentations();
+
+  long getThreadCacheAllocations();
+
+  long getFreeListTransfers();
+
   Statistics getStats();
 
   void close();
@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.entries.OffHeapKeyRegionEntry;
+import org.apache.geode.internal.offheap.annotations.Released;
+import org.apache.geode.internal.offheap.annotations.Retained;
+
+/**
+ * The class just has static methods that operate on instances of {@link OffHeapKeyRegionEntry}.
+ * String keys that are too long to be inlined in the entry are copied into an off-heap chunk so
+ * that a region with many entries does not need a key object per entry on the heap. The chunk
+ * starts with an encoding byte followed by the key's characters, one byte each if they all fit in
+ * seven bits and two bytes each otherwise.
+ * <p>
+ * Readers retain the chunk and then check that the entry still refers to it, the same way values
+ * are read by {@link OffHeapRegionEntryHelper#_getValueRetain}. A key is released once its entry
+ * has been removed from the region map, or when the entry loses the race to be put in the map.
+ * Nothing looks such an entry up by its key, so its key then reads as null.
+ *
+ * @since Geode 1.8
+ */
+public class OffHeapRegionKeyHelper {
+
+  /**
+   * If true then off-heap regions store String keys that can not be inlined in off-heap memory.
+   */
+  public static final boolean OFF_HEAP_REGION_KEYS =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_REGION_KEYS");
+
+  private static final byte CHAR_ENCODING = 0;
+  private static final byte BYTE_ENCODING = 1;
+
+  private OffHeapRegionKeyHelper() {
+    // no instances
+  }
+
+  /**
+   * Copies the given key into a newly allocated off-heap chunk.
+   *
+   * @return the address of the chunk; it has a reference count of one
+   */
+  @Retained
+  public static long allocateStringKey(String key) {
+    boolean byteEncode = isByteEncodingOk(key);
+    int dataSize = 1 + (byteEncode ? key.length() : key.length() * 2);
+    StoredObject chunk = MemoryAllocatorImpl.getAllocator().allocate(dataSize);
+    long dataAddr = chunk.getAddress() + OffHeapStoredObject.HEADER_SIZE;
+    if (byteEncode) {
+      AddressableMemoryManager.writeByte(dataAddr, BYTE_ENCODING);
+      for (int i = 0; i < key.length(); i++) {
+        AddressableMemoryManager.writeByte(dataAddr + 1 + i, (byte) key.charAt(i));
+      }
+    } else {
+      AddressableMemoryManager.writeByte(dataAddr, CHAR_ENCODING);
+      for (int i = 0; i < key.length(); i++) {
+        char c = key.charAt(i);
+        AddressableMemoryManager.writeByte(dataAddr + 1 + i * 2, (byte) (c >> 8));
+        AddressableMemoryManager.writeByte(dataAddr + 2 + i * 2, (byte) c);
+      }
+    }
+    return chunk.getAddress();
+  }
+
+  /**
+   * Returns the entry's key, or null if its off-heap key has been released.
+   */
+  public static String getStringKey(OffHeapKeyRegionEntry re) {
+    long addr = re.getKeyAddress();
+    if (addr != 0L && OffHeapStoredObject.retain(addr)) {
+      try {
+        if (re.getKeyAddress() == addr) {
+          return readStringKey(addr);
+        }
+      } finally {
+        OffHeapStoredObject.release(addr);
+      }
+    }
+    return null;
+  }
+
+  public static boolean isStringKeyEqual(OffHeapKeyRegionEntry re, String key) {
+    long addr = re.getKeyAddress();
+    if (addr != 0L && OffHeapStoredObject.retain(addr)) {
+      try {
+        if (re.getKeyAddress() == addr) {
+          return isStringKeyEqual(addr, key);
+        }
+      } finally {
+        OffHeapStoredObject.release(addr);
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Releases the entry's off-heap key. Does nothing if the key was already released.
+   */
+  @Released
+  public static void releaseKey(OffHeapKeyRegionEntry re) {
+    long addr = re.getKeyAddress();
+    if (addr != 0L && re.setKeyAddress(addr, 0L)) {
+      OffHeapStoredObject.release(addr);
+    }
+  }
+
+  /**
+   * Copies the given key back into off-heap memory for an entry whose key was released after it
+   * lost a put race, so that the entry can be put again. Does nothing if the entry still has its
+   * key.
+   */
+  public static void restoreKey(OffHeapKeyRegionEntry re, String key) {
+    if (re.getKeyAddress() != 0L) {
+      return;
+    }
+    @Retained
+    long addr = allocateStringKey(key);
+    if (!re.setKeyAddress(0L, addr)) {
+      OffHeapStoredObject.release(addr);
+    }
+  }
+
+  static String readStringKey(long addr) {
+    long dataAddr = addr + OffHeapStoredObject.HEADER_SIZE;
+    int dataSize = OffHeapStoredObject.getDataSize(addr);
+    char[] chars;
+    if (AddressableMemoryManager.readByte(dataAddr) == BYTE_ENCODING) {
+      chars = new char[dataSize - 1];
+      for (int i = 0; i < chars.length; i++) {
+        chars[i] = (char) AddressableMemoryManager.readByte(dataAddr + 1 + i);
+      }
+    } else {
+      chars = new char[(dataSize - 1) / 2];
+      for (int i = 0; i < chars.length; i++) {
+        chars[i] = readChar(dataAddr + 1 + i * 2);
+      }
+    }
+    return new String(chars);
+  }
+
+  static boolean isStringKeyEqual(long addr, String key) {
+    long dataAddr = addr + OffHeapStoredObject.HEADER_SIZE;
+    int dataSize = OffHeapStoredObject.getDataSize(addr);
+    if (AddressableMemoryManager.readByte(dataAddr) == BYTE_ENCODING) {
+      if (key.length() != dataSize - 1) {
+        return false;
+      }
+      for (int i = 0; i < key.length(); i++) {
+        if (key.charAt(i) != (char) AddressableMemoryManager.readByte(dataAddr + 1 + i)) {
+          return false;
+        }
+      }
+    } else {
+      if (key.length() != (dataSize - 1) / 2) {
+        return false;
+      }
+      for (int i = 0; i < key.length(); i++) {
+        if (key.charAt(i) != readChar(dataAddr + 1 + i * 2)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static char readChar(long addr) {
+    return (char) (((AddressableMemoryManager.readByte(addr) & 0xff) << 8)
+        | (AddressableMemoryManager.readByte(addr + 1) & 0xff));
+  }
+
+  private static boolean isByteEncodingOk(String key) {
+    for (int i = 0; i < key.length(); i++) {
+      if (key.charAt(i) > 0x7f) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
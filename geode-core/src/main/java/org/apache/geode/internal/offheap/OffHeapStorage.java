@@ -60,6 +60,10 @@ public class OffHeapStorage implements OffHeapMemoryStats {
   private static final int defragmentationTimeId;
   private static final int fragmentationId;
   private static final int defragmentationsInProgressId;
+  private static final int threadCacheAllocationsId;
+  private static final int freeListTransfersId;
+  private static final int backgroundDefragmentationsId;
+  private static final int unfinishedDefragmentationsId;
   // NOTE!!!! When adding new stats make sure and update the initialize method on this class
 
   // creates and registers the statistics type
@@ -84,6 +88,14 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     final String objectsDesc = "The number of objects stored in off-heap memory.";
     final String readsDesc =
         "The total number of reads of off-heap memory. Only reads of a full object increment this statistic. If only a part of the object is read this statistic is not incremented.";
+    final String threadCacheAllocationsDesc =
+        "The total number of off-heap allocations served from a thread's own cache of free chunks without touching the shared free lists.";
+    final String freeListTransfersDesc =
+        "The total number of batches of free chunks moved between thread caches and the shared free lists.";
+    final String backgroundDefragmentationsDesc =
+        "The total number of times off-heap memory has been defragmented by the background defragmenter.";
+    final String unfinishedDefragmentationsDesc =
+        "The total number of background defragmentations that ran out of time before combining all the free off-heap memory.";
     final String maxMemoryDesc =
         "The maximum amount of off-heap memory, in bytes. This is the amount of memory allocated at startup and does not change.";
 
@@ -98,6 +110,10 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     final String objects = "objects";
     final String reads = "reads";
     final String maxMemory = "maxMemory";
+    final String threadCacheAllocations = "threadCacheAllocations";
+    final String freeListTransfers = "freeListTransfers";
+    final String backgroundDefragmentations = "backgroundDefragmentations";
+    final String unfinishedDefragmentations = "unfinishedDefragmentations";
 
     statsType = f.createType(statsTypeName, statsTypeDescription,
         new StatisticDescriptor[] {f.createLongGauge(usedMemory, usedMemoryDesc, "bytes"),
@@ -111,7 +127,14 @@ public class OffHeapStorage implements OffHeapMemoryStats {
             f.createIntGauge(largestFragment, largestFragmentDesc, "bytes"),
             f.createIntGauge(objects, objectsDesc, "objects"),
             f.createLongCounter(reads, readsDesc, "operations"),
-            f.createLongGauge(maxMemory, maxMemoryDesc, "bytes"),});
+            f.createLongGauge(maxMemory, maxMemoryDesc, "bytes"),
+            f.createLongCounter(threadCacheAllocations, threadCacheAllocationsDesc,
+                "operations"),
+            f.createLongCounter(freeListTransfers, freeListTransfersDesc, "operations"),
+            f.createIntCounter(backgroundDefragmentations, backgroundDefragmentationsDesc,
+                "operations"),
+            f.createIntCounter(unfinishedDefragmentations, unfinishedDefragmentationsDesc,
+                "operations"),});
 
     usedMemoryId = statsType.nameToId(usedMemory);
     defragmentationId = statsType.nameToId(defragmentations);
@@ -124,6 +147,10 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     objectsId = statsType.nameToId(objects);
     readsId = statsType.nameToId(reads);
     maxMemoryId = statsType.nameToId(maxMemory);
+    threadCacheAllocationsId = statsType.nameToId(threadCacheAllocations);
+    freeListTransfersId = statsType.nameToId(freeListTransfers);
+    backgroundDefragmentationsId = statsType.nameToId(backgroundDefragmentations);
+    unfinishedDefragmentationsId = statsType.nameToId(unfinishedDefragmentations);
   }
 
   public static long parseOffHeapMemorySize(String value) {
@@ -364,6 +391,46 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     return stats.getLong(defragmentationTimeId);
   }
 
+  @Override
+  public void incThreadCacheAllocations(long value) {
+    this.stats.incLong(threadCacheAllocationsId, value);
+  }
+
+  @Override
+  public long getThreadCacheAllocations() {
+    return this.stats.getLong(threadCacheAllocationsId);
+  }
+
+  @Override
+  public void incFreeListTransfers(long value) {
+    this.stats.incLong(freeListTransfersId, value);
+  }
+
+  @Override
+  public long getFreeListTransfers() {
+    return this.stats.getLong(freeListTransfersId);
+  }
+
+  @Override
+  public void incBackgroundDefragmentations() {
+    this.stats.incInt(backgroundDefragmentationsId, 1);
+  }
+
+  @Override
+  public int getBackgroundDefragmentations() {
+    return this.stats.getInt(backgroundDefragmentationsId);
+  }
+
+  @Override
+  public void incUnfinishedDefragmentations() {
+    this.stats.incInt(unfinishedDefragmentationsId, 1);
+  }
+
+  @Override
+  public int getUnfinishedDefragmentations() {
+    return this.stats.getInt(unfinishedDefragmentationsId);
+  }
+
   @Override
   public void setFragmentation(int value) {
     this.stats.setInt(fragmentationId, value);
@@ -396,10 +463,30 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     setLargestFragment(oldStats.getLargestFragment());
     setDefragmentationTime(oldStats.getDefragmentationTime());
     setFragmentation(oldStats.getFragmentation());
+    setThreadCacheAllocations(oldStats.getThreadCacheAllocations());
+    setFreeListTransfers(oldStats.getFreeListTransfers());
+    setBackgroundDefragmentations(oldStats.getBackgroundDefragmentations());
+    setUnfinishedDefragmentations(oldStats.getUnfinishedDefragmentations());
 
     oldStats.close();
   }
 
+  private void setThreadCacheAllocations(long value) {
+    this.stats.setLong(threadCacheAllocationsId, value);
+  }
+
+  private void setFreeListTransfers(long value) {
+    this.stats.setLong(freeListTransfersId, value);
+  }
+
+  private void setBackgroundDefragmentations(int value) {
+    this.stats.setInt(backgroundDefragmentationsId, value);
+  }
+
+  private void setUnfinishedDefragmentations(int value) {
+    this.stats.setInt(unfinishedDefragmentationsId, value);
+  }
+
   private void setDefragmentationTime(long value) {
     stats.setLong(defragmentationTimeId, value);
   }
@@ -50,6 +50,40 @@ public class OffHeapStoredObjectAddressStack implements LongStack {
     }
   }
 
+  /**
+   * Pushes count addresses from src, starting at offset, while holding the lock once. The last
+   * address pushed ends up on top.
+   */
+  public void offer(long[] src, int offset, int count) {
+    for (int i = offset; i < offset + count; i++) {
+      assert src[i] != 0;
+      MemoryAllocatorImpl.validateAddress(src[i]);
+    }
+    synchronized (this) {
+      for (int i = offset; i < offset + count; i++) {
+        OffHeapStoredObject.setNext(src[i], this.topAddr);
+        this.topAddr = src[i];
+      }
+    }
+  }
+
+  /**
+   * Pops up to max addresses into dest, starting at offset, while holding the lock once.
+   *
+   * @return the number of addresses popped
+   */
+  public int poll(long[] dest, int offset, int max) {
+    int result = 0;
+    synchronized (this) {
+      while (result < max && this.topAddr != 0L) {
+        dest[offset + result] = this.topAddr;
+        this.topAddr = OffHeapStoredObject.getNext(this.topAddr);
+        result++;
+      }
+    }
+    return result;
+  }
+
   @Override
   public long poll() {
     long result;
@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * Free tiny chunks owned by one thread. A FreeListManager keeps one of these per thread in front of
+ * its shared tiny free lists so that most allocations and frees of small objects do not touch the
+ * shared lists. Chunks move between the cache and the shared lists in batches.
+ * <p>
+ * The owning thread is the only one that allocates from or frees to its cache. Defragmentation
+ * drains the caches of all threads so every access is synchronized on the cache; the lock is
+ * uncontended in the common case.
+ * <p>
+ * The cache only refers weakly to its thread so that a thread that exits is not kept reachable by
+ * the chunks it left behind.
+ */
+class TinyChunkCache {
+
+  private final WeakReference<Thread> owner;
+
+  /** For each cached tiny free list, a stack of free chunk addresses. Allocated lazily. */
+  private final long[][] chunks;
+
+  private final int[] counts;
+
+  private final int capacity;
+
+  /** Allocations served from this cache that have not been added to the stats yet. */
+  private long unpublishedAllocations;
+
+  TinyChunkCache(Thread owner, int freeListCount, int capacity) {
+    this.owner = new WeakReference<Thread>(owner);
+    this.chunks = new long[freeListCount][];
+    this.counts = new int[freeListCount];
+    this.capacity = capacity;
+  }
+
+  /**
+   * Returns true if the thread that owns this cache has not exited.
+   */
+  boolean isOwnerAlive() {
+    Thread thread = this.owner.get();
+    return thread != null && thread.isAlive();
+  }
+
+  int getCapacity() {
+    return this.capacity;
+  }
+
+  int getFreeListCount() {
+    return this.counts.length;
+  }
+
+  int size(int idx) {
+    return this.counts[idx];
+  }
+
+  /**
+   * Returns the address of a free chunk from the given list or zero if the list is empty.
+   */
+  long poll(int idx) {
+    int count = this.counts[idx];
+    if (count == 0) {
+      return 0L;
+    }
+    this.counts[idx] = --count;
+    long addr = this.chunks[idx][count];
+    this.chunks[idx][count] = 0L;
+    this.unpublishedAllocations++;
+    return addr;
+  }
+
+  /**
+   * Adds a free chunk to the given list.
+   *
+   * @return false if the list is full
+   */
+  boolean offer(int idx, long addr) {
+    int count = this.counts[idx];
+    if (count == this.capacity) {
+      return false;
+    }
+    getChunks(idx)[count] = addr;
+    this.counts[idx] = count + 1;
+    return true;
+  }
+
+  /**
+   * Moves up to max chunks from the shared list into the given list.
+   *
+   * @return the number of chunks moved
+   */
+  int refill(int idx, OffHeapStoredObjectAddressStack shared, int max) {
+    int count = this.counts[idx];
+    int moved = shared.poll(getChunks(idx), count, Math.min(max, this.capacity - count));
+    this.counts[idx] = count + moved;
+    return moved;
+  }
+
+  /**
+   * Moves the given number of chunks from the bottom of the given list to the shared list. The
+   * most recently freed chunks stay in the cache since they are the most likely to be in the CPU
+   * cache.
+   */
+  void spill(int idx, OffHeapStoredObjectAddressStack shared, int count) {
+    count = Math.min(count, this.counts[idx]);
+    if (count == 0) {
+      return;
+    }
+    long[] list = this.chunks[idx];
+    shared.offer(list, 0, count);
+    int remaining = this.counts[idx] - count;
+    System.arraycopy(list, count, list, 0, remaining);
+    for (int i = remaining; i < this.counts[idx]; i++) {
+      list[i] = 0L;
+    }
+    this.counts[idx] = remaining;
+  }
+
+  /**
+   * Returns the address of the chunk at the given position of the given list.
+   */
+  long get(int idx, int position) {
+    return this.chunks[idx][position];
+  }
+
+  long computeTotalSize() {
+    long result = 0;
+    for (int idx = 0; idx < this.counts.length; idx++) {
+      for (int i = 0; i < this.counts[idx]; i++) {
+        result += OffHeapStoredObject.getSize(this.chunks[idx][i]);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of allocations served from this cache since the last call.
+   */
+  long takeUnpublishedAllocations() {
+    long result = this.unpublishedAllocations;
+    this.unpublishedAllocations = 0;
+    return result;
+  }
+
+  private long[] getChunks(int idx) {
+    long[] result = this.chunks[idx];
+    if (result == null) {
+      result = new long[this.capacity];
+      this.chunks[idx] = result;
+    }
+    return result;
+  }
+}
@@ -108,6 +108,10 @@ public class AuthorizeRequest {
     }
   }
 
+  public Principal getPrincipal() {
+    return this.principal;
+  }
+
   public GetOperationContext getAuthorize(String regionName, Object key, Object callbackArg)
       throws NotAuthorizedException {
 
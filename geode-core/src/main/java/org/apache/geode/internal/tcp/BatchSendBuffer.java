@@ -0,0 +1,349 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tcp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import org.apache.geode.CancelCriterion;
+import org.apache.geode.distributed.internal.DMStats;
+import org.apache.geode.distributed.internal.DistributionStats;
+
+/**
+ * Coalesces the small messages sent on a shared ordered connection into fewer socket writes. A
+ * message is copied into the fill buffer. A message that waits for a reply, or that leaves the
+ * buffer more than half full, is written at once together with the messages already in the buffer.
+ * Other messages are written by the batch flusher thread after at most the batch window. A thread
+ * that finds the buffers being written leaves its message for that write, so the messages of many
+ * threads go out in one write while the socket is busy.
+ * <p>
+ * A thread writes only the messages that were in the buffer when it started writing, and its own
+ * message. The messages added while it writes are left to the flusher, so that a thread is never
+ * kept writing the messages of others.
+ *
+ * @since Geode 1.8
+ */
+class BatchSendBuffer {
+
+  /**
+   * Writes a buffer to the socket of the connection
+   */
+  interface Writer {
+    void write(ByteBuffer bb) throws IOException;
+  }
+
+  private final int size;
+
+  private final long windowNanos;
+
+  private final Writer writer;
+
+  private final DMStats stats;
+
+  private final CancelCriterion stopper;
+
+  /** told about the failed writes of the flusher, which nobody else hears about */
+  private final Consumer<Exception> flushFailed;
+
+  private final Object lock = new Object();
+
+  /** the buffer messages are copied to; guarded by lock */
+  private ByteBuffer fillBuffer;
+
+  /** the buffer being written; only used by the thread that is flushing */
+  private ByteBuffer sendBuffer;
+
+  /** true while a thread is writing the buffers; guarded by lock */
+  private boolean flushing;
+
+  /** the bytes copied to the buffers; guarded by lock */
+  private long bytesAdded;
+
+  /** the bytes written or dropped by a failed write; guarded by lock */
+  private long bytesDone;
+
+  /** the bytes written; guarded by lock */
+  private long bytesWritten;
+
+  /** the bytes a thread waiting for a reply needs written; guarded by lock */
+  private long urgentBytes;
+
+  /** the exception of the last failed write; guarded by lock */
+  private IOException failure;
+
+  private final BatchBufferFlusher flusher;
+
+  /**
+   * @param name the name of the connection, used to name the flusher thread
+   * @param size the size of each of the two buffers
+   * @param windowNanos the longest a message that no reply waits for stays in the buffer. Zero
+   *        writes every message at once, coalescing only the messages sent while the socket is
+   *        busy.
+   * @param direct whether to allocate direct buffers
+   */
+  BatchSendBuffer(String name, int size, long windowNanos, boolean direct, Writer writer,
+      DMStats stats, CancelCriterion stopper, Consumer<Exception> flushFailed) {
+    this.size = size;
+    this.windowNanos = windowNanos;
+    this.writer = writer;
+    this.stats = stats;
+    this.stopper = stopper;
+    this.flushFailed = flushFailed;
+    if (direct) {
+      this.fillBuffer = ByteBuffer.allocateDirect(size);
+      this.sendBuffer = ByteBuffer.allocateDirect(size);
+    } else {
+      this.fillBuffer = ByteBuffer.allocate(size);
+      this.sendBuffer = ByteBuffer.allocate(size);
+    }
+    this.flusher = new BatchBufferFlusher(name);
+    this.flusher.start();
+  }
+
+  /**
+   * Adds a message to the buffer, writing the buffer if the message should not wait.
+   *
+   * @param src the serialized message
+   * @param urgent whether a reply waits for the message
+   */
+  void send(ByteBuffer src, boolean urgent) throws IOException {
+    final long start = DistributionStats.getStatTime();
+    try {
+      urgent |= this.windowNanos == 0;
+      final boolean tooLarge = src.remaining() > this.size / 2;
+      ByteBuffer large = null;
+      final long drainUntil;
+      synchronized (this.lock) {
+        if (tooLarge) {
+          // written by this thread after the messages already in the buffer
+          while (this.flushing) {
+            waitOnLock();
+          }
+          large = src;
+        } else {
+          // the thread that is writing the buffers makes room
+          while (this.flushing && src.remaining() > this.fillBuffer.remaining()) {
+            waitOnLock();
+          }
+          if (src.remaining() > this.fillBuffer.remaining()) {
+            large = src;
+          } else {
+            final long copyStart = DistributionStats.getStatTime();
+            this.bytesAdded += src.remaining();
+            this.fillBuffer.put(src);
+            this.stats.incBatchCopyTime(copyStart);
+            if (this.flushing) {
+              // the thread that is writing the buffers, or the flusher after it, writes this
+              // message too
+              if (urgent) {
+                // a reply waits for this message so make sure it gets written
+                this.urgentBytes = this.bytesAdded;
+                final long waitStart = DistributionStats.getStatTime();
+                waitForBytes(this.bytesAdded);
+                this.stats.incBatchWaitTime(waitStart);
+              }
+              return;
+            }
+            if (!urgent && this.fillBuffer.position() <= this.size / 2) {
+              this.flusher.schedule(false);
+              return;
+            }
+          }
+        }
+        this.flushing = true;
+        drainUntil = this.bytesAdded;
+      }
+      flush(large, drainUntil);
+    } finally {
+      this.stats.incBatchSendTime(start);
+    }
+  }
+
+  /**
+   * Stops the flusher. Unless another thread is writing the buffer at the time, the flusher first
+   * writes the messages still in it; this method does not wait for that write.
+   */
+  void close() {
+    this.flusher.close();
+  }
+
+  /**
+   * Waits until the given number of bytes have been written, throwing the exception of the write
+   * that failed to write them. The caller holds the lock.
+   */
+  private void waitForBytes(long bytes) throws IOException {
+    while (this.bytesDone < bytes) {
+      waitOnLock();
+    }
+    if (this.bytesWritten < bytes) {
+      throw new IOException("Batched message not sent", this.failure);
+    }
+  }
+
+  private void waitOnLock() {
+    this.stopper.checkCancelInProgress(null);
+    boolean interrupted = Thread.interrupted();
+    try {
+      this.lock.wait(); // spurious wakeup ok
+    } catch (InterruptedException ex) {
+      interrupted = true;
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Writes the buffers until the given number of bytes have been written, followed by the given
+   * message that was too large to be batched. The caller has set flushing; it is cleared before
+   * this method returns and the flusher is asked to write the bytes added in the meantime.
+   */
+  private void flush(ByteBuffer large, long drainUntil) throws IOException {
+    ByteBuffer bb = null;
+    boolean success = false;
+    try {
+      for (;;) {
+        synchronized (this.lock) {
+          if (bb != null) {
+            this.bytesDone += bb.limit();
+            this.bytesWritten += bb.limit();
+            bb.clear();
+            bb = null;
+          }
+          if (this.fillBuffer.position() > 0 && this.bytesDone < drainUntil) {
+            bb = this.fillBuffer;
+            this.fillBuffer = this.sendBuffer;
+            this.sendBuffer = bb;
+          } else if (large == null) {
+            success = true;
+            return;
+          }
+          // wakes up the threads waiting for room or for their bytes to be written
+          this.lock.notifyAll();
+        }
+        if (bb != null) {
+          final long start = DistributionStats.getStatTime();
+          bb.flip();
+          this.writer.write(bb);
+          this.stats.incBatchFlushTime(start);
+        } else {
+          this.writer.write(large);
+          large = null;
+        }
+      }
+    } catch (IOException ex) {
+      synchronized (this.lock) {
+        this.failure = ex;
+      }
+      throw ex;
+    } finally {
+      synchronized (this.lock) {
+        if (!success) {
+          // the connection is unusable; drop the bytes the threads waiting on them were told
+          // about
+          this.bytesDone = this.bytesAdded;
+          this.fillBuffer.clear();
+          this.sendBuffer.clear();
+        } else if (this.fillBuffer.position() > 0) {
+          this.flusher.schedule(this.urgentBytes > this.bytesDone);
+        }
+        this.flushing = false;
+        this.lock.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Writes the messages that nobody else wrote once they had a chance to gather in the buffer.
+   */
+  private class BatchBufferFlusher extends Thread {
+    /** guarded by lock */
+    private boolean flushNeeded = false;
+    /** guarded by lock */
+    private boolean timeToStop = false;
+
+    BatchBufferFlusher(String name) {
+      super("P2P Batch Flusher for " + name);
+      setDaemon(true);
+    }
+
+    /**
+     * Asks for the buffer to be written once the batch window has passed, or at once if a reply
+     * waits for it. The caller holds the lock.
+     */
+    void schedule(boolean now) {
+      if (!this.flushNeeded) {
+        this.flushNeeded = true;
+        lock.notifyAll();
+      }
+      if (now) {
+        // cuts the batch window short
+        LockSupport.unpark(this);
+      }
+    }
+
+    void close() {
+      synchronized (lock) {
+        this.timeToStop = true;
+        lock.notifyAll();
+      }
+    }
+
+    @Override
+    public void run() {
+      try {
+        boolean stop;
+        do {
+          synchronized (lock) {
+            while (!this.flushNeeded && !this.timeToStop) {
+              lock.wait(); // spurious wakeup ok
+            }
+            stop = this.timeToStop;
+          }
+          if (!stop && windowNanos > 0) {
+            // let more messages join the batch
+            LockSupport.parkNanos(windowNanos);
+          }
+          final long drainUntil;
+          synchronized (lock) {
+            this.flushNeeded = false;
+            if (flushing || fillBuffer.position() == 0) {
+              // another thread is writing them, and asks again for the ones it leaves
+              continue;
+            }
+            flushing = true;
+            drainUntil = bytesAdded;
+          }
+          try {
+            flush(null, drainUntil);
+          } catch (IOException | ConnectionException ex) {
+            synchronized (lock) {
+              stop = this.timeToStop;
+            }
+            if (!stop) {
+              flushFailed.accept(ex);
+            }
+            return;
+          }
+        } while (!stop);
+      } catch (InterruptedException ex) {
+        // time for this thread to shutdown
+      }
+    }
+  }
+}
@@ -42,6 +42,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -76,6 +77,7 @@ import org.apache.geode.internal.InternalDataSerializer;
 import org.apache.geode.internal.SystemTimer;
 import org.apache.geode.internal.SystemTimer.SystemTimerTask;
 import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.DirectReplyMessage;
 import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.logging.LoggingThreadGroup;
@@ -1171,7 +1173,7 @@ public class Connection implements Runnable {
           LocalizedStrings.Connection_CONNECTION_FAILED_CONSTRUCTION_FOR_PEER_0
               .toLocalizedString(remoteAddr));
     }
-    if (preserveOrder && BATCH_SENDS) {
+    if (preserveOrder && sharedResource && BATCH_SENDS) {
       conn.createBatchSendBuffer();
     }
     conn.finishedConnecting = true;
@@ -1296,35 +1298,35 @@ public class Connection implements Runnable {
   }
 
   /**
-   * Batch sends currently should not be turned on because: 1. They will be used for all sends
-   * (instead of just no-ack) and thus will break messages that wait for a response (or kill perf).
-   * 2. The buffer is not properly flushed and closed on shutdown. The code attempts to do this but
-   * must not be doing it correctly.
+   * Set p2p.batchSends to true to coalesce the small messages sent on shared ordered connections
+   * into fewer socket writes, see {@link BatchSendBuffer}. Each message keeps its own header so the
+   * receiver reads the messages of a write one after the other as it always has.
    */
   private static final boolean BATCH_SENDS = Boolean.getBoolean("p2p.batchSends");
   private static final int BATCH_BUFFER_SIZE =
       Integer.getInteger("p2p.batchBufferSize", 1024 * 1024).intValue();
-  private static final int BATCH_FLUSH_MS = Integer.getInteger("p2p.batchFlushTime", 50).intValue();
-  private Object batchLock;
-  private ByteBuffer fillBatchBuffer;
-  private ByteBuffer sendBatchBuffer;
-  private BatchBufferFlusher batchFlusher;
+  /**
+   * The longest a no-ack message waits in the batch buffer for other messages. Zero writes every
+   * message at once, coalescing only the messages sent while the socket is busy.
+   */
+  private static final long BATCH_WINDOW_NANOS =
+      TimeUnit.MICROSECONDS.toNanos(Long.getLong("p2p.batchWindowMicros", 50).longValue());
+  private BatchSendBuffer batchBuffer;
 
   private void createBatchSendBuffer() {
     // batch send buffer isn't needed if old-io is being used
     if (!this.useNIO) {
       return;
     }
-    this.batchLock = new Object();
-    if (TCPConduit.useDirectBuffers) {
-      this.fillBatchBuffer = ByteBuffer.allocateDirect(BATCH_BUFFER_SIZE);
-      this.sendBatchBuffer = ByteBuffer.allocateDirect(BATCH_BUFFER_SIZE);
-    } else {
-      this.fillBatchBuffer = ByteBuffer.allocate(BATCH_BUFFER_SIZE);
-      this.sendBatchBuffer = ByteBuffer.allocate(BATCH_BUFFER_SIZE);
-    }
-    this.batchFlusher = new BatchBufferFlusher();
-    this.batchFlusher.start();
+    this.batchBuffer = new BatchSendBuffer(String.valueOf(this.remoteAddr), BATCH_BUFFER_SIZE,
+        BATCH_WINDOW_NANOS, TCPConduit.useDirectBuffers, this::writeBatch,
+        this.owner.getConduit().getStats(), this.owner.getConduit().getCancelCriterion(), ex -> {
+          logger.fatal(LocalizedMessage
+              .create(LocalizedStrings.Connection_EXCEPTION_FLUSHING_BATCH_SEND_BUFFER_0, ex));
+          this.readerShuttingDown = true;
+          requestClose(LocalizedStrings.Connection_EXCEPTION_FLUSHING_BATCH_SEND_BUFFER_0
+              .toLocalizedString(ex));
+        });
   }
 
   public void cleanUpOnIdleTaskCancel() {
@@ -1335,116 +1337,9 @@ public class Connection implements Runnable {
     }
   }
 
-  private class BatchBufferFlusher extends Thread {
-    private volatile boolean flushNeeded = false;
-    private volatile boolean timeToStop = false;
-    private DMStats stats;
-
-
-    public BatchBufferFlusher() {
-      setDaemon(true);
-      this.stats = owner.getConduit().getStats();
-    }
-
-    /**
-     * Called when a message writer needs the current fillBatchBuffer flushed
-     */
-    public void flushBuffer(ByteBuffer bb) {
-      final long start = DistributionStats.getStatTime();
-      try {
-        synchronized (this) {
-          synchronized (batchLock) {
-            if (bb != fillBatchBuffer) {
-              // it must have already been flushed. So just return
-              // and use the new fillBatchBuffer
-              return;
-            }
-          }
-          this.flushNeeded = true;
-          this.notify();
-        }
-        synchronized (batchLock) {
-          // Wait for the flusher thread
-          while (bb == fillBatchBuffer) {
-            Connection.this.owner.getConduit().getCancelCriterion().checkCancelInProgress(null);
-            boolean interrupted = Thread.interrupted();
-            try {
-              batchLock.wait(); // spurious wakeup ok
-            } catch (InterruptedException ex) {
-              interrupted = true;
-            } finally {
-              if (interrupted) {
-                Thread.currentThread().interrupt();
-              }
-            }
-          } // while
-        }
-      } finally {
-        owner.getConduit().getStats().incBatchWaitTime(start);
-      }
-    }
-
-    public void close() {
-      synchronized (this) {
-        this.timeToStop = true;
-        this.flushNeeded = true;
-        this.notify();
-      }
-    }
-
-    @Override
-    public void run() {
-      try {
-        synchronized (this) {
-          while (!timeToStop) {
-            if (!this.flushNeeded && fillBatchBuffer.position() <= (BATCH_BUFFER_SIZE / 2)) {
-              wait(BATCH_FLUSH_MS); // spurious wakeup ok
-            }
-            if (this.flushNeeded || fillBatchBuffer.position() > (BATCH_BUFFER_SIZE / 2)) {
-              final long start = DistributionStats.getStatTime();
-              synchronized (batchLock) {
-                // This is the only block of code that will swap
-                // the buffer references
-                this.flushNeeded = false;
-                ByteBuffer tmp = fillBatchBuffer;
-                fillBatchBuffer = sendBatchBuffer;
-                sendBatchBuffer = tmp;
-                batchLock.notifyAll();
-              }
-              // We now own the sendBatchBuffer
-              if (sendBatchBuffer.position() > 0) {
-                final boolean origSocketInUse = socketInUse;
-                socketInUse = true;
-                try {
-                  sendBatchBuffer.flip();
-                  SocketChannel channel = getSocket().getChannel();
-                  nioWriteFully(channel, sendBatchBuffer, false, null);
-                  sendBatchBuffer.clear();
-                } catch (IOException | ConnectionException ex) {
-                  logger.fatal(LocalizedMessage.create(
-                      LocalizedStrings.Connection_EXCEPTION_FLUSHING_BATCH_SEND_BUFFER_0, ex));
-                  readerShuttingDown = true;
-                  requestClose(LocalizedStrings.Connection_EXCEPTION_FLUSHING_BATCH_SEND_BUFFER_0
-                      .toLocalizedString(ex));
-                } finally {
-                  accessed();
-                  socketInUse = origSocketInUse;
-                }
-              }
-              this.stats.incBatchFlushTime(start);
-            }
-          }
-        }
-      } catch (InterruptedException ex) {
-        // time for this thread to shutdown
-        // Thread.currentThread().interrupt();
-      }
-    }
-  }
-
   private void closeBatchBuffer() {
-    if (this.batchFlusher != null) {
-      this.batchFlusher.close();
+    if (this.batchBuffer != null) {
+      this.batchBuffer.close();
     }
   }
 
@@ -1454,31 +1349,41 @@ public class Connection implements Runnable {
    */
   private static final boolean SOCKET_WRITE_DISABLED = Boolean.getBoolean("p2p.disableSocketWrite");
 
-  private void batchSend(ByteBuffer src) throws IOException {
+  /**
+   * Adds a message to the batch buffer, writing the buffer if the message should not wait.
+   *
+   * @param src the serialized message
+   * @param msg the message, or null if it is not known
+   */
+  private void batchSend(ByteBuffer src, DistributionMessage msg) throws IOException {
     if (SOCKET_WRITE_DISABLED) {
       return;
     }
-    final long start = DistributionStats.getStatTime();
+    this.batchBuffer.send(src, isUrgent(msg));
+  }
+
+  /**
+   * Returns true if the sender, or the member the message replies to, waits for the message, so it
+   * must not wait for the batch window. Direct-ack messages have no processor id but their sender
+   * waits for the ack all the same.
+   */
+  private static boolean isUrgent(DistributionMessage msg) {
+    return msg == null || msg.getProcessorId() != 0 || msg instanceof ReplyMessage
+        || msg instanceof DirectReplyMessage;
+  }
+
+  /**
+   * Writes the given buffer of batched messages, or a message too large to be batched, to the
+   * socket. Only called by the thread that is flushing the batch buffer.
+   */
+  private void writeBatch(ByteBuffer bb) throws IOException {
+    final boolean origSocketInUse = this.socketInUse;
+    this.socketInUse = true;
     try {
-      ByteBuffer dst = null;
-      Assert.assertTrue(src.remaining() <= BATCH_BUFFER_SIZE, "Message size(" + src.remaining()
-          + ") exceeded BATCH_BUFFER_SIZE(" + BATCH_BUFFER_SIZE + ")");
-      do {
-        synchronized (this.batchLock) {
-          dst = this.fillBatchBuffer;
-          if (src.remaining() <= dst.remaining()) {
-            final long copyStart = DistributionStats.getStatTime();
-            dst.put(src);
-            this.owner.getConduit().getStats().incBatchCopyTime(copyStart);
-            return;
-          }
-        }
-        // If we got this far then we do not have room in the current
-        // buffer and need the flusher thread to flush before we can fill it
-        this.batchFlusher.flushBuffer(dst);
-      } while (true);
+      nioWriteFully(getSocket().getChannel(), bb, false, null);
     } finally {
-      this.owner.getConduit().getStats().incBatchSendTime(start);
+      accessed();
+      this.socketInUse = origSocketInUse;
     }
   }
 
@@ -2532,8 +2437,8 @@ public class Connection implements Runnable {
       throw new ConnectionException(
           LocalizedStrings.Connection_NOT_CONNECTED_TO_0.toLocalizedString(this.remoteAddr));
     }
-    if (this.batchFlusher != null) {
-      batchSend(buffer);
+    if (this.batchBuffer != null) {
+      batchSend(buffer, msg);
       return;
     }
     final boolean origSocketInUse = this.socketInUse;
@@ -55,6 +55,7 @@ import org.apache.geode.internal.logging.LoggingThreadGroup;
 import org.apache.geode.internal.logging.log4j.AlertAppender;
 import org.apache.geode.internal.logging.log4j.LocalizedMessage;
 import org.apache.geode.internal.net.SocketCloser;
+import org.apache.geode.internal.util.concurrent.VirtualThreads;
 
 /**
  * <p>
@@ -217,12 +218,20 @@ public class ConnectionTable {
     Executor executor = null;
     final ThreadGroup connectionRWGroup =
         LoggingThreadGroup.createThreadGroup("P2P Reader Threads", logger);
+    // virtual threads are always daemon threads
+    final ThreadFactory virtualThreadFactory =
+        VirtualThreads.createThreadFactory(connectionRWGroup);
     if (conserveSockets) {
       executor = new Executor() {
         @Override
         public void execute(Runnable command) {
-          Thread th = new Thread(connectionRWGroup, command);
-          th.setDaemon(true);
+          Thread th;
+          if (virtualThreadFactory != null) {
+            th = virtualThreadFactory.newThread(command);
+          } else {
+            th = new Thread(connectionRWGroup, command);
+            th.setDaemon(true);
+          }
           th.start();
         }
       };
@@ -230,6 +239,9 @@ public class ConnectionTable {
       BlockingQueue synchronousQueue = new SynchronousQueue();
       ThreadFactory tf = new ThreadFactory() {
         public Thread newThread(final Runnable command) {
+          if (virtualThreadFactory != null) {
+            return virtualThreadFactory.newThread(command);
+          }
           Thread thread = new Thread(connectionRWGroup, command);
           thread.setDaemon(true);
           return thread;
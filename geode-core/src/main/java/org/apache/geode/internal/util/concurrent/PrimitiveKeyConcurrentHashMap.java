@@ -0,0 +1,864 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.util.concurrent;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.geode.CancelException;
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.internal.cache.entries.OffHeapRegionEntry;
+import org.apache.geode.internal.cache.wan.GatewaySenderEventImpl;
+import org.apache.geode.internal.offheap.OffHeapRegionEntryHelper;
+
+/**
+ * A concurrent map whose keys are either all {@link Long} or all {@link Integer}. The keys are
+ * stored as primitive longs in open addressing tables so, unlike
+ * {@link CustomEntryConcurrentHashMap}, the map neither references a key object nor chains a node
+ * per mapping, and neither looking up nor adding a key allocates.
+ *
+ * <p>
+ * As in {@link CustomEntryConcurrentHashMap} the table is divided into segments that are locked for
+ * updates while retrievals do not lock. A slot is claimed by a key the first time the key is added
+ * and keeps that key until its segment is rehashed; removing the key only replaces the slot's value
+ * with a marker. A reader that finds a value in a slot therefore always sees the key it was stored
+ * with. Removed slots are dropped when the segment is rehashed.
+ *
+ * <p>
+ * Iterators are weakly consistent and box the keys they return. Like
+ * {@link java.util.concurrent.ConcurrentHashMap} this map does not allow null keys or values.
+ *
+ * @param <V> the type of mapped values
+ */
+public class PrimitiveKeyConcurrentHashMap<V> extends AbstractMap<Object, V>
+    implements ConcurrentMapWithReusableEntries<Object, V> {
+
+  private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+  private static final int MAX_SEGMENTS = 1 << 16;
+
+  private static final int MIN_SEGMENT_CAPACITY = 4;
+
+  /** The value of a slot whose key has been removed. */
+  private static final Object REMOVED = new Object();
+
+  private final boolean intKeys;
+
+  private final float loadFactor;
+
+  private final int segmentShift;
+
+  private final int segmentMask;
+
+  private final Segment[] segments;
+
+  private Set<Object> keySet;
+
+  private Collection<V> values;
+
+  private Set<Map.Entry<Object, V>> entrySet;
+
+  private Set<Map.Entry<Object, V>> reusableEntrySet;
+
+  /**
+   * Returns true if this map can hold keys of the given class.
+   */
+  public static boolean isSupportedKeyClass(Class<?> keyClass) {
+    return keyClass == Long.class || keyClass == Integer.class;
+  }
+
+  /**
+   * Creates a new, empty map.
+   *
+   * @param keyClass either {@link Long} or {@link Integer}; the map only holds keys of this class
+   * @param initialCapacity the implementation performs internal sizing to accommodate this many
+   *        elements
+   * @param loadFactor the fraction of a segment's slots that may be claimed before it is rehashed
+   * @param concurrencyLevel the estimated number of concurrently updating threads
+   */
+  public PrimitiveKeyConcurrentHashMap(Class<?> keyClass, int initialCapacity, float loadFactor,
+      int concurrencyLevel) {
+    if (!isSupportedKeyClass(keyClass)) {
+      throw new IllegalArgumentException("Unsupported key class " + keyClass);
+    }
+    if (!(loadFactor > 0) || initialCapacity < 0 || concurrencyLevel <= 0) {
+      throw new IllegalArgumentException();
+    }
+    this.intKeys = keyClass == Integer.class;
+    // a claimed slot is never reused for another key so keep some slots free
+    this.loadFactor = Math.min(loadFactor, 0.9f);
+
+    if (concurrencyLevel > MAX_SEGMENTS) {
+      concurrencyLevel = MAX_SEGMENTS;
+    }
+    int sshift = 0;
+    int ssize = 1;
+    while (ssize < concurrencyLevel) {
+      ++sshift;
+      ssize <<= 1;
+    }
+    this.segmentShift = 32 - sshift;
+    this.segmentMask = ssize - 1;
+
+    if (initialCapacity > MAXIMUM_CAPACITY) {
+      initialCapacity = MAXIMUM_CAPACITY;
+    }
+    int perSegment = initialCapacity / ssize;
+    if (perSegment * ssize < initialCapacity) {
+      ++perSegment;
+    }
+    this.segments = new Segment[ssize];
+    for (int i = 0; i < ssize; i++) {
+      this.segments[i] = new Segment(capacityFor(perSegment), this.loadFactor);
+    }
+  }
+
+  /**
+   * Returns the number of slots a segment needs to hold the given number of keys.
+   */
+  private int capacityFor(int size) {
+    int needed = (int) Math.min(MAXIMUM_CAPACITY, (long) (size / this.loadFactor) + 1);
+    int capacity = MIN_SEGMENT_CAPACITY;
+    while (capacity < needed) {
+      capacity <<= 1;
+    }
+    return capacity;
+  }
+
+  private static int hash(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  private Segment segmentFor(int hash) {
+    return this.segments[(hash >>> this.segmentShift) & this.segmentMask];
+  }
+
+  private boolean isKey(Object key) {
+    if (key == null) {
+      throw new NullPointerException();
+    }
+    return this.intKeys ? key instanceof Integer : key instanceof Long;
+  }
+
+  private long toLong(Object key) {
+    if (!isKey(key)) {
+      throw new ClassCastException("Expected a key of class "
+          + (this.intKeys ? Integer.class : Long.class).getName() + " but was " + key.getClass());
+    }
+    return ((Number) key).longValue();
+  }
+
+  private Object toKey(long key) {
+    if (this.intKeys) {
+      return Integer.valueOf((int) key);
+    }
+    return Long.valueOf(key);
+  }
+
+  private static void checkValue(Object value) {
+    if (value == null) {
+      throw new NullPointerException();
+    }
+  }
+
+  /**
+   * Holds the keys and values of a segment. The table is never modified once it is replaced.
+   */
+  private static class Table {
+    final long[] keys;
+
+    /** null for an unclaimed slot and {@link #REMOVED} for a claimed slot without a value */
+    final AtomicReferenceArray<Object> values;
+
+    Table(int capacity) {
+      this.keys = new long[capacity];
+      this.values = new AtomicReferenceArray<>(capacity);
+    }
+
+    int capacity() {
+      return this.keys.length;
+    }
+  }
+
+  private static class Segment extends ReentrantLock {
+    private static final long serialVersionUID = 7249069246763182397L;
+
+    private final int initialCapacity;
+
+    private final float loadFactor;
+
+    volatile Table table;
+
+    /** The number of keys with a value. Written only while locked. */
+    volatile int count;
+
+    /** The number of claimed slots. Accessed only while locked. */
+    private int used;
+
+    private int threshold;
+
+    Segment(int initialCapacity, float loadFactor) {
+      this.initialCapacity = initialCapacity;
+      this.loadFactor = loadFactor;
+      setTable(new Table(initialCapacity));
+    }
+
+    private void setTable(Table newTable) {
+      this.threshold =
+          Math.min((int) (newTable.capacity() * this.loadFactor), newTable.capacity() - 1);
+      this.table = newTable;
+    }
+
+    Object get(long key, int hash) {
+      final Table tab = this.table;
+      final int mask = tab.capacity() - 1;
+      for (int i = hash & mask;; i = (i + 1) & mask) {
+        final Object v = tab.values.get(i);
+        if (v == null) {
+          return null;
+        }
+        if (tab.keys[i] == key) {
+          return v == REMOVED ? null : v;
+        }
+      }
+    }
+
+    Object put(long key, int hash, Object value, boolean onlyIfAbsent) {
+      lock();
+      try {
+        Table tab = this.table;
+        int mask = tab.capacity() - 1;
+        for (int i = hash & mask;; i = (i + 1) & mask) {
+          final Object v = tab.values.get(i);
+          if (v == null) {
+            if (this.used >= this.threshold) {
+              rehash();
+              tab = this.table;
+              mask = tab.capacity() - 1;
+              i = (hash & mask) - 1;
+              continue;
+            }
+            tab.keys[i] = key;
+            tab.values.set(i, value);
+            this.used++;
+            this.count++;
+            return null;
+          }
+          if (tab.keys[i] == key) {
+            if (v == REMOVED) {
+              tab.values.set(i, value);
+              this.count++;
+              return null;
+            }
+            if (!onlyIfAbsent) {
+              tab.values.set(i, value);
+            }
+            return v;
+          }
+        }
+      } finally {
+        unlock();
+      }
+    }
+
+    /**
+     * Sets the value of a key that has one.
+     *
+     * @param expected if not null, only replace a value equal to this one
+     * @return the old value, or null if nothing was replaced
+     */
+    Object replace(long key, int hash, Object expected, Object value) {
+      lock();
+      try {
+        final Table tab = this.table;
+        final int i = indexOf(tab, key, hash);
+        if (i < 0) {
+          return null;
+        }
+        final Object v = tab.values.get(i);
+        if (v == REMOVED || (expected != null && !expected.equals(v))) {
+          return null;
+        }
+        tab.values.set(i, value);
+        return v;
+      } finally {
+        unlock();
+      }
+    }
+
+    /**
+     * Removes the value of a key.
+     *
+     * @param expected if not null, only remove a value equal to this one
+     * @return the removed value, or null if nothing was removed
+     */
+    Object remove(long key, int hash, Object expected) {
+      lock();
+      try {
+        final Table tab = this.table;
+        final int i = indexOf(tab, key, hash);
+        if (i < 0) {
+          return null;
+        }
+        final Object v = tab.values.get(i);
+        if (v == REMOVED || (expected != null && !expected.equals(v))) {
+          return null;
+        }
+        tab.values.set(i, REMOVED);
+        this.count--;
+        return v;
+      } finally {
+        unlock();
+      }
+    }
+
+    private int indexOf(Table tab, long key, int hash) {
+      final int mask = tab.capacity() - 1;
+      for (int i = hash & mask;; i = (i + 1) & mask) {
+        if (tab.values.get(i) == null) {
+          return -1;
+        }
+        if (tab.keys[i] == key) {
+          return i;
+        }
+      }
+    }
+
+    /**
+     * Copies the keys with values into a new table sized for them and publishes it. Called while
+     * locked.
+     */
+    private void rehash() {
+      final Table oldTable = this.table;
+      final int live = this.count;
+      int capacity = oldTable.capacity();
+      if (live + 1 > capacity * this.loadFactor / 2 && capacity < MAXIMUM_CAPACITY) {
+        // mostly live keys so grow rather than just dropping the removed slots
+        capacity <<= 1;
+      }
+      final Table newTable = new Table(capacity);
+      final int mask = capacity - 1;
+      for (int j = 0; j < oldTable.capacity(); j++) {
+        final Object v = oldTable.values.get(j);
+        if (v == null || v == REMOVED) {
+          continue;
+        }
+        final long key = oldTable.keys[j];
+        int i = hash(key) & mask;
+        while (newTable.values.get(i) != null) {
+          i = (i + 1) & mask;
+        }
+        newTable.keys[i] = key;
+        newTable.values.lazySet(i, v);
+      }
+      this.used = live;
+      setTable(newTable);
+    }
+
+    boolean hasOffHeapValues() {
+      final Table tab = this.table;
+      for (int i = 0; i < tab.capacity(); i++) {
+        final Object v = tab.values.get(i);
+        if (v != null && v != REMOVED) {
+          // after the first value we are done; they are all either off heap or on heap
+          return v instanceof OffHeapRegionEntry;
+        }
+      }
+      return false;
+    }
+
+    void clear(List<Object> clearedValues) {
+      if (this.count == 0) {
+        return;
+      }
+      lock();
+      try {
+        if (clearedValues != null) {
+          final Table tab = this.table;
+          for (int i = 0; i < tab.capacity(); i++) {
+            final Object v = tab.values.get(i);
+            if (v != null && v != REMOVED) {
+              clearedValues.add(v);
+            }
+          }
+        }
+        this.used = 0;
+        setTable(new Table(this.initialCapacity));
+        this.count = 0;
+      } finally {
+        unlock();
+      }
+    }
+  }
+
+  @Override
+  public V get(Object key) {
+    if (!isKey(key)) {
+      return null;
+    }
+    final long k = ((Number) key).longValue();
+    final int hash = hash(k);
+    return uncheckedCast(segmentFor(hash).get(k, hash));
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return get(key) != null;
+  }
+
+  @Override
+  public boolean containsValue(Object value) {
+    checkValue(value);
+    for (Segment segment : this.segments) {
+      final Table tab = segment.table;
+      for (int i = 0; i < tab.capacity(); i++) {
+        final Object v = tab.values.get(i);
+        if (v != null && v != REMOVED && value.equals(v)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public V put(Object key, V value) {
+    checkValue(value);
+    final long k = toLong(key);
+    final int hash = hash(k);
+    return uncheckedCast(segmentFor(hash).put(k, hash, value, false));
+  }
+
+  @Override
+  public V putIfAbsent(Object key, V value) {
+    checkValue(value);
+    final long k = toLong(key);
+    final int hash = hash(k);
+    return uncheckedCast(segmentFor(hash).put(k, hash, value, true));
+  }
+
+  @Override
+  public V replace(Object key, V value) {
+    checkValue(value);
+    if (!isKey(key)) {
+      return null;
+    }
+    final long k = ((Number) key).longValue();
+    final int hash = hash(k);
+    return uncheckedCast(segmentFor(hash).replace(k, hash, null, value));
+  }
+
+  @Override
+  public boolean replace(Object key, V oldValue, V newValue) {
+    checkValue(oldValue);
+    checkValue(newValue);
+    if (!isKey(key)) {
+      return false;
+    }
+    final long k = ((Number) key).longValue();
+    final int hash = hash(k);
+    return segmentFor(hash).replace(k, hash, oldValue, newValue) != null;
+  }
+
+  @Override
+  public V remove(Object key) {
+    if (!isKey(key)) {
+      return null;
+    }
+    final long k = ((Number) key).longValue();
+    final int hash = hash(k);
+    return uncheckedCast(segmentFor(hash).remove(k, hash, null));
+  }
+
+  @Override
+  public boolean remove(Object key, Object value) {
+    if (key == null || value == null || !isKey(key)) {
+      return false;
+    }
+    final long k = ((Number) key).longValue();
+    final int hash = hash(k);
+    return segmentFor(hash).remove(k, hash, value) != null;
+  }
+
+  @Override
+  public int size() {
+    long sum = 0;
+    for (Segment segment : this.segments) {
+      sum += segment.count;
+    }
+    return sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) sum;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    for (Segment segment : this.segments) {
+      if (segment.count != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void clear() {
+    clearWithExecutor(null);
+  }
+
+  /**
+   * Clears the map like {@link CustomEntryConcurrentHashMap#clearWithExecutor} does, releasing any
+   * off-heap region entries it held asynchronously.
+   */
+  @Override
+  public void clearWithExecutor(Executor executor) {
+    final boolean checkForGatewaySenderEvent =
+        OffHeapRegionEntryHelper.doesClearNeedToCheckForOffHeap();
+    List<Object> clearedValues = null;
+    for (Segment segment : this.segments) {
+      if (clearedValues == null && (checkForGatewaySenderEvent || segment.hasOffHeapValues())) {
+        clearedValues = new ArrayList<>();
+      }
+      segment.clear(clearedValues);
+    }
+    if (clearedValues == null || clearedValues.isEmpty()) {
+      return;
+    }
+    if (!(clearedValues.get(0) instanceof OffHeapRegionEntry)) {
+      for (Object v : clearedValues) {
+        if (v instanceof RegionEntry) {
+          // It is ok to call GatewaySenderEventImpl release without being synced
+          // on the region entry. It will not create an orphan.
+          GatewaySenderEventImpl.release(((RegionEntry) v).getValue()); // OFFHEAP _getValue ok
+        }
+      }
+      return;
+    }
+    final List<Object> entriesToRelease = clearedValues;
+    final Runnable runnable = () -> {
+      for (Object v : entriesToRelease) {
+        synchronized (v) {
+          ((OffHeapRegionEntry) v).release();
+        }
+      }
+    };
+    boolean submitted = false;
+    if (executor != null) {
+      try {
+        executor.execute(runnable);
+        submitted = true;
+      } catch (RejectedExecutionException | CancelException | NullPointerException e) {
+        // fall through with submitted false
+      }
+    }
+    if (!submitted) {
+      String name = getClass().getSimpleName() + "@" + hashCode() + " Clear Thread";
+      Thread thread = new Thread(runnable, name);
+      thread.setDaemon(true);
+      thread.start();
+    }
+  }
+
+  @Override
+  public Set<Object> keySet() {
+    final Set<Object> ks = this.keySet;
+    return (ks != null) ? ks : (this.keySet = new KeySet());
+  }
+
+  @Override
+  public Collection<V> values() {
+    final Collection<V> vs = this.values;
+    return (vs != null) ? vs : (this.values = new Values());
+  }
+
+  @Override
+  public Set<Map.Entry<Object, V>> entrySet() {
+    final Set<Map.Entry<Object, V>> es = this.entrySet;
+    return (es != null) ? es : (this.entrySet = new EntrySet(false));
+  }
+
+  @Override
+  public Set<Map.Entry<Object, V>> entrySetWithReusableEntries() {
+    final Set<Map.Entry<Object, V>> es = this.reusableEntrySet;
+    return (es != null) ? es : (this.reusableEntrySet = new EntrySet(true));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <V> V uncheckedCast(Object value) {
+    return (V) value;
+  }
+
+  /**
+   * Walks the slots of each segment's current table. Keys added or removed after a segment's table
+   * is read may or may not be seen.
+   */
+  private abstract class HashIterator {
+    private int nextSegmentIndex = segments.length - 1;
+
+    private Table currentTable;
+
+    private int nextSlot;
+
+    private boolean hasNextKey;
+
+    private long nextKey;
+
+    private Object nextValue;
+
+    private boolean hasLastKey;
+
+    long lastKey;
+
+    Object lastValue;
+
+    HashIterator() {
+      advance();
+    }
+
+    private void advance() {
+      while (true) {
+        if (this.currentTable != null) {
+          while (this.nextSlot < this.currentTable.capacity()) {
+            final int i = this.nextSlot++;
+            final Object v = this.currentTable.values.get(i);
+            if (v != null && v != REMOVED) {
+              this.nextKey = this.currentTable.keys[i];
+              this.nextValue = v;
+              this.hasNextKey = true;
+              return;
+            }
+          }
+        }
+        if (this.nextSegmentIndex < 0) {
+          this.hasNextKey = false;
+          return;
+        }
+        this.currentTable = segments[this.nextSegmentIndex--].table;
+        this.nextSlot = 0;
+      }
+    }
+
+    public boolean hasNext() {
+      return this.hasNextKey;
+    }
+
+    void nextSlot() {
+      if (!this.hasNextKey) {
+        throw new NoSuchElementException();
+      }
+      this.lastKey = this.nextKey;
+      this.lastValue = this.nextValue;
+      this.hasLastKey = true;
+      advance();
+    }
+
+    public void remove() {
+      if (!this.hasLastKey) {
+        throw new IllegalStateException();
+      }
+      final int hash = hash(this.lastKey);
+      segmentFor(hash).remove(this.lastKey, hash, null);
+      this.hasLastKey = false;
+    }
+  }
+
+  private class KeyIterator extends HashIterator implements Iterator<Object> {
+    @Override
+    public Object next() {
+      nextSlot();
+      return toKey(this.lastKey);
+    }
+  }
+
+  private class ValueIterator extends HashIterator implements Iterator<V> {
+    @Override
+    public V next() {
+      nextSlot();
+      return uncheckedCast(this.lastValue);
+    }
+  }
+
+  private class EntryIterator extends HashIterator implements Iterator<Map.Entry<Object, V>> {
+    @Override
+    public Map.Entry<Object, V> next() {
+      nextSlot();
+      return new WriteThroughEntry(toKey(this.lastKey), uncheckedCast(this.lastValue));
+    }
+  }
+
+  /**
+   * Returns the same entry from every call to {@link #next}; its key is only boxed if asked for.
+   */
+  private class ReusableEntryIterator extends HashIterator
+      implements Iterator<Map.Entry<Object, V>>, Map.Entry<Object, V> {
+    @Override
+    public Map.Entry<Object, V> next() {
+      nextSlot();
+      return this;
+    }
+
+    @Override
+    public Object getKey() {
+      return toKey(this.lastKey);
+    }
+
+    @Override
+    public V getValue() {
+      return uncheckedCast(this.lastValue);
+    }
+
+    @Override
+    public V setValue(V value) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  private class WriteThroughEntry extends AbstractMap.SimpleEntry<Object, V> {
+    private static final long serialVersionUID = -4302585484357367539L;
+
+    WriteThroughEntry(Object key, V value) {
+      super(key, value);
+    }
+
+    @Override
+    public V setValue(V value) {
+      checkValue(value);
+      V v = super.setValue(value);
+      PrimitiveKeyConcurrentHashMap.this.put(getKey(), value);
+      return v;
+    }
+  }
+
+  private class KeySet extends AbstractSet<Object> {
+    @Override
+    public Iterator<Object> iterator() {
+      return new KeyIterator();
+    }
+
+    @Override
+    public int size() {
+      return PrimitiveKeyConcurrentHashMap.this.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return PrimitiveKeyConcurrentHashMap.this.isEmpty();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return containsKey(o);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      return PrimitiveKeyConcurrentHashMap.this.remove(o) != null;
+    }
+
+    @Override
+    public void clear() {
+      PrimitiveKeyConcurrentHashMap.this.clear();
+    }
+  }
+
+  private class Values extends AbstractCollection<V> {
+    @Override
+    public Iterator<V> iterator() {
+      return new ValueIterator();
+    }
+
+    @Override
+    public int size() {
+      return PrimitiveKeyConcurrentHashMap.this.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return PrimitiveKeyConcurrentHashMap.this.isEmpty();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return containsValue(o);
+    }
+
+    @Override
+    public void clear() {
+      PrimitiveKeyConcurrentHashMap.this.clear();
+    }
+  }
+
+  private class EntrySet extends AbstractSet<Map.Entry<Object, V>> {
+    private final boolean reuseEntries;
+
+    EntrySet(boolean reuseEntries) {
+      this.reuseEntries = reuseEntries;
+    }
+
+    @Override
+    public Iterator<Map.Entry<Object, V>> iterator() {
+      return this.reuseEntries ? new ReusableEntryIterator() : new EntryIterator();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      final Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+      final Object key = e.getKey();
+      if (key == null) {
+        return false;
+      }
+      final V v = get(key);
+      return v != null && v.equals(e.getValue());
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      final Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+      return PrimitiveKeyConcurrentHashMap.this.remove(e.getKey(), e.getValue());
+    }
+
+    @Override
+    public int size() {
+      return PrimitiveKeyConcurrentHashMap.this.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return PrimitiveKeyConcurrentHashMap.this.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+      PrimitiveKeyConcurrentHashMap.this.clear();
+    }
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.util.concurrent;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThreadGroup;
+
+/**
+ * Creates virtual threads on JVMs that have them (Java 21 and later) for the threads that spend
+ * most of their life blocked on a socket, such as the threads of client connections and P2P
+ * readers. Virtual threads are only used if the {@code gemfire.USE_VIRTUAL_THREADS} system property
+ * is true. Geode is compiled for Java 8 so the virtual thread API is called through reflection.
+ * <p>
+ * A virtual thread that blocks inside a synchronized block or a native frame keeps its carrier
+ * thread. While virtual threads are in use the JVM's {@code jdk.VirtualThreadPinned} events are
+ * counted so that such blocking shows up in the distribution statistics.
+ *
+ * @since Geode 1.8
+ */
+public class VirtualThreads {
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * True if threads that block on sockets should be virtual threads when the JVM has them.
+   */
+  public static final boolean ENABLED =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "USE_VIRTUAL_THREADS");
+
+  /**
+   * A virtual thread that stays pinned to its carrier thread for less than this many milliseconds
+   * is not counted.
+   */
+  private static final long PINNED_THRESHOLD_MILLIS = Long
+      .getLong(DistributionConfig.GEMFIRE_PREFIX + "VIRTUAL_THREAD_PINNED_THRESHOLD_MS", 20);
+
+  private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+  /** Thread.ofVirtual(), or null if the JVM has no virtual threads */
+  private static final Method OF_VIRTUAL;
+
+  private static final AtomicLong created = new AtomicLong();
+
+  private static final AtomicLong pins = new AtomicLong();
+
+  private static final AtomicLong pinnedTime = new AtomicLong();
+
+  private static boolean pinMonitorStarted;
+
+  static {
+    Method ofVirtual = null;
+    try {
+      ofVirtual = Thread.class.getMethod("ofVirtual");
+    } catch (NoSuchMethodException ignore) {
+      // not a Java 21 JVM
+    }
+    OF_VIRTUAL = ofVirtual;
+  }
+
+  private VirtualThreads() {
+    // no instances
+  }
+
+  /**
+   * Returns true if the JVM can create virtual threads.
+   */
+  public static boolean isSupported() {
+    return OF_VIRTUAL != null;
+  }
+
+  /**
+   * Returns a factory that creates virtual threads, or null if virtual threads are not enabled or
+   * the JVM does not have them, in which case the caller keeps using platform threads. Virtual
+   * threads do not belong to the given group, but its uncaught exception handling is used.
+   */
+  public static ThreadFactory createThreadFactory(ThreadGroup group) {
+    if (!ENABLED) {
+      return null;
+    }
+    if (!isSupported()) {
+      logger.warn("Virtual threads were requested with {}USE_VIRTUAL_THREADS but this JVM does "
+          + "not support them. Platform threads will be used.",
+          DistributionConfig.GEMFIRE_PREFIX);
+      return null;
+    }
+    final ThreadFactory factory;
+    try {
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      Object builder = OF_VIRTUAL.invoke(null);
+      builder = builderClass
+          .getMethod("uncaughtExceptionHandler", Thread.UncaughtExceptionHandler.class)
+          .invoke(builder, group);
+      factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      logger.warn("Could not create virtual threads. Platform threads will be used.", e);
+      return null;
+    }
+    startPinMonitor();
+    return command -> {
+      Thread thread = factory.newThread(command);
+      created.incrementAndGet();
+      return thread;
+    };
+  }
+
+  /**
+   * Returns the number of virtual threads created.
+   */
+  public static long getCreated() {
+    return created.get();
+  }
+
+  /**
+   * Returns the number of times a virtual thread blocked while pinned to its carrier thread.
+   */
+  public static long getPins() {
+    return pins.get();
+  }
+
+  /**
+   * Returns the time, in nanoseconds, virtual threads blocked while pinned to their carrier
+   * thread.
+   */
+  public static long getPinnedTime() {
+    return pinnedTime.get();
+  }
+
+  /**
+   * Streams the JVM's pinned virtual thread events to the pin counters. The monitor runs until the
+   * JVM exits since the virtual threads it watches may belong to any system in the JVM. Pins that
+   * happen while the monitor thread is still starting are not counted.
+   */
+  private static synchronized void startPinMonitor() {
+    if (pinMonitorStarted) {
+      return;
+    }
+    pinMonitorStarted = true;
+    try {
+      Class<?> streamClass = Class.forName("jdk.jfr.consumer.RecordingStream");
+      Class<?> settingsClass = Class.forName("jdk.jfr.EventSettings");
+      final Method getDuration =
+          Class.forName("jdk.jfr.consumer.RecordedEvent").getMethod("getDuration");
+      Object stream = streamClass.getConstructor().newInstance();
+      Object settings = streamClass.getMethod("enable", String.class).invoke(stream, PINNED_EVENT);
+      settingsClass.getMethod("withThreshold", Duration.class).invoke(settings,
+          Duration.ofMillis(PINNED_THRESHOLD_MILLIS));
+      Consumer<Object> onPinned = event -> {
+        pins.incrementAndGet();
+        try {
+          pinnedTime.addAndGet(((Duration) getDuration.invoke(event)).toNanos());
+        } catch (ReflectiveOperationException ignore) {
+          // the pin is still counted
+        }
+      };
+      streamClass.getMethod("onEvent", String.class, Consumer.class).invoke(stream, PINNED_EVENT,
+          onPinned);
+      // startAsync() would stream the events in a thread that keeps the JVM from exiting
+      final Method start = streamClass.getMethod("start");
+      ThreadGroup group =
+          LoggingThreadGroup.createThreadGroup("Virtual Thread Pin Monitor", logger);
+      Thread monitor = new Thread(group, () -> {
+        try {
+          start.invoke(stream);
+        } catch (ReflectiveOperationException e) {
+          logger.info("Pinned virtual threads will not be counted: {}", e.toString());
+        }
+      }, "Virtual Thread Pin Monitor");
+      monitor.setDaemon(true);
+      monitor.start();
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      logger.info("Pinned virtual threads will not be counted: {}", e.toString());
+    }
+  }
+}
@@ -615,6 +615,11 @@ public class PdxInstanceImpl extends PdxReaderImpl implements InternalPdxInstanc
     return super.readField(fieldName);
   }
 
+  @Override
+  public synchronized Object readField(PdxField ft) {
+    return super.readField(ft);
+  }
+
   @Override
   protected synchronized Object basicGetObject() {
     DMStats stats = InternalDataSerializer.getDMStats(null);
@@ -656,6 +661,14 @@ public class PdxInstanceImpl extends PdxReaderImpl implements InternalPdxInstanc
     return getUnmodifiableReader(fieldName).readRawField(fieldName);
   }
 
+  /**
+   * Returns the value of the given field of this instance's type, like {@link #getRawField(String)}
+   * but without looking the field up by name.
+   */
+  public Object getRawField(PdxField field) {
+    return getUnmodifiableReader(field.getFieldName()).readRawField(field);
+  }
+
   public Object getDefaultValueIfFieldExistsInAnyPdxVersions(String fieldName, String className)
       throws FieldNotFoundInPdxVersion {
     PdxType pdxType =
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, ClientServerTest.class})
+public class ChunkedBulkOpTest {
+
+  private LocalRegion region;
+  private InternalPool pool;
+  private ClientMetadataService cms;
+
+  @Before
+  public void setUp() {
+    region = mock(LocalRegion.class);
+    pool = mock(InternalPool.class);
+    ServerRegionProxy proxy = mock(ServerRegionProxy.class);
+    when(proxy.getPool()).thenReturn(pool);
+    when(region.getServerProxy()).thenReturn(proxy);
+    InternalCache cache = mock(InternalCache.class);
+    cms = mock(ClientMetadataService.class);
+    when(cache.getClientMetadataService()).thenReturn(cms);
+    when(region.getCache()).thenReturn(cache);
+  }
+
+  @Test
+  public void keysAreChunkedByServer() {
+    when(pool.getPRSingleHopEnabled()).thenReturn(true);
+    Map<ServerLocation, HashSet> serverToKeys = new HashMap<>();
+    serverToKeys.put(new ServerLocation("a", 1), new LinkedHashSet<>(Arrays.asList(1, 3, 5)));
+    serverToKeys.put(new ServerLocation("b", 1), new LinkedHashSet<>(Arrays.asList(2, 4)));
+    when(cms.getServerToFilterMap(any(), eq(region), eq(true))).thenReturn(serverToKeys);
+
+    List<Queue<List<Integer>>> chunks =
+        ChunkedBulkOp.split(region, Arrays.asList(1, 2, 3, 4, 5), 2);
+
+    assertThat(chunks).hasSize(2);
+    List<List<Integer>> allChunks = new ArrayList<>();
+    chunks.forEach(allChunks::addAll);
+    assertThat(allChunks).containsExactlyInAnyOrder(Arrays.asList(1, 3), Arrays.asList(5),
+        Arrays.asList(2, 4));
+  }
+
+  @Test
+  public void keysAreChunkedTogetherWithoutSingleHop() {
+    List<Queue<List<Integer>>> chunks =
+        ChunkedBulkOp.split(region, Arrays.asList(1, 2, 3, 4, 5), 2);
+
+    assertThat(chunks).hasSize(1);
+    assertThat(chunks.get(0)).containsExactly(Arrays.asList(1, 2), Arrays.asList(3, 4),
+        Arrays.asList(5));
+  }
+
+  @Test
+  public void keysAreChunkedTogetherWithoutMetadata() {
+    when(pool.getPRSingleHopEnabled()).thenReturn(true);
+
+    List<Queue<List<Integer>>> chunks = ChunkedBulkOp.split(region, Arrays.asList(1, 2, 3), 5);
+
+    assertThat(chunks).hasSize(1);
+    assertThat(chunks.get(0)).containsExactly(Arrays.asList(1, 2, 3));
+  }
+
+  @Test
+  public void operationIsDoneOnEveryChunk() throws Exception {
+    Queue<Integer> done = new ConcurrentLinkedQueue<>();
+    List<Integer> keys = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      keys.add(i);
+    }
+
+    ChunkedBulkOp.execute(region, keys, 7, done::addAll).get(1, TimeUnit.MINUTES);
+
+    assertThat(done).containsExactlyInAnyOrderElementsOf(keys);
+  }
+
+  @Test
+  public void chunkResultIsConsumedBeforeOthersAreDone() throws Exception {
+    when(pool.getPRSingleHopEnabled()).thenReturn(true);
+    Map<ServerLocation, HashSet> serverToKeys = new HashMap<>();
+    serverToKeys.put(new ServerLocation("a", 1), new HashSet<>(Arrays.asList(1)));
+    serverToKeys.put(new ServerLocation("b", 1), new HashSet<>(Arrays.asList(2)));
+    when(cms.getServerToFilterMap(any(), eq(region), eq(true))).thenReturn(serverToKeys);
+    CountDownLatch firstChunkDone = new CountDownLatch(1);
+
+    ChunkedBulkOp.execute(region, Arrays.asList(1, 2), 1, chunk -> {
+      try {
+        if (chunk.contains(1)) {
+          firstChunkDone.countDown();
+        } else if (!firstChunkDone.await(1, TimeUnit.MINUTES)) {
+          throw new IllegalStateException("the chunk of the other server was not done");
+        }
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+    }).get(1, TimeUnit.MINUTES);
+  }
+
+  @Test
+  public void failedChunkFailsResult() {
+    assertThatThrownBy(() -> ChunkedBulkOp.execute(region, Arrays.asList(1, 2, 3), 1, chunk -> {
+      throw new IllegalStateException("failed");
+    }).get(1, TimeUnit.MINUTES)).isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void chunkSizeMustBePositive() {
+    assertThatThrownBy(() -> ChunkedBulkOp.execute(region, Arrays.asList(1), 0, chunk -> {
+    })).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void noKeysCompletesResult() throws Exception {
+    assertThat(ChunkedBulkOp.execute(region, new ArrayList<Integer>(), 10, chunk -> {
+    })).isCompleted();
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.CancelCriterion;
+import org.apache.geode.distributed.DistributedSystem;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.cache.PoolStats;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, ClientServerTest.class})
+public class EndpointManagerImplTest {
+
+  private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final AtomicLong clock = new AtomicLong();
+
+  private EndpointManagerImpl endpointManager;
+  private Endpoint fast;
+  private Endpoint other;
+
+  @Before
+  public void setUp() {
+    endpointManager = new EndpointManagerImpl("pool", mock(DistributedSystem.class),
+        mock(CancelCriterion.class), mock(PoolStats.class), clock::get);
+    fast = endpointManager.referenceEndpoint(new ServerLocation("localhost", 1), null);
+    other = endpointManager.referenceEndpoint(new ServerLocation("localhost", 2), null);
+  }
+
+  @Test
+  public void serverWithMuchHigherLatencyIsSlow() {
+    answer(fast, 0);
+    answer(other, 50 * MILLIS);
+
+    assertThat(endpointManager.getSlowServers()).containsExactly(other.getLocation());
+  }
+
+  @Test
+  public void serversWithCloseLatenciesAreNotSlow() {
+    answer(fast, 0);
+    answer(other, MILLIS);
+
+    assertThat(endpointManager.getSlowServers()).isEmpty();
+  }
+
+  @Test
+  public void serverWithUnknownLatencyIsNotSlow() {
+    answer(fast, 50 * MILLIS);
+
+    assertThat(endpointManager.getSlowServers()).isEmpty();
+  }
+
+  @Test
+  public void serverThatAnsweredNothingRecentlyIsNotSlow() {
+    answer(fast, 0);
+    answer(other, 50 * MILLIS);
+
+    clock.addAndGet(Endpoint.LATENCY_WINDOW_NANOS + MILLIS);
+    answer(fast, 0);
+
+    assertThat(endpointManager.getSlowServers()).isEmpty();
+  }
+
+  @Test
+  public void serverThatStopsAnsweringIsSlow() {
+    answer(fast, 0);
+    answer(other, 0);
+    other.opStarted();
+
+    clock.addAndGet(50 * MILLIS);
+    answer(fast, 0);
+
+    assertThat(endpointManager.getSlowServers()).containsExactly(other.getLocation());
+  }
+
+  private void answer(Endpoint endpoint, long latency) {
+    long start = endpoint.opStarted();
+    clock.addAndGet(latency);
+    endpoint.opEnded(start);
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.client.ServerConnectivityException;
+import org.apache.geode.cache.client.ServerOperationException;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, ClientServerTest.class})
+public class GetOpTest {
+
+  private static final ServerLocation SERVER1 = new ServerLocation("localhost", 1);
+  private static final ServerLocation SERVER2 = new ServerLocation("localhost", 2);
+  private static final ServerLocation SERVER3 = new ServerLocation("localhost", 3);
+
+  private PoolImpl pool;
+  private LocalRegion region;
+  private ClientMetadataService cms;
+  private LatencyHistogram latencies;
+
+  @Before
+  public void setUp() {
+    pool = mock(PoolImpl.class);
+    region = mock(LocalRegion.class);
+    when(region.getFullPath()).thenReturn("/region");
+    InternalCache cache = mock(InternalCache.class);
+    cms = mock(ClientMetadataService.class);
+    when(cms.isNonPartitionedRegion("/region")).thenReturn(true);
+    when(cache.getClientMetadataService()).thenReturn(cms);
+    when(region.getCache()).thenReturn(cache);
+    latencies = new LatencyHistogram(95);
+    for (int i = 0; i < LatencyHistogram.RECOMPUTE_INTERVAL; i++) {
+      latencies.record(1000);
+    }
+    when(pool.getGetLatencies()).thenReturn(latencies);
+    when(pool.getMaxConnections()).thenReturn(-1);
+    when(pool.getCurrentServers()).thenReturn(new ArrayList<>(Arrays.asList(SERVER1, SERVER2)));
+  }
+
+  @Test
+  public void getIsSentToSecondServerIfFirstDoesNotAnswer() {
+    CompletableFuture<Object> stalled = new CompletableFuture<>();
+    CompletableFuture<Object> answered = CompletableFuture.completedFuture("value");
+    when(pool.executeAsync(any(), any(), anyBoolean(), anyInt(), any(), any()))
+        .thenReturn(stalled, answered);
+
+    assertThat(GetOp.executeHedged(pool, region, "key", null, false, null)).isEqualTo("value");
+    assertThat(stalled).isCancelled();
+    verify(pool).executeAsync(eq(SERVER1), any(), anyBoolean(), anyInt(), any(), any());
+    verify(pool).executeAsync(eq(SERVER2), any(), anyBoolean(), anyInt(), any(), any());
+  }
+
+  @Test
+  public void getIsNotHedgedIfFirstServerAnswers() {
+    when(pool.executeAsync(any(), any(), anyBoolean(), anyInt(), any(), any()))
+        .thenReturn(CompletableFuture.completedFuture("value"));
+
+    assertThat(GetOp.executeHedged(pool, region, "key", null, false, null)).isEqualTo("value");
+    verify(pool).executeAsync(any(), any(), anyBoolean(), anyInt(), any(), any());
+  }
+
+  @Test
+  public void getIsNotHedgedWithOneServer() {
+    when(pool.getCurrentServers()).thenReturn(new ArrayList<>(Arrays.asList(SERVER1)));
+    when(pool.execute(any())).thenReturn("value");
+
+    assertThat(GetOp.executeHedged(pool, region, "key", null, false, null)).isEqualTo("value");
+    verify(pool, never()).executeAsync(any(), any(), anyBoolean(), anyInt(), any(), any());
+  }
+
+  @Test
+  public void partitionedGetIsHedgedToServersHostingTheBucket() {
+    when(cms.isNonPartitionedRegion("/region")).thenReturn(false);
+    when(cms.getBucketServerLocations(region, "key", null))
+        .thenReturn(new ArrayList<>(Arrays.asList(SERVER1, SERVER3)));
+    CompletableFuture<Object> stalled = new CompletableFuture<>();
+    CompletableFuture<Object> answered = CompletableFuture.completedFuture("value");
+    when(pool.executeAsync(any(), any(), anyBoolean(), anyInt(), any(), any()))
+        .thenReturn(stalled, answered);
+
+    assertThat(GetOp.executeHedged(pool, region, "key", null, true, null)).isEqualTo("value");
+    verify(pool).executeAsync(eq(SERVER1), any(), anyBoolean(), anyInt(), any(), any());
+    verify(pool).executeAsync(eq(SERVER3), any(), anyBoolean(), anyInt(), any(), any());
+  }
+
+  @Test
+  public void partitionedGetIsNotHedgedWithoutRedundantCopy() {
+    when(cms.isNonPartitionedRegion("/region")).thenReturn(false);
+    when(cms.getBucketServerLocations(region, "key", null))
+        .thenReturn(new ArrayList<>(Arrays.asList(SERVER1)));
+    when(pool.execute(any())).thenReturn("value");
+
+    assertThat(GetOp.executeHedged(pool, region, "key", null, false, null)).isEqualTo("value");
+    assertThat(GetOp.executeHedged(pool, region, "key", null, true, null)).isEqualTo("value");
+    verify(pool, never()).executeAsync(any(), any(), anyBoolean(), anyInt(), any(), any());
+  }
+
+  @Test
+  public void getIsNotHedgedIfRegionMayBePartitioned() {
+    when(cms.isNonPartitionedRegion("/region")).thenReturn(false);
+    when(pool.execute(any())).thenReturn("value");
+
+    assertThat(GetOp.executeHedged(pool, region, "key", null, false, null)).isEqualTo("value");
+    verify(pool, never()).executeAsync(any(), any(), anyBoolean(), anyInt(), any(), any());
+  }
+
+  @Test
+  public void getIsRetriedIfBothServersFail() {
+    CompletableFuture<Object> failed = new CompletableFuture<>();
+    failed.completeExceptionally(new ServerConnectivityException("down"));
+    when(pool.executeAsync(any(), any(), anyBoolean(), anyInt(), any(), any()))
+        .thenReturn(failed);
+    when(pool.execute(any())).thenReturn("value");
+
+    assertThat(GetOp.executeHedged(pool, region, "key", null, false, null)).isEqualTo("value");
+  }
+
+  @Test
+  public void serverFailureIsThrown() {
+    CompletableFuture<Object> failed = new CompletableFuture<>();
+    failed.completeExceptionally(new ServerOperationException("failed"));
+    when(pool.executeAsync(any(), any(), anyBoolean(), anyInt(), any(), any()))
+        .thenReturn(failed);
+
+    assertThatThrownBy(() -> GetOp.executeHedged(pool, region, "key", null, false, null))
+        .isInstanceOf(ServerOperationException.class);
+    verify(pool, never()).execute(any());
+  }
+}
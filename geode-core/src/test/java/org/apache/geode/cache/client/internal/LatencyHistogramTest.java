@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, ClientServerTest.class})
+public class LatencyHistogramTest {
+
+  @Test
+  public void bucketUpperBoundIsCloseAboveLatency() {
+    for (long latency = 0; latency < 10_000_000; latency = latency * 3 / 2 + 1) {
+      long upperBound = LatencyHistogram.getUpperBound(LatencyHistogram.getBucket(latency));
+      assertThat(upperBound).isGreaterThanOrEqualTo(latency)
+          .isLessThanOrEqualTo(latency + latency / 8);
+    }
+  }
+
+  @Test
+  public void valueIsUnknownUntilEnoughLatencies() {
+    LatencyHistogram histogram = new LatencyHistogram(95);
+    for (int i = 0; i < LatencyHistogram.RECOMPUTE_INTERVAL - 1; i++) {
+      histogram.record(1000);
+    }
+    assertThat(histogram.getValue()).isEqualTo(-1);
+
+    histogram.record(1000);
+    assertThat(histogram.getValue()).isBetween(1000L, 1125L);
+  }
+
+  @Test
+  public void valueIsPercentileOfLatencies() {
+    LatencyHistogram histogram = new LatencyHistogram(95);
+    for (int i = 0; i < 100 * LatencyHistogram.RECOMPUTE_INTERVAL; i++) {
+      histogram.record(i % 100 < 90 ? 1000 : 1_000_000);
+    }
+
+    assertThat(histogram.getValue()).isBetween(1_000_000L, 1_125_000L);
+  }
+
+  @Test
+  public void olderLatenciesWeighLess() {
+    LatencyHistogram histogram = new LatencyHistogram(50);
+    for (int i = 0; i < 100 * LatencyHistogram.RECOMPUTE_INTERVAL; i++) {
+      histogram.record(1_000_000);
+    }
+    for (int i = 0; i < 20 * LatencyHistogram.RECOMPUTE_INTERVAL; i++) {
+      histogram.record(1000);
+    }
+
+    assertThat(histogram.getValue()).isBetween(1000L, 1125L);
+  }
+}
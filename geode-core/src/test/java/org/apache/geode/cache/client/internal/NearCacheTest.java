@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyByte;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+
+import org.apache.geode.cache.InterestResultPolicy;
+import org.apache.geode.cache.client.ServerConnectivityException;
+import org.apache.geode.internal.cache.tier.InterestType;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, ClientServerTest.class})
+public class NearCacheTest {
+
+  private static final byte DATA_POLICY = 1;
+
+  private ServerRegionProxy proxy;
+  private ScheduledExecutorService executor;
+  private ScheduledFuture<?> unregisterTask;
+  private Set<Object> cachedKeys;
+  private NearCache nearCache;
+
+  @Before
+  public void setUp() {
+    proxy = mock(ServerRegionProxy.class);
+    executor = mock(ScheduledExecutorService.class);
+    doAnswer(invocation -> {
+      ((Runnable) invocation.getArgument(0)).run();
+      return null;
+    }).when(executor).execute(any());
+    unregisterTask = mock(ScheduledFuture.class);
+    doReturn(unregisterTask).when(executor).scheduleWithFixedDelay(any(), anyLong(), anyLong(),
+        any());
+    cachedKeys = new HashSet<>();
+    nearCache = new NearCache(proxy, DATA_POLICY, executor, cachedKeys::contains);
+  }
+
+  @Test
+  public void keyIsRegisteredOnceForInvalidates() {
+    nearCache.register("key");
+    nearCache.register("key");
+
+    verify(proxy, times(1)).registerInterest("key", InterestType.KEY, InterestResultPolicy.NONE,
+        false, true, DATA_POLICY);
+    assertThat(nearCache.getRegisteredKeyCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void registerAllRegistersNewKeysWithOneRequest() {
+    nearCache.register("a");
+
+    nearCache.registerAll(Arrays.asList("a", "b", "c"));
+
+    verify(proxy).registerInterestList(Arrays.asList("b", "c"), InterestResultPolicy.NONE, false,
+        true, DATA_POLICY);
+    assertThat(nearCache.getRegisteredKeyCount()).isEqualTo(3);
+  }
+
+  @Test
+  public void failedRegistrationIsRetried() {
+    when(proxy.registerInterest(any(), anyInt(), any(), anyBoolean(), anyBoolean(), anyByte()))
+        .thenThrow(new ServerConnectivityException("down")).thenReturn(null);
+
+    assertThatThrownBy(() -> nearCache.register("key"))
+        .isInstanceOf(ServerConnectivityException.class);
+    assertThat(nearCache.getRegisteredKeyCount()).isEqualTo(0);
+
+    nearCache.register("key");
+    verify(proxy, times(2)).registerInterest(any(), anyInt(), any(), anyBoolean(), anyBoolean(),
+        anyByte());
+    assertThat(nearCache.getRegisteredKeyCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void removedKeysAreUnregisteredInBatches() {
+    List<Object> keys = new ArrayList<>();
+    for (int i = 0; i < NearCache.UNREGISTER_BATCH_SIZE; i++) {
+      keys.add("key" + i);
+    }
+    nearCache.registerAll(keys);
+    nearCache.releaseAll(keys, key -> true);
+
+    for (int i = 0; i < keys.size() - 1; i++) {
+      nearCache.removed(keys.get(i));
+    }
+    verify(proxy, never()).unregisterInterestList(anyList(), anyBoolean(), anyBoolean());
+
+    nearCache.removed(keys.get(keys.size() - 1));
+    verify(proxy).unregisterInterestList(keys, false, false);
+    assertThat(nearCache.getRegisteredKeyCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void keyRegisteredAgainIsNotUnregistered() {
+    nearCache.register("key");
+    nearCache.release("key", true);
+    nearCache.removed("key");
+    nearCache.register("key");
+
+    nearCache.unregisterRemovedKeys();
+
+    verify(proxy, never()).unregisterInterestList(anyList(), anyBoolean(), anyBoolean());
+    verify(proxy, times(2)).registerInterest(eq("key"), anyInt(), any(), anyBoolean(),
+        anyBoolean(), anyByte());
+  }
+
+  @Test
+  public void removedKeyThatIsNotRegisteredIsIgnored() {
+    nearCache.removed("key");
+
+    nearCache.unregisterRemovedKeys();
+
+    verify(proxy, never()).unregisterInterestList(anyList(), anyBoolean(), anyBoolean());
+  }
+
+  @Test
+  public void keyThatIsNotCachedIsUnregistered() {
+    nearCache.register("key");
+    nearCache.release("key", false);
+
+    nearCache.unregisterRemovedKeys();
+
+    verify(proxy).unregisterInterestList(Collections.singletonList("key"), false, false);
+    assertThat(nearCache.getRegisteredKeyCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void keyInUseIsNotUnregistered() {
+    nearCache.register("key");
+    nearCache.register("key");
+    nearCache.release("key", false);
+
+    nearCache.unregisterRemovedKeys();
+
+    verify(proxy, never()).unregisterInterestList(anyList(), anyBoolean(), anyBoolean());
+    assertThat(nearCache.getRegisteredKeyCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void keyCachedSinceItWasRemovedIsNotUnregistered() {
+    nearCache.register("key");
+    nearCache.release("key", false);
+    cachedKeys.add("key");
+
+    nearCache.unregisterRemovedKeys();
+
+    verify(proxy, never()).unregisterInterestList(anyList(), anyBoolean(), anyBoolean());
+    assertThat(nearCache.getRegisteredKeyCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void partialBatchIsUnregisteredPeriodically() {
+    ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+    verify(executor).scheduleWithFixedDelay(task.capture(), eq(NearCache.UNREGISTER_INTERVAL),
+        eq(NearCache.UNREGISTER_INTERVAL), eq(TimeUnit.MILLISECONDS));
+    nearCache.register("key");
+    nearCache.release("key", true);
+    nearCache.removed("key");
+
+    task.getValue().run();
+
+    verify(proxy).unregisterInterestList(Collections.singletonList("key"), false, false);
+  }
+
+  @Test
+  public void closeUnregistersPartialBatch() {
+    nearCache.register("key");
+    nearCache.release("key", true);
+    nearCache.removed("key");
+
+    nearCache.close();
+
+    verify(unregisterTask).cancel(false);
+    verify(proxy).unregisterInterestList(Collections.singletonList("key"), false, false);
+  }
+}
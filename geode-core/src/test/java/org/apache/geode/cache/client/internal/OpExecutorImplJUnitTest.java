@@ -24,6 +24,7 @@ import java.net.Socket;
 import java.net.SocketTimeoutException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -654,6 +655,11 @@ public class OpExecutorImplJUnitTest {
       return 0;
     }
 
+    @Override
+    public Set<ServerLocation> getSlowServers() {
+      return Collections.emptySet();
+    }
+
     @Override
     public Map getAllStats() {
       return null;
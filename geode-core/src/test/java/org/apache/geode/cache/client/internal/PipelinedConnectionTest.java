@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.client.internal.pooling.ConnectionDestroyedException;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, ClientServerTest.class})
+public class PipelinedConnectionTest {
+
+  private ServerSocket serverSocket;
+  private Socket clientSocket;
+  private Socket serverSideSocket;
+  private Connection connection;
+  private ConnectionStats stats;
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() throws Exception {
+    serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    clientSocket = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+    serverSideSocket = serverSocket.accept();
+    stats = mock(ConnectionStats.class);
+    connection = mock(Connection.class);
+    when(connection.getSocket()).thenReturn(clientSocket);
+    when(connection.getInputStream()).thenReturn(clientSocket.getInputStream());
+    when(connection.getOutputStream()).thenReturn(clientSocket.getOutputStream());
+    when(connection.getCommBuffer()).thenReturn(ByteBuffer.allocate(1024));
+    when(connection.getStats()).thenReturn(stats);
+    when(connection.getServer())
+        .thenReturn(new ServerLocation("localhost", serverSocket.getLocalPort()));
+    when(connection.getEndpoint()).thenReturn(mock(Endpoint.class));
+    executor = Executors.newCachedThreadPool();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    executor.shutdownNow();
+    clientSocket.close();
+    serverSideSocket.close();
+    serverSocket.close();
+  }
+
+  @Test
+  public void responsesAreMatchedWithRequestsInOrder() throws Exception {
+    final int threads = 8;
+    final int requests = 200;
+    executor.submit(() -> echo(threads * requests));
+    PipelinedConnection pipelined = new PipelinedConnection(connection, threads, 0);
+    for (int i = 1; i < threads; i++) {
+      assertThat(pipelined.join()).isTrue();
+    }
+    assertThat(pipelined.join()).isFalse();
+
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      final int base = t * requests;
+      futures.add(executor.submit(() -> {
+        start.await();
+        for (int i = base; i < base + requests; i++) {
+          assertThat(pipelined.execute(new EchoOp(i))).isEqualTo(i);
+        }
+        return null;
+      }));
+    }
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get(1, TimeUnit.MINUTES);
+    }
+
+    for (int i = 1; i < threads; i++) {
+      assertThat(pipelined.leave()).isFalse();
+    }
+    assertThat(pipelined.leave()).isTrue();
+    assertThat(pipelined.join()).isFalse();
+  }
+
+  @Test
+  public void waitingRequestsFailOnceAReadFails() throws Exception {
+    PipelinedConnection pipelined = new PipelinedConnection(connection, 2, 0);
+    EchoOp first = new EchoOp(1);
+    EchoOp second = new EchoOp(2);
+    long firstPosition = pipelined.send(first);
+    long secondPosition = pipelined.send(second);
+    Future<?> waiting = executor.submit(() -> {
+      pipelined.receive(secondPosition, new Message(1, Version.CURRENT));
+      return null;
+    });
+    serverSideSocket.close();
+
+    assertThatThrownBy(() -> pipelined.receive(firstPosition, new Message(1, Version.CURRENT)))
+        .isNotInstanceOf(ConnectionDestroyedException.class);
+    assertThatThrownBy(() -> waiting.get(1, TimeUnit.MINUTES))
+        .hasCauseInstanceOf(ConnectionDestroyedException.class);
+    assertThatThrownBy(() -> pipelined.send(new EchoOp(3)))
+        .isInstanceOf(ConnectionDestroyedException.class);
+    assertThat(pipelined.isDestroyed()).isTrue();
+    assertThat(pipelined.join()).isFalse();
+    verify(connection).destroy();
+  }
+
+  @Test
+  public void interruptedWaitBreaksConnection() throws Exception {
+    PipelinedConnection pipelined = new PipelinedConnection(connection, 2, 0);
+    long firstPosition = pipelined.send(new EchoOp(1));
+    long secondPosition = pipelined.send(new EchoOp(2));
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    Thread waiting = new Thread(() -> {
+      try {
+        pipelined.receive(secondPosition, new Message(1, Version.CURRENT));
+      } catch (Throwable t) {
+        failure.set(t);
+      }
+    });
+    waiting.start();
+    waiting.interrupt();
+    waiting.join(TimeUnit.MINUTES.toMillis(1));
+
+    assertThat(failure.get()).isInstanceOf(InterruptedException.class);
+    assertThat(pipelined.isDestroyed()).isTrue();
+    assertThatThrownBy(() -> pipelined.receive(firstPosition, new Message(1, Version.CURRENT)))
+        .isInstanceOf(ConnectionDestroyedException.class);
+    verify(connection).destroy();
+  }
+
+  @Test
+  public void waitLongerThanReadTimeoutBreaksConnection() throws Exception {
+    PipelinedConnection pipelined = new PipelinedConnection(connection, 2, 100);
+    pipelined.send(new EchoOp(1));
+    long secondPosition = pipelined.send(new EchoOp(2));
+
+    assertThatThrownBy(() -> pipelined.receive(secondPosition, new Message(1, Version.CURRENT)))
+        .isInstanceOf(SocketTimeoutException.class);
+    assertThat(pipelined.isDestroyed()).isTrue();
+    verify(connection).destroy();
+  }
+
+  private Void echo(int count) throws Exception {
+    ByteBuffer buffer = ByteBuffer.allocate(1024);
+    Message request = new Message(1, Version.CURRENT);
+    Message reply = new Message(1, Version.CURRENT);
+    request.setComms(serverSideSocket, serverSideSocket.getInputStream(),
+        serverSideSocket.getOutputStream(), buffer, null);
+    reply.setComms(serverSideSocket, serverSideSocket.getInputStream(),
+        serverSideSocket.getOutputStream(), buffer, null);
+    for (int i = 0; i < count; i++) {
+      request.receive();
+      int value = request.getPart(0).getInt();
+      reply.clear();
+      reply.setMessageType(MessageType.REPLY);
+      reply.setNumberOfParts(1);
+      reply.addIntPart(value);
+      reply.send(false);
+    }
+    return null;
+  }
+
+  private static class EchoOp extends AbstractOp {
+
+    EchoOp(int value) {
+      super(MessageType.PING, 1);
+      getMessage().addIntPart(value);
+    }
+
+    @Override
+    protected Object processResponse(Message msg) throws Exception {
+      return msg.getPart(0).getInt();
+    }
+
+    @Override
+    protected boolean isErrorResponse(int msgType) {
+      return false;
+    }
+
+    @Override
+    protected long startAttempt(ConnectionStats stats) {
+      return 0;
+    }
+
+    @Override
+    protected void endSendAttempt(ConnectionStats stats, long start) {}
+
+    @Override
+    protected void endAttempt(ConnectionStats stats, long start) {}
+
+    @Override
+    protected boolean participateInTransaction() {
+      return false;
+    }
+
+    @Override
+    protected boolean supportsPipelining() {
+      return true;
+    }
+  }
+}
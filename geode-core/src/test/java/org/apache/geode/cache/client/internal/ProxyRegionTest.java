@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, ClientServerTest.class})
+public class ProxyRegionTest {
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void asyncGetIsDoneWithAttributesOfTheUser() throws Exception {
+    ProxyCache proxyCache = mock(ProxyCache.class);
+    UserAttributes userAttributes = mock(UserAttributes.class);
+    when(proxyCache.getUserAttributes()).thenReturn(userAttributes);
+    Region realRegion = mock(Region.class);
+    AtomicReference<UserAttributes> attributesOfGet = new AtomicReference<>();
+    when(realRegion.get("key")).thenAnswer(invocation -> {
+      attributesOfGet.set(UserAttributes.userAttributes.get());
+      return "value";
+    });
+    ProxyRegion proxyRegion = new ProxyRegion(proxyCache, realRegion);
+
+    Object value = proxyRegion.async().getAsync("key").get(1, TimeUnit.MINUTES);
+
+    assertThat(value).isEqualTo("value");
+    assertThat(attributesOfGet.get()).isSameAs(userAttributes);
+  }
+}
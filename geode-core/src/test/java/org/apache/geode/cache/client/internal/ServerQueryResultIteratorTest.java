@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.Version;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, ClientServerTest.class})
+public class ServerQueryResultIteratorTest {
+
+  private static final ServerLocation SERVER = new ServerLocation("localhost", 1);
+
+  private ExecutablePool pool;
+
+  @Before
+  public void setUp() {
+    pool = mock(ExecutablePool.class);
+  }
+
+  private static QueryCursorOp.Batch batch(long cursorId, Object... results) {
+    SelectResults selectResults = mock(SelectResults.class);
+    when(selectResults.iterator()).thenReturn(Arrays.asList(results).iterator());
+    return new QueryCursorOp.Batch(selectResults, SERVER, cursorId);
+  }
+
+  private static List<Object> drain(ServerQueryResultIterator<Object> iterator) {
+    List<Object> results = new ArrayList<>();
+    while (iterator.hasNext()) {
+      results.add(iterator.next());
+    }
+    return results;
+  }
+
+  @Test
+  public void fetchesBatchesFromTheServerOfTheFirstUntilTheCursorIsExhausted() {
+    when(pool.executeOn(eq(SERVER), any(Op.class))).thenReturn(batch(7, 3, 4), batch(0, 5));
+    ServerQueryResultIterator<Object> iterator =
+        new ServerQueryResultIterator<>(pool, batch(7, 1, 2), null);
+
+    assertThat(drain(iterator)).containsExactly(1, 2, 3, 4, 5);
+    assertThatThrownBy(iterator::next).isInstanceOf(NoSuchElementException.class);
+    verify(pool, times(2)).executeOn(eq(SERVER), any(Op.class));
+  }
+
+  @Test
+  public void doesNotFetchWhenTheFirstBatchHasAllResults() {
+    ServerQueryResultIterator<Object> iterator =
+        new ServerQueryResultIterator<>(pool, batch(0, 1, 2), null);
+
+    assertThat(drain(iterator)).containsExactly(1, 2);
+    iterator.close();
+    verify(pool, never()).executeOn(any(ServerLocation.class), any(Op.class));
+  }
+
+  @Test
+  public void closeReleasesTheCursorOnce() {
+    ServerQueryResultIterator<Object> iterator =
+        new ServerQueryResultIterator<>(pool, batch(7, 1, 2), null);
+
+    assertThat(iterator.next()).isEqualTo(1);
+    iterator.close();
+    iterator.close();
+
+    assertThat(iterator.hasNext()).isFalse();
+    verify(pool, times(1)).executeOn(eq(SERVER), any(Op.class));
+  }
+
+  @Test
+  public void onlyServersOnGeode18OrLaterKeepCursors() {
+    assertThat(QueryCursorOp.supportsCursors(connectionTo(Version.GEODE_170))).isFalse();
+    assertThat(QueryCursorOp.supportsCursors(connectionTo(Version.GEODE_180))).isTrue();
+  }
+
+  private static Connection connectionTo(Version version) {
+    InternalDistributedMember member = mock(InternalDistributedMember.class);
+    when(member.getVersionObject()).thenReturn(version);
+    Endpoint endpoint = mock(Endpoint.class);
+    when(endpoint.getMemberId()).thenReturn(member);
+    Connection connection = mock(Connection.class);
+    when(connection.getEndpoint()).thenReturn(endpoint);
+    return connection;
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.internal.types.ObjectTypeImpl;
+import org.apache.geode.cache.query.internal.types.StructTypeImpl;
+import org.apache.geode.cache.query.types.ObjectType;
+import org.apache.geode.test.junit.categories.OQLQueryTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, OQLQueryTest.class})
+public class AttributeAccessorTest {
+
+  private ExecutionContext context;
+
+  @Before
+  public void setUp() {
+    context = mock(ExecutionContext.class);
+    when(context.getMethodInvocationAuthorizer())
+        .thenReturn(mock(MethodInvocationAuthorizer.class));
+  }
+
+  @Test
+  public void readsGetterOfObjectsOfSameClass() throws Exception {
+    AttributeAccessor accessor = new AttributeAccessor("id");
+
+    assertThat(accessor.read(context, new WithGetter(1))).isEqualTo(1);
+    assertThat(accessor.read(context, new WithGetter(2))).isEqualTo(2);
+  }
+
+  @Test
+  public void bindsAgainForObjectOfAnotherClass() throws Exception {
+    AttributeAccessor accessor = new AttributeAccessor("id");
+
+    assertThat(accessor.read(context, new WithGetter(1))).isEqualTo(1);
+    assertThat(accessor.read(context, new WithField(2))).isEqualTo(2);
+    assertThat(accessor.read(context, new WithGetter(3))).isEqualTo(3);
+  }
+
+  @Test
+  public void readsUndefinedForNullAndUndefined() throws Exception {
+    AttributeAccessor accessor = new AttributeAccessor("id");
+
+    assertThat(accessor.read(context, new WithGetter(1))).isEqualTo(1);
+    assertThat(accessor.read(context, null)).isSameAs(QueryService.UNDEFINED);
+    assertThat(accessor.read(context, QueryService.UNDEFINED)).isSameAs(QueryService.UNDEFINED);
+  }
+
+  @Test
+  public void readsFieldOfStruct() throws Exception {
+    AttributeAccessor accessor = new AttributeAccessor("id");
+    StructTypeImpl type = new StructTypeImpl(new String[] {"id"},
+        new ObjectType[] {new ObjectTypeImpl(Object.class)});
+
+    assertThat(accessor.read(context, new StructImpl(type, new Object[] {4}))).isEqualTo(4);
+  }
+
+  @Test
+  public void readsUndefinedIfObjectHasNoSuchAttribute() throws Exception {
+    AttributeAccessor accessor = new AttributeAccessor("id");
+
+    assertThat(accessor.read(context, new WithGetter(1))).isEqualTo(1);
+    assertThat(accessor.read(context, "noId")).isSameAs(QueryService.UNDEFINED);
+  }
+
+  public static class WithGetter {
+    private final int id;
+
+    WithGetter(int id) {
+      this.id = id;
+    }
+
+    public int getId() {
+      return id;
+    }
+  }
+
+  public static class WithField {
+    public final int id;
+
+    WithField(int id) {
+      this.id = id;
+    }
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.query.QueryInvalidException;
+import org.apache.geode.internal.cache.CachePerfStats;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.test.junit.categories.OQLQueryTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, OQLQueryTest.class})
+public class QueryPlanCacheTest {
+
+  private CachePerfStats stats;
+
+  private InternalCache cache;
+
+  @Before
+  public void setUp() {
+    stats = mock(CachePerfStats.class);
+    cache = mock(InternalCache.class);
+  }
+
+  @Test
+  public void normalizeCollapsesWhitespaceOutsideOfQuotes() {
+    assertThat(QueryPlanCache.normalize("  select *\n\tfrom  /r where  name = 'a  b'  "))
+        .isEqualTo("select * from /r where name = 'a  b'");
+    assertThat(QueryPlanCache.normalize("select * from /r where name = 'it''s  a'"))
+        .isEqualTo("select * from /r where name = 'it''s  a'");
+  }
+
+  @Test
+  public void normalizeKeepsCommentsAsTheyAre() {
+    assertThat(QueryPlanCache.normalize("select  * -- all\n  from /r"))
+        .isEqualTo("select * -- all\n  from /r");
+  }
+
+  @Test
+  public void queriesThatOnlyDifferInWhitespaceShareTheirCompiledTree() {
+    QueryPlanCache planCache = new QueryPlanCache(10, stats);
+
+    QueryPlanCache.CompiledPlan plan =
+        planCache.getPlan("select * from /r where id = $1", cache);
+
+    assertThat(planCache.getPlan("select *  from /r\nwhere id = $1", cache)).isSameAs(plan);
+    assertThat(planCache.size()).isEqualTo(1);
+    verify(stats, times(1)).incQueryPlanCacheMisses();
+    verify(stats, times(1)).incQueryPlanCacheHits();
+  }
+
+  @Test
+  public void leastRecentlyUsedTreeIsEvicted() {
+    QueryPlanCache planCache = new QueryPlanCache(2, stats);
+
+    QueryPlanCache.CompiledPlan first = planCache.getPlan("select * from /r1", cache);
+    planCache.getPlan("select * from /r2", cache);
+    planCache.getPlan("select * from /r1", cache);
+    planCache.getPlan("select * from /r3", cache);
+
+    assertThat(planCache.size()).isEqualTo(2);
+    assertThat(planCache.getPlan("select * from /r1", cache)).isSameAs(first);
+    verify(stats, times(3)).incQueryPlanCacheMisses();
+    verify(stats, times(2)).incQueryPlanCacheHits();
+  }
+
+  @Test
+  public void clearRemovesCompiledTrees() {
+    QueryPlanCache planCache = new QueryPlanCache(10, stats);
+    QueryPlanCache.CompiledPlan plan = planCache.getPlan("select * from /r", cache);
+
+    planCache.clear();
+
+    assertThat(planCache.size()).isEqualTo(0);
+    assertThat(planCache.getPlan("select * from /r", cache)).isNotSameAs(plan);
+  }
+
+  @Test
+  public void invalidQueryIsNotCached() {
+    QueryPlanCache planCache = new QueryPlanCache(10, stats);
+
+    assertThatThrownBy(() -> planCache.getPlan("select * from /r where", cache))
+        .isInstanceOf(QueryInvalidException.class);
+    assertThat(planCache.size()).isEqualTo(0);
+  }
+
+  @Test
+  public void traceRequestIsKeptWithTheTree() {
+    QueryPlanCache planCache = new QueryPlanCache(10, stats);
+
+    assertThat(planCache.getPlan("<trace> select * from /r", cache).isTraceRequested()).isTrue();
+    assertThat(planCache.getPlan("select * from /r", cache).isTraceRequested()).isFalse();
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes.TOK_EQ;
+import static org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes.TOK_GE;
+import static org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes.TOK_GT;
+import static org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes.TOK_LE;
+import static org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes.TOK_LT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.internal.NullToken;
+import org.apache.geode.test.junit.categories.OQLIndexTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, OQLIndexTest.class})
+public class IndexHistogramTest {
+
+  private static IndexHistogram numericHistogram(int numKeys, long numUpdates) {
+    IndexHistogram.Builder builder = new IndexHistogram.Builder(numKeys, numUpdates);
+    for (int i = 0; i < numKeys; i++) {
+      builder.add(i, 1);
+    }
+    return builder.build();
+  }
+
+  @Test
+  public void estimatesRangesOfEvenlySpreadNumericKeys() {
+    IndexHistogram histogram = numericHistogram(1000, 0);
+
+    assertThat(histogram.getNumValues()).isEqualTo(1000);
+    assertThat(histogram.getNumKeys()).isEqualTo(1000);
+    assertThat(histogram.getSizeEstimate(500, TOK_LT)).isCloseTo(500, within(10));
+    assertThat(histogram.getSizeEstimate(250L, TOK_GE)).isCloseTo(750, within(10));
+    assertThat(histogram.getSizeEstimate(899.5d, TOK_GT)).isCloseTo(100, within(10));
+  }
+
+  @Test
+  public void estimatesRangesBeyondTheKeys() {
+    IndexHistogram histogram = numericHistogram(1000, 0);
+
+    assertThat(histogram.getSizeEstimate(0, TOK_LT)).isEqualTo(0);
+    assertThat(histogram.getSizeEstimate(0, TOK_GE)).isEqualTo(1000);
+    assertThat(histogram.getSizeEstimate(999, TOK_LE)).isEqualTo(1000);
+    assertThat(histogram.getSizeEstimate(999, TOK_GT)).isEqualTo(0);
+    assertThat(histogram.getSizeEstimate(-5, TOK_LE)).isEqualTo(0);
+    assertThat(histogram.getSizeEstimate(2000, TOK_LT)).isEqualTo(1000);
+  }
+
+  @Test
+  public void countsAllValuesOfAKey() {
+    IndexHistogram.Builder builder = new IndexHistogram.Builder(1100, 0);
+    for (int i = 0; i < 100; i++) {
+      builder.add(i, 1);
+    }
+    builder.add(100, 1000);
+    IndexHistogram histogram = builder.build();
+
+    assertThat(histogram.getSizeEstimate(100, TOK_GE)).isEqualTo(1000);
+    assertThat(histogram.getSizeEstimate(100, TOK_LT)).isEqualTo(100);
+  }
+
+  @Test
+  public void estimatesRangesOfStringKeys() {
+    IndexHistogram.Builder builder = new IndexHistogram.Builder(26, 0);
+    for (char c = 'a'; c <= 'z'; c++) {
+      builder.add(String.valueOf(c), 10);
+    }
+    IndexHistogram histogram = builder.build();
+
+    assertThat(histogram.getSizeEstimate("n", TOK_LT)).isEqualTo(130);
+    assertThat(histogram.getSizeEstimate("n", TOK_LE)).isEqualTo(140);
+    assertThat(histogram.getSizeEstimate("zz", TOK_GT)).isEqualTo(0);
+  }
+
+  @Test
+  public void estimatesRangesBetweenTwoKeys() {
+    IndexHistogram histogram = numericHistogram(1000, 0);
+
+    assertThat(histogram.getSizeEstimate(250, TOK_GE, 750, TOK_LT)).isCloseTo(500, within(10));
+    assertThat(histogram.getSizeEstimate(-10, TOK_GT, 2000, TOK_LT)).isEqualTo(1000);
+    assertThat(histogram.getSizeEstimate(750, TOK_GT, 250, TOK_LT)).isEqualTo(0);
+    assertThat(histogram.getSizeEstimate("a", TOK_GT, 250, TOK_LT)).isEqualTo(-1);
+  }
+
+  @Test
+  public void leavesOutNullAndUndefinedKeys() {
+    IndexHistogram.Builder builder = new IndexHistogram.Builder(12, 0);
+    builder.add(new NullToken(), 5);
+    builder.add(QueryService.UNDEFINED, 5);
+    builder.add(1, 1);
+    builder.add(2, 1);
+    IndexHistogram histogram = builder.build();
+
+    assertThat(histogram.getNumValues()).isEqualTo(2);
+    assertThat(histogram.getNumKeys()).isEqualTo(2);
+  }
+
+  @Test
+  public void cannotEstimateUnsupportedKeysOrOperators() {
+    IndexHistogram histogram = numericHistogram(100, 0);
+
+    assertThat(histogram.getSizeEstimate(null, TOK_LT)).isEqualTo(-1);
+    assertThat(histogram.getSizeEstimate(QueryService.UNDEFINED, TOK_LT)).isEqualTo(-1);
+    assertThat(histogram.getSizeEstimate("a", TOK_LT)).isEqualTo(-1);
+    assertThat(histogram.getSizeEstimate(5, TOK_EQ)).isEqualTo(-1);
+  }
+
+  @Test
+  public void emptyHistogramEstimatesNoValues() {
+    IndexHistogram histogram = new IndexHistogram.Builder(0, 0).build();
+
+    assertThat(histogram.getSizeEstimate(5, TOK_LT)).isEqualTo(0);
+    assertThat(histogram.getSizeEstimate(5, TOK_GE)).isEqualTo(0);
+  }
+
+  @Test
+  public void isStaleAfterEnoughUpdates() {
+    IndexHistogram small = numericHistogram(100, 50);
+
+    assertThat(small.isStale(50 + IndexHistogram.MIN_UPDATES_BEFORE_REBUILD)).isFalse();
+    assertThat(small.isStale(51 + IndexHistogram.MIN_UPDATES_BEFORE_REBUILD)).isTrue();
+
+    IndexHistogram large = numericHistogram(100000, 0);
+
+    assertThat(large.isStale(10000)).isFalse();
+    assertThat(large.isStale(10001)).isTrue();
+  }
+}
@@ -42,6 +42,7 @@ public class VersionJUnitTest {
     compare(Version.GEODE_130, Version.GEODE_120);
     compare(Version.GEODE_140, Version.GEODE_130);
     compare(Version.GEODE_150, Version.GEODE_140);
+    compare(Version.GEODE_180, Version.GEODE_170);
   }
 
   private void compare(Version later, Version earlier) {
@@ -48,6 +48,7 @@ import org.apache.geode.cache.TransactionId;
 import org.apache.geode.cache.client.internal.ServerRegionProxy;
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.internal.cache.entries.DiskEntry.RecoveredEntry;
+import org.apache.geode.internal.cache.entries.VMThinRegionEntryOffHeapLongStringKey;
 import org.apache.geode.internal.cache.eviction.EvictableEntry;
 import org.apache.geode.internal.cache.eviction.EvictionController;
 import org.apache.geode.internal.cache.eviction.EvictionCounters;
@@ -57,6 +58,11 @@ import org.apache.geode.internal.cache.versions.VersionHolder;
 import org.apache.geode.internal.cache.versions.VersionSource;
 import org.apache.geode.internal.cache.versions.VersionStamp;
 import org.apache.geode.internal.cache.versions.VersionTag;
+import org.apache.geode.internal.offheap.MemoryAllocator;
+import org.apache.geode.internal.offheap.MemoryAllocatorImpl;
+import org.apache.geode.internal.offheap.OffHeapMemoryStats;
+import org.apache.geode.internal.offheap.OffHeapRegionKeyHelper;
+import org.apache.geode.internal.offheap.OutOfOffHeapMemoryListener;
 import org.apache.geode.internal.util.concurrent.ConcurrentMapWithReusableEntries;
 import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap;
 import org.apache.geode.test.junit.categories.UnitTest;
@@ -86,6 +92,45 @@ public class AbstractRegionMapTest {
             .isTrue();
   }
 
+  @Test
+  public void putEntryIfAbsentReleasesOffHeapKeyOfEntryThatLostTheRace() {
+    MemoryAllocator ma = MemoryAllocatorImpl.create(mock(OutOfOffHeapMemoryListener.class),
+        mock(OffHeapMemoryStats.class), 1, 1024 * 1024, 1024 * 1024);
+    try {
+      TestableAbstractRegionMap arm = new TestableAbstractRegionMap();
+      RegionEntry winner = createOffHeapKeyEntry(arm);
+      arm.putEntryIfAbsent(KEY, winner);
+      VMThinRegionEntryOffHeapLongStringKey loser = createOffHeapKeyEntry(arm);
+      long usedMemory = ma.getUsedMemory();
+
+      assertThat(arm.putEntryIfAbsent(KEY, loser)).isSameAs(winner);
+      assertThat(loser.getKeyAddress()).isZero();
+      assertThat(ma.getUsedMemory()).isLessThan(usedMemory);
+    } finally {
+      MemoryAllocatorImpl.freeOffHeapMemory();
+    }
+  }
+
+  @Test
+  public void putEntryIfAbsentRestoresOffHeapKeyOfEntryPutAgain() {
+    MemoryAllocatorImpl.create(mock(OutOfOffHeapMemoryListener.class),
+        mock(OffHeapMemoryStats.class), 1, 1024 * 1024, 1024 * 1024);
+    try {
+      TestableAbstractRegionMap arm = new TestableAbstractRegionMap();
+      RegionEntry winner = createOffHeapKeyEntry(arm);
+      arm.putEntryIfAbsent(KEY, winner);
+      VMThinRegionEntryOffHeapLongStringKey loser = createOffHeapKeyEntry(arm);
+      arm.putEntryIfAbsent(KEY, loser);
+      arm.getEntryMap().remove(KEY, winner);
+
+      assertThat(arm.putEntryIfAbsent(KEY, loser)).isNull();
+      assertThat(loser.getKeyAddress()).isNotZero();
+      assertThat(loser.getKey()).isEqualTo(KEY);
+    } finally {
+      MemoryAllocatorImpl.freeOffHeapMemory();
+    }
+  }
+
   @Test
   public void invalidateOfNonExistentRegionThrowsEntryNotFound() {
     TestableAbstractRegionMap arm = new TestableAbstractRegionMap();
@@ -906,6 +951,12 @@ public class AbstractRegionMapTest {
     verify(arm._getOwner(), never()).updateSizeOnCreate(any(), anyInt());
   }
 
+  private VMThinRegionEntryOffHeapLongStringKey createOffHeapKeyEntry(
+      TestableAbstractRegionMap arm) {
+    return new VMThinRegionEntryOffHeapLongStringKey(arm._getOwner(),
+        OffHeapRegionKeyHelper.allocateStringKey((String) KEY), Token.REMOVED_PHASE1);
+  }
+
   private EntryEventImpl createEventForInvalidate(LocalRegion lr) {
     when(lr.getKeyInfo(KEY)).thenReturn(new KeyInfo(KEY, null, null));
     return EntryEventImpl.create(lr, Operation.INVALIDATE, KEY, false, null, true, false);
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static java.util.Collections.singleton;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.DataPolicy;
+import org.apache.geode.cache.EntryNotFoundException;
+import org.apache.geode.cache.client.ServerOperationException;
+import org.apache.geode.cache.client.internal.PoolImpl;
+import org.apache.geode.cache.client.internal.ServerRegionProxy;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, ClientServerTest.class})
+public class AsyncRegionImplTest {
+
+  private LocalRegion region;
+  private ServerRegionProxy proxy;
+  private AsyncRegionImpl<String, String> asyncRegion;
+
+  @Before
+  public void setUp() {
+    region = mock(LocalRegion.class);
+    proxy = mock(ServerRegionProxy.class);
+    when(proxy.getPool()).thenReturn(mock(PoolImpl.class));
+    when(region.getCachePerfStats()).thenReturn(mock(CachePerfStats.class));
+    asyncRegion = new AsyncRegionImpl<>(region);
+  }
+
+  @Test
+  public void getOfRegionWithoutServerIsDoneByRegion() throws Exception {
+    when(region.get("key")).thenReturn("value");
+
+    assertThat(asyncRegion.getAsync("key").get(1, TimeUnit.MINUTES)).isEqualTo("value");
+    verify(region).get("key");
+  }
+
+  @Test
+  public void getOfEmptyClientRegionIsSentToServer() throws Exception {
+    givenEmptyClientRegion();
+    when(proxy.getAsync(eq("key"), isNull(), any()))
+        .thenReturn(CompletableFuture.completedFuture("value"));
+
+    assertThat(asyncRegion.getAsync("key").get(1, TimeUnit.MINUTES)).isEqualTo("value");
+    verify(region, never()).get(any());
+  }
+
+  @Test
+  public void failedGetOfEmptyClientRegionEndsGetStat() throws Exception {
+    givenEmptyClientRegion();
+    CachePerfStats stats = region.getCachePerfStats();
+    when(stats.startGet()).thenReturn(7L);
+    CompletableFuture<Object> sent = new CompletableFuture<>();
+    sent.completeExceptionally(new ServerOperationException("failed"));
+    when(proxy.getAsync(eq("key"), isNull(), any())).thenReturn(sent);
+
+    assertThatThrownBy(() -> asyncRegion.getAsync("key").get(1, TimeUnit.MINUTES))
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(ServerOperationException.class);
+    verify(stats).endGet(7L, true);
+  }
+
+  @Test
+  public void getOfInvalidEntryCompletesWithNull() throws Exception {
+    givenEmptyClientRegion();
+    when(proxy.getAsync(eq("key"), isNull(), any()))
+        .thenReturn(CompletableFuture.completedFuture(Token.INVALID));
+
+    assertThat(asyncRegion.getAsync("key").get(1, TimeUnit.MINUTES)).isNull();
+  }
+
+  @Test
+  public void getOfClientRegionWithListenerIsDoneByRegion() throws Exception {
+    givenEmptyClientRegion();
+    when(region.hasListener()).thenReturn(true);
+    when(region.get("key")).thenReturn("value");
+
+    assertThat(asyncRegion.getAsync("key").get(1, TimeUnit.MINUTES)).isEqualTo("value");
+    verify(proxy, never()).getAsync(any(), any(), any());
+  }
+
+  @Test
+  public void putOfEmptyClientRegionReleasesEventOnceSent() throws Exception {
+    givenEmptyClientRegion();
+    EntryEventImpl event = mock(EntryEventImpl.class);
+    when(event.getRawNewValue()).thenReturn("value");
+    when(region.newUpdateEntryEvent("key", "value", null)).thenReturn(event);
+    CompletableFuture<Object> sent = new CompletableFuture<>();
+    when(proxy.putAsync(eq("key"), eq("value"), eq(event), isNull(), any())).thenReturn(sent);
+
+    CompletableFuture<String> future = asyncRegion.putAsync("key", "value");
+    assertThat(future).isNotDone();
+    verify(event, never()).release();
+
+    sent.complete(null);
+    assertThat(future.get(1, TimeUnit.MINUTES)).isNull();
+    verify(event).release();
+  }
+
+  @Test
+  public void removeOfMissingEntryCompletesWithNull() throws Exception {
+    givenEmptyClientRegion();
+    EntryEventImpl event = mock(EntryEventImpl.class);
+    when(region.newDestroyEntryEvent("key", null)).thenReturn(event);
+    CompletableFuture<Object> sent = new CompletableFuture<>();
+    sent.completeExceptionally(new EntryNotFoundException("key"));
+    when(proxy.destroyAsync(eq("key"), eq(event), isNull(), any())).thenReturn(sent);
+
+    assertThat(asyncRegion.removeAsync("key").get(1, TimeUnit.MINUTES)).isNull();
+    verify(event).release();
+  }
+
+  @Test
+  public void removeFailsWithServerException() throws Exception {
+    givenEmptyClientRegion();
+    EntryEventImpl event = mock(EntryEventImpl.class);
+    when(region.newDestroyEntryEvent("key", null)).thenReturn(event);
+    CompletableFuture<Object> sent = new CompletableFuture<>();
+    sent.completeExceptionally(new ServerOperationException("failed"));
+    when(proxy.destroyAsync(eq("key"), eq(event), isNull(), any())).thenReturn(sent);
+
+    assertThatThrownBy(() -> asyncRegion.removeAsync("key").get(1, TimeUnit.MINUTES))
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(ServerOperationException.class);
+  }
+
+  @Test
+  public void failureOfRegionOperationFailsFuture() {
+    when(region.getAll(any())).thenThrow(new IllegalStateException("closed"));
+
+    assertThatThrownBy(() -> asyncRegion.getAllAsync(null))
+        .isInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> asyncRegion.getAllAsync(singleton("key")).get(1, TimeUnit.MINUTES))
+        .isInstanceOf(ExecutionException.class).hasCauseInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void putAllIsDoneInChunks() throws Exception {
+    Map<String, String> map = new HashMap<>();
+    for (int i = 0; i < 10; i++) {
+      map.put("key" + i, "value" + i);
+    }
+    Queue<Map<String, String>> chunks = new ConcurrentLinkedQueue<>();
+
+    asyncRegion.putAllAsync(map, 4, chunks::add).get(1, TimeUnit.MINUTES);
+
+    assertThat(chunks).hasSize(3);
+    Map<String, String> put = new HashMap<>();
+    chunks.forEach(put::putAll);
+    assertThat(put).isEqualTo(map);
+    verify(region, times(3)).putAll(any());
+  }
+
+  private void givenEmptyClientRegion() {
+    when(region.getServerProxy()).thenReturn(proxy);
+    when(region.getDataPolicy()).thenReturn(DataPolicy.EMPTY);
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class CompactionThrottleTest {
+
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final CompactionThrottle throttle = new CompactionThrottle(1000);
+
+  @Test
+  public void firstCopyDoesNotWait() {
+    assertThat(throttle.reserve(500, 0)).isZero();
+  }
+
+  @Test
+  public void copiesAheadOfTheBudgetWait() {
+    throttle.reserve(500, 0);
+
+    assertThat(throttle.reserve(500, 0)).isEqualTo(SECOND / 2);
+    assertThat(throttle.reserve(500, 0)).isEqualTo(SECOND);
+  }
+
+  @Test
+  public void elapsedTimePaysForEarlierCopies() {
+    throttle.reserve(1000, 0);
+
+    assertThat(throttle.reserve(1000, SECOND / 4)).isEqualTo(SECOND * 3 / 4);
+    assertThat(throttle.reserve(1000, 3 * SECOND)).isZero();
+  }
+
+  @Test
+  public void idleTimeDoesNotAccumulateBudget() {
+    throttle.reserve(1000, 0);
+    throttle.reserve(1000, 10 * SECOND);
+
+    assertThat(throttle.reserve(1000, 10 * SECOND)).isEqualTo(SECOND);
+  }
+
+  @Test
+  public void rejectsNonPositiveLimit() {
+    assertThatThrownBy(() -> new CompactionThrottle(0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
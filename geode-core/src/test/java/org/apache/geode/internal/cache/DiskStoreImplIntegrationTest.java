@@ -22,12 +22,14 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import org.awaitility.Awaitility;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.contrib.java.lang.system.RestoreSystemProperties;
 import org.junit.experimental.categories.Category;
 import org.junit.rules.TemporaryFolder;
 
@@ -35,6 +37,8 @@ import org.apache.geode.cache.Cache;
 import org.apache.geode.cache.CacheFactory;
 import org.apache.geode.cache.DiskStore;
 import org.apache.geode.cache.DiskStoreFactory;
+import org.apache.geode.cache.EvictionAction;
+import org.apache.geode.cache.EvictionAttributes;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.RegionFactory;
 import org.apache.geode.cache.RegionShortcut;
@@ -52,6 +56,9 @@ public class DiskStoreImplIntegrationTest {
   @Rule
   public TemporaryFolder temporaryDirectory = new TemporaryFolder();
 
+  @Rule
+  public RestoreSystemProperties restoreSystemProperties = new RestoreSystemProperties();
+
   private Cache cache;
   private Region aRegion;
   private DiskStoreStats diskStoreStats;
@@ -104,6 +111,125 @@ public class DiskStoreImplIntegrationTest {
     Awaitility.await().atMost(1, TimeUnit.MINUTES).until(() -> diskStoreStats.getQueueSize() == 0);
   }
 
+  @Test
+  public void faultsInOverflowedValuesFromMappedCrfs() throws Exception {
+    System.setProperty(DiskStoreImpl.MMAP_READS_PROPERTY_NAME, "true");
+    File baseDir = temporaryDirectory.newFolder();
+    createRegionWithSmallOplogs(baseDir, RegionShortcut.LOCAL_PERSISTENT_OVERFLOW);
+    byte[] value = new byte[1024];
+    for (int i = 0; i < 3000; i++) {
+      value[0] = (byte) i;
+      aRegion.put(i, value.clone());
+    }
+
+    for (int i = 0; i < 3000; i++) {
+      assertThat(((byte[]) aRegion.get(i))[0]).isEqualTo((byte) i);
+    }
+    assertThat(diskStoreStats.getOplogMappedReads()).isGreaterThan(0);
+  }
+
+  @Test
+  public void recoversAllEntriesWhenKrfsAreReadAhead() throws Exception {
+    File baseDir = temporaryDirectory.newFolder();
+    createRegionWithSmallOplogs(baseDir, RegionShortcut.LOCAL_PERSISTENT);
+    byte[] value = new byte[1024];
+    for (int i = 0; i < 3000; i++) {
+      value[0] = (byte) i;
+      aRegion.put(i, value.clone());
+    }
+    cache.close();
+
+    System.setProperty(DiskStoreImpl.RECOVERY_THREADS_PROPERTY_NAME, "2");
+    cache = createCache();
+    createRegionWithSmallOplogs(baseDir, RegionShortcut.LOCAL_PERSISTENT);
+
+    assertThat(aRegion.size()).isEqualTo(3000);
+    for (int i = 0; i < 3000; i++) {
+      assertThat(((byte[]) aRegion.get(i))[0]).isEqualTo((byte) i);
+    }
+    assertThat(diskStoreStats.getKrfPrefetches()).isGreaterThan(0);
+    assertThat(diskStoreStats.getPendingOplogRecoveries()).isZero();
+  }
+
+  @Test
+  public void selectsOplogWithMostGarbageForCompaction() throws Exception {
+    File baseDir = temporaryDirectory.newFolder();
+    createCompactableRegionWithSmallOplogs(baseDir);
+    byte[] value = new byte[1024];
+    for (int i = 0; i < 3000; i++) {
+      aRegion.put(i, value);
+    }
+    for (int i = 1000; i < 2000; i++) {
+      aRegion.destroy(i);
+    }
+    DiskStoreImpl diskStore = (DiskStoreImpl) cache.findDiskStore(DISK_STORE_NAME);
+
+    CompactableOplog[] selected = diskStore.getOplogToBeCompacted();
+
+    assertThat(selected).hasSize(1);
+    for (Oplog oplog : diskStore.getAllOplogsForBackup()) {
+      if (oplog.needsCompaction()) {
+        assertThat(selected[0].getGarbageRatio()).isGreaterThanOrEqualTo(oplog.getGarbageRatio());
+      }
+    }
+    assertThat(selected[0].getGarbageRatio()).isGreaterThan(0.5);
+  }
+
+  @Test
+  public void throttlesCompactionToConfiguredBandwidth() throws Exception {
+    System.setProperty(DiskStoreImpl.COMPACTION_MAX_BYTES_PER_SECOND_PROPERTY_NAME,
+        String.valueOf(4 * 1024 * 1024));
+    File baseDir = temporaryDirectory.newFolder();
+    createCompactableRegionWithSmallOplogs(baseDir);
+    byte[] value = new byte[1024];
+    for (int i = 0; i < 3000; i++) {
+      value[0] = (byte) i;
+      aRegion.put(i, value.clone());
+    }
+    for (int i = 0; i < 3000; i += 2) {
+      aRegion.destroy(i);
+    }
+
+    assertThat(cache.findDiskStore(DISK_STORE_NAME).forceCompaction()).isTrue();
+
+    assertThat(diskStoreStats.getCompactionCopiedBytes()).isGreaterThan(0);
+    assertThat(diskStoreStats.getCompactionThrottleTime()).isGreaterThan(0);
+    for (int i = 1; i < 3000; i += 2) {
+      assertThat(((byte[]) aRegion.get(i))[0]).isEqualTo((byte) i);
+    }
+  }
+
+  private void createRegionWithSmallOplogs(File baseDir, RegionShortcut shortcut) {
+    createRegionWithSmallOplogs(baseDir, shortcut, diskStoreFactory -> {
+    });
+  }
+
+  private void createRegionWithSmallOplogs(File baseDir, RegionShortcut shortcut,
+      Consumer<DiskStoreFactory> diskStoreSettings) {
+    DiskStoreFactory diskStoreFactory = cache.createDiskStoreFactory();
+    diskStoreFactory.setDiskDirs(new File[] {baseDir});
+    diskStoreFactory.setMaxOplogSize(1);
+    diskStoreFactory.setAutoCompact(false);
+    diskStoreSettings.accept(diskStoreFactory);
+    DiskStore diskStore = diskStoreFactory.create(DISK_STORE_NAME);
+    diskStoreStats = ((DiskStoreImpl) diskStore).getStats();
+
+    RegionFactory regionFactory = cache.createRegionFactory(shortcut);
+    regionFactory.setDiskStoreName(DISK_STORE_NAME);
+    if (shortcut.isOverflow()) {
+      regionFactory.setEvictionAttributes(
+          EvictionAttributes.createLRUEntryAttributes(1, EvictionAction.OVERFLOW_TO_DISK));
+    }
+    aRegion = regionFactory.create(REGION_NAME);
+  }
+
+  private void createCompactableRegionWithSmallOplogs(File baseDir) {
+    createRegionWithSmallOplogs(baseDir, RegionShortcut.LOCAL_PERSISTENT, diskStoreFactory -> {
+      diskStoreFactory.setAllowForceCompaction(true);
+      diskStoreFactory.setCompactionThreshold(100);
+    });
+  }
+
   private void putEntries(int numToPut) {
     for (int i = 1; i <= numToPut; i++) {
       aRegion.put(i, i);
@@ -14,6 +14,7 @@
  */
 package org.apache.geode.internal.cache;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.any;
@@ -22,7 +23,11 @@ import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.AbstractMap;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -64,4 +69,35 @@ public class LocalDataSetTest {
 
     verify(spy).getHashKey(Operation.CONTAINS_KEY, key, null, callbackArg);
   }
+
+  @Test
+  public void keyHashRangesSplitTheKeysOfABucket() {
+    Set<Map.Entry> entries = new HashSet<>();
+    for (int i = 0; i < 1000; i++) {
+      // keys of one bucket share their hash modulo the number of buckets
+      entries.add(new AbstractMap.SimpleEntry<>(i * 16, "value"));
+    }
+    BucketRegion bucket = mock(BucketRegion.class);
+    when(bucket.entrySet()).thenReturn((Set) entries);
+    PartitionedRegionDataStore dataStore = mock(PartitionedRegionDataStore.class);
+    when(dataStore.getLocalBucketById(0)).thenReturn(bucket);
+    PartitionedRegion pr = mock(PartitionedRegion.class);
+    when(pr.getDataStore()).thenReturn(dataStore);
+
+    Set<Object> allKeys = new HashSet<>();
+    int numKeys = 0;
+    for (int split = 0; split < 4; split++) {
+      LocalDataSet lds = new LocalDataSet(pr, Collections.singleton(0), split, 4);
+      Set<Object> keys = new HashSet<>();
+      lds.localKeys().iterator().forEachRemaining(keys::add);
+
+      assertThat(keys.size()).isGreaterThan(150);
+      assertThat(lds.localKeys().size()).isEqualTo(keys.size());
+      allKeys.addAll(keys);
+      numKeys += keys.size();
+    }
+
+    assertThat(numKeys).isEqualTo(1000);
+    assertThat(allKeys).hasSize(1000);
+  }
 }
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class OplogGroupCommitterTest {
+
+  private final OplogGroupCommitter committer = new OplogGroupCommitter();
+
+  @Test
+  public void leaderCommitsEverythingAppendedBeforeItsFlush() throws Exception {
+    long first = committer.append();
+    long second = committer.append();
+
+    long written = committer.commit(first, committer::getAppended);
+
+    assertThat(written).isEqualTo(2);
+    assertThat(committer.getCommitted()).isEqualTo(second);
+    assertThat(committer.getGroupCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void alreadyCommittedTicketDoesNotFlush() throws Exception {
+    long ticket = committer.append();
+    committer.commit(ticket, committer::getAppended);
+
+    long written = committer.commit(ticket, () -> {
+      throw new AssertionError("should not flush");
+    });
+
+    assertThat(written).isZero();
+    assertThat(committer.getGroupCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void failedFlushLetsNextWriterRetry() throws Exception {
+    long ticket = committer.append();
+
+    assertThatThrownBy(() -> committer.commit(ticket, () -> {
+      throw new IOException("expected");
+    })).isInstanceOf(IOException.class);
+    assertThat(committer.getCommitted()).isZero();
+
+    committer.commit(ticket, committer::getAppended);
+    assertThat(committer.getCommitted()).isEqualTo(ticket);
+  }
+
+  @Test
+  public void concurrentWritersShareFlushes() throws Exception {
+    final int writers = 8;
+    final int writesPerWriter = 200;
+    final Object oplogLock = new Object();
+    final AtomicInteger flushes = new AtomicInteger();
+    final CountDownLatch start = new CountDownLatch(1);
+    OplogGroupCommitter.GroupFlusher flusher = () -> {
+      flushes.incrementAndGet();
+      long covered;
+      synchronized (oplogLock) {
+        covered = committer.getAppended();
+      }
+      Thread.yield();
+      return covered;
+    };
+    ExecutorService executor = Executors.newFixedThreadPool(writers);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < writers; i++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          for (int j = 0; j < writesPerWriter; j++) {
+            long ticket;
+            synchronized (oplogLock) {
+              ticket = committer.append();
+            }
+            committer.commit(ticket, flusher);
+            assertThat(committer.getCommitted()).isGreaterThanOrEqualTo(ticket);
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get(1, TimeUnit.MINUTES);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(committer.getCommitted()).isEqualTo(writers * writesPerWriter);
+    assertThat(committer.getGroupCount()).isLessThanOrEqualTo(flushes.get());
+  }
+}
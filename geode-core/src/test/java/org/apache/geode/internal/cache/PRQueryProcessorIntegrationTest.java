@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.PartitionAttributesFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.Struct;
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.cache.query.internal.CompiledValue;
+import org.apache.geode.cache.query.internal.ExecutionContext;
+import org.apache.geode.cache.query.internal.QueryExecutionContext;
+import org.apache.geode.cache.query.internal.QueryObserverAdapter;
+import org.apache.geode.cache.query.internal.QueryObserverHolder;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+import org.apache.geode.test.junit.categories.OQLQueryTest;
+import org.apache.geode.test.junit.rules.ServerStarterRule;
+
+/**
+ * Verifies that queries on a partitioned region whose buckets are split into key hash ranges
+ * return the same results as queries on whole buckets.
+ */
+@Category({IntegrationTest.class, OQLQueryTest.class})
+public class PRQueryProcessorIntegrationTest {
+
+  private static final int NUM_ENTRIES = 200;
+
+  private static final int NUM_SPLITS = 4;
+
+  @Rule
+  public ServerStarterRule serverStarterRule = new ServerStarterRule().withAutoStart();
+
+  private QueryService queryService;
+
+  private final AtomicInteger splitQueries = new AtomicInteger();
+
+  private final AtomicInteger wholeBucketQueries = new AtomicInteger();
+
+  @Before
+  public void setUp() {
+    PRQueryProcessor.TEST_BUCKET_SPLIT_SIZE = NUM_ENTRIES / NUM_SPLITS / 2;
+    PRQueryProcessor.TEST_BUCKET_SPLIT_THREADS = NUM_SPLITS;
+    PRQueryProcessor.shutdown();
+
+    // a single bucket, so that every entry is in the bucket that is split
+    Region<Integer, Portfolio> region = serverStarterRule.getCache()
+        .<Integer, Portfolio>createRegionFactory(RegionShortcut.PARTITION)
+        .setPartitionAttributes(new PartitionAttributesFactory().setTotalNumBuckets(1).create())
+        .create("portfolios");
+    for (int i = 0; i < NUM_ENTRIES; i++) {
+      region.put(i, new Portfolio(i));
+    }
+    queryService = serverStarterRule.getCache().getQueryService();
+  }
+
+  @After
+  public void tearDown() {
+    QueryObserverHolder.reset();
+    PRQueryProcessor.TEST_BUCKET_SPLIT_SIZE = 0;
+    PRQueryProcessor.TEST_BUCKET_SPLIT_THREADS = 0;
+    PRQueryProcessor.shutdown();
+  }
+
+  private SelectResults execute(String queryString) throws Exception {
+    return (SelectResults) queryService.newQuery(queryString).execute();
+  }
+
+  private void countBucketQueries(boolean applySplits) {
+    QueryObserverHolder.setInstance(new QueryObserverAdapter() {
+      @Override
+      public void beforeQueryEvaluation(CompiledValue expression, ExecutionContext context) {
+        if (context.getBucketList() == null) {
+          return;
+        }
+        if (context.getNumBucketSplits() == 1) {
+          wholeBucketQueries.incrementAndGet();
+        } else {
+          splitQueries.incrementAndGet();
+          if (!applySplits && context.getBucketSplitIndex() == 0) {
+            // make the query of the first range iterate over the whole bucket instead
+            ((QueryExecutionContext) context).setBucketSplit(0, 1);
+          }
+        }
+      }
+    });
+  }
+
+  private static List<Integer> getIds(SelectResults results) {
+    List<Integer> ids = new ArrayList<>();
+    for (Object result : results) {
+      ids.add(((Portfolio) result).getID());
+    }
+    return ids;
+  }
+
+  private static List<Integer> allIds() {
+    return IntStream.range(0, NUM_ENTRIES).boxed().collect(Collectors.toList());
+  }
+
+  @Test
+  public void queryReturnsEveryEntryOfSplitBucketOnce() throws Exception {
+    countBucketQueries(true);
+
+    SelectResults results = execute("SELECT * FROM /portfolios p WHERE p.ID >= 0");
+
+    assertThat(getIds(results)).containsExactlyInAnyOrderElementsOf(allIds());
+    assertThat(splitQueries.get()).isEqualTo(NUM_SPLITS);
+    assertThat(wholeBucketQueries.get()).isEqualTo(0);
+  }
+
+  @Test
+  public void keySetQueryReturnsEveryKeyOfSplitBucketOnce() throws Exception {
+    SelectResults results = execute("SELECT * FROM /portfolios.keySet k");
+
+    assertThat(results.asList()).containsExactlyInAnyOrderElementsOf(allIds());
+  }
+
+  @Test
+  public void orderedResultsOfSplitsAreMerged() throws Exception {
+    SelectResults results = execute("SELECT p.ID FROM /portfolios p ORDER BY p.ID DESC LIMIT 15");
+
+    assertThat(results.asList()).containsExactlyElementsOf(IntStream.range(0, 15)
+        .map(i -> NUM_ENTRIES - 1 - i).boxed().collect(Collectors.toList()));
+  }
+
+  @Test
+  public void limitIsAppliedToResultsOfSplits() throws Exception {
+    SelectResults results = execute("SELECT * FROM /portfolios p LIMIT 25");
+
+    assertThat(results.size()).isEqualTo(25);
+    assertThat(getIds(results)).doesNotHaveDuplicates();
+  }
+
+  @Test
+  public void aggregatesOfSplitsAreMerged() throws Exception {
+    assertThat(execute("SELECT COUNT(*) FROM /portfolios p WHERE p.ID >= 0").asList())
+        .containsExactly(NUM_ENTRIES);
+    assertThat(((Number) execute("SELECT SUM(p.ID) FROM /portfolios p").asList().get(0))
+        .intValue()).isEqualTo(NUM_ENTRIES * (NUM_ENTRIES - 1) / 2);
+    assertThat(((Number) execute("SELECT MAX(p.ID) FROM /portfolios p").asList().get(0))
+        .intValue()).isEqualTo(NUM_ENTRIES - 1);
+
+    SelectResults results =
+        execute("SELECT p.status, COUNT(*) FROM /portfolios p GROUP BY p.status");
+
+    assertThat(results.size()).isEqualTo(2);
+    for (Object result : results) {
+      assertThat(((Number) ((Struct) result).getFieldValues()[1]).intValue())
+          .isEqualTo(NUM_ENTRIES / 2);
+    }
+  }
+
+  @Test
+  public void bucketIsQueriedAgainIfSplitIsNotApplied() throws Exception {
+    countBucketQueries(false);
+
+    SelectResults results = execute("SELECT * FROM /portfolios p WHERE p.ID >= 0");
+
+    assertThat(getIds(results)).containsExactlyInAnyOrderElementsOf(allIds());
+    assertThat(splitQueries.get()).isEqualTo(NUM_SPLITS);
+    assertThat(wholeBucketQueries.get()).isEqualTo(1);
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.EnumListenerEvent;
+import org.apache.geode.internal.cache.EventID;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.util.BlobHelper;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, ClientServerTest.class})
+public class ClientUpdateMessageImplTest {
+
+  @Test
+  public void partsThatDoNotDependOnTheClientAreSerializedOnce() throws Exception {
+    LocalRegion region = mock(LocalRegion.class);
+    when(region.getFullPath()).thenReturn("/region");
+    EventID eventId = new EventID(new byte[] {1, 2, 3}, 4, 5);
+    ClientUpdateMessageImpl update = new ClientUpdateMessageImpl(EnumListenerEvent.AFTER_CREATE,
+        region, 17, new byte[] {1}, (byte) 0x01, "callback",
+        mock(ClientProxyMembershipID.class), eventId);
+
+    Message message = update.getMessage(proxy(), new byte[] {1});
+    assertThat(message.getMessageType()).isEqualTo(MessageType.LOCAL_CREATE);
+    byte[] key = message.getPart(1).getSerializedForm();
+    byte[] callbackArgument = message.getPart(4).getSerializedForm();
+    byte[] eventIdPart = message.getPart(8).getSerializedForm();
+    assertThat(key).isEqualTo(BlobHelper.serializeToBlob(17));
+    assertThat(message.getPart(1).getStringOrObject()).isEqualTo(17);
+    assertThat(message.getPart(4).getObject()).isEqualTo("callback");
+    assertThat(message.getPart(5).isNull()).isTrue();
+    assertThat(eventIdPart).isEqualTo(BlobHelper.serializeToBlob(eventId));
+
+    message = update.getMessage(proxy(), new byte[] {1});
+    assertThat(message.getPart(1).getSerializedForm()).isSameAs(key);
+    assertThat(message.getPart(4).getSerializedForm()).isSameAs(callbackArgument);
+    assertThat(message.getPart(8).getSerializedForm()).isSameAs(eventIdPart);
+  }
+
+  @Test
+  public void partsAreKeptForEachClientVersion() throws Exception {
+    ClientUpdateMessageImpl update = createUpdate();
+
+    Message current = update.getMessage(proxy(Version.CURRENT), new byte[] {1});
+    Message older = update.getMessage(proxy(Version.GEODE_110), new byte[] {1});
+    assertThat(older.getPart(1).getSerializedForm())
+        .isNotSameAs(current.getPart(1).getSerializedForm());
+
+    Message currentAgain = update.getMessage(proxy(Version.CURRENT), new byte[] {1});
+    Message olderAgain = update.getMessage(proxy(Version.GEODE_110), new byte[] {1});
+    assertThat(currentAgain.getPart(1).getSerializedForm())
+        .isSameAs(current.getPart(1).getSerializedForm());
+    assertThat(olderAgain.getPart(1).getSerializedForm())
+        .isSameAs(older.getPart(1).getSerializedForm());
+    assertThat(olderAgain.getPart(8).getSerializedForm())
+        .isSameAs(older.getPart(8).getSerializedForm());
+  }
+
+  @Test
+  public void sizeIncludesSerializedParts() throws Exception {
+    ClientUpdateMessageImpl update = createUpdate();
+    int size = update.getSizeInBytes();
+
+    update.getMessage(proxy(Version.CURRENT), new byte[] {1});
+    int sizeWithParts = update.getSizeInBytes();
+    assertThat(sizeWithParts).isGreaterThan(size);
+
+    update.getMessage(proxy(Version.CURRENT), new byte[] {1});
+    assertThat(update.getSizeInBytes()).isEqualTo(sizeWithParts);
+
+    update.getMessage(proxy(Version.GEODE_110), new byte[] {1});
+    assertThat(update.getSizeInBytes()).isGreaterThan(sizeWithParts);
+  }
+
+  private ClientUpdateMessageImpl createUpdate() {
+    LocalRegion region = mock(LocalRegion.class);
+    when(region.getFullPath()).thenReturn("/region");
+    return new ClientUpdateMessageImpl(EnumListenerEvent.AFTER_CREATE, region, 17,
+        new byte[] {1}, (byte) 0x01, "callback", mock(ClientProxyMembershipID.class),
+        new EventID(new byte[] {1, 2, 3}, 4, 5));
+  }
+
+  private CacheClientProxy proxy() {
+    return proxy(Version.CURRENT);
+  }
+
+  private CacheClientProxy proxy(Version version) {
+    CacheClientProxy proxy = mock(CacheClientProxy.class);
+    when(proxy.getVersion()).thenReturn(version);
+    when(proxy.getProxyID()).thenReturn(mock(ClientProxyMembershipID.class));
+    when(proxy.getRegionsWithEmptyDataPolicy()).thenReturn(Collections.emptyMap());
+    return proxy;
+  }
+}
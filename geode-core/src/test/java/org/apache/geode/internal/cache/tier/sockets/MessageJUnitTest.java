@@ -14,11 +14,16 @@
  */
 package org.apache.geode.internal.cache.tier.sockets;
 
+import static org.awaitility.Awaitility.await;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -30,12 +35,21 @@ import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketTimeoutException;
 import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.tier.MessageType;
 import org.apache.geode.test.junit.categories.ClientServerTest;
 import org.apache.geode.test.junit.categories.UnitTest;
 
@@ -123,6 +137,159 @@ public class MessageJUnitTest {
     verify(mockPart1, times(2)).clear();
   }
 
+  @Test
+  public void offHeapPartIsWrittenToChannelWithoutCopyingIt() throws Exception {
+    int partLen = 4096;
+    ByteBuffer offHeapData = ByteBuffer.allocateDirect(partLen);
+    for (int i = 0; i < partLen; i++) {
+      offHeapData.put((byte) i);
+    }
+    offHeapData.flip();
+    Part mockPart = mock(Part.class);
+    when(mockPart.getLength()).thenReturn(partLen);
+    when(mockPart.getOffHeapByteBuffer()).thenReturn(offHeapData);
+    this.message.setNumberOfParts(1);
+    this.message.setParts(new Part[] {mockPart});
+
+    try (ServerSocketChannel server = ServerSocketChannel.open()) {
+      server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+      try (SocketChannel client = SocketChannel.open(server.getLocalAddress());
+          SocketChannel accepted = server.accept()) {
+        this.message.setComms(mock(ServerConnection.class), accepted.socket(),
+            ByteBuffer.allocateDirect(1000), mock(MessageStats.class));
+        this.message.send(false);
+
+        // 17 byte message header and 5 byte part header
+        ByteBuffer received = ByteBuffer.allocate(17 + 5 + partLen);
+        while (received.hasRemaining()) {
+          client.read(received);
+        }
+        received.flip();
+        assertEquals(5 + partLen, received.getInt(4));
+        assertEquals(partLen, received.getInt(17));
+        for (int i = 0; i < partLen; i++) {
+          assertEquals((byte) i, received.get(17 + 5 + i));
+        }
+      }
+    }
+    verify(mockPart, never()).writeTo(any(ByteBuffer.class));
+  }
+
+  @Test
+  public void messageWithBufferedStartIsReadFromBufferAndChannel() throws Exception {
+    byte[] bytes = new byte[600];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) i;
+    }
+
+    try (ServerSocketChannel server = ServerSocketChannel.open()) {
+      server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+      try (SocketChannel client = SocketChannel.open(server.getLocalAddress());
+          SocketChannel accepted = server.accept()) {
+        Message sent = new Message(2, Version.CURRENT);
+        sent.setComms(client.socket(), ByteBuffer.allocate(1000), mock(MessageStats.class));
+        sent.setNumberOfParts(2);
+        sent.addIntPart(7);
+        sent.addBytesPart(bytes);
+        sent.send(false);
+        sent.clear();
+        sent.setNumberOfParts(1);
+        sent.addIntPart(8);
+        sent.send(false);
+
+        // the header, the int part and the start of the byte array part
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1000);
+        buffer.limit(17 + 9 + 5 + 20);
+        while (buffer.hasRemaining()) {
+          accepted.read(buffer);
+        }
+        buffer.flip();
+        this.message.setComms(mock(ServerConnection.class), accepted.socket(), buffer,
+            mock(MessageStats.class));
+        this.message.setBufferedInput();
+        this.message.receive();
+
+        assertEquals(2, this.message.getNumberOfParts());
+        assertEquals(7, this.message.getPart(0).getInt());
+        assertTrue(Arrays.equals(bytes, this.message.getPart(1).getSerializedForm()));
+
+        this.message.receive();
+        assertEquals(1, this.message.getNumberOfParts());
+        assertEquals(8, this.message.getPart(0).getInt());
+      }
+    }
+  }
+
+  @Test
+  public void serverConnectionOnVirtualThreadWaitsForRequestOutsideBufferMonitor()
+      throws Exception {
+    assumeTrue("needs a JVM with virtual threads", isVirtualThreadSupported());
+    boolean readHeaderOutsideMonitor = Message.readHeaderOutsideMonitor;
+    Message.readHeaderOutsideMonitor = true;
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try (ServerSocket serverSocket = new ServerSocket()) {
+      serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+      try (Socket client = new Socket(serverSocket.getInetAddress(), serverSocket.getLocalPort());
+          Socket accepted = serverSocket.accept()) {
+        ByteBuffer commBuffer = ByteBuffer.allocate(1000);
+        this.message.setComms(mock(ServerConnection.class), accepted, commBuffer,
+            mock(MessageStats.class));
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread reader = newVirtualThread(() -> {
+          try {
+            this.message.receive(mock(ServerConnection.class), 0, null, null);
+          } catch (Throwable t) {
+            failure.set(t);
+          }
+        });
+        reader.start();
+
+        // an idle virtual thread blocked on its socket is unmounted from its carrier
+        await().atMost(30, TimeUnit.SECONDS)
+            .until(() -> reader.getState() == Thread.State.WAITING);
+        Future<?> lockBuffer = executor.submit(() -> {
+          synchronized (commBuffer) {
+            return null;
+          }
+        });
+        lockBuffer.get(30, TimeUnit.SECONDS);
+
+        Message sent = new Message(1, Version.CURRENT);
+        sent.setComms(client, ByteBuffer.allocate(1000), mock(MessageStats.class));
+        sent.setMessageType(MessageType.PING);
+        sent.addIntPart(7);
+        sent.send(false);
+        reader.join(30000);
+
+        assertFalse(reader.isAlive());
+        assertNull(failure.get());
+        assertEquals(MessageType.PING, this.message.getMessageType());
+        assertEquals(7, this.message.getPart(0).getInt());
+      }
+    } finally {
+      executor.shutdownNow();
+      Message.readHeaderOutsideMonitor = readHeaderOutsideMonitor;
+    }
+  }
+
+  private static boolean isVirtualThreadSupported() {
+    try {
+      Thread.class.getMethod("ofVirtual");
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Geode is compiled for Java 8 so virtual threads are created through reflection
+   */
+  private static Thread newVirtualThread(Runnable task) throws Exception {
+    Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+    return (Thread) Class.forName("java.lang.Thread$Builder")
+        .getMethod("unstarted", Runnable.class).invoke(builder, task);
+  }
+
   /**
    * Client subscription threads establish a timeout when reading a message header in order to avoid
    * hanging should the server's machine fail, or should the network path to the server have
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, ClientServerTest.class})
+public class PartPayloadPoolTest {
+
+  private final PartPayloadPool pool = new PartPayloadPool(16, 40);
+
+  @Test
+  public void releasedArraysAreReusedBySize() {
+    byte[] eight = pool.allocate(8);
+    pool.release(eight);
+
+    assertThat(pool.getPooledBytes()).isEqualTo(8);
+    assertThat(pool.allocate(4)).hasSize(4).isNotSameAs(eight);
+    assertThat(pool.allocate(8)).isSameAs(eight);
+    assertThat(pool.getPooledBytes()).isZero();
+    assertThat(pool.allocate(8)).isNotSameAs(eight);
+  }
+
+  @Test
+  public void largeArraysAreNotPooled() {
+    assertThat(pool.isPoolable(16)).isTrue();
+    assertThat(pool.isPoolable(17)).isFalse();
+    assertThat(pool.isPoolable(0)).isFalse();
+
+    pool.release(new byte[17]);
+
+    assertThat(pool.getPooledBytes()).isZero();
+  }
+
+  @Test
+  public void poolKeepsAtMostItsLimit() {
+    for (int i = 0; i < 6; i++) {
+      pool.release(new byte[4]);
+    }
+    assertThat(pool.getPooledBytes()).isEqualTo(16);
+
+    pool.release(new byte[16]);
+    pool.release(new byte[16]);
+
+    assertThat(pool.getPooledBytes()).isEqualTo(32);
+  }
+}
@@ -14,6 +14,7 @@
  */
 package org.apache.geode.internal.cache.tier.sockets;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -24,6 +25,8 @@ import java.nio.ByteBuffer;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.Version;
 import org.apache.geode.test.junit.categories.ClientServerTest;
 import org.apache.geode.test.junit.categories.UnitTest;
 
@@ -40,4 +43,57 @@ public class PartTest {
 
     verify(mockPart, times(1)).writeTo(mockOutputStream, mockByteBuffer);
   }
+
+  @Test
+  public void recyclablePayloadIsReturnedIfNotHandedOut() throws Exception {
+    Part part = new Part();
+    byte[] payload = new byte[] {1, 2, 3, 4};
+    part.initRecyclable(payload, (byte) 0);
+
+    assertThat(part.getInt()).isEqualTo(0x01020304);
+    assertThat(part.takeRecyclablePayload()).isSameAs(payload);
+    part.clear();
+    assertThat(part.takeRecyclablePayload()).isNull();
+  }
+
+  @Test
+  public void recyclablePayloadIsNotReturnedOnceHandedOut() throws Exception {
+    Part part = new Part();
+    byte[] payload = new byte[] {1, 2, 3, 4};
+    part.initRecyclable(payload, (byte) 0);
+
+    assertThat(part.getSerializedForm()).isSameAs(payload);
+    assertThat(part.takeRecyclablePayload()).isNull();
+
+    part.initRecyclable(payload, (byte) 0);
+    assertThat(part.getObject()).isSameAs(payload);
+    assertThat(part.takeRecyclablePayload()).isNull();
+  }
+
+  @Test
+  public void longBytesAreReusedUntilHandedOut() throws Exception {
+    Part part = new Part();
+    part.setLong(1L);
+    byte[] first = (byte[]) part.getObject();
+    part.clear();
+    part.setLong(2L);
+
+    assertThat(part.getLong()).isEqualTo(2L);
+    assertThat(first).isNotSameAs(part.getSerializedForm());
+    assertThat(part.getSerializedForm()).isSameAs(part.getSerializedForm());
+  }
+
+  @Test
+  public void outputStreamIsReusedForTheSameVersion() throws Exception {
+    Part part = new Part();
+    HeapDataOutputStream hdos = part.getReusableOutputStream(1024, null);
+    hdos.writeInt(42);
+    part.setPartState(hdos, true);
+    part.clear();
+
+    HeapDataOutputStream reused = part.getReusableOutputStream(1024, null);
+    assertThat(reused).isSameAs(hdos);
+    assertThat(reused.size()).isZero();
+    assertThat(part.getReusableOutputStream(1024, Version.GFE_81)).isNotSameAs(hdos);
+  }
 }
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.query.QueryException;
+import org.apache.geode.cache.query.internal.types.CollectionTypeImpl;
+import org.apache.geode.cache.query.internal.types.ObjectTypeImpl;
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.CacheServerImpl;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+import org.apache.geode.test.junit.rules.ServerStarterRule;
+
+@Category({IntegrationTest.class, ClientServerTest.class})
+public class ServerQueryCursorIntegrationTest {
+
+  @Rule
+  public ServerStarterRule serverStarterRule = new ServerStarterRule().withAutoStart();
+
+  private CacheClientNotifier ccn;
+
+  private ClientProxyMembershipID client1;
+
+  private ClientProxyMembershipID client2;
+
+  @Before
+  public void setUp() {
+    ccn = ((CacheServerImpl) serverStarterRule.getServer()).getAcceptor()
+        .getCacheClientNotifier();
+    client1 = mock(ClientProxyMembershipID.class);
+    client2 = mock(ClientProxyMembershipID.class);
+  }
+
+  private static ServerQueryCursor newCursor(ClientProxyMembershipID proxyId, String principal,
+      List<?> results, int fetchSize) {
+    return new ServerQueryCursor(proxyId, principal, "SELECT * FROM /region",
+        Collections.singleton("/region"), results.iterator(),
+        new CollectionTypeImpl(List.class, new ObjectTypeImpl(Object.class)), false, fetchSize);
+  }
+
+  private static ServerQueryCursor newCursor(ClientProxyMembershipID proxyId) {
+    return newCursor(proxyId, "user", Arrays.asList(1, 2, 3), 1);
+  }
+
+  @Test
+  public void cursorIsOnlyReturnedToTheClientAndUserThatOpenedIt() throws Exception {
+    ServerQueryCursor cursor = newCursor(client1, "user1", Arrays.asList(1, 2, 3), 1);
+    ccn.addQueryCursor(cursor);
+
+    assertThat(ccn.getQueryCursor(cursor.getId(), client1, "user1")).isSameAs(cursor);
+    assertThat(ccn.getQueryCursor(cursor.getId(), client2, "user1")).isNull();
+    assertThat(ccn.getQueryCursor(cursor.getId(), client1, "user2")).isNull();
+    assertThat(ccn.getQueryCursor(cursor.getId(), client1, null)).isNull();
+  }
+
+  @Test
+  public void cursorIsOnlyRemovedByTheClientAndUserThatOpenedIt() throws Exception {
+    ServerQueryCursor cursor = newCursor(client1, "user1", Arrays.asList(1, 2, 3), 1);
+    ccn.addQueryCursor(cursor);
+
+    assertThat(ccn.removeQueryCursor(cursor.getId(), client2, "user1")).isNull();
+    assertThat(ccn.removeQueryCursor(cursor.getId(), client1, "user2")).isNull();
+    assertThat(ccn.getStats().getQueryCursorCount()).isEqualTo(1);
+
+    assertThat(ccn.removeQueryCursor(cursor.getId(), client1, "user1")).isSameAs(cursor);
+    assertThat(ccn.getQueryCursor(cursor.getId(), client1, "user1")).isNull();
+    assertThat(ccn.getStats().getQueryCursorCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void clientCannotOpenMoreThanMaxCursorsPerClient() throws Exception {
+    for (int i = 0; i < ServerQueryCursor.MAX_CURSORS_PER_CLIENT; i++) {
+      ccn.addQueryCursor(newCursor(client1));
+    }
+
+    ServerQueryCursor cursor = newCursor(client1);
+    assertThatThrownBy(() -> ccn.addQueryCursor(cursor)).isInstanceOf(QueryException.class);
+    assertThat(ccn.getQueryCursor(cursor.getId(), client1, "user")).isNull();
+
+    ccn.addQueryCursor(newCursor(client2));
+    assertThat(ccn.getStats().getQueryCursorCount())
+        .isEqualTo(ServerQueryCursor.MAX_CURSORS_PER_CLIENT + 1);
+  }
+
+  @Test
+  public void clientsCannotOpenMoreThanMaxCursors() throws Exception {
+    ClientProxyMembershipID client = null;
+    for (int i = 0; i < ServerQueryCursor.MAX_CURSORS; i++) {
+      if (i % ServerQueryCursor.MAX_CURSORS_PER_CLIENT == 0) {
+        client = mock(ClientProxyMembershipID.class);
+      }
+      ccn.addQueryCursor(newCursor(client));
+    }
+
+    assertThatThrownBy(() -> ccn.addQueryCursor(newCursor(client1)))
+        .isInstanceOf(QueryException.class);
+    assertThat(ccn.getStats().getQueryCursorCount()).isEqualTo(ServerQueryCursor.MAX_CURSORS);
+  }
+
+  @Test
+  public void cursorsAreRemovedWithTheProxyOfTheirClient() throws Exception {
+    ServerQueryCursor cursor1 = newCursor(client1);
+    ServerQueryCursor cursor2 = newCursor(client2);
+    ccn.addQueryCursor(cursor1);
+    ccn.addQueryCursor(cursor2);
+    CacheClientProxy proxy = mock(CacheClientProxy.class);
+    when(proxy.getProxyID()).thenReturn(client1);
+    when(proxy.getVersion()).thenReturn(Version.CURRENT);
+
+    ccn.removeClientProxy(proxy);
+
+    assertThat(ccn.getQueryCursor(cursor1.getId(), client1, "user")).isNull();
+    assertThat(ccn.getQueryCursor(cursor2.getId(), client2, "user")).isSameAs(cursor2);
+    assertThat(ccn.getStats().getQueryCursorCount()).isEqualTo(1);
+  }
+}
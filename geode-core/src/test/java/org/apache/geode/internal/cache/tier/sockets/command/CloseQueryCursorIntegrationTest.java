@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets.command;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.query.internal.types.CollectionTypeImpl;
+import org.apache.geode.cache.query.internal.types.ObjectTypeImpl;
+import org.apache.geode.internal.cache.CacheServerImpl;
+import org.apache.geode.internal.cache.tier.sockets.AcceptorImpl;
+import org.apache.geode.internal.cache.tier.sockets.CacheClientNotifier;
+import org.apache.geode.internal.cache.tier.sockets.ClientProxyMembershipID;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+import org.apache.geode.internal.cache.tier.sockets.Part;
+import org.apache.geode.internal.cache.tier.sockets.ServerConnection;
+import org.apache.geode.internal.cache.tier.sockets.ServerQueryCursor;
+import org.apache.geode.internal.security.SecurityService;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+import org.apache.geode.test.junit.rules.ServerStarterRule;
+
+@Category({IntegrationTest.class, ClientServerTest.class})
+public class CloseQueryCursorIntegrationTest {
+
+  private static final String USER = "user";
+
+  @Rule
+  public ServerStarterRule serverStarterRule = new ServerStarterRule().withAutoStart();
+
+  private CacheClientNotifier ccn;
+
+  private ClientProxyMembershipID client;
+
+  private ServerConnection serverConnection;
+
+  private Message replyMessage;
+
+  private ServerQueryCursor cursor;
+
+  @Before
+  public void setUp() throws Exception {
+    ccn = ((CacheServerImpl) serverStarterRule.getServer()).getAcceptor()
+        .getCacheClientNotifier();
+    client = mock(ClientProxyMembershipID.class);
+    replyMessage = mock(Message.class);
+
+    AcceptorImpl acceptor = mock(AcceptorImpl.class);
+    when(acceptor.getCacheClientNotifier()).thenReturn(ccn);
+    serverConnection = mock(ServerConnection.class);
+    when(serverConnection.getAcceptor()).thenReturn(acceptor);
+    when(serverConnection.getCache()).thenReturn(serverStarterRule.getCache());
+    when(serverConnection.getProxyID()).thenReturn(client);
+    when(serverConnection.getRequestPrincipalName()).thenReturn(USER);
+    when(serverConnection.getReplyMessage()).thenReturn(replyMessage);
+
+    cursor = new ServerQueryCursor(client, USER, "SELECT * FROM /region",
+        Collections.singleton("/region"), Arrays.asList(1, 2, 3).iterator(),
+        new CollectionTypeImpl(List.class, new ObjectTypeImpl(Object.class)), false, 1);
+    ccn.addQueryCursor(cursor);
+  }
+
+  private void close() throws Exception {
+    Part cursorIdPart = mock(Part.class);
+    when(cursorIdPart.getLong()).thenReturn(cursor.getId());
+    Message message = mock(Message.class);
+    when(message.getPart(0)).thenReturn(cursorIdPart);
+
+    ((CloseQueryCursor) CloseQueryCursor.getCommand()).cmdExecute(message, serverConnection,
+        mock(SecurityService.class), 0);
+  }
+
+  @Test
+  public void closesCursorOfClientAndUser() throws Exception {
+    close();
+
+    assertThat(ccn.getQueryCursor(cursor.getId(), client, USER)).isNull();
+    assertThat(ccn.getStats().getQueryCursorCount()).isEqualTo(0);
+    verify(replyMessage).send(serverConnection);
+  }
+
+  @Test
+  public void ignoresCloseFromAnotherClient() throws Exception {
+    when(serverConnection.getProxyID()).thenReturn(mock(ClientProxyMembershipID.class));
+
+    close();
+
+    assertThat(ccn.getQueryCursor(cursor.getId(), client, USER)).isSameAs(cursor);
+    verify(replyMessage).send(serverConnection);
+  }
+
+  @Test
+  public void ignoresCloseByAnotherUser() throws Exception {
+    when(serverConnection.getRequestPrincipalName()).thenReturn("anotherUser");
+
+    close();
+
+    assertThat(ccn.getQueryCursor(cursor.getId(), client, USER)).isSameAs(cursor);
+    verify(replyMessage).send(serverConnection);
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets.command;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+
+import org.apache.geode.cache.query.QueryException;
+import org.apache.geode.cache.query.internal.types.CollectionTypeImpl;
+import org.apache.geode.cache.query.internal.types.ObjectTypeImpl;
+import org.apache.geode.internal.cache.CacheServerImpl;
+import org.apache.geode.internal.cache.tier.sockets.AcceptorImpl;
+import org.apache.geode.internal.cache.tier.sockets.CacheClientNotifier;
+import org.apache.geode.internal.cache.tier.sockets.ChunkedMessage;
+import org.apache.geode.internal.cache.tier.sockets.ClientProxyMembershipID;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+import org.apache.geode.internal.cache.tier.sockets.Part;
+import org.apache.geode.internal.cache.tier.sockets.ServerConnection;
+import org.apache.geode.internal.cache.tier.sockets.ServerQueryCursor;
+import org.apache.geode.internal.security.SecurityService;
+import org.apache.geode.security.ResourcePermission.Operation;
+import org.apache.geode.security.ResourcePermission.Resource;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+import org.apache.geode.test.junit.rules.ServerStarterRule;
+
+@Category({IntegrationTest.class, ClientServerTest.class})
+public class FetchQueryCursorIntegrationTest {
+
+  private static final String REGION_NAME = "/region";
+
+  private static final String USER = "user";
+
+  @Rule
+  public ServerStarterRule serverStarterRule = new ServerStarterRule().withAutoStart();
+
+  private CacheClientNotifier ccn;
+
+  private ClientProxyMembershipID client;
+
+  private SecurityService securityService;
+
+  private ServerConnection serverConnection;
+
+  private ChunkedMessage queryResponseMessage;
+
+  private ChunkedMessage chunkedResponseMessage;
+
+  @Before
+  public void setUp() throws Exception {
+    ccn = ((CacheServerImpl) serverStarterRule.getServer()).getAcceptor()
+        .getCacheClientNotifier();
+    client = mock(ClientProxyMembershipID.class);
+    securityService = mock(SecurityService.class);
+    queryResponseMessage = mock(ChunkedMessage.class);
+    chunkedResponseMessage = mock(ChunkedMessage.class);
+
+    AcceptorImpl acceptor = mock(AcceptorImpl.class);
+    when(acceptor.getCacheClientNotifier()).thenReturn(ccn);
+    serverConnection = mock(ServerConnection.class);
+    when(serverConnection.getAcceptor()).thenReturn(acceptor);
+    when(serverConnection.getProxyID()).thenReturn(client);
+    when(serverConnection.getRequestPrincipalName()).thenReturn(USER);
+    when(serverConnection.getQueryResponseMessage()).thenReturn(queryResponseMessage);
+    when(serverConnection.getChunkedResponseMessage()).thenReturn(chunkedResponseMessage);
+  }
+
+  private ServerQueryCursor openCursor(List<?> results, int fetchSize) throws Exception {
+    ServerQueryCursor cursor = new ServerQueryCursor(client, USER, "SELECT * FROM " + REGION_NAME,
+        Collections.singleton(REGION_NAME), results.iterator(),
+        new CollectionTypeImpl(List.class, new ObjectTypeImpl(Object.class)), false, fetchSize);
+    ccn.addQueryCursor(cursor);
+    return cursor;
+  }
+
+  private void fetch(ServerQueryCursor cursor) throws Exception {
+    Part cursorIdPart = mock(Part.class);
+    when(cursorIdPart.getLong()).thenReturn(cursor.getId());
+    Message message = mock(Message.class);
+    when(message.getPart(0)).thenReturn(cursorIdPart);
+
+    ((FetchQueryCursor) FetchQueryCursor.getCommand()).cmdExecute(message, serverConnection,
+        securityService, 0);
+  }
+
+  /**
+   * Returns the object parts of the two chunks sent, each chunk after its collection type.
+   */
+  private List<Object> getSentParts() {
+    ArgumentCaptor<Object> parts = ArgumentCaptor.forClass(Object.class);
+    verify(queryResponseMessage, times(4)).addObjPart(parts.capture(), eq(false));
+    return parts.getAllValues();
+  }
+
+  @Test
+  public void sendsNextBatchWithIdOfCursor() throws Exception {
+    ServerQueryCursor cursor = openCursor(Arrays.asList(1, 2, 3, 4, 5), 2);
+
+    fetch(cursor);
+    fetch(cursor);
+
+    List<Object> parts = getSentParts();
+    assertThat((Object[]) parts.get(1)).containsExactly(1, 2);
+    assertThat((Object[]) parts.get(3)).containsExactly(3, 4);
+    verify(queryResponseMessage, times(2)).addLongPart(cursor.getId());
+    verify(queryResponseMessage, times(2)).setLastChunk(true);
+    verify(securityService, times(2)).authorize(Resource.DATA, Operation.READ, REGION_NAME);
+    assertThat(ccn.getQueryCursor(cursor.getId(), client, USER)).isSameAs(cursor);
+  }
+
+  @Test
+  public void sendsLastBatchWithoutIdAndRemovesCursor() throws Exception {
+    ServerQueryCursor cursor = openCursor(Arrays.asList(1, 2, 3), 2);
+
+    fetch(cursor);
+    fetch(cursor);
+
+    List<Object> parts = getSentParts();
+    assertThat((Object[]) parts.get(1)).containsExactly(1, 2);
+    assertThat((Object[]) parts.get(3)).containsExactly(3);
+    verify(queryResponseMessage).addLongPart(cursor.getId());
+    verify(queryResponseMessage).addLongPart(0L);
+    assertThat(ccn.getQueryCursor(cursor.getId(), client, USER)).isNull();
+    assertThat(ccn.getStats().getQueryCursorCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void rejectsFetchFromAnotherClient() throws Exception {
+    ServerQueryCursor cursor = openCursor(Arrays.asList(1, 2, 3), 2);
+    when(serverConnection.getProxyID()).thenReturn(mock(ClientProxyMembershipID.class));
+
+    fetch(cursor);
+
+    assertRejected(cursor);
+  }
+
+  @Test
+  public void rejectsFetchByAnotherUser() throws Exception {
+    ServerQueryCursor cursor = openCursor(Arrays.asList(1, 2, 3), 2);
+    when(serverConnection.getRequestPrincipalName()).thenReturn("anotherUser");
+
+    fetch(cursor);
+
+    assertRejected(cursor);
+  }
+
+  private void assertRejected(ServerQueryCursor cursor) throws Exception {
+    ArgumentCaptor<Object> exception = ArgumentCaptor.forClass(Object.class);
+    verify(chunkedResponseMessage).addObjPart(exception.capture());
+    assertThat(exception.getValue()).isInstanceOf(QueryException.class);
+    verify(queryResponseMessage, never()).addLongPart(anyLong());
+    verify(queryResponseMessage, never()).sendChunk(any(ServerConnection.class));
+    assertThat(ccn.getQueryCursor(cursor.getId(), client, USER)).isSameAs(cursor);
+    assertThat(cursor.next()).isEqualTo(1);
+  }
+}
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class FreeListManagerThreadCacheTest {
+
+  private static final int SLAB_SIZE = 1024;
+  private static final int CACHE_SIZE = 4;
+  private static final int TINY_SIZE = 8;
+
+  private final MemoryAllocatorImpl ma = mock(MemoryAllocatorImpl.class);
+  private final OffHeapMemoryStats stats = mock(OffHeapMemoryStats.class);
+  private FreeListManager freeListManager;
+
+  @Before
+  public void setUp() {
+    when(ma.getStats()).thenReturn(stats);
+    this.freeListManager =
+        new FreeListManager(ma, new Slab[] {new SlabImpl(SLAB_SIZE)}, CACHE_SIZE, 16);
+  }
+
+  @After
+  public void tearDown() {
+    this.freeListManager.freeSlabs();
+  }
+
+  @Test
+  public void freedTinyChunkIsReallocatedFromThreadCache() {
+    OffHeapStoredObject c = this.freeListManager.allocate(TINY_SIZE);
+    OffHeapStoredObject.release(c.getAddress(), this.freeListManager);
+
+    assertThat(this.freeListManager.getFreeTinyMemory()).isEqualTo(c.getSize());
+
+    OffHeapStoredObject c2 = this.freeListManager.allocate(TINY_SIZE);
+
+    assertThat(c2.getAddress()).isEqualTo(c.getAddress());
+    assertThat(this.freeListManager.getFreeTinyMemory()).isZero();
+  }
+
+  @Test
+  public void fullThreadCacheMovesBatchToSharedFreeList() {
+    List<OffHeapStoredObject> chunks = allocateTinyChunks(CACHE_SIZE + 1);
+    int chunkSize = chunks.get(0).getSize();
+
+    for (OffHeapStoredObject c : chunks) {
+      OffHeapStoredObject.release(c.getAddress(), this.freeListManager);
+    }
+
+    verify(stats, times(1)).incFreeListTransfers(1);
+    assertThat(this.freeListManager.getFreeTinyMemory()).isEqualTo(chunks.size() * chunkSize);
+  }
+
+  @Test
+  public void emptyThreadCacheIsRefilledFromSharedFreeList() throws Exception {
+    List<OffHeapStoredObject> chunks = allocateTinyChunks(CACHE_SIZE);
+    Thread freer = new Thread(() -> {
+      for (OffHeapStoredObject c : chunks) {
+        OffHeapStoredObject.release(c.getAddress(), this.freeListManager);
+      }
+      this.freeListManager.drainThreadCaches();
+    });
+    freer.start();
+    freer.join();
+
+    allocateTinyChunks(CACHE_SIZE);
+
+    // two batches of half the cache size each
+    verify(stats, times(2)).incFreeListTransfers(1);
+  }
+
+  @Test
+  public void defragmentationReclaimsChunksCachedByOtherThreads() throws Exception {
+    List<OffHeapStoredObject> chunks = allocateTinyChunks(SLAB_SIZE / computeTinyChunkSize());
+    Thread freer = new Thread(() -> {
+      for (OffHeapStoredObject c : chunks) {
+        OffHeapStoredObject.release(c.getAddress(), this.freeListManager);
+      }
+    });
+    freer.start();
+    freer.join();
+
+    OffHeapStoredObject c =
+        this.freeListManager.allocate(SLAB_SIZE - OffHeapStoredObject.HEADER_SIZE);
+
+    assertThat(c.getSize()).isEqualTo(SLAB_SIZE);
+  }
+
+  @Test
+  public void cacheOfExitedThreadIsDrainedWhenAnotherThreadCreatesItsCache() throws Exception {
+    List<OffHeapStoredObject> chunks = allocateTinyChunks(CACHE_SIZE);
+    Thread freer = new Thread(() -> {
+      for (OffHeapStoredObject c : chunks) {
+        OffHeapStoredObject.release(c.getAddress(), this.freeListManager);
+      }
+    });
+    freer.start();
+    freer.join();
+    assertThat(this.freeListManager.getThreadCacheCount()).isEqualTo(2);
+
+    List<OffHeapStoredObject> reallocated = new ArrayList<>();
+    Thread allocator = new Thread(() -> reallocated.addAll(allocateTinyChunks(CACHE_SIZE)));
+    allocator.start();
+    allocator.join();
+
+    // the chunks the freer left behind were reused instead of new ones carved from the slab
+    assertThat(reallocated).extracting(OffHeapStoredObject::getAddress)
+        .containsExactlyInAnyOrderElementsOf(
+            chunks.stream().map(OffHeapStoredObject::getAddress).collect(Collectors.toList()));
+    assertThat(this.freeListManager.getThreadCacheCount()).isEqualTo(2);
+    assertThat(this.freeListManager.getFreeTinyMemory()).isZero();
+  }
+
+  @Test
+  public void threadCacheDoesNotKeepExitedThreadReachable() throws Exception {
+    Thread freer = new Thread(() -> {
+      OffHeapStoredObject c = this.freeListManager.allocate(TINY_SIZE);
+      OffHeapStoredObject.release(c.getAddress(), this.freeListManager);
+    });
+    freer.start();
+    freer.join();
+    WeakReference<Thread> freerRef = new WeakReference<>(freer);
+    freer = null;
+
+    await().atMost(30, TimeUnit.SECONDS).until(() -> {
+      System.gc();
+      return freerRef.get() == null;
+    });
+    assertThat(this.freeListManager.getThreadCacheCount()).isEqualTo(1);
+  }
+
+  private List<OffHeapStoredObject> allocateTinyChunks(int count) {
+    List<OffHeapStoredObject> result = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      result.add(this.freeListManager.allocate(TINY_SIZE));
+    }
+    return result;
+  }
+
+  private int computeTinyChunkSize() {
+    int size = TINY_SIZE + OffHeapStoredObject.HEADER_SIZE;
+    return ((size + FreeListManager.TINY_MULTIPLE - 1) / FreeListManager.TINY_MULTIPLE)
+        * FreeListManager.TINY_MULTIPLE;
+  }
+}
@@ -103,6 +103,38 @@ public class NullOffHeapMemoryStats implements OffHeapMemoryStats {
     return 0;
   }
 
+  @Override
+  public void incThreadCacheAllocations(long value) {}
+
+  @Override
+  public long getThreadCacheAllocations() {
+    return 0;
+  }
+
+  @Override
+  public void incFreeListTransfers(long value) {}
+
+  @Override
+  public long getFreeListTransfers() {
+    return 0;
+  }
+
+  @Override
+  public void incBackgroundDefragmentations() {}
+
+  @Override
+  public int getBackgroundDefragmentations() {
+    return 0;
+  }
+
+  @Override
+  public void incUnfinishedDefragmentations() {}
+
+  @Override
+  public int getUnfinishedDefragmentations() {
+    return 0;
+  }
+
   @Override
   public Statistics getStats() {
     return null;
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class OffHeapDefragmenterTest {
+
+  private static final int SLAB_SIZE = 64 * 1024;
+  private static final int TINY_SIZE = 8;
+
+  private final MemoryAllocatorImpl ma = mock(MemoryAllocatorImpl.class);
+  private final OffHeapMemoryStats stats = mock(OffHeapMemoryStats.class);
+  private FreeListManager freeListManager;
+
+  @After
+  public void tearDown() {
+    if (this.freeListManager != null) {
+      this.freeListManager.freeSlabs();
+    }
+  }
+
+  @Test
+  public void doesNotDefragmentBelowThreshold() {
+    FreeListManager freeList = mockFreeList(1000, 499);
+    OffHeapDefragmenter defragmenter = new OffHeapDefragmenter(freeList, 50, 10, 1000);
+
+    assertThat(defragmenter.isAboveThreshold()).isFalse();
+    assertThat(defragmenter.defragmentIfNeeded()).isFalse();
+    verify(freeList, never()).defragmentIncrementally(anyLong());
+  }
+
+  @Test
+  public void doesNotDefragmentWithoutFreeChunks() {
+    FreeListManager freeList = mockFreeList(1000, 500);
+    OffHeapDefragmenter defragmenter = new OffHeapDefragmenter(freeList, 50, 10, 1000);
+
+    assertThat(defragmenter.isAboveThreshold()).isTrue();
+    assertThat(defragmenter.defragmentIfNeeded()).isFalse();
+    verify(freeList, never()).defragmentIncrementally(anyLong());
+  }
+
+  @Test
+  public void continuesRightAwayIfDefragmentationRanOutOfTime() {
+    FreeListManager freeList = mockFreeList(1000, 900);
+    when(freeList.hasFreeListChunks()).thenReturn(true);
+    when(freeList.defragmentIncrementally(anyLong())).thenReturn(false, true);
+    OffHeapDefragmenter defragmenter = new OffHeapDefragmenter(freeList, 50, 10, 1000);
+
+    assertThat(defragmenter.defragmentIfNeeded()).isTrue();
+    assertThat(defragmenter.defragmentIfNeeded()).isFalse();
+    verify(freeList, times(2)).defragmentIncrementally(10_000_000L);
+  }
+
+  @Test
+  public void pausesLongerAfterEveryUnfinishedRunUpToTheInterval() {
+    OffHeapDefragmenter defragmenter =
+        new OffHeapDefragmenter(mock(FreeListManager.class), 50, 10, 100);
+
+    assertThat(defragmenter.getPauseAfterUnfinishedRun(0)).isEqualTo(10);
+    assertThat(defragmenter.getPauseAfterUnfinishedRun(10)).isEqualTo(20);
+    assertThat(defragmenter.getPauseAfterUnfinishedRun(80)).isEqualTo(100);
+    assertThat(defragmenter.getPauseAfterUnfinishedRun(100)).isEqualTo(100);
+  }
+
+  @Test
+  public void rejectsInvalidThreshold() {
+    assertThatThrownBy(() -> new OffHeapDefragmenter(mock(FreeListManager.class), 101, 10, 1000))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void incrementalDefragmentationEventuallyCombinesAllFreeChunks() {
+    when(ma.getStats()).thenReturn(stats);
+    this.freeListManager = new FreeListManager(ma, new Slab[] {new SlabImpl(SLAB_SIZE)});
+    List<OffHeapStoredObject> chunks = new ArrayList<>();
+    for (int i = 0; i < 1024; i++) {
+      chunks.add(this.freeListManager.allocate(TINY_SIZE));
+    }
+    for (OffHeapStoredObject c : chunks) {
+      OffHeapStoredObject.release(c.getAddress(), this.freeListManager);
+    }
+    long freeMemory = this.freeListManager.getFreeMemory();
+
+    // a budget of one nanosecond runs out at the first check
+    assertThat(this.freeListManager.defragmentIncrementally(1)).isFalse();
+    assertThat(this.freeListManager.getFreeMemory()).isEqualTo(freeMemory);
+    assertThat(this.freeListManager.hasFreeListChunks()).isTrue();
+
+    int runs = 1;
+    while (!this.freeListManager.defragmentIncrementally(1)) {
+      runs++;
+      assertThat(runs).isLessThan(chunks.size());
+    }
+
+    assertThat(this.freeListManager.hasFreeListChunks()).isFalse();
+    assertThat(this.freeListManager.getFreeMemory()).isEqualTo(freeMemory);
+    OffHeapStoredObject c =
+        this.freeListManager.allocate(SLAB_SIZE - OffHeapStoredObject.HEADER_SIZE);
+    assertThat(c.getSize()).isEqualTo(SLAB_SIZE);
+    verify(stats, times(runs + 1)).incBackgroundDefragmentations();
+    verify(stats, times(runs)).incUnfinishedDefragmentations();
+  }
+
+  @Test
+  public void unfinishedDefragmentationLeavesItsFragmentsToAllocations() {
+    when(ma.getStats()).thenReturn(stats);
+    this.freeListManager = new FreeListManager(ma, new Slab[] {new SlabImpl(SLAB_SIZE)});
+    List<OffHeapStoredObject> chunks = new ArrayList<>();
+    for (int i = 0; i < 1024; i++) {
+      chunks.add(this.freeListManager.allocate(TINY_SIZE));
+    }
+    for (OffHeapStoredObject c : chunks) {
+      OffHeapStoredObject.release(c.getAddress(), this.freeListManager);
+    }
+    long freeMemory = this.freeListManager.getFreeMemory();
+
+    assertThat(this.freeListManager.defragmentIncrementally(1)).isFalse();
+
+    assertThat(this.freeListManager.getFragmentList()).isNotEmpty();
+    assertThat(this.freeListManager.hasFreeListChunks()).isTrue();
+    assertThat(this.freeListManager.getFreeMemory()).isEqualTo(freeMemory);
+    OffHeapStoredObject c = this.freeListManager.allocate(SLAB_SIZE / 2);
+    assertThat(c).isNotNull();
+    verify(stats, times(1)).startDefragmentation();
+  }
+
+  @Test
+  public void allocationDefragmentsTheChunksOfAnUnfinishedDefragmentation() {
+    when(ma.getStats()).thenReturn(stats);
+    this.freeListManager = new FreeListManager(ma, new Slab[] {new SlabImpl(SLAB_SIZE)});
+    List<OffHeapStoredObject> chunks = new ArrayList<>();
+    for (int i = 0; i < 1024; i++) {
+      chunks.add(this.freeListManager.allocate(TINY_SIZE));
+    }
+    for (OffHeapStoredObject c : chunks) {
+      OffHeapStoredObject.release(c.getAddress(), this.freeListManager);
+    }
+    assertThat(this.freeListManager.defragmentIncrementally(1)).isFalse();
+
+    OffHeapStoredObject c =
+        this.freeListManager.allocate(SLAB_SIZE - OffHeapStoredObject.HEADER_SIZE);
+
+    assertThat(c.getSize()).isEqualTo(SLAB_SIZE);
+    assertThat(this.freeListManager.hasFreeListChunks()).isFalse();
+  }
+
+  private FreeListManager mockFreeList(long total, long used) {
+    FreeListManager freeList = mock(FreeListManager.class);
+    when(freeList.getTotalMemory()).thenReturn(total);
+    when(freeList.getUsedMemory()).thenReturn(used);
+    return freeList;
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.RegionEntryContext;
+import org.apache.geode.internal.cache.Token;
+import org.apache.geode.internal.cache.entries.VMThinRegionEntryOffHeapLongStringKey;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class OffHeapRegionKeyHelperTest {
+
+  private static final String ASCII_KEY = "account-0000000000000042";
+  private static final String NON_ASCII_KEY = "k\u00e9y-\u4e2d\u6587-0000000000000042";
+
+  private MemoryAllocator ma;
+
+  @Before
+  public void setUp() {
+    OutOfOffHeapMemoryListener ooohml = mock(OutOfOffHeapMemoryListener.class);
+    OffHeapMemoryStats stats = mock(OffHeapMemoryStats.class);
+
+    ma = MemoryAllocatorImpl.create(ooohml, stats, 1, OffHeapStorage.MIN_SLAB_SIZE,
+        OffHeapStorage.MIN_SLAB_SIZE);
+  }
+
+  @After
+  public void tearDown() {
+    MemoryAllocatorImpl.freeOffHeapMemory();
+  }
+
+  @Test
+  public void byteEncodedKeyIsReadBack() {
+    long addr = OffHeapRegionKeyHelper.allocateStringKey(ASCII_KEY);
+
+    assertThat(OffHeapRegionKeyHelper.readStringKey(addr)).isEqualTo(ASCII_KEY);
+    assertThat(OffHeapStoredObject.getDataSize(addr)).isEqualTo(1 + ASCII_KEY.length());
+
+    OffHeapStoredObject.release(addr);
+  }
+
+  @Test
+  public void charEncodedKeyIsReadBack() {
+    long addr = OffHeapRegionKeyHelper.allocateStringKey(NON_ASCII_KEY);
+
+    assertThat(OffHeapRegionKeyHelper.readStringKey(addr)).isEqualTo(NON_ASCII_KEY);
+    assertThat(OffHeapStoredObject.getDataSize(addr)).isEqualTo(1 + NON_ASCII_KEY.length() * 2);
+
+    OffHeapStoredObject.release(addr);
+  }
+
+  @Test
+  public void keysAreComparedWithoutReadingThemBack() {
+    long ascii = OffHeapRegionKeyHelper.allocateStringKey(ASCII_KEY);
+    long nonAscii = OffHeapRegionKeyHelper.allocateStringKey(NON_ASCII_KEY);
+
+    assertThat(OffHeapRegionKeyHelper.isStringKeyEqual(ascii, ASCII_KEY)).isTrue();
+    assertThat(OffHeapRegionKeyHelper.isStringKeyEqual(ascii, "account-0000000000000043"))
+        .isFalse();
+    assertThat(OffHeapRegionKeyHelper.isStringKeyEqual(ascii, "account-000000000000004"))
+        .isFalse();
+    assertThat(OffHeapRegionKeyHelper.isStringKeyEqual(ascii, NON_ASCII_KEY)).isFalse();
+    assertThat(OffHeapRegionKeyHelper.isStringKeyEqual(nonAscii, NON_ASCII_KEY)).isTrue();
+    assertThat(OffHeapRegionKeyHelper.isStringKeyEqual(nonAscii, ASCII_KEY)).isFalse();
+
+    OffHeapStoredObject.release(ascii);
+    OffHeapStoredObject.release(nonAscii);
+  }
+
+  @Test
+  public void releasedKeyIsRestoredOffHeap() {
+    VMThinRegionEntryOffHeapLongStringKey re = new VMThinRegionEntryOffHeapLongStringKey(
+        mock(RegionEntryContext.class), OffHeapRegionKeyHelper.allocateStringKey(ASCII_KEY),
+        Token.INVALID);
+    OffHeapRegionKeyHelper.releaseKey(re);
+
+    OffHeapRegionKeyHelper.restoreKey(re, ASCII_KEY);
+
+    assertThat(re.getKeyAddress()).isNotZero();
+    assertThat(re.getKey()).isEqualTo(ASCII_KEY);
+
+    long addr = re.getKeyAddress();
+    OffHeapRegionKeyHelper.restoreKey(re, ASCII_KEY);
+
+    assertThat(re.getKeyAddress()).isEqualTo(addr);
+
+    re.release();
+  }
+
+  @Test
+  public void releaseFreesKeyOfEntry() {
+    long usedMemory = ma.getUsedMemory();
+    VMThinRegionEntryOffHeapLongStringKey re = new VMThinRegionEntryOffHeapLongStringKey(
+        mock(RegionEntryContext.class), OffHeapRegionKeyHelper.allocateStringKey(ASCII_KEY),
+        Token.INVALID);
+
+    assertThat(re.getKeyAddress()).isNotZero();
+    assertThat(re.getKey()).isEqualTo(ASCII_KEY);
+    assertThat(re.isKeyEqual(ASCII_KEY)).isTrue();
+    assertThat(re.isKeyEqual(42L)).isFalse();
+    assertThat(ma.getUsedMemory()).isGreaterThan(usedMemory);
+
+    re.release();
+
+    assertThat(re.getKeyAddress()).isZero();
+    assertThat(re.getKey()).isNull();
+    assertThat(re.isKeyEqual(ASCII_KEY)).isFalse();
+    assertThat(ma.getUsedMemory()).isEqualTo(usedMemory);
+
+    re.release();
+
+    assertThat(ma.getUsedMemory()).isEqualTo(usedMemory);
+  }
+}
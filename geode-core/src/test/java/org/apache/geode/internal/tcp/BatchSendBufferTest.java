@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tcp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.CancelCriterion;
+import org.apache.geode.distributed.internal.DMStats;
+import org.apache.geode.test.junit.categories.MembershipTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, MembershipTest.class})
+public class BatchSendBufferTest {
+
+  private static final int BUFFER_SIZE = 1024;
+
+  private final List<Write> writes = new ArrayList<>();
+
+  private final AtomicBoolean writing = new AtomicBoolean();
+
+  private final AtomicReference<Exception> flushFailure = new AtomicReference<>();
+
+  private BatchSendBuffer buffer;
+
+  @After
+  public void tearDown() {
+    if (this.buffer != null) {
+      this.buffer.close();
+    }
+  }
+
+  @Test
+  public void urgentMessageIsWrittenByTheSender() throws Exception {
+    this.buffer = createBuffer(TimeUnit.MINUTES.toNanos(1), this::record);
+
+    this.buffer.send(message(1, 0, 8), true);
+
+    assertThat(getWrites()).hasSize(1);
+    assertThat(getWrites().get(0).thread).isSameAs(Thread.currentThread());
+    assertThat(getWrites().get(0).bytes).isEqualTo(8);
+  }
+
+  @Test
+  public void flusherWritesMessageThatNoReplyWaitsFor() throws Exception {
+    this.buffer = createBuffer(TimeUnit.MILLISECONDS.toNanos(10), this::record);
+
+    this.buffer.send(message(1, 0, 8), false);
+    this.buffer.send(message(1, 1, 8), false);
+
+    await().atMost(30, TimeUnit.SECONDS)
+        .until(() -> getWrites().stream().mapToInt(w -> w.bytes).sum() == 16);
+    assertThat(getWrites())
+        .allMatch(w -> w.thread.getName().startsWith("P2P Batch Flusher for test"));
+  }
+
+  @Test
+  public void flusherReportsFailedWrite() throws Exception {
+    IOException failure = new IOException("broken pipe");
+    this.buffer = createBuffer(TimeUnit.MILLISECONDS.toNanos(1), bb -> {
+      throw failure;
+    });
+
+    this.buffer.send(message(1, 0, 8), false);
+
+    await().atMost(30, TimeUnit.SECONDS).until(() -> this.flushFailure.get() != null);
+    assertThat(this.flushFailure.get()).isSameAs(failure);
+  }
+
+  @Test
+  public void urgentSenderGetsFailureOfTheWrite() throws Exception {
+    IOException failure = new IOException("broken pipe");
+    this.buffer = createBuffer(TimeUnit.MINUTES.toNanos(1), bb -> {
+      throw failure;
+    });
+
+    assertThatThrownBy(() -> this.buffer.send(message(1, 0, 8), true)).isSameAs(failure);
+    assertThat(this.flushFailure.get()).isNull();
+  }
+
+  @Test
+  public void largeMessageIsWrittenAfterTheBatchedMessages() throws Exception {
+    this.buffer = createBuffer(TimeUnit.MINUTES.toNanos(1), this::record);
+
+    this.buffer.send(message(1, 0, 8), false);
+    this.buffer.send(message(1, 1, BUFFER_SIZE), false);
+
+    List<Write> writes = getWrites();
+    assertThat(writes).hasSize(2);
+    assertThat(writes.get(0).bytes).isEqualTo(8);
+    assertThat(writes.get(0).seqs).containsExactly(0);
+    assertThat(writes.get(1).bytes).isEqualTo(BUFFER_SIZE);
+    assertThat(writes.get(1).seqs).containsExactly(1);
+  }
+
+  @Test
+  public void largeMessageDoesNotWaitForMessagesBatchedDuringItsFlush() throws Exception {
+    CountDownLatch firstWriteStarted = new CountDownLatch(1);
+    CountDownLatch firstWriteReleased = new CountDownLatch(1);
+    this.buffer = createBuffer(TimeUnit.MINUTES.toNanos(1), bb -> {
+      firstWriteStarted.countDown();
+      try {
+        firstWriteReleased.await(30, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        throw new IOException(e);
+      }
+      record(bb);
+    });
+    this.buffer.send(message(1, 0, 8), false);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<?> large = executor.submit(() -> {
+        this.buffer.send(message(2, 0, BUFFER_SIZE), false);
+        return null;
+      });
+      assertThat(firstWriteStarted.await(30, TimeUnit.SECONDS)).isTrue();
+      // batched while the sender of the large message is writing
+      for (int i = 1; i <= 10; i++) {
+        this.buffer.send(message(1, i, 8), false);
+      }
+      firstWriteReleased.countDown();
+      large.get(30, TimeUnit.SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    List<Write> writes = getWrites();
+    assertThat(writes).hasSize(2);
+    assertThat(writes.get(0).seqs).containsExactly(0);
+    assertThat(writes.get(1).bytes).isEqualTo(BUFFER_SIZE);
+    assertThat(writes.get(1).senders).containsExactly(2);
+
+    // the messages left behind go out with the next one that a reply waits for
+    this.buffer.send(message(1, 11, 8), true);
+    writes = getWrites();
+    assertThat(writes).hasSize(3);
+    assertThat(writes.get(2).thread).isSameAs(Thread.currentThread());
+    assertThat(writes.get(2).seqs).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11);
+  }
+
+  @Test
+  public void concurrentSendersAreWrittenWholeAndInOrder() throws Exception {
+    this.buffer = createBuffer(TimeUnit.MICROSECONDS.toNanos(50), this::record);
+    final int senders = 8;
+    final int messages = 500;
+    ExecutorService executor = Executors.newFixedThreadPool(senders);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int s = 0; s < senders; s++) {
+        final int sender = s;
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < messages; i++) {
+            // a few large messages and some that a reply waits for
+            int size = i % 50 == 49 ? BUFFER_SIZE : 8 + i % 64;
+            this.buffer.send(message(sender, i, size), i % 7 == 0);
+          }
+          return null;
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get(60, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    await().atMost(30, TimeUnit.SECONDS).until(() -> {
+      synchronized (this.writes) {
+        return this.writes.stream().mapToInt(w -> w.seqs.size()).sum() == senders * messages;
+      }
+    });
+    List<List<Integer>> seqsBySender = new ArrayList<>();
+    for (int s = 0; s < senders; s++) {
+      seqsBySender.add(new ArrayList<>());
+    }
+    for (Write write : getWrites()) {
+      for (int i = 0; i < write.seqs.size(); i++) {
+        seqsBySender.get(write.senders.get(i)).add(write.seqs.get(i));
+      }
+    }
+    for (List<Integer> seqs : seqsBySender) {
+      assertThat(seqs).hasSize(messages);
+      assertThat(seqs).isSorted();
+    }
+  }
+
+  private BatchSendBuffer createBuffer(long windowNanos, BatchSendBuffer.Writer writer) {
+    return new BatchSendBuffer("test", BUFFER_SIZE, windowNanos, false, writer,
+        mock(DMStats.class), mock(CancelCriterion.class), this.flushFailure::set);
+  }
+
+  /**
+   * Returns a message of the given size that starts with its size, its sender and its sequence
+   * number
+   */
+  private static ByteBuffer message(int sender, int seq, int size) {
+    ByteBuffer bb = ByteBuffer.allocate(size);
+    bb.putInt(size).putShort((short) sender).putShort((short) seq);
+    bb.position(0);
+    return bb;
+  }
+
+  private void record(ByteBuffer bb) {
+    assertThat(this.writing.compareAndSet(false, true)).as("concurrent writes").isTrue();
+    try {
+      Write write = new Write(Thread.currentThread(), bb.remaining());
+      while (bb.hasRemaining()) {
+        int start = bb.position();
+        int size = bb.getInt();
+        write.senders.add((int) bb.getShort());
+        write.seqs.add((int) bb.getShort());
+        bb.position(start + size);
+      }
+      synchronized (this.writes) {
+        this.writes.add(write);
+      }
+    } finally {
+      this.writing.set(false);
+    }
+  }
+
+  private List<Write> getWrites() {
+    synchronized (this.writes) {
+      return new ArrayList<>(this.writes);
+    }
+  }
+
+  private static class Write {
+    final Thread thread;
+    final int bytes;
+    final List<Integer> senders = new ArrayList<>();
+    final List<Integer> seqs = new ArrayList<>();
+
+    Write(Thread thread, int bytes) {
+      this.thread = thread;
+      this.bytes = bytes;
+    }
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.util.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class PrimitiveKeyConcurrentHashMapJUnitTest {
+
+  private final PrimitiveKeyConcurrentHashMap<String> map =
+      new PrimitiveKeyConcurrentHashMap<>(Long.class, 16, 0.75f, 4);
+
+  @Test
+  public void putGetAndRemoveLongKeys() {
+    assertThat(map.put(1L, "a")).isNull();
+    assertThat(map.put(Long.MIN_VALUE, "min")).isNull();
+    assertThat(map.putIfAbsent(1L, "b")).isEqualTo("a");
+    assertThat(map.put(1L, "c")).isEqualTo("a");
+
+    assertThat(map.get(1L)).isEqualTo("c");
+    assertThat(map.get(Long.MIN_VALUE)).isEqualTo("min");
+    assertThat(map.get(2L)).isNull();
+    assertThat(map.get(1)).isNull();
+    assertThat(map.get("1")).isNull();
+    assertThat(map.size()).isEqualTo(2);
+
+    assertThat(map.remove(1L, "a")).isFalse();
+    assertThat(map.remove(1L, "c")).isTrue();
+    assertThat(map.remove(1L)).isNull();
+    assertThat(map.containsKey(1L)).isFalse();
+    assertThat(map.size()).isEqualTo(1);
+
+    assertThat(map.putIfAbsent(1L, "d")).isNull();
+    assertThat(map.get(1L)).isEqualTo("d");
+  }
+
+  @Test
+  public void replaceOnlyReplacesExistingValues() {
+    assertThat(map.replace(1L, "a")).isNull();
+    assertThat(map.containsKey(1L)).isFalse();
+
+    map.put(1L, "a");
+    assertThat(map.replace(1L, "b", "c")).isFalse();
+    assertThat(map.replace(1L, "a", "b")).isTrue();
+    assertThat(map.replace(1L, "c")).isEqualTo("b");
+    assertThat(map.get(1L)).isEqualTo("c");
+  }
+
+  @Test
+  public void intKeysAreKeptApartFromLongKeys() {
+    PrimitiveKeyConcurrentHashMap<String> intMap =
+        new PrimitiveKeyConcurrentHashMap<>(Integer.class, 16, 0.75f, 4);
+    intMap.put(-1, "a");
+
+    assertThat(intMap.get(-1)).isEqualTo("a");
+    assertThat(intMap.get(-1L)).isNull();
+    assertThat(intMap.keySet()).containsExactly(-1);
+    assertThatThrownBy(() -> intMap.put(1L, "b")).isInstanceOf(ClassCastException.class);
+    assertThatThrownBy(() -> new PrimitiveKeyConcurrentHashMap<>(String.class, 16, 0.75f, 4))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void growsAndDropsRemovedKeys() {
+    Map<Long, String> expected = new HashMap<>();
+    for (long i = 0; i < 10_000; i++) {
+      map.put(i * 31, "v" + i);
+      expected.put(i * 31, "v" + i);
+      if (i % 3 == 0) {
+        map.remove((i / 2) * 31);
+        expected.remove((i / 2) * 31);
+      }
+    }
+
+    assertThat(map).isEqualTo(expected);
+    assertThat(map.size()).isEqualTo(expected.size());
+    for (Map.Entry<Long, String> e : expected.entrySet()) {
+      assertThat(map.get(e.getKey())).isEqualTo(e.getValue());
+    }
+  }
+
+  @Test
+  public void iteratorsRemoveFromTheMap() {
+    for (long i = 0; i < 100; i++) {
+      map.put(i, "v" + i);
+    }
+
+    int count = 0;
+    Iterator<Map.Entry<Object, String>> it = map.entrySetWithReusableEntries().iterator();
+    while (it.hasNext()) {
+      Map.Entry<Object, String> e = it.next();
+      assertThat(e.getValue()).isEqualTo("v" + e.getKey());
+      if ((Long) e.getKey() % 2 == 0) {
+        it.remove();
+      }
+      count++;
+    }
+
+    assertThat(count).isEqualTo(100);
+    assertThat(map.size()).isEqualTo(50);
+    assertThat(map.keySet()).allMatch(k -> (Long) k % 2 == 1);
+    assertThat(map.values()).hasSize(50).contains("v1").doesNotContain("v0");
+
+    map.clear();
+    assertThat(map).isEmpty();
+    assertThat(map.get(1L)).isNull();
+  }
+
+  @Test
+  public void concurrentWritersAndReadersSeeConsistentMappings() throws Exception {
+    final int threads = 4;
+    final int keysPerThread = 20_000;
+    ExecutorService executor = Executors.newFixedThreadPool(threads * 2);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      Future<?>[] futures = new Future<?>[threads * 2];
+      for (int t = 0; t < threads; t++) {
+        final long base = t * (long) keysPerThread;
+        futures[t] = executor.submit(() -> {
+          start.await();
+          for (long k = base; k < base + keysPerThread; k++) {
+            map.put(k, Long.toString(k));
+            if (k % 4 == 0) {
+              map.remove(k);
+            }
+          }
+          return null;
+        });
+        futures[threads + t] = executor.submit(() -> {
+          start.await();
+          for (int i = 0; i < 3; i++) {
+            for (long k = base; k < base + keysPerThread; k++) {
+              String v = map.get(k);
+              if (v != null) {
+                assertThat(v).isEqualTo(Long.toString(k));
+              }
+            }
+          }
+          return null;
+        });
+      }
+      start.countDown();
+      for (Future<?> f : futures) {
+        f.get(1, TimeUnit.MINUTES);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(map.size()).isEqualTo(threads * keysPerThread * 3 / 4);
+  }
+}